@@ -1,7 +1,9 @@
 package ast;
 
+import bytecode.CodeBuilder;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Assignment class that is a subclass of the Statement class. It executes all
@@ -15,8 +17,11 @@ import environment.Environment;
  * 
  * Usage:
  * Assignment assignment = new Assignment(<Variable Name>, <Expression>);
+ * assignment.resolve(<Scope>);
  * assignment.exec(<Environment>);
+ * int tail = assignment.markTailCalls(<ProcedureDeclaration>);
  * assignment.compile(<Emitter>);
+ * assignment.lower(<CodeBuilder>);
  */
 public class Assignment extends Statement
 {
@@ -26,6 +31,15 @@ public class Assignment extends Statement
     // Expression to be stored in the variable
     private Expression exp;
 
+    // Number of parent environments to walk to reach the variable
+    private int depth;
+
+    // Slot of the variable in its environment
+    private int slot;
+
+    // Procedure that the Assignment is a tail call of (null if it is not a tail call)
+    private ProcedureDeclaration tailCallOf;
+
     /**
      * Creates aa new Assignment with the given variable name and Expression.
      * @param var       String that represents the variable's name
@@ -39,31 +53,72 @@ public class Assignment extends Statement
 
     /**
      * Sets the value of the variable to the Expression by calling the
-     * setVariable() method. If the variable is not found in the given
-     * environment, then it will search in the parent environment. If
-     * the variable is not found in the environment's hierarchy, then
-     * a variable with the stored name and value is declared in the
-     * given environment.
-     * @param env       Environment that the variable will be stored in
-     *                  (if not already in the hierarchy)
-     * @postcondition   The environment or parent environment contains 
-     *                  a variable with the value of the Expression.
+     * setVariable() method with the variable's resolved (depth, slot) pair.
+     * A tail call is made with evalTailCall() instead.
+     * @param env       Environment that the Assignment is executed in
+     * @postcondition   The variable's slot contains the value of the Expression.
      */
     public void exec(Environment env)
     {
-        int val = exp.eval(env);
-        boolean found = env.setVariable(var, val);
-        if (!found)
+        if (tailCallOf == null || !((ProcedureCall) exp).evalTailCall(env, tailCallOf))
+        {
+            env.setVariable(depth, slot, exp.eval(env));
+        }
+    }
+
+    /**
+     * Resolves the Expression and then the name of the assigned variable
+     * to its (depth, slot) pair.
+     * @param scope     Scope that the Assignment is executed in.
+     */
+    public void resolve(Scope scope)
+    {
+        exp.resolve(scope);
+        depth = scope.getDepth(var);
+        slot = scope.getSlot(var);
+    }
+
+    /**
+     * Marks the Assignment as a tail call if it assigns a call of the given procedure
+     * to the procedure's return value (slot 0 of the procedure's own frame).
+     * @param proc      ProcedureDeclaration whose body contains the Assignment
+     * @return          1 if the Assignment is a tail call, 0 otherwise
+     */
+    @Override
+    public int markTailCalls(ProcedureDeclaration proc)
+    {
+        if (depth == 0 && slot == 0 && exp instanceof ProcedureCall
+            && ((ProcedureCall) exp).getID().equals(proc.getID()))
         {
-            env.declareVariable(var, val);
+            tailCallOf = proc;
         }
+        return tailCallOf != null ? 1 : 0;
+    }
+
+    /**
+     * Lowers the Assignment by lowering the Expression and then storing
+     * the value into the variable's resolved slot. A tail call is lowered
+     * as one (see CodeBuilder.emitTailCall()) instead.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        if (tailCallOf != null)
+        {
+            ((ProcedureCall) exp).lowerTailCall(b);
+            return;
+        }
+        exp.lower(b);
+        b.emitStore(depth, slot);
     }
 
     /**
      * Compiles the assignment by first compiling the expression using
      * its compile() method and then emitting "sw $v0 var<varName>"
      * if it is a global variable. If it is a local variable, it retreives
-     * value from the stack instead.
+     * value from the stack instead. If the register allocator placed the
+     * variable in a register, the value is moved into that register.
+     * A tail call is compiled with compileTailCall() instead.
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
      * @postcondition   The translation of the assignment into MIPS Assembly
@@ -71,13 +126,20 @@ public class Assignment extends Statement
      */
     public void compile(Emitter e)
     {
+        if (tailCallOf != null)
+        {
+            ((ProcedureCall) exp).compileTailCall(e, tailCallOf);
+            return;
+        }
         exp.compile(e);
-        if (e.isLocalVariable(var))
+        String reg = e.getRegister(var);
+        if (reg != null)
+        {
+            e.emit("move " + reg + " $v0");
+        }
+        else if (e.isLocalVariable(var))
         {
-            int offset = e.getOffset(var);
-            e.emit("addu $sp $sp " + offset);
-            e.emit("sw $v0 ($sp)");
-            e.emit("subu $sp $sp " + offset);
+            e.emit("sw $v0 " + e.getAddress(var));
         }
         else
         {
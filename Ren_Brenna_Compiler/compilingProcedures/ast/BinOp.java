@@ -1,7 +1,14 @@
 package ast;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import codegen.Emitter;
+import codegen.StrengthReduction;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * BinOp class that is a subclass of the Expression class. It represents
@@ -17,6 +24,7 @@ import environment.Environment;
  * BinOp bExp = new BinOp(<String of the operator>, <Expression 1>, <Expression 2>);
  * int value = bExp.eval(<Environment>);
  * bExp.compile(<Emitter>);
+ * bExp.lower(<CodeBuilder>);
  */
 public class BinOp extends Expression
 {
@@ -29,6 +37,12 @@ public class BinOp extends Expression
     // Second expression of the operation
     private Expression exp2;
 
+    // Number of temporary registers that compile() uses (-1 until it is computed)
+    private int temporaryCount;
+
+    // Whether either expression calls a procedure (null until it is computed)
+    private Boolean call;
+
     /**
      * Creates a BinOp with the given binary operator and two expressions.
      * @param op        String representing the binary operator
@@ -40,6 +54,7 @@ public class BinOp extends Expression
         this.op = op;
         this.exp1 = exp1;
         this.exp2 = exp2;
+        temporaryCount = -1;
     }
 
     /**
@@ -74,13 +89,142 @@ public class BinOp extends Expression
     }
 
     /**
-     * Compiles the BinOp expression by first compiling the first Expression
-     * and pushing the value onto the stack. Then, the second Expression is
-     * compiled, with its value being stored on the $v0 register. The value
-     * of the first Expression is then popped from the stack and stored in the
-     * $t0 register. The method calls the emitter's methods, emitPush and emitPop
-     * to handle these changes. Based on the BinOp's binary operator, the method
-     * then emits the needed MIPS Assembly Code (addu, subu, mul, div, mflo, mfhi).
+     * Resolves the variables in both expressions of the operation. A chain such as
+     * a + b + c + ... nests through the first expression, so its BinOps are found with
+     * a loop and resolved from the innermost one outwards, in the same order that
+     * recursion would use, which lets chains of any length be resolved.
+     * @param scope     Scope that the BinOp is evaluated in.
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        List<BinOp> chain = getChain();
+        chain.get(chain.size() - 1).exp1.resolve(scope);
+        for (int i = chain.size() - 1; i >= 0; i--)
+        {
+            chain.get(i).exp2.resolve(scope);
+        }
+    }
+
+    /**
+     * Lowers the BinOp by lowering both expressions, which leaves their values
+     * on the operand stack, and then emitting the opcode of the binary operator.
+     * Like resolve(), it works through a chain of BinOps nested in the first
+     * expression with a loop, so the instructions are the same as with recursion.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    @Override
+    public void lower(CodeBuilder b)
+    {
+        List<BinOp> chain = getChain();
+        chain.get(chain.size() - 1).exp1.lower(b);
+        for (int i = chain.size() - 1; i >= 0; i--)
+        {
+            chain.get(i).exp2.lower(b);
+            chain.get(i).lowerOperator(b);
+        }
+    }
+
+    /**
+     * Returns this BinOp followed by the BinOps nested in its first expression, down
+     * to the first one whose first expression is not a BinOp.
+     * @return          List of the BinOps from the outermost to the innermost
+     */
+    private List<BinOp> getChain()
+    {
+        List<BinOp> chain = new ArrayList<BinOp>();
+        Expression e = this;
+        while (e instanceof BinOp)
+        {
+            chain.add((BinOp) e);
+            e = ((BinOp) e).exp1;
+        }
+        return chain;
+    }
+
+    /**
+     * Emits the opcode of the binary operator.
+     * @param b         CodeBuilder that the instruction is emitted to.
+     */
+    private void lowerOperator(CodeBuilder b)
+    {
+        if (op.equals("+"))
+        {
+            b.emit(Opcode.ADD);
+        }
+        else if (op.equals("-"))
+        {
+            b.emit(Opcode.SUB);
+        }
+        else if (op.equals("*"))
+        {
+            b.emit(Opcode.MUL);
+        }
+        else if (op.equals("/"))
+        {
+            b.emit(Opcode.DIV);
+        }
+        else
+        {
+            b.emit(Opcode.MOD);
+        }
+    }
+
+    /**
+     * Returns the number of temporary registers that compile() uses, which is
+     * computed once. An operand that compile() handles as a constant needs none.
+     * @return          The number of temporaries the BinOp needs
+     */
+    @Override
+    public int getTemporaryCount()
+    {
+        if (temporaryCount < 0)
+        {
+            if (exp2 instanceof Number)
+            {
+                temporaryCount = exp1.getTemporaryCount();
+            }
+            else if (exp1 instanceof Number && !op.equals("/") && !op.equals("%"))
+            {
+                temporaryCount = exp2.getTemporaryCount();
+            }
+            else
+            {
+                temporaryCount = getTemporaryCount(exp1, exp2);
+            }
+        }
+        return temporaryCount;
+    }
+
+    /**
+     * Returns whether either Expression calls a procedure, which is computed once.
+     * @return          true if the BinOp calls a procedure, false otherwise
+     */
+    @Override
+    public boolean hasCall()
+    {
+        if (call == null)
+        {
+            call = exp1.hasCall() || exp2.hasCall();
+        }
+        return call;
+    }
+
+    /**
+     * Compiles the BinOp expression by compiling both Expressions with
+     * compileOperands(), which keeps the value of the one that is compiled first in
+     * a temporary register (Sethi-Ullman order) and only pushes it onto the stack
+     * when the temporaries run out or the second Expression calls a procedure. Based
+     * on the BinOp's binary operator, the method then emits the needed MIPS Assembly
+     * Code (addu, subu, mul, div, mflo, mfhi).
+     * Instructions are selected for the following shapes of the BinOp instead:
+     * - A Number operand of + or - is added with addiu (or with li and addu if it does
+     *   not fit in 16 bits), and 0 - x becomes a single subu from $zero.
+     * - When the operator is *, /, or % and the second Expression is a Number (or, for
+     *   *, the first one is), the operation is emitted by StrengthReduction, which uses
+     *   shifts, masks, and multiplication by magic numbers instead of mul and div.
+     * - An operand that is a Variable in a register is read from that register instead
+     *   of being copied into $v0.
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
      * @postcondition   The translation of the BinOp into MIPS Assembly
@@ -89,32 +233,118 @@ public class BinOp extends Expression
      */
     public void compile(Emitter e)
     {
-        exp1.compile(e);
-        e.emitPush("$v0");
-        exp2.compile(e);
-        e.emitPop("$t0");
+        boolean additive = op.equals("+") || op.equals("-");
+        if (exp2 instanceof Number)
+        {
+            long value = ((Number) exp2).getValue();
+            if (additive)
+            {
+                compileAddConstant(e, exp1.compileToRegister(e), op.equals("+") ? value : -value);
+            }
+            else
+            {
+                exp1.compile(e);
+                compileConstant(e, (int) value);
+            }
+            return;
+        }
+        if (exp1 instanceof Number)
+        {
+            int value = ((Number) exp1).getValue();
+            if (op.equals("+"))
+            {
+                compileAddConstant(e, exp2.compileToRegister(e), value);
+                return;
+            }
+            if (op.equals("-"))
+            {
+                e.emit("subu $v0 $zero " + exp2.compileToRegister(e));
+                compileAddConstant(e, "$v0", value);
+                return;
+            }
+            if (op.equals("*"))
+            {
+                exp2.compile(e);
+                compileConstant(e, value);
+                return;
+            }
+        }
 
+        String[] regs = compileOperands(e, exp1, exp2);
+        String left = regs[0];
+        String right = regs[1];
         if (op.equals("+"))
         {
-            e.emit("addu $v0 $t0 $v0");
+            e.emit("addu $v0 " + left + " " + right);
         }
         else if (op.equals("-"))
         {
-            e.emit("subu $v0 $t0 $v0");
+            e.emit("subu $v0 " + left + " " + right);
         }
         else if (op.equals("*"))
         {
-            e.emit("mul $v0 $t0 $v0");
+            e.emit("mul $v0 " + left + " " + right);
         }
         else if (op.equals("/"))
         {
-            e.emit("div $t0 $v0");
+            e.emit("div " + left + " " + right);
             e.emit("mflo $v0");
         }
         else
         {
-            e.emit("div $t0 $v0");
+            e.emit("div " + left + " " + right);
             e.emit("mfhi $v0");
         }
     }
+
+    /**
+     * Emits the instructions that add the given constant to the given register and
+     * put the sum in $v0.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @param reg       Register that holds the other operand
+     * @param value     Constant to add (wrapped to 32 bits)
+     * @postcondition   The value of the BinOp resides in $v0.
+     */
+    private static void compileAddConstant(Emitter e, String reg, long value)
+    {
+        int c = (int) value;
+        if (c == 0)
+        {
+            e.emit("move $v0 " + reg);
+        }
+        else if (Emitter.isImmediate(c))
+        {
+            e.emit("addiu $v0 " + reg + " " + c);
+        }
+        else
+        {
+            e.emit("li $t0 " + c);
+            e.emit("addu $v0 " + reg + " $t0");
+        }
+    }
+
+    /**
+     * Compiles the operation of $v0 (the value of the other Expression) and the given
+     * constant, for the *, /, and % operators.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @param value     Value of the constant operand
+     * @postcondition   The value of the BinOp resides in $v0.
+     */
+    private void compileConstant(Emitter e, int value)
+    {
+        if (op.equals("*"))
+        {
+            StrengthReduction.emitMultiply(e, value);
+        }
+        else if (op.equals("/"))
+        {
+            StrengthReduction.emitDivide(e, value);
+        }
+        else
+        {
+            StrengthReduction.emitRemainder(e, value);
+        }
+    }
 }
@@ -2,8 +2,10 @@ package ast;
 
 import java.util.List;
 
+import bytecode.CodeBuilder;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Block class that is a subclass of the Statement class. It represents
@@ -17,7 +19,9 @@ import environment.Environment;
  * Usage:
  * Block b = new Block(<List of Statements>);
  * b.exec(<Environment>);
+ * int tail = b.markTailCalls(<ProcedureDeclaration>);
  * b.compile(<Emitter>);
+ * b.lower(<CodeBuilder>);
  */
 public class Block extends Statement
 {
@@ -47,6 +51,42 @@ public class Block extends Statement
         }
     }
 
+    /**
+     * Resolves the variables in each of the Statements stored in the Block.
+     * @param scope     Scope that the Statements are executed in.
+     */
+    public void resolve(Scope scope)
+    {
+        for (Statement s : stmts)
+        {
+            s.resolve(scope);
+        }
+    }
+
+    /**
+     * Marks the tail calls of the last Statement of the Block, which is the only one
+     * that can be in tail position.
+     * @param proc      ProcedureDeclaration whose body contains the Block
+     * @return          The number of tail calls marked
+     */
+    @Override
+    public int markTailCalls(ProcedureDeclaration proc)
+    {
+        return stmts.isEmpty() ? 0 : stmts.get(stmts.size() - 1).markTailCalls(proc);
+    }
+
+    /**
+     * Lowers the Block by lowering each of the Statements in order.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        for (Statement s : stmts)
+        {
+            s.lower(b);
+        }
+    }
+
     /**
      * Compiles the Block of Statements by calling the compile() method
      * on each of the Statements.
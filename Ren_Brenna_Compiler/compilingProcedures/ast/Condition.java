@@ -1,7 +1,10 @@
 package ast;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Condition class that represents the conditional statement in an IF statement.
@@ -14,6 +17,8 @@ import environment.Environment;
  * 
  * Usage:
  * Condition cond = new Condition(<Expression 1>, <String of the operator>, <Expression 2>)
+ * cond.resolve(<Scope>);
+ * cond.lower(<CodeBuilder>, <label>);
  * boolean value = cond.eval(<Environment>);
  * cond.compile(<Emitter>);
  */
@@ -78,47 +83,219 @@ public class Condition
     }
 
     /**
-     * Compiles the Condition by first compiling the first expression and pushing
-     * its value into the stack. Then, it compiles the second expression with its
-     * value in $v0. It then pops the value of the first expression from the stack
-     * and stores it in $t0. Based on the operator in the Condition, the method
-     * then emits the necessary MIPS Assembly code (bne, bqe, bge, ble, bgt, blt).
-     * If the Condition is true, the program will jump to the given label.
+     * Resolves the variables in both Expressions of the Condition.
+     * @param scope     Scope that the Condition is evaluated in.
+     */
+    public void resolve(Scope scope)
+    {
+        exp1.resolve(scope);
+        exp2.resolve(scope);
+    }
+
+    /**
+     * Lowers the Condition by lowering both Expressions and then emitting the
+     * conditional jump that jumps to the given label if the Condition is false.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     * @param label     Label to jump to if the Condition is false.
+     */
+    public void lower(CodeBuilder b, int label)
+    {
+        exp1.lower(b);
+        exp2.lower(b);
+        if (relop.equals("="))
+        {
+            b.emitJump(Opcode.IF_NE, label);
+        }
+        else if (relop.equals("<>"))
+        {
+            b.emitJump(Opcode.IF_EQ, label);
+        }
+        else if (relop.equals("<"))
+        {
+            b.emitJump(Opcode.IF_GE, label);
+        }
+        else if (relop.equals(">"))
+        {
+            b.emitJump(Opcode.IF_LE, label);
+        }
+        else if (relop.equals("<="))
+        {
+            b.emitJump(Opcode.IF_GT, label);
+        }
+        else
+        {
+            b.emitJump(Opcode.IF_LT, label);
+        }
+    }
+
+    /**
+     * Compiles the Condition by compiling both expressions with
+     * Expression.compileOperands(), which keeps the value of the one that is compiled
+     * first in a temporary register and only pushes it onto the stack when the
+     * temporaries run out or the second expression calls a procedure. Based on the
+     * operator in the Condition, the method then emits the necessary MIPS Assembly
+     * code (bne, bqe, bge, ble, bgt, blt).
+     * If the Condition is false, the program will jump to the given label.
+     * Instructions are selected for the following shapes of the Condition instead:
+     * - A comparison with 0 becomes one branch-on-zero instruction (beqz, bnez, bltz,
+     *   bgez, blez, bgtz) on the other Expression.
+     * - A comparison with another constant that fits in 16 bits uses slti and a
+     *   branch on zero, and = or <> load the constant with li; a comparison with a
+     *   larger constant loads it with li and uses a register-register branch.
+     * - An Expression that is a Variable in a register is compared in its register.
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
-     * @param label     String name of the label to jump to if the Condition is true.
+     * @param label     String name of the label to jump to if the Condition is false.
      * @postcondition   The translation of the assignment into MIPS Assembly
      *                  has been printed to the output file.
      */
     public void compile(Emitter e, String label)
     {
-        exp1.compile(e);
-        e.emitPush("$v0");
-        exp2.compile(e);
-        e.emitPop("$t0");
+        if (exp2 instanceof Number)
+        {
+            compileConstant(e, exp1.compileToRegister(e), relop,
+                ((Number) exp2).getValue(), label);
+            return;
+        }
+        if (exp1 instanceof Number)
+        {
+            compileConstant(e, exp2.compileToRegister(e), getSwapped(relop),
+                ((Number) exp1).getValue(), label);
+            return;
+        }
+
+        String[] regs = Expression.compileOperands(e, exp1, exp2);
+        compileBranch(e, relop, regs[0], regs[1], label);
+    }
+
+    /**
+     * Emits the register-register branch that jumps to the given label if the given
+     * comparison of the two registers is false.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @param relop     Operator of the comparison
+     * @param left      Register that holds the first value
+     * @param right     Register that holds the second value
+     * @param label     String name of the label to jump to if the comparison is false.
+     */
+    private static void compileBranch(Emitter e, String relop, String left, String right,
+        String label)
+    {
+        String operands = " " + left + " " + right + " " + label;
         if (relop.equals("="))
         {
-            e.emit("bne $t0 $v0 " + label);
+            e.emit("bne" + operands);
         }
         else if (relop.equals("<>"))
         {
-            e.emit("beq $t0 $v0 " + label);
+            e.emit("beq" + operands);
         }
         else if (relop.equals("<"))
         {
-            e.emit("bge $t0 $v0 " + label);
+            e.emit("bge" + operands);
         }
         else if (relop.equals(">"))
         {
-            e.emit("ble $t0 $v0 " + label);
+            e.emit("ble" + operands);
         }
         else if (relop.equals("<="))
         {
-            e.emit("bgt $t0 $v0 " + label);
+            e.emit("bgt" + operands);
+        }
+        else
+        {
+            e.emit("blt" + operands);
+        }
+    }
+
+    /**
+     * Emits the branch that jumps to the given label if the comparison of the given
+     * register with the given constant is false.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @param reg       Register that holds the value that is compared
+     * @param relop     Operator of the comparison, with the register on the left
+     * @param value     Constant on the right of the comparison
+     * @param label     String name of the label to jump to if the comparison is false.
+     */
+    private static void compileConstant(Emitter e, String reg, String relop, int value,
+        String label)
+    {
+        if (value == 0)
+        {
+            String zeroBranch;
+            if (relop.equals("="))
+            {
+                zeroBranch = "bnez";
+            }
+            else if (relop.equals("<>"))
+            {
+                zeroBranch = "beqz";
+            }
+            else if (relop.equals("<"))
+            {
+                zeroBranch = "bgez";
+            }
+            else if (relop.equals(">"))
+            {
+                zeroBranch = "blez";
+            }
+            else if (relop.equals("<="))
+            {
+                zeroBranch = "bgtz";
+            }
+            else
+            {
+                zeroBranch = "bltz";
+            }
+            e.emit(zeroBranch + " " + reg + " " + label);
+            return;
+        }
+
+        long bound = relop.equals("<") || relop.equals(">=") ? value : value + 1L;
+        if (relop.equals("=") || relop.equals("<>") || !Emitter.isImmediate(bound))
+        {
+            e.emit("li $t0 " + value);
+            compileBranch(e, relop, reg, "$t0", label);
+            return;
+        }
+
+        // reg < bound is the Condition for < and <=, and its negation for >= and >
+        e.emit("slti $t0 " + reg + " " + bound);
+        if (relop.equals("<") || relop.equals("<="))
+        {
+            e.emit("beqz $t0 " + label);
         }
         else
         {
-            e.emit("blt $t0 $v0 " + label);
+            e.emit("bnez $t0 " + label);
+        }
+    }
+
+    /**
+     * Returns the operator that gives the same comparison when its two operands are
+     * swapped, such as > for <.
+     * @param relop     given operator
+     * @return          the swapped operator
+     */
+    private static String getSwapped(String relop)
+    {
+        if (relop.equals("<"))
+        {
+            return ">";
+        }
+        else if (relop.equals(">"))
+        {
+            return "<";
+        }
+        else if (relop.equals("<="))
+        {
+            return ">=";
+        }
+        else if (relop.equals(">="))
+        {
+            return "<=";
         }
+        return relop;
     }
 }
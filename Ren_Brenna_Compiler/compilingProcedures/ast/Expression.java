@@ -1,12 +1,17 @@
 package ast;
 
+import bytecode.CodeBuilder;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Abstract Expression class that contains abstract methods eval() and compile()
  * that all Expressions need to implement. This class is the superclass
- * of BinOp, Number, and Variable.
+ * of BinOp, Number, and Variable. It also compiles the two operands of a BinOp or
+ * a Condition, holding the first value in one of the Emitter's temporary registers
+ * (in the order given by Sethi-Ullman numbering) and only falling back to the stack
+ * when the temporaries run out or a procedure call could overwrite them.
  * @author  Brenna Ren
  * @version May 16, 2024
  */
@@ -20,6 +25,22 @@ public abstract class Expression
      */
     public abstract int eval(Environment env);
 
+    /**
+     * Resolves every variable name in the Expression to the (depth, slot) pair
+     * that the Expression uses when it is evaluated.
+     * @param scope     Scope that the Expression is evaluated in.
+     * @postcondition   Every variable in the Expression is bound to a slot.
+     */
+    public abstract void resolve(Scope scope);
+
+    /**
+     * Lowers the Expression into the stack-based bytecode run by the VirtualMachine.
+     * The Expression must already be resolved.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     * @postcondition   The bytecode of the Expression has been emitted.
+     */
+    public abstract void lower(CodeBuilder b);
+
     /**
      * Compiles the Expression and emits the necessary MIPS Asssembly code.
      *  @param e        Emitter that will print the emitted statements
@@ -31,4 +52,129 @@ public abstract class Expression
     {
         throw new RuntimeException("Implement me!!!!!");
     }
+
+    /**
+     * Returns the register that already holds the value of the Expression, so that
+     * instructions can read it without compiling the Expression. Only a Variable that
+     * the register allocator placed in a register has one.
+     * @param e         Emitter that the Expression would be compiled with.
+     * @return          Name of the register, or null if the Expression must be compiled
+     */
+    public String getRegister(Emitter e)
+    {
+        return null;
+    }
+
+    /**
+     * Compiles the Expression unless its value is already in a register, and returns
+     * the register that holds its value. The register must only be read.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @return          The register from getRegister(), or $v0 if the Expression
+     *                  was compiled
+     */
+    public String compileToRegister(Emitter e)
+    {
+        String reg = getRegister(e);
+        if (reg != null)
+        {
+            return reg;
+        }
+        compile(e);
+        return "$v0";
+    }
+
+    /**
+     * Returns the number of temporary registers that compiling the Expression uses
+     * (its Sethi-Ullman number, counting $v0 as free). A Number, Variable, or
+     * ProcedureCall uses none.
+     * @return          The number of temporaries the Expression needs
+     */
+    public int getTemporaryCount()
+    {
+        return 0;
+    }
+
+    /**
+     * Returns whether the Expression contains a procedure call, which may overwrite
+     * the temporary registers and any register-resident global.
+     * @return          true if the Expression calls a procedure, false otherwise
+     */
+    public boolean hasCall()
+    {
+        return false;
+    }
+
+    /**
+     * Returns the number of temporary registers that compileOperands() uses for the
+     * given operands. Holding the value of the operand that is compiled first costs one
+     * temporary while the other one is compiled, so the operand that needs more is
+     * compiled first unless a procedure call fixes the order; when the second operand
+     * calls a procedure, the first value is held on the stack instead.
+     * @param left      First operand
+     * @param right     Second operand
+     * @return          The number of temporaries needed
+     */
+    static int getTemporaryCount(Expression left, Expression right)
+    {
+        int l = left.getTemporaryCount();
+        int r = right.getTemporaryCount();
+        if (right.hasCall())
+        {
+            return Math.max(l, r);
+        }
+        if (left.hasCall())
+        {
+            return Math.max(l, r + 1);
+        }
+        return Math.min(Math.max(l, r + 1), Math.max(r, l + 1));
+    }
+
+    /**
+     * Compiles the two given operands and returns the registers that hold their values,
+     * which must be used by the next instruction that is emitted. A Variable in a
+     * register is read from that register. Otherwise the operand that needs more
+     * temporaries is compiled first (the left one if either calls a procedure, to keep
+     * the order of evaluation) and its value is held in a temporary register while the
+     * other one is compiled into $v0. If the second operand calls a procedure or no
+     * temporary is left, the first value is pushed onto the stack and popped into $t0.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @param left      First operand
+     * @param right     Second operand
+     * @return          Array of the registers of the first and second operands
+     */
+    static String[] compileOperands(Emitter e, Expression left, Expression right)
+    {
+        String reg = right.getRegister(e);
+        if (reg != null)
+        {
+            return new String[] {left.compileToRegister(e), reg};
+        }
+
+        String temp = right.hasCall() ? null : e.acquireTemporary();
+        if (temp == null)
+        {
+            left.compile(e);
+            e.emitPush("$v0");
+            right.compile(e);
+            e.emitPop("$t0");
+            return new String[] {"$t0", "$v0"};
+        }
+
+        boolean rightFirst = !left.hasCall()
+            && right.getTemporaryCount() > left.getTemporaryCount();
+        Expression first = rightFirst ? right : left;
+        Expression second = rightFirst ? left : right;
+        String held = first.getRegister(e);
+        if (held == null)
+        {
+            first.compile(e);
+            e.emit("move " + temp + " $v0");
+            held = temp;
+        }
+        second.compile(e);
+        e.releaseTemporary();
+        return rightFirst ? new String[] {"$v0", held} : new String[] {held, "$v0"};
+    }
 }
@@ -1,6 +1,9 @@
 package ast;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * For that is a subclass of the Statement class. It represents a FOR loop
@@ -13,7 +16,9 @@ import environment.Environment;
  * 
  * Usage:
  * For forLoop = new For(<Assignment>, <Range>, <String name of variable>, <Statement>);
+ * forLoop.resolve(<Scope>);
  * forLoop.exec(<Environment>);
+ * forLoop.lower(<CodeBuilder>);
  */
 
 public class For extends Statement
@@ -30,6 +35,12 @@ public class For extends Statement
     // Statement to execute in the FOR loop
     private Statement stmt;
 
+    // Number of parent environments to walk to reach the variable
+    private int depth;
+
+    // Slot of the variable in its environment
+    private int slot;
+
     /**
      * Creates a new For class with the given Assignment, Range, variable name, and statement.
      * @param assignment    Assignment for the variable in the Range
@@ -59,7 +70,45 @@ public class For extends Statement
         while (range.eval(env))
         {
             stmt.exec(env);
-            env.setVariable(variable, env.getVariable(variable) + 1);
+            env.setVariable(depth, slot, env.getVariable(depth, slot) + 1);
         }
     }
+
+    /**
+     * Resolves the variables in the Assignment, the Range, and the Statement,
+     * and resolves the variable that is incremented to its (depth, slot) pair.
+     * @param scope     Scope that the FOR loop is executed in.
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        assignment.resolve(scope);
+        range.resolve(scope);
+        stmt.resolve(scope);
+        depth = scope.getDepth(variable);
+        slot = scope.getSlot(variable);
+    }
+
+    /**
+     * Lowers the FOR loop into the Assignment, a Range check that jumps past the
+     * loop, the Statement, an increment of the variable, and a jump back to the
+     * Range check.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    @Override
+    public void lower(CodeBuilder b)
+    {
+        int loopLabel = b.newLabel();
+        int endLabel = b.newLabel();
+        assignment.lower(b);
+        b.placeLabel(loopLabel);
+        range.lower(b, endLabel);
+        stmt.lower(b);
+        b.emitLoad(depth, slot);
+        b.emitConst(1);
+        b.emit(Opcode.ADD);
+        b.emitStore(depth, slot);
+        b.emitJump(Opcode.JUMP, loopLabel);
+        b.placeLabel(endLabel);
+    }
 }
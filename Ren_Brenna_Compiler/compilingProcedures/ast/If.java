@@ -1,20 +1,26 @@
 package ast;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * If class that is a subclass of the Statement class. It represents an IF statement
  * and contains its respective Condition that must be fulfilled for the first statement
  * to be executed. The second statement (if any) is executed as an ELSE, or when the
- * condition returns false. The compiler does not handle ELSE statements.
+ * condition returns false. The compiled code and the bytecode jump over the ELSE
+ * statement at the end of the first statement.
  * @author  Brenna Ren
  * @version May 16, 2024
  * 
  * Usage:
  * If ifStatement = new If(<Condition>, <Statement 1>, <Statement 2>);
  * ifStatement.exec(<Environment>);
+ * int tail = ifStatement.markTailCalls(<ProcedureDeclaration>);
  * ifStatement.compile(<Emitter>);
+ * ifStatement.lower(<CodeBuilder>);
  */
 public class If extends Statement 
 {
@@ -64,13 +70,69 @@ public class If extends Statement
         }
     }
     
+    /**
+     * Resolves the variables in the Condition and in both Statements (if any).
+     * @param scope     Scope that the If statement is executed in.
+     */
+    public void resolve(Scope scope)
+    {
+        cond.resolve(scope);
+        stmt1.resolve(scope);
+        if (stmt2 != null)
+        {
+            stmt2.resolve(scope);
+        }
+    }
+
+    /**
+     * Marks the tail calls of both Statements, since whichever one runs is the last
+     * thing the If statement does.
+     * @param proc      ProcedureDeclaration whose body contains the If statement
+     * @return          The number of tail calls marked
+     */
+    @Override
+    public int markTailCalls(ProcedureDeclaration proc)
+    {
+        int marked = stmt1.markTailCalls(proc);
+        if (stmt2 != null)
+        {
+            marked += stmt2.markTailCalls(proc);
+        }
+        return marked;
+    }
+
+    /**
+     * Lowers the If statement by lowering the Condition so that it jumps past the
+     * first Statement when it is false. If there is a second Statement, the first
+     * Statement ends with a jump past the second one.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        int elseLabel = b.newLabel();
+        cond.lower(b, elseLabel);
+        stmt1.lower(b);
+        if (stmt2 == null)
+        {
+            b.placeLabel(elseLabel);
+        }
+        else
+        {
+            int endLabel = b.newLabel();
+            b.emitJump(Opcode.JUMP, endLabel);
+            b.placeLabel(elseLabel);
+            stmt2.lower(b);
+            b.placeLabel(endLabel);
+        }
+    }
+
     /**
      * Compiles a If statement by first creating a new Label name using the convention
-     * "endIf" + nextLabelID() (a method in Emitter). The condition is then compiled
-     * using the given Emitter and label name. Since this compile() method does not
-     * handle ELSE statements, only the first statement is compiled as the second
-     * one is assumed to be null. Lastly, the method emits the labelName + ":",
-     * indicating that the condition should jump to after the first statement.
+     * "endif" + nextLabelID() (a method in Emitter). The condition is then compiled
+     * using the given Emitter and label name, so that it jumps past the first statement
+     * when it is false. If there is no ELSE statement, the method then emits the
+     * labelName + ":". Otherwise the first statement is followed by a jump past the
+     * second statement, which is compiled after the labelName + ":".
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
      * @postcondition   The translation of the If statement into MIPS Assembly
@@ -81,6 +143,17 @@ public class If extends Statement
         String labelName = "endif" + e.nextLabelID();
         cond.compile(e, labelName);
         stmt1.compile(e);
-        e.emit(labelName + ":");
+        if (stmt2 == null)
+        {
+            e.emit(labelName + ":");
+        }
+        else
+        {
+            String elseEnd = "endelse" + e.nextLabelID();
+            e.emit("j " + elseEnd);
+            e.emit(labelName + ":");
+            stmt2.compile(e);
+            e.emit(elseEnd + ":");
+        }
     }
 }
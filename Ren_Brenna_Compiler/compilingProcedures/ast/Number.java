@@ -1,7 +1,9 @@
 package ast;
 
+import bytecode.CodeBuilder;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Number class that is a subclass of the Expression class. It represents a number
@@ -14,7 +16,9 @@ import environment.Environment;
  * Usage:
  * Number num = new Number(1);
  * int value = num.eval(<Environment>);
+ * int literal = num.getValue();
  * num.compile(<Emitter>);
+ * num.lower(<CodeBuilder>);
  */
 
 public class Number extends Expression
@@ -31,6 +35,16 @@ public class Number extends Expression
         this.value = value;
     }
 
+    /**
+     * Returns the integer value of the Number, which code generators use to
+     * pick instructions for constant operands.
+     * @return          The integer value of the Number.
+     */
+    public int getValue()
+    {
+        return value;
+    }
+
     /**
      * Returns the integer value of the Number.
      * @param env       Environment that the Expression should be evaluated in.
@@ -42,6 +56,25 @@ public class Number extends Expression
         return value;
     }
 
+    /**
+     * A Number contains no variables, so there is nothing to resolve.
+     * @param scope     Scope that the Number is evaluated in.
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+    }
+
+    /**
+     * Lowers the Number into an instruction that pushes its value.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    @Override
+    public void lower(CodeBuilder b)
+    {
+        b.emitConst(value);
+    }
+
     /**
      * Compiles the Number by emitting the MIPS Assembly statement
      * that loads the stored value into $v0.
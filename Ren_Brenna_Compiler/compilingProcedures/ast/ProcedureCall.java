@@ -2,20 +2,36 @@ package ast;
 
 import java.util.List;
 
+import bytecode.CodeBuilder;
+import bytecode.InliningCostModel;
 import codegen.Emitter;
+import environment.CallCache;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * ProcedureCall class that is a subclass of the Expression class and contains
  * the String name of the procedure and a List of Strings of the arguments. 
- * When the eval() method is called, a new child environment is created and
- * the parameters are created with their respective argument values. Then,
- * the statement in the procedure is executed and a value is returned.
+ * When the eval() method is called, an activation frame under the global environment
+ * is taken from the frame pool and the parameters are set to their respective argument
+ * values.
+ * Then, the statement in the procedure is executed and a value is returned. Calls to
+ * pure procedures are looked up in the procedure's CallCache first. A call that a
+ * procedure makes to itself as the last thing it does is a tail call, which reuses the
+ * procedure's frame instead of making a new one, both in eval() and in the compiled code.
+ * Calls that the InliningCostModel of the global environment accepts are inlined: the
+ * procedure's statement runs directly in a frame that belongs to the call site.
  * 
  * Usage:
  * ProcedureCall pc = new ProcedureCall("foo", <List of Expressions>);
+ * pc.resolve(<Scope>);
  * int val = pc.eval(<Environment>);
+ * boolean made = pc.evalTailCall(<Environment>, <ProcedureDeclaration>);
+ * String name = pc.getID();
+ * pc.lower(<CodeBuilder>);
+ * pc.lowerTailCall(<CodeBuilder>);
  * pc.compile(<Emitter>);
+ * pc.compileTailCall(<Emitter>, <ProcedureDeclaration>);
  * 
  * @author  Brenna Ren
  * @version May 24, 2024
@@ -28,6 +44,31 @@ public class ProcedureCall extends Expression
     // List of Expressions that represent the procedure's arguments
     private List<Expression> args;
 
+    // Global environment that the cached procedure was looked up in
+    private Environment procGlobal;
+
+    // Generation of procGlobal when the procedure was looked up
+    private int procGeneration;
+
+    // Procedure that is called, looked up in procGlobal
+    private ProcedureDeclaration proc;
+
+    // CallCache of the procedure (null if it is not pure or memoization is off)
+    private CallCache cache;
+
+    // Number of arguments that have a matching parameter
+    private int count;
+
+    // Number of slots in a frame of the procedure, including the spare slots that its
+    // tail calls evaluate their arguments into
+    private int frameSlots;
+
+    // Values of the parameters, used to look up the CallCache
+    private int[] values;
+
+    // Frame of the inlined procedure (null if the call is not inlined)
+    private Environment inlineFrame;
+
     /**
      * Creates a ProcedureCall with the given String name of the procedure
      * and a given List of Expressions that represent the procedure's arguments
@@ -41,40 +82,261 @@ public class ProcedureCall extends Expression
     }
 
     /**
-     * Returns the value from the procedure's execution. This method first creates
-     * a child environment from the given environment. It then declares the
-     * parameter variables using the expressions from the arguments. It then executes
-     * the statement in the procedure before finally returning the value of the variable
-     * associated with the procedure's name. If no argument is given, the value 0 is
-     * passed in to the parameters.
+     * Returns the value from the procedure's execution. This method first acquires
+     * an activation frame from the pool of the global environment, sized by the
+     * procedure's resolved frame layout (with a spare slot for each parameter if the
+     * procedure makes tail calls). It then sets the parameter slots using the
+     * expressions from the arguments. It then executes the statement in the procedure
+     * before finally returning the value in slot 0, which holds the variable associated
+     * with the procedure's name, and releasing the frame. If no argument is given, the
+     * parameter is left as 0. If the procedure is pure and memoization is on, the
+     * procedure only runs if its CallCache has no value for the parameters. The
+     * procedure, its CallCache, and the number of arguments are looked up once for
+     * each global environment and then kept at the call site, until the procedures or
+     * the memoization settings of the environment change. Tail calls made by the
+     * procedure (see evalTailCall()) run its statement again in the same frame. An
+     * inlined call (see lookUp()) skips the frame pool and uses the call site's own
+     * frame instead.
      * @param env       Given environment to execute the ProcedureCall in.
      * @return          The value of the variable associated with the procedure's name.
      */
     public int eval(Environment env)
     {
-        Environment child = new Environment(env);
-        List<String> parms = child.getProcedure(id).getParms();
-        for (int i = 0; i < parms.size(); i++)
+        Environment global = env.getGlobalEnvironment();
+        lookUp(global);
+        if (inlineFrame != null)
+        {
+            return evalInlined(env);
+        }
+        Environment child = global.acquireFrame(frameSlots);
+        try
         {
-            if (i < args.size())
+            for (int i = 0; i < count; i++)
             {
-                child.declareVariable(parms.get(i), args.get(i).eval(env));
+                child.setVariable(0, proc.getParmSlot(i), args.get(i).eval(env));
             }
-            else
+            if (cache == null)
             {
-                child.declareVariable(parms.get(i), 0);
+                run(child);
+                return child.getVariable(0, 0);
             }
+
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = child.getVariable(0, proc.getParmSlot(i));
+            }
+            Integer cached = cache.get(values);
+            if (cached != null)
+            {
+                return cached;
+            }
+            int[] key = values.clone();
+            run(child);
+            int result = child.getVariable(0, 0);
+            cache.put(key, result);
+            return result;
+        }
+        finally
+        {
+            global.releaseFrame(child);
+        }
+    }
+
+    /**
+     * Evaluates an inlined call: the call site's frame is cleared, the parameters are set
+     * from the arguments, and the procedure's statement runs in the frame once, since
+     * an inlined procedure makes no tail calls to itself.
+     * @param env       Given environment to execute the ProcedureCall in.
+     * @return          The value of the variable associated with the procedure's name.
+     */
+    private int evalInlined(Environment env)
+    {
+        Environment child = inlineFrame;
+        child.clear(frameSlots);
+        for (int i = 0; i < count; i++)
+        {
+            child.setVariable(0, proc.getParmSlot(i), args.get(i).eval(env));
+        }
+        proc.getStmt().exec(child);
+        return child.getVariable(0, 0);
+    }
+
+    /**
+     * Looks up the procedure, its CallCache, the number of arguments, and the number of
+     * slots in its frames in the given global environment, unless they were already
+     * looked up in it and its generation has not changed since. The call is then inlined
+     * if the environment's InliningCostModel accepts its cost, the procedure is not
+     * recursive, it has no CallCache, and no argument contains a call. The call site then
+     * gets a frame of its own, which no other call can be using: the procedure cannot
+     * reach this call site again without being recursive, and the arguments, which are
+     * evaluated straight into the frame, make no calls.
+     * @param global    Global environment of the call
+     */
+    private void lookUp(Environment global)
+    {
+        if (global != procGlobal || global.getGeneration() != procGeneration)
+        {
+            proc = global.getProcedure(id);
+            cache = proc.isPure() ? global.getCallCache(id) : null;
+            count = Math.min(proc.getParms().size(), args.size());
+            frameSlots = proc.getFrameSize();
+            if (proc.hasTailCalls())
+            {
+                frameSlots += proc.getParms().size();
+            }
+            values = new int[proc.getParms().size()];
+            inlineFrame = null;
+            InliningCostModel model = global.getInlining();
+            if (model != null && cache == null && !proc.isRecursive() && !hasArgumentCall()
+                && model.isInlined(model.getCost(proc.getSize(), count)))
+            {
+                inlineFrame = new Environment(global, frameSlots);
+            }
+            procGlobal = global;
+            procGeneration = global.getGeneration();
+        }
+    }
+
+    /**
+     * Returns whether one of the arguments that has a matching parameter contains a
+     * procedure call.
+     * @return          true if an evaluated argument makes a call, false otherwise
+     */
+    private boolean hasArgumentCall()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (args.get(i).hasCall())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executes the statement of the procedure in the given frame, again each time it
+     * ends with a tail call, so that tail recursion runs in one frame and one Java
+     * stack frame.
+     * @param child     Activation frame of the procedure
+     */
+    private void run(Environment child)
+    {
+        do
+        {
+            proc.getStmt().exec(child);
+        }
+        while (child.takeTailCall());
+    }
+
+    /**
+     * Makes the ProcedureCall as a tail call of the procedure whose frame is the given
+     * environment. The arguments are evaluated first, into the spare slots after the
+     * frame's variables (which eval() acquired for the procedure), so that no array is
+     * allocated. Then every variable of the frame is reset to 0 and the parameters are
+     * set from the spare slots, just like a new frame would be, and the
+     * frame is marked so that the ProcedureCall that is running the procedure runs its
+     * statement again instead of returning. This only happens if the call really calls
+     * the given procedure: if a later declaration replaced it, nothing is evaluated.
+     * @param env       Activation frame of the procedure that makes the call
+     * @param self      ProcedureDeclaration of the procedure that makes the call
+     * @return          true if the tail call was made, false if the ProcedureCall
+     *                  must be evaluated with eval() instead
+     */
+    public boolean evalTailCall(Environment env, ProcedureDeclaration self)
+    {
+        lookUp(env.getGlobalEnvironment());
+        if (proc != self)
+        {
+            return false;
+        }
+        int spare = proc.getFrameSize();
+        for (int i = 0; i < count; i++)
+        {
+            env.setVariable(0, spare + i, args.get(i).eval(env));
+        }
+        env.clear(spare);
+        for (int i = 0; i < count; i++)
+        {
+            env.setVariable(0, proc.getParmSlot(i), env.getVariable(0, spare + i));
+        }
+        env.requestTailCall();
+        return true;
+    }
+
+    /**
+     * Returns the String name of the procedure that is called.
+     * @return          The name of the procedure
+     */
+    public String getID()
+    {
+        return id;
+    }
+
+    /**
+     * Returns true, since the ProcedureCall calls a procedure.
+     * @return          true
+     */
+    @Override
+    public boolean hasCall()
+    {
+        return true;
+    }
+
+    /**
+     * Resolves the variables in each of the arguments.
+     * @param scope     Scope that the ProcedureCall is evaluated in.
+     */
+    public void resolve(Scope scope)
+    {
+        for (Expression arg : args)
+        {
+            arg.resolve(scope);
+        }
+    }
+
+    /**
+     * Lowers the ProcedureCall by lowering the arguments that have a matching
+     * parameter (extra arguments are never evaluated, just like in eval()) and
+     * then emitting a call to the procedure.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        int count = Math.min(b.getParmCount(id), args.size());
+        for (int i = 0; i < count; i++)
+        {
+            args.get(i).lower(b);
         }
-        child.getProcedure(id).getStmt().exec(child);
-        return child.getVariable(id);
+        b.emitCall(id, count);
     }
 
     /**
-     * Compiles the ProcedureCall by first making space in the stack for the
-     * return address of the subroutine and then compiling all of the arguments
-     * and then jump-and-link to the procedure. It then pops all the arguments
-     * from the stack and loads the return address of the procedure from sthe
-     * stack as well.
+     * Lowers the ProcedureCall as a tail call of the procedure being lowered, which
+     * is the one that is called: the arguments are lowered just like in lower(), and
+     * then a tail call is emitted, which stores the result into slot 0.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lowerTailCall(CodeBuilder b)
+    {
+        int count = Math.min(b.getParmCount(id), args.size());
+        for (int i = 0; i < count; i++)
+        {
+            args.get(i).lower(b);
+        }
+        b.emitTailCall(id, count);
+    }
+
+    /**
+     * Compiles the ProcedureCall by first pushing the return address of the
+     * subroutine and then compiling and pushing one argument for each parameter
+     * (a parameter without an argument gets the same value as in eval(); extra
+     * arguments are not evaluated) and then jump-and-link to the procedure. Globals that
+     * are kept in registers and that the procedure may use are stored to memory
+     * before the call and loaded again after it. It then pops all the arguments
+     * from the stack and pops the return address of the procedure as well.
+     * The procedure's return value is in $v0. In the fast calling convention,
+     * see compileFast() instead.
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
      * @postcondition   The translation of the ProcedureCall into MIPS Assembly
@@ -82,23 +344,193 @@ public class ProcedureCall extends Expression
      */
     public void compile(Emitter e)
     {
-        e.emit("subu $sp $sp 4");
-        e.emit("sw $ra ($sp)");
+        if (e.isFastCalls())
+        {
+            compileFast(e);
+            return;
+        }
+        e.emitPush("$ra");
 
-        for (int i = 0; i < args.size(); i++)
+        int count = e.getParmCount(id);
+        for (int i = 0; i < count; i++)
         {
-            args.get(i).compile(e);
+            compileArgument(e, i, e.getArgumentIndex(id, i, args.size()), 0);
             e.emitPush("$v0");
         }
 
+        List<String> shared = e.getSharedGlobals(id);
+        for (String g : shared)
+        {
+            e.emit("sw " + e.getRegister(g) + " var" + g);
+        }
+
         e.emit("jal proc" + id);
 
-        for (int i = 0; i < args.size(); i++)
+        for (String g : shared)
+        {
+            e.emit("lw " + e.getRegister(g) + " var" + g);
+        }
+
+        for (int i = 0; i < count; i++)
         {
             e.emitPop("$t0");
         }
 
-        e.emit("lw $ra ($sp)");
-        e.emit("addu $sp $sp 4");
+        e.emitPop("$ra");
+    }
+
+    /**
+     * Compiles the ProcedureCall with the fast calling convention, in which the
+     * callee saves $ra itself. The arguments after the fourth are pushed in order,
+     * and the first four are put in $a0-$a3. If no argument contains a call, the
+     * first four are evaluated straight into their registers after the others are
+     * pushed. Otherwise a later argument could overwrite the argument registers,
+     * so every argument is pushed in order and the first four are loaded from the
+     * stack right before the call. The pushed arguments are dropped afterwards.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     */
+    private void compileFast(Emitter e)
+    {
+        int count = e.getParmCount(id);
+        boolean nested = false;
+        for (int i = 0; i < count && i < args.size(); i++)
+        {
+            nested |= args.get(i).hasCall();
+        }
+
+        int first = 0;
+        while (!nested && Emitter.getArgumentRegister(first) != null)
+        {
+            first++;
+        }
+        for (int i = first; i < count; i++)
+        {
+            compileArgument(e, i, e.getArgumentIndex(id, i, args.size()), first);
+            e.emitPush("$v0");
+        }
+        int pushed = Math.max(0, count - first);
+        for (int i = 0; i < count && Emitter.getArgumentRegister(i) != null; i++)
+        {
+            String reg = Emitter.getArgumentRegister(i);
+            if (nested)
+            {
+                e.emit("lw " + reg + " " + 4 * (count - 1 - i) + "($sp)");
+            }
+            else if (i < args.size())
+            {
+                e.emit("move " + reg + " " + args.get(i).compileToRegister(e));
+            }
+            else if (e.getArgumentIndex(id, i, args.size()) >= 0)
+            {
+                e.emit("move " + reg + " "
+                    + Emitter.getArgumentRegister(e.getArgumentIndex(id, i, args.size())));
+            }
+            else
+            {
+                e.emit("li " + reg + " 0");
+            }
+        }
+
+        List<String> shared = e.getSharedGlobals(id);
+        for (String g : shared)
+        {
+            e.emit("sw " + e.getRegister(g) + " var" + g);
+        }
+
+        e.emit("jal proc" + id);
+
+        for (String g : shared)
+        {
+            e.emit("lw " + e.getRegister(g) + " var" + g);
+        }
+
+        e.emitDrop(pushed);
+    }
+
+    /**
+     * Compiles the ProcedureCall as a tail call of the given procedure, which is the
+     * procedure being compiled and the one that is called. Instead of a jal, every
+     * argument is compiled and pushed, and then they are popped into the procedure's
+     * own parameters: into $a0-$a3 for the first four in the fast calling convention,
+     * and into the parameters' stack slots otherwise. In the stack-based convention,
+     * the other variables kept in memory that may be read before they are assigned are
+     * set back to 0 (the fast convention does that after the restart label). The code
+     * then jumps back to the procedure's restart label, where its variables are
+     * initialized again as on entry, so the procedure runs again in the same frame.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     * @param self      ProcedureDeclaration of the procedure being compiled
+     */
+    public void compileTailCall(Emitter e, ProcedureDeclaration self)
+    {
+        List<String> parms = self.getParms();
+        int count = parms.size();
+        for (int i = 0; i < count; i++)
+        {
+            compileArgument(e, i, self.getArgumentIndex(i, args.size()), 0);
+            e.emitPush("$v0");
+        }
+        for (int i = count - 1; i >= 0; i--)
+        {
+            String reg = e.isFastCalls() ? Emitter.getArgumentRegister(i) : null;
+            if (reg != null)
+            {
+                e.emitPop(reg);
+            }
+            else if (parms.lastIndexOf(parms.get(i)) == i)
+            {
+                e.emitPop("$t0");
+                e.emit("sw $t0 " + e.getAddress(parms.get(i)));
+            }
+            else
+            {
+                e.emitDrop(1);
+            }
+        }
+        if (!e.isFastCalls())
+        {
+            for (String name : self.getFrameNames())
+            {
+                if (!parms.contains(name) && e.getRegister(name) == null
+                    && e.isLiveAtEntry(name))
+                {
+                    e.emit("sw $zero " + e.getAddress(name));
+                }
+            }
+        }
+        e.emit("j " + self.getRestartLabel());
+    }
+
+    /**
+     * Compiles the argument for the parameter with the given index into $v0. A parameter
+     * without an argument gets the value of the argument that it shares its slot with
+     * (see ProcedureDeclaration.getArgumentIndex()), which is loaded from where it was
+     * pushed, or compiled again if it was not pushed (it has no calls then, so this has
+     * no side effects), or 0 if there is no such argument.
+     * @param e         Emitter that will print the emitted statements
+     * @param i         given index of the parameter
+     * @param source    Index of the argument that the parameter gets, or -1 for none
+     * @param first     Index of the first argument pushed, with the arguments from
+     *                  there to this one pushed in order
+     */
+    private void compileArgument(Emitter e, int i, int source, int first)
+    {
+        if (i < args.size())
+        {
+            args.get(i).compile(e);
+        }
+        else if (source < 0)
+        {
+            e.emit("li $v0 0");
+        }
+        else if (source >= first)
+        {
+            e.emit("lw $v0 " + 4 * (i - 1 - source) + "($sp)");
+        }
+        else
+        {
+            args.get(source).compile(e);
+        }
     }
 }
@@ -2,15 +2,20 @@ package ast;
 
 import java.util.List;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * ProcedureDeclaration class that is a subclass of the Statement class and contains
  * the String name of the procedure, the Statement in its definition, and
  * a List of the String names of the variables in its parameters.
  * There are also getters for the id, the Statement, the List of parameters, 
- * and the List of local variables.
+ * the List of local variables, the frame layout found by resolve(), whether
+ * the procedure is pure (see PurityAnalysis), and its size and whether it is recursive,
+ * which decide whether the interpreter inlines calls to it (see InliningAnalysis).
  * 
  * Usage:
  * ProcedureDeclaration pd = new ProcedureDeclaration("foo", <Statement>, <List of Strings>);
@@ -19,6 +24,21 @@ import environment.Environment;
  * Statement s = pd.getStmt();
  * List<String> p = pd.getParms();
  * List<String> v = pd.getLocalVars();
+ * pd.resolve(<global Scope>);
+ * int size = pd.getFrameSize();
+ * int slot = pd.getParmSlot(0);
+ * int source = pd.getArgumentIndex(2, 1);
+ * String[] names = pd.getFrameNames();
+ * pd.setPure(true);
+ * boolean pure = pd.isPure();
+ * pd.setSize(12);
+ * int instructions = pd.getSize();
+ * pd.setRecursive(false);
+ * boolean recursive = pd.isRecursive();
+ * boolean tail = pd.hasTailCalls();
+ * int tails = pd.getTailCallCount();
+ * String label = pd.getRestartLabel();
+ * pd.lower(<CodeBuilder>);
  * pd.compile(<Emitter>);
  * 
  * @author  Brenna Ren
@@ -38,6 +58,27 @@ public class ProcedureDeclaration extends Statement
     // List of the String names of the variables declared in the procedure
     private List<String> localVars;
 
+    // Number of variable slots in an activation frame of the procedure
+    private int frameSize;
+
+    // Slot of each parameter in an activation frame of the procedure
+    private int[] parmSlots;
+
+    // Name of the variable in each slot of an activation frame of the procedure
+    private String[] frameNames;
+
+    // Whether the procedure's value depends only on its arguments and it has no side effects
+    private boolean pure;
+
+    // Number of calls that the procedure makes to itself in tail position
+    private int tailCalls;
+
+    // Number of instructions that the procedure is lowered to, besides RET and JUMPs
+    private int size;
+
+    // Whether the procedure can call itself, directly or through other procedures
+    private boolean recursive;
+
     /**
      * Creates a new ProcedureDeclaration with the given String name of the procedure,
      * Statement in the procedure's definition, List of the String names of the 
@@ -106,11 +147,204 @@ public class ProcedureDeclaration extends Statement
     }
 
     /**
-     * Compiles the ProcedureDeclaration by first designating memory
-     * in the stack for the return value and the local declared variables
-     * and then compiling the statemenet of the procedure and then
-     * using the jump return command to return to where the procedure
-     * was called. It also sets and clears the procedure context when needed.
+     * Resolves the variables in the procedure's Statement. The procedure gets its
+     * own Scope whose parent is the given global Scope. The procedure's name (which
+     * holds the return value) is declared in slot 0, followed by the parameters and
+     * then the locally declared variables. All other names resolve to the global Scope.
+     * The calls that the procedure makes to itself in tail position are then marked.
+     * @param scope     Global Scope that the procedure is declared in.
+     * @postcondition   The frame size and parameter slots of the procedure are known.
+     */
+    public void resolve(Scope scope)
+    {
+        Scope local = new Scope(scope);
+        local.declare(id);
+        parmSlots = new int[parms.size()];
+        for (int i = 0; i < parms.size(); i++)
+        {
+            parmSlots[i] = local.declare(parms.get(i));
+        }
+        for (String v : localVars)
+        {
+            local.declare(v);
+        }
+        stmt.resolve(local);
+        frameSize = local.size();
+        frameNames = local.getNames();
+        tailCalls = stmt.markTailCalls(this);
+    }
+
+    /**
+     * Returns the number of variable slots in an activation frame of the procedure.
+     * @return  The number of variable slots in an activation frame
+     */
+    public int getFrameSize()
+    {
+        return frameSize;
+    }
+
+    /**
+     * Returns the names of the variables in an activation frame of the procedure,
+     * indexed by slot.
+     * @return  Array whose element at each slot is the name in that slot
+     */
+    public String[] getFrameNames()
+    {
+        return frameNames;
+    }
+
+    /**
+     * Sets whether the procedure is pure, so that calls to it may be served from a cache.
+     * @param pure      true if the procedure is pure, false otherwise
+     */
+    public void setPure(boolean pure)
+    {
+        this.pure = pure;
+    }
+
+    /**
+     * Returns whether the procedure is pure: it does not use global variables, does
+     * not print or read, and only calls pure procedures.
+     * @return          true if the procedure is pure, false otherwise
+     */
+    public boolean isPure()
+    {
+        return pure;
+    }
+
+    /**
+     * Sets the number of instructions that the procedure is lowered to, not counting
+     * RET and JUMPs, which the InliningCostModel weighs against the cost of a call.
+     * @param size      Number of instructions of the procedure
+     */
+    public void setSize(int size)
+    {
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of instructions that the procedure is lowered to, not
+     * counting RET and JUMPs.
+     * @return          Number of instructions of the procedure
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Sets whether the procedure can call itself, so that calls to it are never inlined.
+     * @param recursive true if the procedure is recursive, false otherwise
+     */
+    public void setRecursive(boolean recursive)
+    {
+        this.recursive = recursive;
+    }
+
+    /**
+     * Returns whether the procedure can call itself, directly or through the procedures
+     * it calls.
+     * @return          true if the procedure is recursive, false otherwise
+     */
+    public boolean isRecursive()
+    {
+        return recursive;
+    }
+
+    /**
+     * Returns whether the procedure calls itself in tail position, so that its compiled
+     * code needs the label that its tail calls jump to.
+     * @return          true if the procedure has a tail call, false otherwise
+     */
+    public boolean hasTailCalls()
+    {
+        return tailCalls > 0;
+    }
+
+    /**
+     * Returns the number of calls that the procedure makes to itself in tail position,
+     * which are compiled as jumps instead of calls.
+     * @return          The number of tail calls of the procedure
+     */
+    public int getTailCallCount()
+    {
+        return tailCalls;
+    }
+
+    /**
+     * Returns the label that the tail calls of the procedure jump to, which is placed
+     * right before the variables are initialized, after the frame has been set up.
+     * @return          The label of the procedure's restart point
+     */
+    public String getRestartLabel()
+    {
+        return "tail" + id;
+    }
+
+    /**
+     * Returns the slot of the parameter at the given index in an activation frame
+     * of the procedure.
+     * @param index     Index of the parameter
+     * @return          The slot of the parameter in an activation frame
+     */
+    public int getParmSlot(int index)
+    {
+        return parmSlots[index];
+    }
+
+    /**
+     * Returns the index of the argument whose value the parameter at the given index
+     * holds on entry to the procedure when a call passes the given number of arguments.
+     * A parameter with an argument holds its own; one without an argument shares its
+     * slot with any earlier parameter of the same name, so it holds the argument of the
+     * last of those that has one, or 0 if none has.
+     * @param index     Index of the parameter
+     * @param argCount  Number of arguments of the call
+     * @return          The index of the argument, or -1 if the parameter holds 0
+     */
+    public int getArgumentIndex(int index, int argCount)
+    {
+        if (index < argCount)
+        {
+            return index;
+        }
+        for (int j = Math.min(argCount, index) - 1; j >= 0; j--)
+        {
+            if (parmSlots[j] == parmSlots[index])
+            {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lowers the body of the procedure at its entry label, followed by a return
+     * instruction that hands back the value of slot 0 (the procedure's name).
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        b.placeProcedure(id);
+        stmt.lower(b);
+        b.emit(Opcode.RET);
+    }
+
+    /**
+     * Compiles the ProcedureDeclaration by first saving $fp and pointing it
+     * at the frame, so that variables in memory are addressed from $fp,
+     * then designating memory in the stack for the return value and the local declared variables
+     * (the return value starts as the argument of a parameter with the procedure's name),
+     * saving the callee-saved registers that the procedure uses, and
+     * initializing the variables that the register allocator placed in
+     * registers (parameters are loaded from the stack, other variables
+     * start at 0). The tail calls of the procedure jump back to right before the
+     * registers are initialized. It then compiles the statemenet of the procedure, loads
+     * the return value into $v0, restores the saved registers, pops the
+     * return value and locals, restores $fp, and uses the jump return command to return
+     * to where the procedure was called. It also sets and clears the
+     * procedure context when needed. In the fast calling convention, see
+     * compileFast() instead.
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
      * @postcondition   The translation of the ProcedureDeclaration into MIPS Assembly
@@ -119,21 +353,157 @@ public class ProcedureDeclaration extends Statement
     public void compile(Emitter e)
     {
         e.emit("proc" + id + ":");
-
-        e.emit("li $v0 0");
-        e.emitPush("$v0");
-
         e.setProcedureContext(this);
+        if (e.isFastCalls())
+        {
+            compileFast(e);
+            e.clearProcedureContext();
+            return;
+        }
 
+        e.emitPush("$fp");
+        e.emit("move $fp $sp");
+        int self = parms.lastIndexOf(id);
+        e.emit(self >= 0 ? "lw $v0 " + e.getParmAddress(self) : "li $v0 0");
+        e.emitPush("$v0");
+        if (self >= 0 && !localVars.isEmpty())
+        {
+            e.emit("li $v0 0");
+        }
         for (int i = 0; i < localVars.size(); i++)
         {
             e.emitPush("$v0");
         }
+
+        List<String> saved = e.getSavedRegisters();
+        for (String reg : saved)
+        {
+            e.emitPush(reg);
+        }
+        if (hasTailCalls())
+        {
+            e.emit(getRestartLabel() + ":");
+        }
+        for (String name : frameNames)
+        {
+            String reg = e.getRegister(name);
+            if (reg != null && e.isLiveAtEntry(name))
+            {
+                if (parms.contains(name))
+                {
+                    e.emit("lw " + reg + " " + e.getAddress(name));
+                }
+                else
+                {
+                    e.emit("li " + reg + " 0");
+                }
+            }
+        }
+
         stmt.compile(e);
 
+        String result = e.getRegister(id);
+        if (result != null)
+        {
+            e.emit("move $v0 " + result);
+        }
+        else
+        {
+            e.emit("lw $v0 " + e.getAddress(id));
+        }
+        for (int i = saved.size() - 1; i >= 0; i--)
+        {
+            e.emitPop(saved.get(i));
+        }
+        e.emit("addu $sp $sp " + 4 * (localVars.size() + 1));
+        e.emitPop("$fp");
         e.emit("jr $ra");
         e.clearProcedureContext();
-       
-        e.emitPop("$v0");
+    }
+
+    /**
+     * Compiles the body of the procedure with the fast calling convention. The whole
+     * frame laid out by the Emitter is allocated with one subu, and $ra (unless the
+     * procedure is a leaf) and the saved registers are stored into it. Only the
+     * variables that may be read before they are assigned are initialized: the
+     * parameters from $a0-$a3 or from the stack, and the others to 0. The tail calls
+     * of the procedure jump back to right before this initialization. After the
+     * statement, the return value is put in $v0, the registers are restored, and
+     * the frame is freed with one addu.
+     * @param e         Emitter that will print the emitted statements
+     *                  to the output file.
+     */
+    private void compileFast(Emitter e)
+    {
+        int size = e.getFrameSize();
+        if (size > 0)
+        {
+            e.emit("subu $sp $sp " + size);
+        }
+        List<String> saved = e.getSavedRegisters();
+        if (!e.isLeaf())
+        {
+            e.emit("sw $ra " + e.getAddress("$ra"));
+        }
+        for (String reg : saved)
+        {
+            e.emit("sw " + reg + " " + e.getAddress(reg));
+        }
+        if (hasTailCalls())
+        {
+            e.emit(getRestartLabel() + ":");
+        }
+        for (String name : frameNames)
+        {
+            if (!e.isLiveAtEntry(name))
+            {
+                continue;
+            }
+            String reg = e.getRegister(name);
+            int index = parms.lastIndexOf(name);
+            String arg = Emitter.getArgumentRegister(index);
+            if (arg != null)
+            {
+                e.emit(reg != null ? "move " + reg + " " + arg
+                    : "sw " + arg + " " + e.getAddress(name));
+            }
+            else if (index >= 0)
+            {
+                if (reg != null)
+                {
+                    e.emit("lw " + reg + " " + e.getAddress(name));
+                }
+            }
+            else
+            {
+                e.emit(reg != null ? "li " + reg + " 0"
+                    : "sw $zero " + e.getAddress(name));
+            }
+        }
+
+        stmt.compile(e);
+
+        String result = e.getRegister(id);
+        if (result != null)
+        {
+            e.emit("move $v0 " + result);
+        }
+        else
+        {
+            e.emit("lw $v0 " + e.getAddress(id));
+        }
+        for (String reg : saved)
+        {
+            e.emit("lw " + reg + " " + e.getAddress(reg));
+        }
+        if (!e.isLeaf())
+        {
+            e.emit("lw $ra " + e.getAddress("$ra"));
+        }
+        if (size > 0)
+        {
+            e.emit("addu $sp $sp " + size);
+        }
+        e.emit("jr $ra");
     }
 }
\ No newline at end of file
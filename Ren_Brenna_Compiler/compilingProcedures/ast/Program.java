@@ -2,19 +2,54 @@ package ast;
 
 import java.util.List;
 
+import bytecode.Bytecode;
+import bytecode.BytecodeBuilder;
+import bytecode.BytecodeInliner;
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
+import bytecode.VirtualMachine;
 import codegen.Emitter;
+import codegen.RegisterAllocator;
+import jvm.ClassBuilder;
 import environment.Environment;
+import environment.InliningAnalysis;
+import environment.PurityAnalysis;
+import environment.Scope;
+import ir.IrBuilder;
+import ir.IrProgram;
+import ir.MipsSelector;
+import ir.PassManager;
 
 /**
  * Program class that contains a List of ProcedureDeclarations and a List of Statements
  * that will be executed when the exec() method is called. It also contains a compile()
  * method that will translate the PASCAL code into MIPS Assembly and emit the statements
- * onto an output file.
+ * onto an output file, a lower() method that translates it into the bytecode run
+ * by the VirtualMachine (with small procedures inlined by a BytecodeInliner), and a
+ * compileToJvm() method that translates it into a JVM
+ * class that is loaded in-process. toIr() translates it into an SSA-form IrProgram, and
+ * compileThroughIr() optimizes that IR with a PassManager before selecting MIPS Assembly
+ * from it. Before the Program is executed, every variable name is
+ * resolved to a (depth, slot) pair so that the interpreter can use int array frames.
+ * The interpreter inlines the calls that the InliningCostModel of the Environment
+ * accepts (see ProcedureCall), using the sizes that resolve() finds. WRITELN and
+ * READLN use the IoChannel of the Environment that the Program runs in.
  * 
  * Usage:
  * Program p = new Program(<List of ProcedureDeclarations>, <List of Statements>);
+ * p.resolve();
  * p.exec(<Environment>);
+ * p.execStackless(<Environment>, <memory budget in bytes>);
+ * Bytecode b = p.lower();
+ * Bytecode b = p.lower(<BytecodeInliner>);
+ * Bytecode b = p.lowerWithoutInlining();
+ * Runnable r = p.compileToJvm();
+ * p.compile("output.asm");
  * p.compile(<Emitter>);
+ * IrProgram ir = p.toIr();
+ * p.compileThroughIr("output.asm");
+ * p.compileThroughIr(<Emitter>);
+ * p.compileThroughIr(<Emitter>, <PassManager>);
  * 
  * @author Brenna Ren
  * @version May 24, 2024
@@ -30,6 +65,12 @@ public class Program
     // List of Variable names
     private List<String> vars;
 
+    // Number of global variable slots (-1 until the Program is resolved)
+    private int globalSize;
+
+    // Names of the global variables, indexed by slot
+    private String[] globalNames;
+
     /**
      * Creates a new program with the given List of ProcedureDeclarations, 
      * given List of Statements, and given List of Variables.
@@ -42,33 +83,217 @@ public class Program
         this.procedures = procedures;
         this.stmts = stmts;
         this.vars = vars;
+        globalSize = -1;
+    }
+
+    /**
+     * Resolves every variable name in the Program to a (depth, slot) pair. The
+     * declared variables are placed in the global Scope first, then the procedures
+     * are resolved in their own Scopes, and then the Statements are resolved in the
+     * global Scope. Undeclared variables become global variables. Finally, the
+     * procedures are lowered into a PurityAnalysis to find the pure ones and into an
+     * InliningAnalysis to find their sizes and the recursive ones.
+     * @postcondition       Every variable in the Program is bound to a slot and every
+     *                      procedure knows whether it is pure, its size, and whether it
+     *                      is recursive.
+     */
+    public void resolve()
+    {
+        Scope global = new Scope(null);
+        for (String varName : vars)
+        {
+            global.declare(varName);
+        }
+        for (ProcedureDeclaration p : procedures)
+        {
+            p.resolve(global);
+        }
+        for (Statement s : stmts)
+        {
+            s.resolve(global);
+        }
+        globalSize = global.size();
+        globalNames = global.getNames();
+
+        PurityAnalysis purity = new PurityAnalysis();
+        for (ProcedureDeclaration p : procedures)
+        {
+            purity.declareProcedure(p);
+        }
+        for (ProcedureDeclaration p : procedures)
+        {
+            p.lower(purity);
+        }
+        purity.analyze();
+        for (ProcedureDeclaration p : procedures)
+        {
+            p.setPure(purity.isPure(p.getID()));
+        }
+
+        InliningAnalysis inlining = new InliningAnalysis();
+        for (ProcedureDeclaration p : procedures)
+        {
+            inlining.declareProcedure(p);
+        }
+        for (ProcedureDeclaration p : procedures)
+        {
+            p.lower(inlining);
+        }
+        inlining.analyze();
+        for (ProcedureDeclaration p : procedures)
+        {
+            p.setSize(inlining.getSize(p.getID()));
+            p.setRecursive(inlining.isRecursive(p.getID()));
+        }
     }
 
     /**
      * Executes the ProcedureDeclarations and then executes the Statements
-     * by calling their respective exec() methods.
+     * by calling their respective exec() methods. The Program is resolved first
+     * if it has not been already, and the given Environment is given a slot
+     * for each global variable. The output buffered in the Environment's IoChannel is
+     * flushed when the Program finishes, even if it fails.
      * @param env       Given Environment to execute the Statements in.
      */
     public void exec(Environment env)
     {
+        if (globalSize < 0)
+        {
+            resolve();
+        }
+        env.allocate(globalSize);
+        try
+        {
+            for (ProcedureDeclaration p : procedures)
+            {
+                p.exec(env);
+            }
+            for (Statement s : stmts)
+            {
+                s.exec(env);
+            }
+        }
+        finally
+        {
+            env.getIo().flush();
+        }
+    }
+
+    /**
+     * Executes the Program without using the Java stack for procedure calls or for
+     * evaluating expressions, so recursion is only limited by the given memory budget.
+     * The Program is lowered to bytecode and run by a VirtualMachine, which keeps its
+     * call, frame, and operand stacks on the heap. The global variables start with
+     * their values in the given Environment, and their final values are stored back
+     * into it, just like exec(). Input and output go through the Environment's
+     * IoChannel. Procedure calls are not memoized in this mode.
+     * @param env           Given Environment to execute the Statements in.
+     * @param memoryBudget  Number of bytes that the VirtualMachine's stacks may use
+     * @throws IllegalStateException    the stacks need more than the memory budget
+     */
+    public void execStackless(Environment env, long memoryBudget)
+    {
+        Bytecode code = lower();
+        env.allocate(globalSize);
         for (ProcedureDeclaration p : procedures)
         {
             p.exec(env);
         }
+        int[] globals = new int[globalSize];
+        for (int i = 0; i < globalSize; i++)
+        {
+            globals[i] = env.getVariable(0, i);
+        }
+        VirtualMachine vm = new VirtualMachine(code, memoryBudget);
+        vm.setIo(env.getIo());
+        vm.run(globals);
+        for (int i = 0; i < globalSize; i++)
+        {
+            env.setVariable(0, i, globals[i]);
+        }
+    }
+
+    /**
+     * Lowers the Program into the given CodeBuilder. Every procedure is declared before
+     * the Statements are lowered, the Statements are followed by a HALT instruction, and
+     * then the body of each procedure is lowered.
+     * @param b             CodeBuilder that the instructions are emitted to.
+     * @precondition        The Program has been resolved.
+     */
+    public void lower(CodeBuilder b)
+    {
+        for (ProcedureDeclaration p : procedures)
+        {
+            b.declareProcedure(p);
+        }
         for (Statement s : stmts)
         {
-            s.exec(env);
+            s.lower(b);
+        }
+        b.emit(Opcode.HALT);
+        for (ProcedureDeclaration p : procedures)
+        {
+            p.lower(b);
         }
     }
 
     /**
-     * Compiles the program and emits the necessary MIPS Assembly Statements. 
-     * It creates a new Emitter with the given file output name and uses it
-     * as the parameter for all later compile() method calls. It then 
-     * declares the variables using ".data", and then compiles
-     * the Statements, which will be under the main method, and then compiles 
-     * the procedures (if any) At the end of the program, it emits the
-     * normal MIPS Assembly termination and closes the Emitter.
+     * Lowers the Program into stack-based bytecode, with the small procedures inlined
+     * by a BytecodeInliner with the default cost model.
+     * @return              The Bytecode of the Program, ready to be run by a VirtualMachine.
+     */
+    public Bytecode lower()
+    {
+        return lower(new BytecodeInliner());
+    }
+
+    /**
+     * Lowers the Program into stack-based bytecode and inlines procedures into it with
+     * the given BytecodeInliner.
+     * @param inliner       given BytecodeInliner
+     * @return              The Bytecode of the Program, ready to be run by a VirtualMachine.
+     */
+    public Bytecode lower(BytecodeInliner inliner)
+    {
+        return inliner.inline(lowerWithoutInlining());
+    }
+
+    /**
+     * Lowers the Program into stack-based bytecode and keeps every procedure call. The
+     * Program is resolved first if it has not been already.
+     * @return              The Bytecode of the Program, ready to be run by a VirtualMachine.
+     */
+    public Bytecode lowerWithoutInlining()
+    {
+        if (globalSize < 0)
+        {
+            resolve();
+        }
+        BytecodeBuilder b = new BytecodeBuilder(globalSize);
+        lower(b);
+        return b.build();
+    }
+
+    /**
+     * Compiles the Program into a JVM class and loads it as a hidden class. Globals
+     * become static fields, each procedure becomes a static int method, and WRITELN
+     * output is buffered. The Program is resolved first if it has not been already.
+     * @return              A Runnable that executes the Program each time it is run.
+     */
+    public Runnable compileToJvm()
+    {
+        if (globalSize < 0)
+        {
+            resolve();
+        }
+        ClassBuilder c = new ClassBuilder(globalSize);
+        lower(c);
+        return c.define();
+    }
+
+    /**
+     * Compiles the program into a new Emitter with the given file output name
+     * and then closes the Emitter, which optimizes the code and writes the file.
      * @param outputFileName        given name for the Emitter file
      * @postcondition               The entire program is translated to MIPS Assembly
      *                              and the necessary statements are printed in
@@ -77,8 +302,37 @@ public class Program
     public void compile(String outputFileName)
     {
         Emitter e = new Emitter(outputFileName);
+        compile(e);
+        e.close();
+    }
+
+    /**
+     * Compiles the program and emits the necessary MIPS Assembly Statements. 
+     * The program is resolved (if it has not been already) and lowered into a
+     * RegisterAllocator, which decides which variables are kept in registers.
+     * The given Emitter is used as the parameter for all later compile() method
+     * calls. It then declares every global variable (declared or not) using ".data",
+     * initializes the register-resident globals that may be read before they
+     * are assigned, and then compiles the Statements, which will be under the
+     * main method, and then compiles the procedures (if any) At the end of the
+     * program, it emits the normal MIPS Assembly termination. The Emitter is not closed.
+     * @param e                     given Emitter to emit the code to
+     * @postcondition               The entire program is translated to MIPS Assembly
+     *                              and emitted to the Emitter.
+     */
+    public void compile(Emitter e)
+    {
+        if (globalSize < 0)
+        {
+            resolve();
+        }
+        RegisterAllocator allocator = new RegisterAllocator(globalNames);
+        lower(allocator);
+        allocator.allocate();
+
+        e.setRegisterAllocator(allocator);
         e.emit(".data");
-        for (String varName : vars)
+        for (String varName : globalNames)
         {
             e.emit("var" + varName + ":\t.word\t0");
         }
@@ -86,7 +340,15 @@ public class Program
         e.emit(".globl main");
         e.emit("main:");
 
-        
+        for (String varName : globalNames)
+        {
+            String reg = e.getRegister(varName);
+            if (reg != null && e.isLiveAtEntry(varName))
+            {
+                e.emit("li " + reg + " 0");
+            }
+        }
+
         for (Statement s : stmts)
         {
             s.compile(e);
@@ -99,7 +361,66 @@ public class Program
         {
             p.compile(e);
         }
+    }
+
+    /**
+     * Translates the Program into SSA-form IR, with one IrFunction for main and one
+     * for each procedure. The Program is resolved first if it has not been already.
+     * @return              The IrProgram of the Program
+     */
+    public IrProgram toIr()
+    {
+        if (globalSize < 0)
+        {
+            resolve();
+        }
+        IrBuilder b = new IrBuilder(globalNames);
+        lower(b);
+        return b.build();
+    }
 
+    /**
+     * Compiles the Program through the IR, optimized with the standard passes (which
+     * inline small procedures), into a new Emitter with the given file output name and
+     * then closes the Emitter, which optimizes the code and writes the file.
+     * @param outputFileName        given name for the Emitter file
+     * @postcondition               The entire program is translated to MIPS Assembly
+     *                              and the necessary statements are printed in
+     *                              the output file.
+     */
+    public void compileThroughIr(String outputFileName)
+    {
+        Emitter e = new Emitter(outputFileName);
+        compileThroughIr(e);
         e.close();
     }
+
+    /**
+     * Compiles the Program into MIPS Assembly through the IR, optimized with the
+     * standard passes. The Emitter is not closed.
+     * @param e                     given Emitter to emit the code to
+     * @postcondition               The entire program is translated to MIPS Assembly
+     *                              and emitted to the Emitter.
+     */
+    public void compileThroughIr(Emitter e)
+    {
+        compileThroughIr(e, PassManager.standard());
+    }
+
+    /**
+     * Compiles the Program into MIPS Assembly through the IR: translates it into an
+     * IrProgram, runs the given PassManager over it, and selects the instructions with
+     * a MipsSelector. Unlike compile(), this also compiles FOR loops and READLN. The
+     * Emitter is not closed.
+     * @param e                     given Emitter to emit the code to
+     * @param passes                given PassManager to optimize the IR with
+     * @postcondition               The entire program is translated to MIPS Assembly
+     *                              and emitted to the Emitter.
+     */
+    public void compileThroughIr(Emitter e, PassManager passes)
+    {
+        IrProgram ir = toIr();
+        passes.run(ir);
+        new MipsSelector(e).select(ir);
+    }
 }
@@ -1,6 +1,9 @@
 package ast;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Range class that represents the range in a FOR loop. It contains the name of the
@@ -12,6 +15,8 @@ import environment.Environment;
  * 
  * Usage:
  * Range r = new Range(<String name of variable>, <Expression>);
+ * r.resolve(<Scope>);
+ * r.lower(<CodeBuilder>, <label>);
  * boolean value = r.eval(<Environment>);
  */
 
@@ -23,6 +28,12 @@ public class Range
     // Expression that represents the ending value of the Range
     private Expression endVal;
 
+    // Number of parent environments to walk to reach the variable
+    private int depth;
+
+    // Slot of the variable in its environment
+    private int slot;
+
     /**
      * Creates a new Range with the given variable name and ending Expression.
      * @param variable      String name of the variable that is incremented in the Range 
@@ -43,7 +54,31 @@ public class Range
      */
     public boolean eval(Environment env)
     {
-        return env.getVariable(variable) <= endVal.eval(env);
+        return env.getVariable(depth, slot) <= endVal.eval(env);
+    }
+
+    /**
+     * Resolves the variable and the ending Expression of the Range.
+     * @param scope     Scope that the Range is evaluated in.
+     */
+    public void resolve(Scope scope)
+    {
+        depth = scope.getDepth(variable);
+        slot = scope.getSlot(variable);
+        endVal.resolve(scope);
+    }
+
+    /**
+     * Lowers the Range into a conditional jump to the given label that is taken
+     * when the variable is past the ending value.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     * @param label     Label to jump to when the variable is out of the Range.
+     */
+    public void lower(CodeBuilder b, int label)
+    {
+        b.emitLoad(depth, slot);
+        endVal.lower(b);
+        b.emitJump(Opcode.IF_GT, label);
     }
 
 }
@@ -1,8 +1,9 @@
 package ast;
 
-import java.util.Scanner;
-
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Readln class that is a subclass of the Statement class. It waits for a user input
@@ -12,7 +13,9 @@ import environment.Environment;
  * 
  * Usage:
  * Readln read = new Readln(<String name of variable>);
+ * read.resolve(<Scope>);
  * read.exec(<Environment>);
+ * read.lower(<CodeBuilder>);
  */
 
 public class Readln extends Statement
@@ -20,6 +23,12 @@ public class Readln extends Statement
     // String name of the variable to store the input value
     private String variable;
 
+    // Number of parent environments to walk to reach the variable
+    private int depth;
+
+    // Slot of the variable in its environment
+    private int slot;
+
     /**
      * Creates a new Readln with the given variable name.
      * @param variable      String name of the variable to store the input value.
@@ -30,20 +39,40 @@ public class Readln extends Statement
     }
 
     /**
-     * Waits for a user input and stores the value of the input in its variable.
-     * It makes a new Assignment to do the assigning of the variable in the given
-     * Environment.
+     * Waits for a user input from the IoChannel of the Environment and stores the value
+     * of the input in its variable's resolved slot in the given Environment.
      * @param env       Environment that the variable should be assigned in.
      * @postcondition   The user input is stored in the variable in the given Environment.
      */
     @Override
     public void exec(Environment env) 
     {
-        Scanner s = new Scanner(System.in);
-        int num = s.nextInt();
+        int num = env.getIo().readInt();
+
+        env.setVariable(depth, slot, num);
+    }
+
+    /**
+     * Resolves the name of the variable to its (depth, slot) pair.
+     * @param scope     Scope that the Readln is executed in.
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        depth = scope.getDepth(variable);
+        slot = scope.getSlot(variable);
+    }
 
-        Assignment assignment = new Assignment(variable, new Number(num));
-        assignment.exec(env);
+    /**
+     * Lowers the Readln into an instruction that reads an integer followed by
+     * a store into the variable's resolved slot.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    @Override
+    public void lower(CodeBuilder b)
+    {
+        b.emit(Opcode.READ);
+        b.emitStore(depth, slot);
     }
-    
+
 }
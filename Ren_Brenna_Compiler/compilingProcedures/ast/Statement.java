@@ -1,7 +1,9 @@
 package ast;
 
+import bytecode.CodeBuilder;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Abstract Statement class that contains an abstract method exec()
@@ -21,6 +23,37 @@ public abstract class Statement
      */
     public abstract void exec(Environment env);
 
+    /**
+     * Resolves every variable name in the Statement to the (depth, slot) pair
+     * that the Statement uses when it is executed.
+     * @param scope     Scope that the Statement is executed in.
+     * @postcondition   Every variable in the Statement is bound to a slot.
+     */
+    public abstract void resolve(Scope scope);
+
+    /**
+     * Lowers the Statement into the stack-based bytecode run by the VirtualMachine.
+     * The Statement must already be resolved.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     * @postcondition   The bytecode of the Statement has been emitted.
+     */
+    public abstract void lower(CodeBuilder b);
+
+    /**
+     * Marks the assignments in tail position of the Statement that assign a call of the
+     * given procedure to the procedure's return value, so that they run as a jump back
+     * to the start of the procedure instead of as a new call. A statement is in tail
+     * position if nothing in the procedure runs after it. Statements that cannot end
+     * the procedure, such as loops, have no tail calls.
+     * @param proc      ProcedureDeclaration whose body contains the Statement
+     * @return          The number of tail calls marked
+     * @precondition    The Statement has been resolved.
+     */
+    public int markTailCalls(ProcedureDeclaration proc)
+    {
+        return 0;
+    }
+
     /**
      * Compiles the Statements by emitting the needed MIPS Assembly code.
      * Throws a RuntimeException if the method is not overridden in its
@@ -1,18 +1,24 @@
 package ast;
 
+import bytecode.CodeBuilder;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Variable class that is a subclass of the Expression class. It
- * contains the String name of the variable.
+ * contains the String name of the variable and the (depth, slot) pair
+ * that the name is resolved to before the program is executed.
  * @author  Brenna Ren
  * @version May 24, 2024
  * 
  * Usage:
  * Variable var = new Variable(<String name of variable>);
+ * var.resolve(<Scope>);
  * int value = var.eval(<Environment>);
  * var.compile(<Emitter>);
+ * String reg = var.getRegister(<Emitter>);
+ * var.lower(<CodeBuilder>);
  */
 
 public class Variable extends Expression
@@ -20,6 +26,12 @@ public class Variable extends Expression
     // String name of the variable
     private String name;
 
+    // Number of parent environments to walk to reach the variable
+    private int depth;
+
+    // Slot of the variable in its environment
+    private int slot;
+
     /**
      * Creates a new Variable with the given String name.
      * @param name      String name of the variable
@@ -31,20 +43,53 @@ public class Variable extends Expression
 
     /**
      * Returns the integer value of the variable by retrieving
-     * it from the given Environment.
+     * it from its resolved slot in the given Environment.
      * @param env       Environment to retrieve the variable value from
      * @return          The integer value of the variable
      */
     @Override
     public int eval(Environment env)
     {
-        return env.getVariable(name);
+        return env.getVariable(depth, slot);
+    }
+
+    /**
+     * Resolves the name of the variable to its (depth, slot) pair.
+     * @param scope     Scope that the variable is evaluated in.
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        depth = scope.getDepth(name);
+        slot = scope.getSlot(name);
+    }
+
+    /**
+     * Lowers the Variable into an instruction that pushes its resolved slot.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    @Override
+    public void lower(CodeBuilder b)
+    {
+        b.emitLoad(depth, slot);
+    }
+
+    /**
+     * Returns the register that the register allocator placed the variable in.
+     * @param e         Emitter that holds the register allocation
+     * @return          Name of the register, or null if the variable is kept in memory
+     */
+    @Override
+    public String getRegister(Emitter e)
+    {
+        return e.getRegister(name);
     }
 
     /**
      * Compiles the given variable by loading its value into $v0
-     * (emits the necessary MIPS Assembly code). Deals with both
-     * global and local variables.
+     * (emits the necessary MIPS Assembly code). Deals with variables
+     * that the register allocator placed in a register as well as
+     * global and local variables in memory.
      * @param e         Emitter that will print the emitted statements
      *                  to the output file.
      * @postcondition   The translation of loading the Variable into MIPS Assembly
@@ -52,12 +97,14 @@ public class Variable extends Expression
      */
     public void compile(Emitter e)
     {
-        if (e.isLocalVariable(name))
+        String reg = e.getRegister(name);
+        if (reg != null)
+        {
+            e.emit("move $v0 " + reg);
+        }
+        else if (e.isLocalVariable(name))
         {
-            int offset = e.getOffset(name);
-            e.emit("addu $sp $sp " + offset);
-            e.emit("lw $v0 ($sp)");
-            e.emit("subu $sp $sp " + offset);
+            e.emit("lw $v0 " + e.getAddress(name));
         }
         else
         {
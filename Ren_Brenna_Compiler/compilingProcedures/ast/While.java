@@ -1,7 +1,10 @@
 package ast;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * While class that is a subclass of the Statement class. It represents
@@ -14,6 +17,7 @@ import environment.Environment;
  * While whileLoop = new While(<Condition>, <Statement>);
  * whileLoop.exec(<Environment>);
  * whileLoop.compile(<Emitter>);
+ * whileLoop.lower(<CodeBuilder>);
  */
 
 public class While extends Statement
@@ -52,6 +56,32 @@ public class While extends Statement
         }
     }
 
+    /**
+     * Resolves the variables in the Condition and in the Statement.
+     * @param scope     Scope that the While loop is executed in.
+     */
+    public void resolve(Scope scope)
+    {
+        cond.resolve(scope);
+        stmt.resolve(scope);
+    }
+
+    /**
+     * Lowers the While loop into a Condition that jumps past the loop when it is
+     * false, followed by the Statement and a jump back to the Condition.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        int loopLabel = b.newLabel();
+        int endLabel = b.newLabel();
+        b.placeLabel(loopLabel);
+        cond.lower(b, endLabel);
+        stmt.lower(b);
+        b.emitJump(Opcode.JUMP, loopLabel);
+        b.placeLabel(endLabel);
+    }
+
     /**
      * Compiles the While statement by emitting the necessary lines of MIPS
      * Assembly Code. It begins by using the Emitter's method to retrieve a
@@ -1,7 +1,10 @@
 package ast;
 
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
 import codegen.Emitter;
 import environment.Environment;
+import environment.Scope;
 
 /**
  * Writeln class that is a subclass of the Statement class. It prints the
@@ -15,6 +18,7 @@ import environment.Environment;
  * Writeln write = new Writeln(<Expression>);
  * write.exec(<Environment>);
  * write.comiple(<Emitter>);
+ * write.lower(<CodeBuilder>);
  */
 
 public class Writeln extends Statement
@@ -32,13 +36,34 @@ public class Writeln extends Statement
     }
     
     /**
-     * Evaluates the value of the Expression and prints it to the terminal.
+     * Evaluates the value of the Expression and prints it to the IoChannel of the
+     * Environment, which is the terminal unless another channel was set.
      * @param env       Environment that the Expression should be evaluated in.
-     * @postcondition   The value of the Expression is printed to the terminal.
+     * @postcondition   The value of the Expression is printed to the IoChannel.
      */
     public void exec(Environment env)
     {
-        System.out.println(exp.eval(env));
+        int value = exp.eval(env);
+        env.getIo().writeln(value);
+    }
+
+    /**
+     * Resolves the variables in the Expression.
+     * @param scope     Scope that the Expression is evaluated in.
+     */
+    public void resolve(Scope scope)
+    {
+        exp.resolve(scope);
+    }
+
+    /**
+     * Lowers the Writeln by lowering the Expression and then printing its value.
+     * @param b         CodeBuilder that the instructions are emitted to.
+     */
+    public void lower(CodeBuilder b)
+    {
+        exp.lower(b);
+        b.emit(Opcode.PRINT);
     }
 
     /**
@@ -0,0 +1,249 @@
+package benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * BenchmarkRunner class that measures the throughput of benchmark operations in the style
+ * of JMH's throughput mode. Each benchmark first runs some warmup iterations (which are
+ * not recorded) and then some measurement iterations. Every iteration calls the operation
+ * repeatedly for a fixed amount of time and records the operations per second. The score
+ * is the mean over the measurement iterations, with a 99.9% confidence interval. The
+ * bytes allocated per operation by the benchmark thread are recorded as well, along with
+ * any secondary metrics the caller derives from the score. Results are printed as they
+ * finish and can be written as JSON in the same layout as JMH's JSON results, so the
+ * usual JMH tooling can read them.
+ *
+ * The value returned by each operation is kept in a field so that the JIT compiler
+ * cannot remove the work as dead code.
+ *
+ * Usage:
+ * BenchmarkRunner r = new BenchmarkRunner(<warmup iterations>, <measurement iterations>,
+ *     <milliseconds per iteration>);
+ * double opsPerSecond = r.run("parse", "test1.txt", <Callable>);
+ * r.addSecondaryMetric("tokens/s", <value>, "tokens/s");
+ * r.writeJson("results.json");
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class BenchmarkRunner
+{
+    // z value of a two-sided 99.9% confidence interval
+    private static final double Z_999 = 3.291;
+
+    // Number of iterations run before measuring
+    private int warmupIterations;
+
+    // Number of iterations that are measured
+    private int measurementIterations;
+
+    // Length of each iteration in milliseconds
+    private long iterationMillis;
+
+    // JSON object of each finished benchmark, in order
+    private List<String> results;
+
+    // JSON of the last benchmark that was run, up to its secondary metrics (null if none)
+    private String pending;
+
+    // JSON of each secondary metric of the last benchmark that was run, by name
+    private Map<String, String> secondary;
+
+    // Value returned by the last operation that was run
+    private Object sink;
+
+    /**
+     * Creates a new BenchmarkRunner with the given iteration counts and length.
+     * @param warmupIterations          given number of warmup iterations
+     * @param measurementIterations     given number of measured iterations (at least 1)
+     * @param iterationMillis           given length of each iteration in milliseconds
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis)
+    {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+        results = new ArrayList<String>();
+        pending = null;
+        secondary = new LinkedHashMap<String, String>();
+    }
+
+    /**
+     * Runs the given operation as the benchmark with the given name and input, prints
+     * its score, and records its result.
+     * @param name          given name of the benchmark
+     * @param input         given name of the input that the benchmark runs on
+     * @param op            given operation to measure
+     * @return              the mean throughput in operations per second
+     * @throws Exception    the operation throws an exception
+     */
+    public double run(String name, String input, Callable<?> op) throws Exception
+    {
+        finish();
+        for (int i = 0; i < warmupIterations; i++)
+        {
+            iterate(op);
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double[] scores = new double[measurementIterations];
+        long ops = 0;
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < measurementIterations; i++)
+        {
+            long start = System.nanoTime();
+            long count = iterate(op);
+            scores[i] = count * 1e9 / (System.nanoTime() - start);
+            ops += count;
+        }
+        allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+        double mean = 0;
+        for (double s : scores)
+        {
+            mean += s;
+        }
+        mean /= scores.length;
+        double variance = 0;
+        for (double s : scores)
+        {
+            variance += (s - mean) * (s - mean);
+        }
+        double error = scores.length > 1
+            ? Z_999 * Math.sqrt(variance / (scores.length - 1)) / Math.sqrt(scores.length) : 0;
+
+        String raw = "";
+        for (int i = 0; i < scores.length; i++)
+        {
+            raw += (i > 0 ? ", " : "") + number(scores[i]);
+        }
+        pending = "    {\n"
+            + "        \"benchmark\" : \"" + getClass().getPackage().getName() + "." + name + "\",\n"
+            + "        \"mode\" : \"thrpt\",\n"
+            + "        \"threads\" : 1,\n"
+            + "        \"forks\" : 0,\n"
+            + "        \"warmupIterations\" : " + warmupIterations + ",\n"
+            + "        \"warmupTime\" : \"" + iterationMillis + " ms\",\n"
+            + "        \"measurementIterations\" : " + measurementIterations + ",\n"
+            + "        \"measurementTime\" : \"" + iterationMillis + " ms\",\n"
+            + "        \"params\" : {\n"
+            + "            \"input\" : \"" + input + "\"\n"
+            + "        },\n"
+            + "        \"primaryMetric\" : {\n"
+            + "            \"score\" : " + number(mean) + ",\n"
+            + "            \"scoreError\" : " + number(error) + ",\n"
+            + "            \"scoreConfidence\" : [ " + number(mean - error) + ", "
+            + number(mean + error) + " ],\n"
+            + "            \"scoreUnit\" : \"ops/s\",\n"
+            + "            \"rawData\" : [ [ " + raw + " ] ]\n"
+            + "        },\n"
+            + "        \"secondaryMetrics\" : {\n";
+        addSecondaryMetric("gc.alloc.rate.norm", (double) allocated / ops, "B/op");
+        System.out.println(String.format(Locale.ROOT, "%-10s %-22s %14.3f +- %10.3f ops/s %14.1f B/op",
+            name, input, mean, error, (double) allocated / ops));
+        return mean;
+    }
+
+    /**
+     * Adds a secondary metric to the result of the last benchmark that was run.
+     * @param name          given name of the metric
+     * @param score         given value of the metric
+     * @param unit          given unit of the metric
+     */
+    public void addSecondaryMetric(String name, double score, String unit)
+    {
+        secondary.put(name, "            \"" + name + "\" : {\n"
+            + "                \"score\" : " + number(score) + ",\n"
+            + "                \"scoreUnit\" : \"" + unit + "\"\n"
+            + "            }");
+    }
+
+    /**
+     * Writes the results of every benchmark that has been run to the file with the
+     * given name, as a JSON array in the layout of JMH's JSON results.
+     * @param fileName          given name of the output file
+     * @throws IOException      the file cannot be written
+     */
+    public void writeJson(String fileName) throws IOException
+    {
+        finish();
+        PrintWriter out = new PrintWriter(new FileWriter(fileName));
+        out.println("[");
+        for (int i = 0; i < results.size(); i++)
+        {
+            out.print(results.get(i));
+            out.println(i < results.size() - 1 ? "," : "");
+        }
+        out.println("]");
+        out.close();
+    }
+
+    /**
+     * Calls the given operation repeatedly until the iteration time has passed.
+     * @param op            given operation
+     * @return              the number of times the operation was called
+     * @throws Exception    the operation throws an exception
+     */
+    private long iterate(Callable<?> op) throws Exception
+    {
+        long end = System.nanoTime() + iterationMillis * 1000000;
+        long count = 0;
+        do
+        {
+            sink = op.call();
+            count++;
+        }
+        while (System.nanoTime() < end);
+        return count;
+    }
+
+    /**
+     * Adds the JSON of the last benchmark that was run, with its secondary metrics,
+     * to the results.
+     */
+    private void finish()
+    {
+        if (pending == null)
+        {
+            return;
+        }
+        String metrics = "";
+        for (String metric : secondary.values())
+        {
+            metrics += (metrics.isEmpty() ? "" : ",\n") + metric;
+        }
+        results.add(pending + metrics + "\n        }\n    }");
+        pending = null;
+        secondary.clear();
+    }
+
+    /**
+     * Returns the given number formatted for JSON.
+     * @param value         given number
+     * @return              the number with three decimal places
+     */
+    private static String number(double value)
+    {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * Returns the value returned by the last operation that was run, which keeps
+     * the JIT compiler from treating the benchmarked work as dead code.
+     * @return              the last value returned by an operation
+     */
+    public Object getSink()
+    {
+        return sink;
+    }
+}
@@ -0,0 +1,289 @@
+package benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ast.Program;
+import codegen.Emitter;
+import environment.Environment;
+import environment.IoChannel;
+import parser.Parser;
+import scanner.Scanner;
+import scanner.TokenKind;
+
+/**
+ * PipelineBenchmarks class that benchmarks every stage of the compiler with a
+ * BenchmarkRunner: scanning (from a String and from a memory-mapped file), parsing,
+ * executing with the interpreter, and compiling to MIPS Assembly. The inputs are the
+ * test files in the corpus directory, programs of 10,000 and 100,000 lines from the
+ * WorkloadGenerator, and a few CPU-bound programs for the interpreter, which run without
+ * memoization (fib20 runs once more with it, as execMemoized). Files that do not
+ * parse are skipped, and so are the programs that the code generator cannot compile (FOR
+ * loops and READLN). Before the generated programs are benchmarked, the output of the
+ * interpreter is checked against the output that the WorkloadGenerator expects. Scanning
+ * also reports tokens and megabytes per second.
+ *
+ * Usage:
+ * java benchmark.PipelineBenchmarks [corpus directory] [result file] [milliseconds per iteration]
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class PipelineBenchmarks
+{
+    // CPU-bound programs for the interpreter, by name
+    private static final String[][] CPU_PROGRAMS =
+    {
+        {
+            "fib20",
+            "PROCEDURE fib(n);\n"
+            + "BEGIN\n"
+            + "    fib := n;\n"
+            + "    IF n > 1 THEN fib := fib(n - 1) + fib(n - 2);\n"
+            + "END;\n"
+            + "WRITELN(fib(20));\n"
+            + "."
+        },
+        {
+            "loopSum",
+            "VAR i, s;\n"
+            + "BEGIN\n"
+            + "    i := 0;\n"
+            + "    s := 0;\n"
+            + "    WHILE i < 100000 DO\n"
+            + "    BEGIN\n"
+            + "        s := s + i * 3 - i / 7;\n"
+            + "        i := i + 1;\n"
+            + "    END;\n"
+            + "    WRITELN(s);\n"
+            + "END;\n"
+            + "."
+        },
+        {
+            "nestedCalls",
+            "VAR k, total;\n"
+            + "PROCEDURE inner(a, b);\n"
+            + "BEGIN\n"
+            + "    inner := a * b + 1;\n"
+            + "END;\n"
+            + "PROCEDURE outer(a);\n"
+            + "VAR j;\n"
+            + "BEGIN\n"
+            + "    outer := 0;\n"
+            + "    j := 0;\n"
+            + "    WHILE j < 10 DO\n"
+            + "    BEGIN\n"
+            + "        outer := outer + inner(a, j);\n"
+            + "        j := j + 1;\n"
+            + "    END;\n"
+            + "END;\n"
+            + "BEGIN\n"
+            + "    k := 0;\n"
+            + "    total := 0;\n"
+            + "    WHILE k < 2000 DO\n"
+            + "    BEGIN\n"
+            + "        total := total + outer(k);\n"
+            + "        k := k + 1;\n"
+            + "    END;\n"
+            + "    WRITELN(total);\n"
+            + "END;\n"
+            + "."
+        }
+    };
+
+    /**
+     * Runs every benchmark and writes the results as JSON.
+     * @param args          the corpus directory (default "."), the result file (default
+     *                      "benchmark-results.json"), and the length of each iteration in
+     *                      milliseconds (default 1000)
+     * @throws Exception    a benchmark cannot be run or the results cannot be written
+     */
+    public static void main(String[] args) throws Exception
+    {
+        String corpusDir = args.length > 0 ? args[0] : ".";
+        String resultFile = args.length > 1 ? args[1] : "benchmark-results.json";
+        long iterationMillis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        BenchmarkRunner runner = new BenchmarkRunner(3, 5, iterationMillis);
+
+        Map<String, String> inputs = loadCorpus(new File(corpusDir));
+        Map<String, String> scaled = new LinkedHashMap<String, String>();
+        Map<String, String> expected = new LinkedHashMap<String, String>();
+        for (int lines : new int[] {10000, 100000})
+        {
+            WorkloadGenerator g = new WorkloadGenerator(lines);
+            g.setLines(lines);
+            StringBuilder program = new StringBuilder();
+            StringBuilder output = new StringBuilder();
+            g.generate(program, output);
+            scaled.put("generated" + lines / 1000 + "k", program.toString());
+            expected.put("generated" + lines / 1000 + "k", output.toString());
+        }
+        inputs.putAll(scaled);
+
+        for (Map.Entry<String, String> in : inputs.entrySet())
+        {
+            String text = in.getValue();
+            int tokens = countTokens(new Scanner(text));
+            double ops = runner.run("scan", in.getKey(), () -> countTokens(new Scanner(text)));
+            addScanMetrics(runner, ops, tokens, text.length());
+        }
+        for (Map.Entry<String, String> in : scaled.entrySet())
+        {
+            File file = File.createTempFile("benchmark", ".txt");
+            file.deleteOnExit();
+            Files.write(file.toPath(), in.getValue().getBytes(StandardCharsets.US_ASCII));
+            int tokens = countTokens(new Scanner(file));
+            double ops = runner.run("scanMapped", in.getKey(),
+                () -> countTokens(new Scanner(file)));
+            addScanMetrics(runner, ops, tokens, file.length());
+        }
+        for (Map.Entry<String, String> in : inputs.entrySet())
+        {
+            String text = in.getValue();
+            runner.run("parse", in.getKey(), () -> parse(text));
+        }
+        for (Map.Entry<String, String> in : inputs.entrySet())
+        {
+            Program p = parse(in.getValue());
+            try
+            {
+                p.compile(new Emitter(new StringBuilder()));
+            }
+            catch (RuntimeException e)
+            {
+                continue;
+            }
+            runner.run("compile", in.getKey(), () ->
+            {
+                StringBuilder out = new StringBuilder();
+                p.compile(new Emitter(out));
+                return out.length();
+            });
+        }
+
+        for (Map.Entry<String, String> in : expected.entrySet())
+        {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            exec(parse(scaled.get(in.getKey())), output, 0);
+            if (!output.toString().equals(in.getValue()))
+            {
+                throw new IllegalStateException("Wrong output from " + in.getKey());
+            }
+        }
+        OutputStream discard = OutputStream.nullOutputStream();
+        Map<String, String> programs = new LinkedHashMap<String, String>();
+        for (String[] program : CPU_PROGRAMS)
+        {
+            programs.put(program[0], program[1]);
+        }
+        programs.put("generated10k", scaled.get("generated10k"));
+        for (Map.Entry<String, String> in : programs.entrySet())
+        {
+            Program p = parse(in.getValue());
+            runner.run("exec", in.getKey(), () -> exec(p, discard, 0));
+        }
+        Program fib = parse(programs.get("fib20"));
+        runner.run("execMemoized", "fib20",
+            () -> exec(fib, discard, Environment.DEFAULT_CACHE_CAPACITY));
+
+        runner.writeJson(resultFile);
+        System.out.println("Results written to " + resultFile);
+    }
+
+    /**
+     * Reads every parserTest and test file in the given directory that parses, in order
+     * of their names.
+     * @param dir           given corpus directory
+     * @return              map from each file name to its text
+     * @throws IOException  a file cannot be read
+     */
+    private static Map<String, String> loadCorpus(File dir) throws IOException
+    {
+        Map<String, String> corpus = new LinkedHashMap<String, String>();
+        File[] files = dir.listFiles((d, name) ->
+            name.matches("(parserTest|test)\\d+\\.txt"));
+        if (files == null)
+        {
+            return corpus;
+        }
+        Arrays.sort(files);
+        for (File f : files)
+        {
+            String text = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+            try
+            {
+                parse(text);
+                corpus.put(f.getName(), text);
+            }
+            catch (RuntimeException e)
+            {
+                System.out.println("Skipping " + f.getName() + ": " + e.getMessage());
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * Adds the tokens per second and megabytes per second of a scanning benchmark.
+     * @param runner        given BenchmarkRunner that ran the benchmark
+     * @param ops           given throughput of the benchmark in operations per second
+     * @param tokens        given number of tokens in the input
+     * @param length        given length of the input in characters
+     */
+    private static void addScanMetrics(BenchmarkRunner runner, double ops, int tokens,
+        long length)
+    {
+        runner.addSecondaryMetric("tokens", ops * tokens, "tokens/s");
+        runner.addSecondaryMetric("bytes", ops * length / 1e6, "MB/s");
+    }
+
+    /**
+     * Scans the rest of the input of the given Scanner.
+     * @param s             given Scanner
+     * @return              the number of tokens before the end of the file
+     * @throws Exception    the input cannot be scanned
+     */
+    private static int countTokens(Scanner s) throws Exception
+    {
+        int count = 0;
+        while (!s.nextToken().is(TokenKind.EOF))
+        {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Executes the given Program with the interpreter, printing to the given stream.
+     * @param p             given Program
+     * @param out           given stream that WRITELN prints to
+     * @param capacity      given capacity of the CallCache of each pure procedure, or 0
+     *                      for no memoization
+     * @return              the global Environment that the Program ran in
+     */
+    private static Environment exec(Program p, OutputStream out, int capacity)
+    {
+        Environment env = new Environment(null);
+        env.setMemoization(capacity, true);
+        env.setIo(new IoChannel(System.in, out));
+        p.exec(env);
+        return env;
+    }
+
+    /**
+     * Parses the given program.
+     * @param text          given text of the program
+     * @return              the parsed Program
+     */
+    private static Program parse(String text)
+    {
+        return new Parser(new Scanner(text)).parseProgram();
+    }
+}
@@ -0,0 +1,603 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * WorkloadGenerator class that generates valid programs of any size for scale testing
+ * the Scanner, Parser, interpreter, and code generator. The shape of the program is set
+ * by these knobs:
+ *
+ *  procedures      number of procedures (each one calls the one declared before it)
+ *  nestingDepth    number of WHILE loops nested inside each procedure
+ *  loopTrips       number of times each of those loops runs
+ *  expressionSize  number of operators in each generated expression
+ *  recursionDepth  depth of the recursive procedure's recursion (0 for no recursion)
+ *  lines           number of statements in the main program, one per line
+ *
+ * The main program assigns the global variables, calls the procedures, branches with
+ * IF...ELSE, and prints with WRITELN. While the program is written, the generator works
+ * out every value that it prints, so the expected output is written along with it and
+ * the same artefacts can be used to check that each stage gives the right answer.
+ * Division and mod are only ever by positive constants, and arithmetic wraps around like
+ * 32-bit integers, so the expected output is the same for the interpreter and for the
+ * compiled MIPS program. Both the program and the expected output are streamed, so
+ * programs with tens of millions of lines never have to fit in memory.
+ *
+ * Usage:
+ * WorkloadGenerator g = new WorkloadGenerator(<seed>);
+ * g.setLines(1000000);
+ * g.setNestingDepth(3);
+ * g.generate(<program Appendable>, <expected output Appendable>);
+ *
+ * java benchmark.WorkloadGenerator <program file> <expected output file> [knob=value ...]
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class WorkloadGenerator
+{
+    // Number of global variables in the main program
+    private static final int GLOBALS = 8;
+
+    // Names of the global variables by index
+    private static final String[] GLOBAL_NAMES = new String[GLOBALS];
+
+    static
+    {
+        for (int i = 0; i < GLOBALS; i++)
+        {
+            GLOBAL_NAMES[i] = "g" + i;
+        }
+    }
+
+    // Operators of generated expressions (MOD is written as "mod")
+    private static final char PLUS = '+';
+    private static final char MINUS = '-';
+    private static final char TIMES = '*';
+    private static final char DIVIDE = '/';
+    private static final char MOD = '%';
+
+    // Relational operators of generated conditions
+    private static final String[] RELOPS = {"=", "<>", "<", ">", "<=", ">="};
+
+    // Source of every random choice, so the same seed gives the same program
+    private Random random;
+
+    // Number of procedures
+    private int procedures;
+
+    // Number of nested WHILE loops in each procedure
+    private int nestingDepth;
+
+    // Number of times each WHILE loop runs
+    private int loopTrips;
+
+    // Number of operators in each expression
+    private int expressionSize;
+
+    // Depth of the recursion of the recursive procedure
+    private int recursionDepth;
+
+    // Number of statements in the main program
+    private long lines;
+
+    // Expressions of each procedure, one for each loop level (set by generate())
+    private Node[][] bodies;
+
+    /**
+     * Creates a new WorkloadGenerator with the given seed and the default knobs: four
+     * procedures with two nested loops of ten trips, expressions of four operators,
+     * recursion ten deep, and 10,000 lines.
+     * @param seed          given seed of the random choices
+     */
+    public WorkloadGenerator(long seed)
+    {
+        random = new Random(seed);
+        procedures = 4;
+        nestingDepth = 2;
+        loopTrips = 10;
+        expressionSize = 4;
+        recursionDepth = 10;
+        lines = 10000;
+    }
+
+    /**
+     * Sets the number of procedures.
+     * @param procedures        given number of procedures
+     */
+    public void setProcedures(int procedures)
+    {
+        this.procedures = procedures;
+    }
+
+    /**
+     * Sets the number of WHILE loops nested inside each procedure.
+     * @param nestingDepth      given nesting depth
+     */
+    public void setNestingDepth(int nestingDepth)
+    {
+        this.nestingDepth = nestingDepth;
+    }
+
+    /**
+     * Sets the number of times each WHILE loop runs.
+     * @param loopTrips         given trip count
+     */
+    public void setLoopTrips(int loopTrips)
+    {
+        this.loopTrips = loopTrips;
+    }
+
+    /**
+     * Sets the number of operators in each generated expression.
+     * @param expressionSize    given number of operators
+     */
+    public void setExpressionSize(int expressionSize)
+    {
+        this.expressionSize = expressionSize;
+    }
+
+    /**
+     * Sets the depth of the recursive procedure's recursion.
+     * @param recursionDepth    given depth (0 for no recursive calls)
+     */
+    public void setRecursionDepth(int recursionDepth)
+    {
+        this.recursionDepth = recursionDepth;
+    }
+
+    /**
+     * Sets the number of statements in the main program.
+     * @param lines             given number of lines
+     */
+    public void setLines(long lines)
+    {
+        this.lines = lines;
+    }
+
+    /**
+     * Sets the knob with the given name to the given value.
+     * @param knob              given name of the knob
+     * @param value             given value
+     * @throws IllegalArgumentException     there is no knob with that name
+     */
+    public void set(String knob, long value)
+    {
+        switch (knob)
+        {
+            case "procedures":
+                setProcedures((int) value);
+                break;
+            case "nestingDepth":
+                setNestingDepth((int) value);
+                break;
+            case "loopTrips":
+                setLoopTrips((int) value);
+                break;
+            case "expressionSize":
+                setExpressionSize((int) value);
+                break;
+            case "recursionDepth":
+                setRecursionDepth((int) value);
+                break;
+            case "lines":
+                setLines(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown knob " + knob);
+        }
+    }
+
+    /**
+     * Writes a program with the current knobs to the given Appendable, and the output
+     * that the program prints when it runs to the other.
+     * @param program           given Appendable that the program is written to
+     * @param expected          given Appendable that the expected output is written to
+     * @throws IOException      either Appendable cannot be written
+     */
+    public void generate(Appendable program, Appendable expected) throws IOException
+    {
+        program.append("VAR g0");
+        for (int i = 1; i < GLOBALS; i++)
+        {
+            program.append(", g").append(String.valueOf(i));
+        }
+        program.append(";\n");
+        program.append("PROCEDURE rec(n, x);\n"
+            + "BEGIN\n"
+            + "    rec := x;\n"
+            + "    IF n > 0 THEN rec := rec(n - 1, (x * 3 + n) mod 1000) + n;\n"
+            + "END;\n");
+        bodies = new Node[procedures][];
+        for (int k = 0; k < procedures; k++)
+        {
+            writeProcedure(program, k);
+        }
+
+        int[] globals = new int[GLOBALS];
+        for (int i = 0; i < GLOBALS; i++)
+        {
+            globals[i] = i + 1;
+            program.append("g").append(String.valueOf(i)).append(" := ")
+                .append(String.valueOf(i + 1)).append(";\n");
+        }
+        StringBuilder line = new StringBuilder();
+        for (long n = 0; n < lines; n++)
+        {
+            line.setLength(0);
+            writeStatement(line, globals, expected);
+            program.append(line).append('\n');
+        }
+        program.append(".\n");
+    }
+
+    /**
+     * Writes one statement of the main program and updates the values of the globals
+     * to what they are after the statement runs.
+     * @param line              given StringBuilder that the statement is written to
+     * @param globals           given values of the global variables
+     * @param expected          given Appendable that any printed value is written to
+     * @throws IOException      the expected output cannot be written
+     */
+    private void writeStatement(StringBuilder line, int[] globals, Appendable expected)
+        throws IOException
+    {
+        int target = random.nextInt(GLOBALS);
+        int choice = random.nextInt(20);
+        if (choice < 8 || (choice < 12 && procedures == 0)
+            || (choice == 19 && recursionDepth == 0))
+        {
+            Node e = expression(expressionSize, GLOBALS);
+            line.append('g').append(target).append(" := ");
+            e.write(line, GLOBAL_NAMES);
+            line.append(';');
+            globals[target] = e.eval(globals);
+        }
+        else if (choice < 12)
+        {
+            int k = random.nextInt(procedures);
+            Node a = expression(expressionSize / 2, GLOBALS);
+            Node b = expression(expressionSize / 2, GLOBALS);
+            line.append('g').append(target).append(" := p").append(k).append('(');
+            a.write(line, GLOBAL_NAMES);
+            line.append(", ");
+            b.write(line, GLOBAL_NAMES);
+            line.append(");");
+            globals[target] = call(k, a.eval(globals), b.eval(globals));
+        }
+        else if (choice < 15)
+        {
+            Node left = expression(expressionSize / 2, GLOBALS);
+            Node right = expression(expressionSize / 2, GLOBALS);
+            String relop = RELOPS[random.nextInt(RELOPS.length)];
+            Node then = expression(expressionSize, GLOBALS);
+            Node otherwise = expression(expressionSize, GLOBALS);
+            line.append("IF ");
+            left.write(line, GLOBAL_NAMES);
+            line.append(' ').append(relop).append(' ');
+            right.write(line, GLOBAL_NAMES);
+            line.append(" THEN g").append(target).append(" := ");
+            then.write(line, GLOBAL_NAMES);
+            line.append("; ELSE g").append(target).append(" := ");
+            otherwise.write(line, GLOBAL_NAMES);
+            line.append(';');
+            boolean taken = compare(left.eval(globals), relop, right.eval(globals));
+            globals[target] = taken ? then.eval(globals) : otherwise.eval(globals);
+        }
+        else if (choice < 19)
+        {
+            Node e = expression(expressionSize, GLOBALS);
+            line.append("WRITELN(");
+            e.write(line, GLOBAL_NAMES);
+            line.append(");");
+            expected.append(String.valueOf(e.eval(globals))).append('\n');
+        }
+        else
+        {
+            int source = random.nextInt(GLOBALS);
+            line.append('g').append(target).append(" := rec(").append(recursionDepth)
+                .append(", g").append(source).append(" mod 1000);");
+            globals[target] = rec(recursionDepth, globals[source] % 1000);
+        }
+    }
+
+    /**
+     * Writes the procedure with the given index. Its variables are the parameters a and
+     * b, the running value t, and one counter for each nested WHILE loop. Each loop level
+     * assigns t a new expression and then runs the next loop, and the result is t plus
+     * (for every procedure but the first) a call to the procedure before it.
+     * @param program           given Appendable that the procedure is written to
+     * @param k                 given index of the procedure
+     * @throws IOException      the procedure cannot be written
+     */
+    private void writeProcedure(Appendable program, int k) throws IOException
+    {
+        String[] names = new String[3 + nestingDepth];
+        names[0] = "a";
+        names[1] = "b";
+        names[2] = "t";
+        for (int d = 0; d < nestingDepth; d++)
+        {
+            names[3 + d] = "c" + d;
+        }
+        bodies[k] = new Node[nestingDepth + 1];
+        StringBuilder b = new StringBuilder();
+        b.append("PROCEDURE p").append(k).append("(a, b);\n");
+        b.append("VAR t");
+        for (int d = 0; d < nestingDepth; d++)
+        {
+            b.append(", c").append(d);
+        }
+        b.append(";\n");
+        b.append("BEGIN\n");
+        String indent = "    ";
+        for (int d = 0; d <= nestingDepth; d++)
+        {
+            // the expression at level d may use a, b, and (once it is set) t, and the
+            // counters c0 to c(d - 1)
+            Node e = expression(expressionSize, d == 0 ? 2 : 3 + d);
+            bodies[k][d] = e;
+            b.append(indent).append("t := ");
+            e.write(b, names);
+            b.append(";\n");
+            if (d < nestingDepth)
+            {
+                b.append(indent).append("c").append(d).append(" := 0;\n");
+                b.append(indent).append("WHILE c").append(d).append(" < ").append(loopTrips)
+                    .append(" DO\n");
+                b.append(indent).append("BEGIN\n");
+                indent += "    ";
+            }
+        }
+        for (int d = nestingDepth - 1; d >= 0; d--)
+        {
+            b.append(indent).append("c").append(d).append(" := c").append(d).append(" + 1;\n");
+            indent = indent.substring(4);
+            b.append(indent).append("END;\n");
+        }
+        b.append("    p").append(k).append(" := t");
+        if (k > 0)
+        {
+            b.append(" + p").append(k - 1).append("(t mod 1000, a)");
+        }
+        b.append(";\n");
+        b.append("END;\n");
+        program.append(b);
+    }
+
+    /**
+     * Returns the value of a call to the procedure with the given index.
+     * @param k             given index of the procedure
+     * @param a             given value of the first argument
+     * @param b             given value of the second argument
+     * @return              the value that the procedure returns
+     */
+    private int call(int k, int a, int b)
+    {
+        int[] vars = new int[3 + nestingDepth];
+        vars[0] = a;
+        vars[1] = b;
+        run(bodies[k], 0, vars);
+        int t = vars[2];
+        return k > 0 ? t + call(k - 1, t % 1000, a) : t;
+    }
+
+    /**
+     * Runs the loop level with the given depth of a procedure: assigns t and then runs
+     * the WHILE loop of the next level.
+     * @param body          given expressions of the procedure
+     * @param d             given loop level
+     * @param vars          given values of the procedure's variables
+     */
+    private void run(Node[] body, int d, int[] vars)
+    {
+        vars[2] = body[d].eval(vars);
+        if (d < nestingDepth)
+        {
+            for (vars[3 + d] = 0; vars[3 + d] < loopTrips; vars[3 + d]++)
+            {
+                run(body, d + 1, vars);
+            }
+        }
+    }
+
+    /**
+     * Returns the value of a call to the recursive procedure.
+     * @param n             given remaining depth
+     * @param x             given running value
+     * @return              the value that rec(n, x) returns
+     */
+    private static int rec(int n, int x)
+    {
+        int[] xs = new int[n + 1];
+        xs[0] = x;
+        for (int i = 0; i < n; i++)
+        {
+            xs[i + 1] = (xs[i] * 3 + (n - i)) % 1000;
+        }
+        int result = xs[n];
+        for (int i = n - 1; i >= 0; i--)
+        {
+            result += n - i;
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the given values satisfy the given relational operator.
+     * @param left          given left value
+     * @param relop         given relational operator
+     * @param right         given right value
+     * @return              the value of the condition
+     */
+    private static boolean compare(int left, String relop, int right)
+    {
+        switch (relop)
+        {
+            case "=":
+                return left == right;
+            case "<>":
+                return left != right;
+            case "<":
+                return left < right;
+            case ">":
+                return left > right;
+            case "<=":
+                return left <= right;
+            default:
+                return left >= right;
+        }
+    }
+
+    /**
+     * Returns a random expression with the given number of operators over the variables
+     * with indexes below the given count.
+     * @param size          given number of operators
+     * @param variables     given number of variables that may be used
+     * @return              the root Node of the expression
+     */
+    private Node expression(int size, int variables)
+    {
+        if (size == 0)
+        {
+            return random.nextInt(3) == 0
+                ? new Node(random.nextInt(100))
+                : new Node(-1 - random.nextInt(variables));
+        }
+        int pick = random.nextInt(10);
+        if (pick >= 8)
+        {
+            // division and mod are only by positive constants so they can never fail
+            return new Node(pick == 8 ? DIVIDE : MOD, expression(size - 1, variables),
+                new Node(2 + random.nextInt(96)));
+        }
+        char op = pick < 4 ? PLUS : pick < 6 ? MINUS : TIMES;
+        int left = random.nextInt(size);
+        return new Node(op, expression(left, variables),
+            expression(size - 1 - left, variables));
+    }
+
+    /**
+     * Generates a program and its expected output into the given files. Any knob may be
+     * set with an argument such as lines=10000000, and seed=<n> sets the seed.
+     * @param args          the program file, the expected output file, and the knobs
+     * @throws IOException  either file cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        long seed = 1;
+        for (int i = 2; i < args.length; i++)
+        {
+            if (args[i].startsWith("seed="))
+            {
+                seed = Long.parseLong(args[i].substring(5));
+            }
+        }
+        WorkloadGenerator g = new WorkloadGenerator(seed);
+        for (int i = 2; i < args.length; i++)
+        {
+            String[] knob = args[i].split("=");
+            if (!knob[0].equals("seed"))
+            {
+                g.set(knob[0], Long.parseLong(knob[1]));
+            }
+        }
+        BufferedWriter program = new BufferedWriter(new FileWriter(args[0]), 1 << 16);
+        BufferedWriter expected = new BufferedWriter(new FileWriter(args[1]), 1 << 16);
+        g.generate(program, expected);
+        program.close();
+        expected.close();
+    }
+
+    /**
+     * Node class that is one operator or operand of a generated expression. An operand is
+     * either a constant or a variable, given by its index.
+     */
+    private static class Node
+    {
+        // Operator of the Node (0 for an operand)
+        private char op;
+
+        // Value of a constant, or -1 - the index of a variable
+        private int value;
+
+        // Operands of an operator
+        private Node left;
+        private Node right;
+
+        /**
+         * Creates a new operand Node.
+         * @param value         given constant (at least 0), or -1 - the index of a variable
+         */
+        Node(int value)
+        {
+            this.value = value;
+        }
+
+        /**
+         * Creates a new operator Node.
+         * @param op            given operator
+         * @param left          given left operand
+         * @param right         given right operand
+         */
+        Node(char op, Node left, Node right)
+        {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns the value of the expression with the given values of the variables.
+         * @param vars          given values of the variables by index
+         * @return              the value, wrapping around like a 32-bit integer
+         */
+        int eval(int[] vars)
+        {
+            switch (op)
+            {
+                case 0:
+                    return value >= 0 ? value : vars[-1 - value];
+                case PLUS:
+                    return left.eval(vars) + right.eval(vars);
+                case MINUS:
+                    return left.eval(vars) - right.eval(vars);
+                case TIMES:
+                    return left.eval(vars) * right.eval(vars);
+                case DIVIDE:
+                    return left.eval(vars) / right.eval(vars);
+                default:
+                    return left.eval(vars) % right.eval(vars);
+            }
+        }
+
+        /**
+         * Writes the expression with the given names of the variables.
+         * @param b             given StringBuilder that the expression is written to
+         * @param names         given names of the variables by index
+         */
+        void write(StringBuilder b, String[] names)
+        {
+            if (op == 0)
+            {
+                if (value >= 0)
+                {
+                    b.append(value);
+                }
+                else
+                {
+                    b.append(names[-1 - value]);
+                }
+                return;
+            }
+            b.append('(');
+            left.write(b, names);
+            b.append(op == MOD ? " mod " : " " + op + " ");
+            right.write(b, names);
+            b.append(')');
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package bytecode;
+
+/**
+ * Bytecode class that holds a Program after it has been lowered by a BytecodeBuilder.
+ * It contains the int instruction stream (see Opcode), the constant pool, the table of
+ * procedures (entry address, name, frame size, and parameter slots), the number of
+ * global variable slots, and the deepest the operand stack can grow within one frame.
+ * Once a BytecodeInliner has inlined procedures into main, the global frame also holds
+ * the slots of those procedures after the global variables.
+ * 
+ * Usage:
+ * Bytecode b = <Program>.lower();
+ * int[] code = b.getCode();
+ * int value = b.getConstant(0);
+ * int count = b.getProcedureCount();
+ * int entry = b.getEntry(0);
+ * String name = b.getName(0);
+ * int size = b.getFrameSize(0);
+ * int[] parms = b.getParmSlots(0);
+ * int globals = b.getGlobalSize();
+ * int depth = b.getMaxStack();
+ * 
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class Bytecode
+{
+    // Instruction stream of opcodes and their operands
+    private int[] code;
+
+    // Constant pool
+    private int[] constants;
+
+    // Address of the first instruction of each procedure
+    private int[] entries;
+
+    // Name of each procedure
+    private String[] names;
+
+    // Number of variable slots in each procedure's frame
+    private int[] frameSizes;
+
+    // Slots of each procedure's parameters
+    private int[][] parmSlots;
+
+    // Number of global variable slots
+    private int globalSize;
+
+    // Deepest the operand stack grows within one frame
+    private int maxStack;
+
+    /**
+     * Creates a new Bytecode with the given instruction stream, constant pool,
+     * procedure table, number of globals, and maximum operand stack depth.
+     * @param code          Instruction stream of opcodes and their operands
+     * @param constants     Constant pool
+     * @param entries       Address of the first instruction of each procedure
+     * @param names         Name of each procedure
+     * @param frameSizes    Number of variable slots in each procedure's frame
+     * @param parmSlots     Slots of each procedure's parameters
+     * @param globalSize    Number of global variable slots
+     * @param maxStack      Deepest the operand stack grows within one frame
+     */
+    public Bytecode(int[] code, int[] constants, int[] entries, String[] names,
+            int[] frameSizes, int[][] parmSlots, int globalSize, int maxStack)
+    {
+        this.code = code;
+        this.constants = constants;
+        this.entries = entries;
+        this.names = names;
+        this.frameSizes = frameSizes;
+        this.parmSlots = parmSlots;
+        this.globalSize = globalSize;
+        this.maxStack = maxStack;
+    }
+
+    /**
+     * Returns the instruction stream.
+     * @return  The instruction stream of opcodes and their operands
+     */
+    public int[] getCode()
+    {
+        return code;
+    }
+
+    /**
+     * Returns the constant pool entry at the given index.
+     * @param index     Index into the constant pool
+     * @return          The constant at that index
+     */
+    public int getConstant(int index)
+    {
+        return constants[index];
+    }
+
+    /**
+     * Returns the whole constant pool.
+     * @return  The constant pool
+     */
+    public int[] getConstants()
+    {
+        return constants;
+    }
+
+    /**
+     * Returns the number of procedures in the procedure table.
+     * @return          The number of procedures
+     */
+    public int getProcedureCount()
+    {
+        return entries.length;
+    }
+
+    /**
+     * Returns the address of the first instruction of the given procedure.
+     * @param proc      Index of the procedure
+     * @return          The entry address of the procedure
+     */
+    public int getEntry(int proc)
+    {
+        return entries[proc];
+    }
+
+    /**
+     * Returns the name of the given procedure.
+     * @param proc      Index of the procedure
+     * @return          The name of the procedure
+     */
+    public String getName(int proc)
+    {
+        return names[proc];
+    }
+
+    /**
+     * Returns the number of variable slots in the given procedure's frame.
+     * @param proc      Index of the procedure
+     * @return          The frame size of the procedure
+     */
+    public int getFrameSize(int proc)
+    {
+        return frameSizes[proc];
+    }
+
+    /**
+     * Returns the slots of the given procedure's parameters, in order.
+     * @param proc      Index of the procedure
+     * @return          The parameter slots of the procedure
+     */
+    public int[] getParmSlots(int proc)
+    {
+        return parmSlots[proc];
+    }
+
+    /**
+     * Returns the number of global variable slots.
+     * @return  The number of global variable slots
+     */
+    public int getGlobalSize()
+    {
+        return globalSize;
+    }
+
+    /**
+     * Returns the deepest the operand stack grows within one frame.
+     * @return  The maximum operand stack depth of one frame
+     */
+    public int getMaxStack()
+    {
+        return maxStack;
+    }
+}
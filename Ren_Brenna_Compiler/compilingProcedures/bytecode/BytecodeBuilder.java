@@ -0,0 +1,387 @@
+package bytecode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ast.ProcedureDeclaration;
+
+/**
+ * BytecodeBuilder class that implements CodeBuilder to emit the stack-based
+ * bytecode of a Program for the VirtualMachine. It plays the same role for the virtual machine that the Emitter
+ * plays for MIPS: it appends instructions, hands out labels, interns constants in the
+ * constant pool, and keeps a table of the declared procedures. Jumps to labels are patched
+ * once the labels are placed, and the operand stack depth is tracked so that the virtual
+ * machine knows how much stack one frame can use. A constant that is immediately used by
+ * an arithmetic instruction or a conditional jump is fused into it (see Opcode), which
+ * saves the virtual machine one dispatch.
+ * 
+ * Usage:
+ * BytecodeBuilder b = new BytecodeBuilder(<number of globals>);
+ * b.declareProcedure(<ProcedureDeclaration>);
+ * int label = b.newLabel();
+ * b.emitConst(1);
+ * b.emitLoad(<depth>, <slot>);
+ * b.emitStore(<depth>, <slot>);
+ * b.emit(Opcode.ADD);
+ * b.emitJump(Opcode.JUMP, label);
+ * b.placeLabel(label);
+ * b.emitCall("foo", 2);
+ * b.placeProcedure("foo");
+ * Bytecode code = b.build();
+ * 
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class BytecodeBuilder implements CodeBuilder
+{
+    // Instruction stream emitted so far
+    private int[] code;
+
+    // Number of ints used in the instruction stream
+    private int length;
+
+    // Constant pool and the index of each constant in it
+    private List<Integer> constants;
+    private Map<Integer, Integer> constantIndex;
+
+    // Address of each label (-1 until it is placed)
+    private List<Integer> labels;
+
+    // Addresses of the jump operands that refer to each label
+    private List<Integer> fixups;
+
+    // Index, entry label, frame size, and parameter slots of each procedure
+    private Map<String, Integer> procIndex;
+    private List<Integer> procLabels;
+    private List<Integer> frameSizes;
+    private List<int[]> parmSlots;
+
+    // Number of global variable slots
+    private int globalSize;
+
+    // Current and deepest operand stack depth
+    private int depth;
+    private int maxStack;
+
+    // Address of the last instruction if it is a CONST that can be fused (-1 otherwise)
+    private int lastConst;
+
+    /**
+     * Creates a new BytecodeBuilder for a Program with the given number of global slots.
+     * @param globalSize    Number of global variable slots
+     */
+    public BytecodeBuilder(int globalSize)
+    {
+        code = new int[64];
+        length = 0;
+        constants = new ArrayList<Integer>();
+        constantIndex = new HashMap<Integer, Integer>();
+        labels = new ArrayList<Integer>();
+        fixups = new ArrayList<Integer>();
+        procIndex = new HashMap<String, Integer>();
+        procLabels = new ArrayList<Integer>();
+        frameSizes = new ArrayList<Integer>();
+        parmSlots = new ArrayList<int[]>();
+        this.globalSize = globalSize;
+        depth = 0;
+        maxStack = 0;
+        lastConst = -1;
+    }
+
+    /**
+     * Adds the given resolved procedure to the procedure table. If a procedure with
+     * the same name was already declared, the new declaration replaces it, just as
+     * it does in the Environment.
+     * @param proc          Resolved ProcedureDeclaration to declare
+     */
+    @Override
+    public void declareProcedure(ProcedureDeclaration proc)
+    {
+        int[] slots = new int[proc.getParms().size()];
+        for (int i = 0; i < slots.length; i++)
+        {
+            slots[i] = proc.getParmSlot(i);
+        }
+        Integer index = procIndex.get(proc.getID());
+        if (index == null)
+        {
+            procIndex.put(proc.getID(), procLabels.size());
+            procLabels.add(newLabel());
+            frameSizes.add(proc.getFrameSize());
+            parmSlots.add(slots);
+        }
+        else
+        {
+            frameSizes.set(index, proc.getFrameSize());
+            parmSlots.set(index, slots);
+        }
+    }
+
+    /**
+     * Returns the number of parameters of the declared procedure with the given name.
+     * @param id            String name of the procedure
+     * @return              The number of parameters of the procedure
+     */
+    @Override
+    public int getParmCount(String id)
+    {
+        return parmSlots.get(lookup(id)).length;
+    }
+
+    /**
+     * Places the entry label of the procedure with the given name at the current address.
+     * The operand stack is empty at the start of a procedure.
+     * @param id            String name of the procedure
+     */
+    @Override
+    public void placeProcedure(String id)
+    {
+        placeLabel(procLabels.get(lookup(id)));
+        depth = 0;
+    }
+
+    /**
+     * Returns a new label that has not been placed yet.
+     * @return              The new label
+     */
+    @Override
+    public int newLabel()
+    {
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    /**
+     * Places the given label at the current address.
+     * @param label         Label to place
+     */
+    @Override
+    public void placeLabel(int label)
+    {
+        labels.set(label, length);
+        lastConst = -1;
+    }
+
+    /**
+     * Emits an instruction that has no operands.
+     * @param op            Opcode of the instruction
+     */
+    @Override
+    public void emit(int op)
+    {
+        if (op >= Opcode.ADD && op <= Opcode.MOD && fuseConst(op - Opcode.ADD + Opcode.ADD_CONST))
+        {
+            adjustStack(-1);
+            return;
+        }
+        lastConst = -1;
+        append(op);
+        if (op == Opcode.PRINT)
+        {
+            adjustStack(-1);
+        }
+        else if (op == Opcode.READ || op == Opcode.RET)
+        {
+            adjustStack(1);
+        }
+        else if (op != Opcode.HALT)
+        {
+            adjustStack(-1);
+        }
+    }
+
+    /**
+     * Emits an instruction that pushes the given constant.
+     * @param value         Value to push
+     */
+    @Override
+    public void emitConst(int value)
+    {
+        Integer index = constantIndex.get(value);
+        if (index == null)
+        {
+            index = constants.size();
+            constants.add(value);
+            constantIndex.put(value, index);
+        }
+        append(Opcode.CONST);
+        append(index);
+        adjustStack(1);
+        lastConst = length - 2;
+    }
+
+    /**
+     * Emits an instruction that pushes the variable with the given resolved
+     * (depth, slot) pair.
+     * @param varDepth      Number of parent frames to walk to reach the variable
+     * @param slot          Slot of the variable in its frame
+     */
+    @Override
+    public void emitLoad(int varDepth, int slot)
+    {
+        lastConst = -1;
+        append(varDepth == 0 ? Opcode.LOAD : Opcode.LOAD_GLOBAL);
+        append(slot);
+        adjustStack(1);
+    }
+
+    /**
+     * Emits an instruction that pops a value into the variable with the given
+     * resolved (depth, slot) pair.
+     * @param varDepth      Number of parent frames to walk to reach the variable
+     * @param slot          Slot of the variable in its frame
+     */
+    @Override
+    public void emitStore(int varDepth, int slot)
+    {
+        lastConst = -1;
+        append(varDepth == 0 ? Opcode.STORE : Opcode.STORE_GLOBAL);
+        append(slot);
+        adjustStack(-1);
+    }
+
+    /**
+     * Emits a jump to the given label. Conditional jumps pop the two values they compare.
+     * @param op            Opcode of the jump (JUMP or one of the IF_ opcodes)
+     * @param label         Label to jump to
+     */
+    @Override
+    public void emitJump(int op, int label)
+    {
+        if (op == Opcode.JUMP || !fuseConst(op - Opcode.IF_EQ + Opcode.IF_EQ_CONST))
+        {
+            lastConst = -1;
+            append(op);
+        }
+        fixups.add(length);
+        append(label);
+        if (op != Opcode.JUMP)
+        {
+            adjustStack(-2);
+        }
+    }
+
+    /**
+     * Emits a call to the procedure with the given name, which pops the given number
+     * of arguments and pushes the procedure's return value.
+     * @param id            String name of the procedure
+     * @param argCount      Number of arguments on the operand stack
+     */
+    @Override
+    public void emitCall(String id, int argCount)
+    {
+        lastConst = -1;
+        append(Opcode.CALL);
+        append(lookup(id));
+        append(argCount);
+        adjustStack(1 - argCount);
+    }
+
+    /**
+     * Emits the tail call as a call followed by a store into slot 0.
+     * @param id            String name of the procedure
+     * @param argCount      Number of arguments on the operand stack
+     */
+    @Override
+    public void emitTailCall(String id, int argCount)
+    {
+        emitCall(id, argCount);
+        emitStore(0, 0);
+    }
+
+    /**
+     * Patches every jump with the address of its label and returns the finished Bytecode.
+     * @return              The Bytecode that was built
+     */
+    public Bytecode build()
+    {
+        int[] finished = new int[length];
+        System.arraycopy(code, 0, finished, 0, length);
+        for (int address : fixups)
+        {
+            finished[address] = labels.get(finished[address]);
+        }
+        int[] pool = new int[constants.size()];
+        for (int i = 0; i < pool.length; i++)
+        {
+            pool[i] = constants.get(i);
+        }
+        int[] entries = new int[procLabels.size()];
+        String[] names = new String[procLabels.size()];
+        int[] sizes = new int[procLabels.size()];
+        for (Map.Entry<String, Integer> proc : procIndex.entrySet())
+        {
+            names[proc.getValue()] = proc.getKey();
+        }
+        for (int i = 0; i < entries.length; i++)
+        {
+            entries[i] = labels.get(procLabels.get(i));
+            sizes[i] = frameSizes.get(i);
+        }
+        return new Bytecode(finished, pool, entries, names, sizes,
+                parmSlots.toArray(new int[0][]), globalSize, maxStack);
+    }
+
+    /**
+     * Returns the index of the procedure with the given name in the procedure table.
+     * Throws an IllegalArgumentException if no such procedure was declared.
+     * @param id            String name of the procedure
+     * @return              Index of the procedure
+     */
+    private int lookup(String id)
+    {
+        Integer index = procIndex.get(id);
+        if (index == null)
+        {
+            throw new IllegalArgumentException("Unknown procedure " + id);
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the CONST that was just emitted, if there is one, with the given fused
+     * instruction, whose first operand is the constant's value.
+     * @param fused         Opcode of the fused instruction
+     * @return              true if the CONST was replaced, false otherwise
+     */
+    private boolean fuseConst(int fused)
+    {
+        if (lastConst < 0)
+        {
+            return false;
+        }
+        code[lastConst + 1] = constants.get(code[lastConst + 1]);
+        code[lastConst] = fused;
+        lastConst = -1;
+        return true;
+    }
+
+    /**
+     * Appends one int to the instruction stream, doubling its capacity when it is full.
+     * @param value         Opcode or operand to append
+     */
+    private void append(int value)
+    {
+        if (length == code.length)
+        {
+            int[] grown = new int[code.length * 2];
+            System.arraycopy(code, 0, grown, 0, length);
+            code = grown;
+        }
+        code[length] = value;
+        length++;
+    }
+
+    /**
+     * Changes the tracked operand stack depth by the given amount and records
+     * the deepest it has been.
+     * @param change        Change in the number of values on the operand stack
+     */
+    private void adjustStack(int change)
+    {
+        depth += change;
+        maxStack = Math.max(maxStack, depth);
+    }
+}
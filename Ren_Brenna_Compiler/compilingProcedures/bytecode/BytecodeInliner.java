@@ -0,0 +1,514 @@
+package bytecode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BytecodeInliner class that replaces the CALL instructions to small procedures in a
+ * Bytecode with a copy of the procedure's body, which saves the VirtualMachine the cost
+ * of the call: popping the arguments into a new frame, clearing the frame, and pushing
+ * and popping the call stack. The inlined body uses slots of the caller's frame instead
+ * (of the global frame, for main), one block of slots for each procedure inlined into
+ * the caller: the arguments are stored into the slots of the parameters, the other
+ * slots are set to 0 just like a new frame would be, and RET becomes a LOAD of the slot
+ * of the return value. Recursive procedures (ones that can call themselves, directly or
+ * through other procedures) are never inlined.
+ *
+ * Whether a call is inlined is decided by an InliningCostModel, the same cost model as
+ * the IR's Inliner uses. The size of a procedure is the number of instructions in its
+ * body, not counting RET and JUMPs. Procedures are visited from the last one declared
+ * to main, so a procedure usually has its own calls inlined before it is inlined itself.
+ *
+ * Usage:
+ * BytecodeInliner inliner = new BytecodeInliner();
+ * BytecodeInliner inliner = new BytecodeInliner(<InliningCostModel>);
+ * Bytecode inlined = inliner.inline(<Bytecode>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class BytecodeInliner
+{
+    /**
+     * Insn class that holds one decoded instruction. The address operand of a jump is
+     * replaced by the instruction it jumps to, so instructions can be inserted and
+     * copied without patching addresses.
+     */
+    private static class Insn
+    {
+        // Opcode of the instruction
+        private int op;
+
+        // Operands of the instruction, without the address of a jump
+        private int[] operands;
+
+        // Instruction that a jump jumps to (null for other instructions)
+        private Insn target;
+
+        /**
+         * Creates a new Insn with the given opcode, operands, and jump target.
+         * @param op            Opcode of the instruction
+         * @param operands      Operands, without the address of a jump
+         * @param target        Instruction that the jump jumps to, or null
+         */
+        private Insn(int op, int[] operands, Insn target)
+        {
+            this.op = op;
+            this.operands = operands;
+            this.target = target;
+        }
+    }
+
+    // Cost model that decides which calls are inlined
+    private InliningCostModel costModel;
+
+    // Constant pool of the Bytecode being inlined
+    private List<Integer> constants;
+
+    // Name of each procedure of the Bytecode being inlined
+    private String[] names;
+
+    /**
+     * Creates a new BytecodeInliner with the default InliningCostModel.
+     */
+    public BytecodeInliner()
+    {
+        this(new InliningCostModel());
+    }
+
+    /**
+     * Creates a new BytecodeInliner with the given cost model.
+     * @param costModel     InliningCostModel that decides which calls are inlined
+     */
+    public BytecodeInliner(InliningCostModel costModel)
+    {
+        this.costModel = costModel;
+    }
+
+    /**
+     * Returns a copy of the given Bytecode with the calls that pass the cost model
+     * inlined. The frames of the callers (and the global frame) grow by the slots of the
+     * procedures inlined into them. The given Bytecode is not changed.
+     * @param program       Bytecode built by a BytecodeBuilder
+     * @return              The inlined Bytecode, or the given one if no call was inlined
+     */
+    public Bytecode inline(Bytecode program)
+    {
+        int count = program.getProcedureCount();
+        List<List<Insn>> procs = new ArrayList<List<Insn>>();
+        for (int i = 0; i < count; i++)
+        {
+            procs.add(decode(program, program.getEntry(i), Opcode.RET));
+        }
+        List<Insn> main = decode(program, 0, Opcode.HALT);
+        Set<Integer> recursive = findRecursive(procs);
+        names = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            names[i] = program.getName(i);
+        }
+
+        constants = new ArrayList<Integer>();
+        for (int c : program.getConstants())
+        {
+            constants.add(c);
+        }
+        int[] frameSizes = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            frameSizes[i] = program.getFrameSize(i);
+        }
+        int globalSize = program.getGlobalSize();
+        boolean changed = false;
+        for (int i = count; i >= 0; i--)
+        {
+            List<Insn> code = i == 0 ? main : procs.get(i - 1);
+            int size = i == 0 ? globalSize : frameSizes[i - 1];
+            Map<Integer, Integer> bases = new HashMap<Integer, Integer>();
+            for (int j = 0; j < code.size(); j++)
+            {
+                Insn call = code.get(j);
+                if (call.op != Opcode.CALL || recursive.contains(call.operands[0]))
+                {
+                    continue;
+                }
+                int callee = call.operands[0];
+                List<Insn> body = procs.get(callee);
+                int cost = costModel.getCost(getSize(body), call.operands[1]);
+                if (!costModel.isInlined(cost))
+                {
+                    continue;
+                }
+                costModel.report(names[callee], i == 0 ? null : names[i - 1], cost);
+                Integer base = bases.get(callee);
+                if (base == null)
+                {
+                    base = size;
+                    bases.put(callee, base);
+                    size += frameSizes[callee] + 1;
+                }
+                List<Insn> copy = expand(call, body, frameSizes[callee],
+                    program.getParmSlots(callee), base);
+                code.addAll(j + 1, copy.subList(1, copy.size()));
+                j += copy.size() - 1;
+                changed = true;
+            }
+            if (i == 0)
+            {
+                globalSize = size;
+            }
+            else
+            {
+                frameSizes[i - 1] = size;
+            }
+        }
+        if (!changed)
+        {
+            return program;
+        }
+        return encode(main, procs, frameSizes, program, globalSize);
+    }
+
+    /**
+     * Decodes the instructions from the given address to the first instruction with the
+     * given opcode, which ends main (HALT) or a procedure (RET).
+     * @param program       Given Bytecode
+     * @param start         Address of the first instruction
+     * @param end           Opcode of the last instruction
+     * @return              List of the decoded instructions
+     */
+    private static List<Insn> decode(Bytecode program, int start, int end)
+    {
+        int[] code = program.getCode();
+        List<Insn> insns = new ArrayList<Insn>();
+        Map<Integer, Insn> at = new HashMap<Integer, Insn>();
+        List<Integer> targets = new ArrayList<Integer>();
+        int pc = start;
+        while (true)
+        {
+            int op = code[pc];
+            int length = getOperandCount(op);
+            boolean jump = isJump(op);
+            int[] operands = new int[jump ? length - 1 : length];
+            System.arraycopy(code, pc + 1, operands, 0, operands.length);
+            Insn insn = new Insn(op, operands, null);
+            at.put(pc, insn);
+            insns.add(insn);
+            targets.add(jump ? code[pc + length] : -1);
+            pc += 1 + length;
+            if (op == end)
+            {
+                break;
+            }
+        }
+        for (int i = 0; i < insns.size(); i++)
+        {
+            if (targets.get(i) >= 0)
+            {
+                insns.get(i).target = at.get(targets.get(i));
+            }
+        }
+        return insns;
+    }
+
+    /**
+     * Finds the procedures that can call themselves, directly or through the procedures
+     * they call.
+     * @param procs         Decoded body of each procedure
+     * @return              Indices of the recursive procedures
+     */
+    private static Set<Integer> findRecursive(List<List<Insn>> procs)
+    {
+        Map<Integer, Set<Integer>> callees = new HashMap<Integer, Set<Integer>>();
+        for (int p = 0; p < procs.size(); p++)
+        {
+            Set<Integer> called = new HashSet<Integer>();
+            for (Insn insn : procs.get(p))
+            {
+                if (insn.op == Opcode.CALL)
+                {
+                    called.add(insn.operands[0]);
+                }
+            }
+            callees.put(p, called);
+        }
+        return InliningCostModel.findRecursive(callees);
+    }
+
+    /**
+     * Returns the number of instructions of a procedure that still cost something once
+     * it is inlined.
+     * @param body          Decoded body of the procedure
+     * @return              Number of instructions besides JUMPs and RET
+     */
+    private static int getSize(List<Insn> body)
+    {
+        int size = 0;
+        for (Insn insn : body)
+        {
+            if (insn.op != Opcode.JUMP && insn.op != Opcode.RET)
+            {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the instructions that replace a call: the arguments are popped into the
+     * parameter slots of the callee's block of slots (an argument for a parameter that
+     * a later parameter with the same name overrides goes to the spare slot after the
+     * block), the other slots of the block are set to 0, and then a copy of the body
+     * runs with its slots moved into the block and its RET replaced by a LOAD of the
+     * return value. The CALL instruction itself becomes the first of them, so the jumps
+     * to the call now jump to the instructions that replace it.
+     * @param call          CALL instruction
+     * @param body          Decoded body of the called procedure
+     * @param frameSize     Number of slots of the called procedure's frame
+     * @param parms         Slots of the called procedure's parameters
+     * @param base          First slot of the callee's block in the caller's frame
+     * @return              List of the instructions that replace the call
+     */
+    private List<Insn> expand(Insn call, List<Insn> body, int frameSize, int[] parms, int base)
+    {
+        List<Insn> code = new ArrayList<Insn>();
+        int argCount = call.operands[1];
+        boolean[] set = new boolean[frameSize];
+        for (int i = argCount - 1; i >= 0; i--)
+        {
+            int slot = set[parms[i]] ? frameSize : parms[i];
+            set[parms[i]] = true;
+            code.add(new Insn(Opcode.STORE, new int[] {base + slot}, null));
+        }
+        int zero = constants.indexOf(0);
+        if (zero < 0)
+        {
+            zero = constants.size();
+            constants.add(0);
+        }
+        for (int slot = 0; slot < frameSize; slot++)
+        {
+            if (!set[slot])
+            {
+                code.add(new Insn(Opcode.CONST, new int[] {zero}, null));
+                code.add(new Insn(Opcode.STORE, new int[] {base + slot}, null));
+            }
+        }
+
+        Map<Insn, Insn> copies = new IdentityHashMap<Insn, Insn>();
+        for (Insn insn : body)
+        {
+            Insn copy;
+            if (insn.op == Opcode.RET)
+            {
+                copy = new Insn(Opcode.LOAD, new int[] {base}, null);
+            }
+            else if (insn.op == Opcode.LOAD || insn.op == Opcode.STORE)
+            {
+                copy = new Insn(insn.op, new int[] {base + insn.operands[0]}, null);
+            }
+            else
+            {
+                copy = new Insn(insn.op, insn.operands, insn.target);
+            }
+            copies.put(insn, copy);
+            code.add(copy);
+        }
+        for (Insn insn : code)
+        {
+            if (insn.target != null)
+            {
+                insn.target = copies.get(insn.target);
+            }
+        }
+        Insn first = code.get(0);
+        call.op = first.op;
+        call.operands = first.operands;
+        code.set(0, call);
+        return code;
+    }
+
+    /**
+     * Encodes main and the procedures into a new Bytecode, main first and then the
+     * procedures in the order of the procedure table, and finds how deep the operand
+     * stack can grow in one frame.
+     * @param main          Decoded main, ending with HALT
+     * @param procs         Decoded body of each procedure
+     * @param frameSizes    Number of slots in each procedure's frame
+     * @param program       Bytecode that was inlined
+     * @param globalSize    Number of slots in the global frame
+     * @return              The new Bytecode
+     */
+    private Bytecode encode(List<Insn> main, List<List<Insn>> procs, int[] frameSizes,
+        Bytecode program, int globalSize)
+    {
+        List<List<Insn>> units = new ArrayList<List<Insn>>();
+        units.add(main);
+        units.addAll(procs);
+        Map<Insn, Integer> address = new IdentityHashMap<Insn, Integer>();
+        int length = 0;
+        for (List<Insn> unit : units)
+        {
+            for (Insn insn : unit)
+            {
+                address.put(insn, length);
+                length += 1 + insn.operands.length + (insn.target != null ? 1 : 0);
+            }
+        }
+        int[] code = new int[length];
+        int pc = 0;
+        int maxStack = program.getMaxStack();
+        for (List<Insn> unit : units)
+        {
+            for (Insn insn : unit)
+            {
+                code[pc++] = insn.op;
+                for (int operand : insn.operands)
+                {
+                    code[pc++] = operand;
+                }
+                if (insn.target != null)
+                {
+                    code[pc++] = address.get(insn.target);
+                }
+            }
+            maxStack = Math.max(maxStack, getMaxStack(unit));
+        }
+
+        int[] entries = new int[procs.size()];
+        int[][] parmSlots = new int[procs.size()][];
+        for (int i = 0; i < entries.length; i++)
+        {
+            entries[i] = address.get(procs.get(i).get(0));
+            parmSlots[i] = program.getParmSlots(i);
+        }
+        int[] pool = new int[constants.size()];
+        for (int i = 0; i < pool.length; i++)
+        {
+            pool[i] = constants.get(i);
+        }
+        return new Bytecode(code, pool, entries, names, frameSizes, parmSlots, globalSize,
+            maxStack);
+    }
+
+    /**
+     * Returns the deepest the operand stack grows in main or in one procedure, following
+     * every path from its first instruction. A RET counts as pushing its return value.
+     * @param unit          Decoded main or procedure
+     * @return              Largest number of values on the operand stack
+     */
+    private static int getMaxStack(List<Insn> unit)
+    {
+        Map<Insn, Integer> next = new IdentityHashMap<Insn, Integer>();
+        for (int i = 0; i < unit.size(); i++)
+        {
+            next.put(unit.get(i), i + 1);
+        }
+        Map<Insn, Integer> depth = new IdentityHashMap<Insn, Integer>();
+        ArrayDeque<Insn> work = new ArrayDeque<Insn>();
+        depth.put(unit.get(0), 0);
+        work.push(unit.get(0));
+        int max = 0;
+        while (!work.isEmpty())
+        {
+            Insn insn = work.pop();
+            int after = depth.get(insn) + getStackChange(insn);
+            max = Math.max(max, after);
+            List<Insn> succs = new ArrayList<Insn>(2);
+            if (insn.target != null)
+            {
+                succs.add(insn.target);
+            }
+            int i = next.get(insn);
+            if (insn.op != Opcode.JUMP && insn.op != Opcode.RET && insn.op != Opcode.HALT
+                && i < unit.size())
+            {
+                succs.add(unit.get(i));
+            }
+            for (Insn succ : succs)
+            {
+                if (!depth.containsKey(succ))
+                {
+                    depth.put(succ, after);
+                    work.push(succ);
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns how many values an instruction adds to the operand stack.
+     * @param insn          Given instruction
+     * @return              Number of values pushed minus the number popped
+     */
+    private static int getStackChange(Insn insn)
+    {
+        switch (insn.op)
+        {
+            case Opcode.CONST:
+            case Opcode.LOAD:
+            case Opcode.LOAD_GLOBAL:
+            case Opcode.READ:
+            case Opcode.RET:
+                return 1;
+            case Opcode.STORE:
+            case Opcode.STORE_GLOBAL:
+            case Opcode.PRINT:
+            case Opcode.ADD:
+            case Opcode.SUB:
+            case Opcode.MUL:
+            case Opcode.DIV:
+            case Opcode.MOD:
+                return -1;
+            case Opcode.CALL:
+                return 1 - insn.operands[1];
+            default:
+                if (insn.op >= Opcode.IF_EQ && insn.op <= Opcode.IF_GE)
+                {
+                    return -2;
+                }
+                if (insn.op >= Opcode.IF_EQ_CONST && insn.op <= Opcode.IF_GE_CONST)
+                {
+                    return -1;
+                }
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the number of operands of the given opcode, counting the address of a jump.
+     * @param op            Given opcode
+     * @return              Number of ints that follow the opcode
+     */
+    private static int getOperandCount(int op)
+    {
+        if (op == Opcode.CALL || op >= Opcode.IF_EQ_CONST && op <= Opcode.IF_GE_CONST)
+        {
+            return 2;
+        }
+        if (op == Opcode.HALT || op >= Opcode.ADD && op <= Opcode.MOD
+            || op == Opcode.RET || op == Opcode.PRINT || op == Opcode.READ)
+        {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Returns whether the last operand of the given opcode is the address of a jump.
+     * @param op            Given opcode
+     * @return              true for JUMP and the conditional jumps
+     */
+    private static boolean isJump(int op)
+    {
+        return op >= Opcode.JUMP && op <= Opcode.IF_GE
+            || op >= Opcode.IF_EQ_CONST && op <= Opcode.IF_GE_CONST;
+    }
+}
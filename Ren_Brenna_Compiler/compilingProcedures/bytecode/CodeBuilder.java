@@ -0,0 +1,119 @@
+package bytecode;
+
+import ast.ProcedureDeclaration;
+
+/**
+ * CodeBuilder interface for the back ends that a Program can be lowered into. The AST's
+ * lower() methods describe the Program as stack-based instructions (see Opcode) using only
+ * these methods, so the same lowering drives both the BytecodeBuilder for the VirtualMachine
+ * and the JVM class generator. A Program is lowered by declaring every procedure, lowering
+ * the main Statements, emitting HALT, and then placing and lowering each procedure body,
+ * which ends with RET.
+ * 
+ * Usage:
+ * CodeBuilder b = new BytecodeBuilder(<number of globals>);
+ * b.declareProcedure(<ProcedureDeclaration>);
+ * int count = b.getParmCount("foo");
+ * int label = b.newLabel();
+ * b.emitConst(1);
+ * b.emitLoad(<depth>, <slot>);
+ * b.emitStore(<depth>, <slot>);
+ * b.emit(Opcode.ADD);
+ * b.emitJump(Opcode.JUMP, label);
+ * b.placeLabel(label);
+ * b.emitCall("foo", 2);
+ * b.emitTailCall("foo", 2);
+ * b.placeProcedure("foo");
+ * 
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public interface CodeBuilder
+{
+    /**
+     * Adds the given resolved procedure to the procedure table. If a procedure with
+     * the same name was already declared, the new declaration replaces it, just as
+     * it does in the Environment.
+     * @param proc          Resolved ProcedureDeclaration to declare
+     */
+    void declareProcedure(ProcedureDeclaration proc);
+
+    /**
+     * Returns the number of parameters of the declared procedure with the given name.
+     * @param id            String name of the procedure
+     * @return              The number of parameters of the procedure
+     */
+    int getParmCount(String id);
+
+    /**
+     * Starts the body of the procedure with the given name at the current position.
+     * The operand stack is empty at the start of a procedure.
+     * @param id            String name of the procedure
+     */
+    void placeProcedure(String id);
+
+    /**
+     * Returns a new label that has not been placed yet.
+     * @return              The new label
+     */
+    int newLabel();
+
+    /**
+     * Places the given label at the current position.
+     * @param label         Label to place
+     */
+    void placeLabel(int label);
+
+    /**
+     * Emits an instruction that has no operands.
+     * @param op            Opcode of the instruction
+     */
+    void emit(int op);
+
+    /**
+     * Emits an instruction that pushes the given constant.
+     * @param value         Value to push
+     */
+    void emitConst(int value);
+
+    /**
+     * Emits an instruction that pushes the variable with the given resolved
+     * (depth, slot) pair.
+     * @param depth         Number of parent frames to walk to reach the variable
+     * @param slot          Slot of the variable in its frame
+     */
+    void emitLoad(int depth, int slot);
+
+    /**
+     * Emits an instruction that pops a value into the variable with the given
+     * resolved (depth, slot) pair.
+     * @param depth         Number of parent frames to walk to reach the variable
+     * @param slot          Slot of the variable in its frame
+     */
+    void emitStore(int depth, int slot);
+
+    /**
+     * Emits a jump to the given label. Conditional jumps pop the two values they compare.
+     * @param op            Opcode of the jump (JUMP or one of the IF_ opcodes)
+     * @param label         Label to jump to
+     */
+    void emitJump(int op, int label);
+
+    /**
+     * Emits a call to the procedure with the given name, which pops the given number
+     * of arguments and pushes the procedure's return value.
+     * @param id            String name of the procedure
+     * @param argCount      Number of arguments on the operand stack
+     */
+    void emitCall(String id, int argCount);
+
+    /**
+     * Emits a tail call that the procedure being lowered makes to itself (see
+     * Assignment.markTailCalls()), which pops the given number of arguments
+     * and leaves the procedure's return value in slot 0 of its frame, just like
+     * emitCall() followed by emitStore(0, 0). The operand stack is empty afterwards.
+     * @param id            String name of the procedure
+     * @param argCount      Number of arguments on the operand stack
+     */
+    void emitTailCall(String id, int argCount);
+}
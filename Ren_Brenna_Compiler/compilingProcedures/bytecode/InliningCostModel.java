@@ -0,0 +1,160 @@
+package bytecode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * InliningCostModel class that decides which calls the inliners (the IR's Inliner and
+ * the BytecodeInliner) replace with a copy of the called procedure's body. The cost of a
+ * call is the size of the procedure's body, counted in the instructions that still cost
+ * something once the body is inlined, minus the instructions that inlining saves: the
+ * call cost (the fixed cost of the call and frame) plus one for each argument, which no
+ * longer has to be passed. A call is inlined if its cost is at most the threshold.
+ * Recursive procedures (ones that can call themselves, directly or through other
+ * procedures) are never inlined. When a report target is set, every inlined call is
+ * reported on it with its cost.
+ *
+ * Usage:
+ * InliningCostModel model = new InliningCostModel();
+ * model.setThreshold(8);
+ * model.setCallCost(6);
+ * model.setReport(<Appendable such as System.out, or null for no report>);
+ * int cost = model.getCost(<size of the body>, <number of arguments>);
+ * boolean inline = model.isInlined(cost);
+ * model.report("foo", "bar", cost);
+ * Set<String> recursive = InliningCostModel.findRecursive(<Map of callees>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class InliningCostModel
+{
+    // Largest cost of a call that is inlined
+    private int threshold;
+
+    // Instructions that a call costs besides passing its arguments
+    private int callCost;
+
+    // Target of the report of the inlined calls (null for no report)
+    private Appendable report;
+
+    /**
+     * Creates a new InliningCostModel with a threshold of 8 and a call cost of 6.
+     */
+    public InliningCostModel()
+    {
+        threshold = 8;
+        callCost = 6;
+    }
+
+    /**
+     * Sets the largest cost of a call that is inlined.
+     * @param threshold     Largest cost; a negative threshold inlines fewer calls
+     */
+    public void setThreshold(int threshold)
+    {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Sets the number of instructions that a call costs besides passing its arguments.
+     * @param callCost      Fixed cost of a call
+     */
+    public void setCallCost(int callCost)
+    {
+        this.callCost = callCost;
+    }
+
+    /**
+     * Sets where the inlined calls are reported.
+     * @param report        Target of the report, or null for no report
+     */
+    public void setReport(Appendable report)
+    {
+        this.report = report;
+    }
+
+    /**
+     * Returns the cost of a call to a procedure with the given size.
+     * @param size          Number of instructions of the body that still cost something
+     *                      once it is inlined
+     * @param argCount      Number of arguments of the call
+     * @return              The size minus the call cost and one for each argument
+     */
+    public int getCost(int size, int argCount)
+    {
+        return size - callCost - argCount;
+    }
+
+    /**
+     * Returns whether a call with the given cost is inlined.
+     * @param cost          Cost of the call (see getCost())
+     * @return              true if the cost is at most the threshold; otherwise,
+     *                      false
+     */
+    public boolean isInlined(int cost)
+    {
+        return cost <= threshold;
+    }
+
+    /**
+     * Reports an inlined call, if there is a report target.
+     * @param callee        Name of the inlined procedure
+     * @param caller        Name of the procedure that called it, or null for main
+     * @param cost          Cost of the call
+     * @throws UncheckedIOException     the report cannot be written
+     */
+    public void report(String callee, String caller, int cost)
+    {
+        if (report == null)
+        {
+            return;
+        }
+        try
+        {
+            report.append("; inlined ").append(callee).append(" into ")
+                .append(caller == null ? "main" : caller).append(" (cost ")
+                .append(String.valueOf(cost)).append(")\n");
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Finds the procedures that can call themselves, directly or through the procedures
+     * they call.
+     * @param <T>           Type that names a procedure
+     * @param callees       Procedures that each procedure calls; every called procedure
+     *                      must be a key
+     * @return              Set of the recursive procedures
+     */
+    public static <T> Set<T> findRecursive(Map<T, Set<T>> callees)
+    {
+        Set<T> recursive = new HashSet<T>();
+        for (T p : callees.keySet())
+        {
+            Set<T> reached = new HashSet<T>();
+            List<T> work = new ArrayList<T>(callees.get(p));
+            while (!work.isEmpty())
+            {
+                T next = work.remove(work.size() - 1);
+                if (reached.add(next))
+                {
+                    work.addAll(callees.get(next));
+                }
+            }
+            if (reached.contains(p))
+            {
+                recursive.add(p);
+            }
+        }
+        return recursive;
+    }
+}
@@ -0,0 +1,129 @@
+package bytecode;
+
+/**
+ * Opcode class that lists the int opcodes of the stack-based bytecode that a Program
+ * is lowered into. Each instruction is one opcode followed by the number of int operands
+ * listed next to it. All values are ints on the operand stack; variables live in frames
+ * of int slots that were resolved before the Program was lowered.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public final class Opcode
+{
+    /** Stops the virtual machine. No operands. */
+    public static final int HALT = 0;
+
+    /** Pushes the constant pool entry at the given index. Operand: index. */
+    public static final int CONST = 1;
+
+    /** Pushes the given slot of the current frame. Operand: slot. */
+    public static final int LOAD = 2;
+
+    /** Pops a value into the given slot of the current frame. Operand: slot. */
+    public static final int STORE = 3;
+
+    /** Pushes the given slot of the global frame. Operand: slot. */
+    public static final int LOAD_GLOBAL = 4;
+
+    /** Pops a value into the given slot of the global frame. Operand: slot. */
+    public static final int STORE_GLOBAL = 5;
+
+    /** Pops two values and pushes their sum. No operands. */
+    public static final int ADD = 6;
+
+    /** Pops two values and pushes their difference. No operands. */
+    public static final int SUB = 7;
+
+    /** Pops two values and pushes their product. No operands. */
+    public static final int MUL = 8;
+
+    /** Pops two values and pushes their quotient. No operands. */
+    public static final int DIV = 9;
+
+    /** Pops two values and pushes their remainder. No operands. */
+    public static final int MOD = 10;
+
+    /** Jumps to the given address. Operand: address. */
+    public static final int JUMP = 11;
+
+    /** Pops two values and jumps if they are equal. Operand: address. */
+    public static final int IF_EQ = 12;
+
+    /** Pops two values and jumps if they are not equal. Operand: address. */
+    public static final int IF_NE = 13;
+
+    /** Pops two values and jumps if the first is less than the second. Operand: address. */
+    public static final int IF_LT = 14;
+
+    /** Pops two values and jumps if the first is greater than the second. Operand: address. */
+    public static final int IF_GT = 15;
+
+    /** Pops two values and jumps if the first is at most the second. Operand: address. */
+    public static final int IF_LE = 16;
+
+    /** Pops two values and jumps if the first is at least the second. Operand: address. */
+    public static final int IF_GE = 17;
+
+    /**
+     * Pops the given number of arguments into the parameters of a new frame for the
+     * given procedure and jumps to its entry. Operands: procedure index, argument count.
+     */
+    public static final int CALL = 18;
+
+    /** Pushes slot 0 of the current frame, discards the frame, and returns. No operands. */
+    public static final int RET = 19;
+
+    /** Pops a value and prints it on its own line. No operands. */
+    public static final int PRINT = 20;
+
+    /** Reads an integer from the input and pushes it. No operands. */
+    public static final int READ = 21;
+
+    /*
+     * The BytecodeBuilder fuses a CONST with the arithmetic instruction or conditional
+     * jump that follows it into one of the instructions below, which take the constant
+     * value itself as an operand. Each one is the same as the instruction it replaces
+     * (ADD_CONST is ADD, IF_EQ_CONST is IF_EQ, and so on) with the constant as the
+     * second value.
+     */
+
+    /** Adds the given value to the value on top of the stack. Operand: value. */
+    public static final int ADD_CONST = 22;
+
+    /** Subtracts the given value from the value on top of the stack. Operand: value. */
+    public static final int SUB_CONST = 23;
+
+    /** Multiplies the value on top of the stack by the given value. Operand: value. */
+    public static final int MUL_CONST = 24;
+
+    /** Divides the value on top of the stack by the given value. Operand: value. */
+    public static final int DIV_CONST = 25;
+
+    /** Replaces the value on top of the stack by its remainder. Operand: value. */
+    public static final int MOD_CONST = 26;
+
+    /** Pops a value and jumps if it equals the given value. Operands: value, address. */
+    public static final int IF_EQ_CONST = 27;
+
+    /** Pops a value and jumps if it differs from the given value. Operands: value, address. */
+    public static final int IF_NE_CONST = 28;
+
+    /** Pops a value and jumps if it is less than the given value. Operands: value, address. */
+    public static final int IF_LT_CONST = 29;
+
+    /** Pops a value and jumps if it is greater than the given value. Operands: value, address. */
+    public static final int IF_GT_CONST = 30;
+
+    /** Pops a value and jumps if it is at most the given value. Operands: value, address. */
+    public static final int IF_LE_CONST = 31;
+
+    /** Pops a value and jumps if it is at least the given value. Operands: value, address. */
+    public static final int IF_GE_CONST = 32;
+
+    /**
+     * Opcode is only a holder for constants and cannot be instantiated.
+     */
+    private Opcode()
+    {
+    }
+}
@@ -0,0 +1,318 @@
+package bytecode;
+
+import java.util.Arrays;
+
+import environment.IoChannel;
+
+/**
+ * VirtualMachine class that executes the Bytecode of a lowered Program with a single
+ * switch-dispatched loop instead of walking the AST. Values are kept on an int operand
+ * stack, variables are kept in int frames (the global frame first, then one frame per
+ * active procedure call), and calls push their return address and frame pointer onto a
+ * separate call stack. All three stacks live on the heap and grow as needed, so deep
+ * recursion does not use the Java stack; together they may use at most the memory budget
+ * given to the VirtualMachine, which limits how deep the recursion can go. Output is
+ * printed exactly like the AST interpreter prints it, through an IoChannel that is bound
+ * to standard input and output unless another one is set with setIo().
+ * 
+ * Usage:
+ * VirtualMachine vm = new VirtualMachine(<Bytecode>);
+ * VirtualMachine vm = new VirtualMachine(<Bytecode>, <memory budget in bytes>);
+ * vm.setIo(<IoChannel>);
+ * vm.run();
+ * vm.run(<int array of global values, updated when the run ends>);
+ * 
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class VirtualMachine
+{
+    // Default number of bytes that the stacks may use
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+
+    // Bytecode to execute
+    private Bytecode program;
+
+    // Number of bytes that the operand, frame, and call stacks may use together
+    private long memoryBudget;
+
+    // Input and output of the program (null to use standard input and output)
+    private IoChannel io;
+
+    /**
+     * Creates a new VirtualMachine that executes the given Bytecode with the default
+     * memory budget.
+     * @param program       Bytecode to execute
+     */
+    public VirtualMachine(Bytecode program)
+    {
+        this(program, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Creates a new VirtualMachine that executes the given Bytecode with the given
+     * memory budget.
+     * @param program       Bytecode to execute
+     * @param memoryBudget  Number of bytes that the stacks may use together
+     */
+    public VirtualMachine(Bytecode program, long memoryBudget)
+    {
+        this.program = program;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Sets the IoChannel that PRINT and READ instructions use.
+     * @param io            given IoChannel
+     */
+    public void setIo(IoChannel io)
+    {
+        this.io = io;
+    }
+
+    /**
+     * Executes the Bytecode from address 0 until it reaches a HALT instruction, with
+     * every global variable starting at 0.
+     * @postcondition       The Program has been executed and its output printed.
+     */
+    public void run()
+    {
+        run(new int[0]);
+    }
+
+    /**
+     * Executes the Bytecode from address 0 until it reaches a HALT instruction. The
+     * global variables start with the values in the given array (or 0 past its end),
+     * and their final values are copied back into it.
+     * @param globals       Values of the global variables, indexed by slot
+     * @throws IllegalStateException    the stacks need more than the memory budget
+     * @postcondition       The Program has been executed and its output printed.
+     */
+    public void run(int[] globals)
+    {
+        IoChannel channel = io == null ? new IoChannel() : io;
+        try
+        {
+            execute(globals, channel);
+        }
+        finally
+        {
+            channel.flush();
+        }
+    }
+
+    /**
+     * Executes the Bytecode from address 0 until it reaches a HALT instruction.
+     * @param globals       Values of the global variables, indexed by slot
+     * @param io            IoChannel that PRINT and READ instructions use
+     * @throws IllegalStateException    the stacks need more than the memory budget
+     */
+    private void execute(int[] globals, IoChannel io)
+    {
+        int[] code = program.getCode();
+        int[] constants = program.getConstants();
+        int maxStack = program.getMaxStack();
+        int procCount = program.getProcedureCount();
+        int[] entries = new int[procCount];
+        int[] frameSizes = new int[procCount];
+        int[][] parmSlots = new int[procCount][];
+        for (int i = 0; i < procCount; i++)
+        {
+            entries[i] = program.getEntry(i);
+            frameSizes[i] = program.getFrameSize(i);
+            parmSlots[i] = program.getParmSlots(i);
+        }
+
+        int[] stack = new int[Math.max(16, maxStack)];
+        int sp = 0;
+        int[] frames = new int[Math.max(16, program.getGlobalSize())];
+        System.arraycopy(globals, 0, frames, 0, Math.min(globals.length, program.getGlobalSize()));
+        int fp = 0;
+        int top = program.getGlobalSize();
+        int[] calls = new int[16];
+        int cp = 0;
+        int pc = 0;
+
+        while (true)
+        {
+            switch (code[pc++])
+            {
+                case Opcode.HALT:
+                    System.arraycopy(frames, 0, globals, 0,
+                        Math.min(globals.length, program.getGlobalSize()));
+                    return;
+                case Opcode.CONST:
+                    stack[sp++] = constants[code[pc++]];
+                    break;
+                case Opcode.LOAD:
+                    stack[sp++] = frames[fp + code[pc++]];
+                    break;
+                case Opcode.STORE:
+                    frames[fp + code[pc++]] = stack[--sp];
+                    break;
+                case Opcode.LOAD_GLOBAL:
+                    stack[sp++] = frames[code[pc++]];
+                    break;
+                case Opcode.STORE_GLOBAL:
+                    frames[code[pc++]] = stack[--sp];
+                    break;
+                case Opcode.ADD:
+                    sp--;
+                    stack[sp - 1] += stack[sp];
+                    break;
+                case Opcode.SUB:
+                    sp--;
+                    stack[sp - 1] -= stack[sp];
+                    break;
+                case Opcode.MUL:
+                    sp--;
+                    stack[sp - 1] *= stack[sp];
+                    break;
+                case Opcode.DIV:
+                    sp--;
+                    stack[sp - 1] /= stack[sp];
+                    break;
+                case Opcode.MOD:
+                    sp--;
+                    stack[sp - 1] %= stack[sp];
+                    break;
+                case Opcode.ADD_CONST:
+                    stack[sp - 1] += code[pc++];
+                    break;
+                case Opcode.SUB_CONST:
+                    stack[sp - 1] -= code[pc++];
+                    break;
+                case Opcode.MUL_CONST:
+                    stack[sp - 1] *= code[pc++];
+                    break;
+                case Opcode.DIV_CONST:
+                    stack[sp - 1] /= code[pc++];
+                    break;
+                case Opcode.MOD_CONST:
+                    stack[sp - 1] %= code[pc++];
+                    break;
+                case Opcode.JUMP:
+                    pc = code[pc];
+                    break;
+                case Opcode.IF_EQ:
+                    sp -= 2;
+                    pc = stack[sp] == stack[sp + 1] ? code[pc] : pc + 1;
+                    break;
+                case Opcode.IF_NE:
+                    sp -= 2;
+                    pc = stack[sp] != stack[sp + 1] ? code[pc] : pc + 1;
+                    break;
+                case Opcode.IF_LT:
+                    sp -= 2;
+                    pc = stack[sp] < stack[sp + 1] ? code[pc] : pc + 1;
+                    break;
+                case Opcode.IF_GT:
+                    sp -= 2;
+                    pc = stack[sp] > stack[sp + 1] ? code[pc] : pc + 1;
+                    break;
+                case Opcode.IF_LE:
+                    sp -= 2;
+                    pc = stack[sp] <= stack[sp + 1] ? code[pc] : pc + 1;
+                    break;
+                case Opcode.IF_GE:
+                    sp -= 2;
+                    pc = stack[sp] >= stack[sp + 1] ? code[pc] : pc + 1;
+                    break;
+                case Opcode.IF_EQ_CONST:
+                    sp--;
+                    pc = stack[sp] == code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case Opcode.IF_NE_CONST:
+                    sp--;
+                    pc = stack[sp] != code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case Opcode.IF_LT_CONST:
+                    sp--;
+                    pc = stack[sp] < code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case Opcode.IF_GT_CONST:
+                    sp--;
+                    pc = stack[sp] > code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case Opcode.IF_LE_CONST:
+                    sp--;
+                    pc = stack[sp] <= code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case Opcode.IF_GE_CONST:
+                    sp--;
+                    pc = stack[sp] >= code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case Opcode.CALL:
+                {
+                    int proc = code[pc++];
+                    int argCount = code[pc++];
+                    int size = frameSizes[proc];
+                    if (top + size > frames.length)
+                    {
+                        frames = grow(frames, top + size, stack.length + calls.length);
+                    }
+                    for (int i = top; i < top + size; i++)
+                    {
+                        frames[i] = 0;
+                    }
+                    int[] parms = parmSlots[proc];
+                    sp -= argCount;
+                    for (int i = 0; i < argCount; i++)
+                    {
+                        frames[top + parms[i]] = stack[sp + i];
+                    }
+                    if (cp + 2 > calls.length)
+                    {
+                        calls = grow(calls, cp + 2, stack.length + frames.length);
+                    }
+                    calls[cp++] = pc;
+                    calls[cp++] = fp;
+                    fp = top;
+                    top += size;
+                    if (sp + maxStack + 1 > stack.length)
+                    {
+                        stack = grow(stack, sp + maxStack + 1, frames.length + calls.length);
+                    }
+                    pc = entries[proc];
+                    break;
+                }
+                case Opcode.RET:
+                    stack[sp++] = frames[fp];
+                    top = fp;
+                    fp = calls[--cp];
+                    pc = calls[--cp];
+                    break;
+                case Opcode.PRINT:
+                    io.writeln(stack[--sp]);
+                    break;
+                case Opcode.READ:
+                    stack[sp++] = io.readInt();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[pc - 1]
+                        + " at address " + (pc - 1));
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the given stack that can hold at least the needed number of
+     * ints, usually twice as long as before, without the stacks using more than the
+     * memory budget together.
+     * @param stack         Stack to grow
+     * @param needed        Number of ints that the stack must be able to hold
+     * @param others        Number of ints used by the other stacks
+     * @return              The grown copy of the stack
+     * @throws IllegalStateException    the stacks would need more than the memory budget
+     */
+    private int[] grow(int[] stack, int needed, int others)
+    {
+        long limit = Math.min(memoryBudget / 4 - others, Integer.MAX_VALUE - 8);
+        if (needed > limit)
+        {
+            throw new IllegalStateException("The stacks need more than the memory budget of "
+                + memoryBudget + " bytes");
+        }
+        return Arrays.copyOf(stack, (int) Math.min(Math.max(stack.length * 2L, needed), limit));
+    }
+}
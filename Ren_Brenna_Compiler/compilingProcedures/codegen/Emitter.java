@@ -1,225 +1,737 @@
-package codegen;
-import java.io.*;
-import java.util.List;
-
-import ast.ProcedureDeclaration;
-
-/**
- * Emitter class that prints the PASCAL code translated into MIPS Assembly code in
- * an output file.
- * @author 	Brenna Ren
- * @version	May 24, 2024
- * 
- * Usage:
- * Emitter e = new Emitter("output");
- * e.emit("Test");
- * e.close();
- * e.emitPush("$v0");
- * e.emitPop("$t0");
- * int val = e.nextLabelID();
- * e.setProcedureContext(<ProcedureDeclaration>);
- * e.clearProcedureContext();
- * bool l = e.isLocalVariable("test");
- * int offset = e.getOffset();
- */
-public class Emitter
-{
-    // Writes the output into the .asm file
-    private PrintWriter out;
-
-	// Accumulating label ID counter
-    private int labelID;
-
-    // Stores the current procedure being compiled (if any)
-    private ProcedureDeclaration curProc;
-
-    // Additional stack height from compiled expressions
-    private int excessStackHeight;
-
-
-	/**
-	 * Creates a new Emitter for writing code to a file with the given name.
-     * Sets the label ID to 1, the current ProcedureDeclaration to null,
-     * and the excessStackHeight to 0.
-	 * @param outputFileName		given output file name (string).
-	 */
-    public Emitter(String outputFileName)
-    {
-        try
-        {
-            out = new PrintWriter(new FileWriter(outputFileName), true);
-            labelID = 1;
-            curProc = null;
-            excessStackHeight = 0;
-        }
-        catch(IOException e)
-        {
-            throw new RuntimeException(e);
-        }
-    }
-
-	/**
-	 * Prints one line of code to file (with non-labels indented)
-	 * @param code			line of code to print (string)
-	 */
-    public void emit(String code)
-    {
-        if (!code.endsWith(":"))
-			code = "\t" + code;
-        out.println(code);
-    }
-
-	/**
-	 * Closes the file. Should be called after all calls to emit.
-	 * @postcondition		The output file is closed.
-	 */
-    public void close()
-    {
-        out.close();
-    }
-
-	/**
-	 * Pushes the value in the given register onto the stack.
-     * Adds 4 to the excessStackHeight.
-	 * @param reg			given register to push onto the stack.
-	 * @postcondition		value of the given register is pushed
-	 * 						onto the stack.
-	 */
-    public void emitPush(String reg)
-    {
-        emit("subu $sp $sp 4");
-        emit("sw " + reg + " ($sp)");
-        
-        excessStackHeight += 4;
-    }
-
-	/**
-	 * Pops the top value in the stack and stores it in the given register.
-     * Subtracts 4 from the excessStackHeight.
-	 * @param reg			given register to store the top value of the stack.
-	 * @postcondition		the top value of the stack has been popped off
-	 * 						and is now stored in the given register.
-	 */
-    public void emitPop(String reg)
-    {
-        emit("lw " + reg + " ($sp)");
-        emit("addu $sp $sp 4");
-
-        excessStackHeight -= 4;
-    }
-
-	/**
-	 * Increments the label ID counter and returns its new value.
-	 * @return				the value of the label ID counter
-	 * @postcondition		the label ID counter has been incremented by 1.
-	 */
-    public int nextLabelID()
-    {
-        labelID++;
-        return labelID;
-    }
-
-    /**
-     * Sets the current procedure to the given procedure and ensures
-     * that the Emitter knows the context of all the compiling. Sets
-     * the excess stack height to 0.
-     * @param proc          given ProcedureDeclaration that will
-     *                      be compiled
-     */
-    public void setProcedureContext(ProcedureDeclaration proc)
-    {
-        curProc = proc;
-        excessStackHeight = 0;
-    }
-    
-    /**
-     * Clears the procedure context by setting it to null.
-     * @postcondition       curProc is set to null.
-     */
-    public void clearProcedureContext()
-    {
-        curProc = null;
-    }
-
-    /**
-     * Returns whether the given variable name corresponds to a local variable
-     * or a global variable. If the variable has the same name as the
-     * procedure, it also counts as a local variable. Local variables can either
-     * be locally declared or an argument of the method.
-     * @param varName       given variable String name to analyze
-     * @return              true if the given variable name is a local variable,
-     *                      false otherwise
-     */
-    public boolean isLocalVariable(String varName)
-    {
-        if (curProc == null)
-        {
-            return false;
-        }
-
-        if (varName.equals(curProc.getID()))
-        {
-            return true;
-        }
-
-        List<String> parms = curProc.getParms();
-
-        for (String p : parms)
-        {
-            if (p.equals(varName))
-            {
-                return true;
-            }
-        }
-
-        for (String v : curProc.getLocalVars())
-        {
-            if (v.equals(varName))
-            {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Returns the stack offset for retrieving the given variable.
-     * Order of the stack:
-     * - Local variables
-     * - Return value
-     * - Parameters
-     * - Return address
-     * @param localVarName          given variable name to find stack offset of
-     * @return                      stack offset of the given variable
-     */
-    public int getOffset(String localVarName)
-    {
-        if (localVarName.equals(curProc.getID()))
-        {
-            return 0;
-        }
-
-        List <String> parms = curProc.getParms();
-        
-        int index = 0;
-
-        List<String> localVars = curProc.getLocalVars();
-        for (int i = 0; i < localVars.size(); i++)
-        {
-            if (localVars.get(i).equals(localVarName))
-            {
-                return 4 * i;
-            }
-        }
-
-        for (int i = 0; i < parms.size(); i++)
-        {
-            if (parms.get(i).equals(localVarName))
-            {
-                index = i;
-            }
-        }
-
-        return 4 * (parms.size() - index - 1) + excessStackHeight + 4;
-    }
-}
\ No newline at end of file
+package codegen;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+
+/**
+ * Emitter class that prints the PASCAL code translated into MIPS Assembly code in
+ * an output file. The emitted lines are buffered as Instructions and are run through
+ * a PeepholeOptimizer (if there is one) when the Emitter is closed, right before
+ * they are written out all at once. The output can be a file (written through its
+ * FileChannel, or through a memory-mapped buffer for very large programs), any
+ * WritableByteChannel, or an in-memory Appendable such as a StringBuilder, which
+ * compiles a program without touching the disk.
+ *
+ * Procedures are compiled with the stack-based calling convention unless the fast
+ * calling convention is turned on with setFastCalls(true) before anything is compiled.
+ * In the fast convention, the first four arguments are passed in $a0-$a3 and the rest
+ * on the stack, each procedure allocates its whole frame with a single subu, and only
+ * procedures that call other procedures save $ra. The frame layout is computed once per
+ * procedure, when setProcedureContext() is called. In the stack-based convention, each
+ * procedure saves $fp and points it at its frame, so its variables are addressed at fixed
+ * offsets from $fp; in the fast convention they are at fixed offsets from the frame's
+ * single allocation, so they are addressed from $sp.
+ * @author 	Brenna Ren
+ * @version	May 24, 2024
+ * 
+ * Usage:
+ * Emitter e = new Emitter("output");
+ * Emitter e = new Emitter("output", true);
+ * Emitter e = new Emitter(<StringBuilder>);
+ * Emitter e = new Emitter(<WritableByteChannel>);
+ * e.emit("Test");
+ * e.setOptimizer(<PeepholeOptimizer, or null to write the code as emitted>);
+ * PeepholeOptimizer p = e.getOptimizer();
+ * e.close();
+ * e.emitPush("$v0");
+ * e.emitPop("$t0");
+ * int val = e.nextLabelID();
+ * e.setProcedureContext(<ProcedureDeclaration>);
+ * e.clearProcedureContext();
+ * bool l = e.isLocalVariable("test");
+ * int offset = e.getOffset("test");
+ * String address = e.getAddress("test");
+ * e.setRegisterAllocator(<RegisterAllocator>);
+ * String reg = e.getRegister("test");
+ * int count = e.getParmCount("foo");
+ * int source = e.getArgumentIndex("foo", 2, 1);
+ * List<String> saved = e.getSavedRegisters();
+ * boolean live = e.isLiveAtEntry("test");
+ * List<String> shared = e.getSharedGlobals("foo");
+ * boolean small = Emitter.isImmediate(<value>);
+ * String temp = e.acquireTemporary();
+ * e.releaseTemporary();
+ * e.setFastCalls(true);
+ * boolean fast = e.isFastCalls();
+ * String arg = Emitter.getArgumentRegister(0);
+ * boolean leaf = e.isLeaf();
+ * int size = e.getFrameSize();
+ * e.emitDrop(2);
+ */
+public class Emitter
+{
+    // Registers that hold intermediate values of expressions, in order of use
+    // ($t0 and $t1 are scratch registers and $t5 to $t9 hold variables)
+    private static final String[] TEMPORARIES = {"$t2", "$t3", "$t4"};
+
+    // Registers that pass the first arguments of a call in the fast calling convention
+    private static final String[] ARGUMENTS = {"$a0", "$a1", "$a2", "$a3"};
+
+    // Channel that the output is written to (null if it is written elsewhere)
+    private WritableByteChannel channel;
+
+    // Whether the Emitter opened the channel and must close it
+    private boolean ownsChannel;
+
+    // Name of the memory-mapped output file (null if the output is not mapped)
+    private String mappedFileName;
+
+    // Appendable that the output is written to (null if it is written elsewhere)
+    private Appendable text;
+
+    // Instructions emitted so far, in order
+    private List<Instruction> code;
+
+    // Optimizer that the code is run through before it is written (null if none)
+    private PeepholeOptimizer optimizer;
+
+	// Accumulating label ID counter
+    private int labelID;
+
+    // Stores the current procedure being compiled (if any)
+    private ProcedureDeclaration curProc;
+
+    // Stack height pushed since the start of the current procedure
+    private int excessStackHeight;
+
+    // Register allocation of the Program being compiled (null if there is none)
+    private RegisterAllocator allocator;
+
+    // Registers of the register-resident variables in the current context
+    private Map<String, String> registers;
+
+    // Number of TEMPORARIES that are holding a value
+    private int temporaries;
+
+    // Whether procedures are compiled with the fast calling convention
+    private boolean fastCalls;
+
+    // Offsets of the current procedure's variables kept in memory (and, in the fast
+    // calling convention, of its saved registers and return address) from $fp, or from
+    // the bottom of its fast frame (null outside procedures)
+    private Map<String, Integer> frame;
+
+    // Names of the current procedure's return value, parameters, and locals
+    private Set<String> localNames;
+
+    // Number of bytes that the current procedure's fast frame allocates
+    private int frameSize;
+
+
+	/**
+	 * Creates a new Emitter for writing code to a file with the given name.
+	 * @param outputFileName		given output file name (string).
+	 */
+    public Emitter(String outputFileName)
+    {
+        this(outputFileName, false);
+    }
+
+    /**
+     * Creates a new Emitter for writing code to a file with the given name,
+     * either through the file's channel or by mapping the file into memory.
+     * The file is created (or emptied) right away.
+     * @param outputFileName        given output file name (string).
+     * @param memoryMapped          true to write the file through a memory-mapped
+     *                              buffer, false to write it through its channel
+     */
+    public Emitter(String outputFileName, boolean memoryMapped)
+    {
+        this();
+        try
+        {
+            FileChannel file = FileChannel.open(Paths.get(outputFileName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            if (memoryMapped)
+            {
+                file.close();
+                mappedFileName = outputFileName;
+            }
+            else
+            {
+                channel = file;
+                ownsChannel = true;
+            }
+        }
+        catch(IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a new Emitter for writing code to the given channel. The channel
+     * is not closed when the Emitter is closed.
+     * @param channel               given channel to write the output to
+     */
+    public Emitter(WritableByteChannel channel)
+    {
+        this();
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a new Emitter for appending code to the given Appendable, such as
+     * a StringBuilder, so that the output stays in memory.
+     * @param text                  given Appendable to write the output to
+     */
+    public Emitter(Appendable text)
+    {
+        this();
+        this.text = text;
+    }
+
+    /**
+     * Creates a new Emitter without an output.
+     * Sets the label ID to 1, the current ProcedureDeclaration to null,
+     * and the excessStackHeight to 0. The code is optimized with the
+     * standard peephole rules unless setOptimizer() is called.
+     */
+    private Emitter()
+    {
+        code = new ArrayList<Instruction>();
+        optimizer = new PeepholeOptimizer();
+        labelID = 1;
+        curProc = null;
+        excessStackHeight = 0;
+        allocator = null;
+        registers = null;
+        temporaries = 0;
+        fastCalls = false;
+        frame = null;
+        localNames = null;
+        frameSize = 0;
+    }
+
+	/**
+	 * Adds one line of code to the code that will be printed to file
+	 * @param code			line of code to print (string)
+	 */
+    public void emit(String code)
+    {
+        this.code.add(new Instruction(code));
+    }
+
+    /**
+     * Returns whether the given value fits in the 16-bit signed immediate field of
+     * instructions such as addiu and slti.
+     * @param value         given value
+     * @return              true if the value is from -32768 to 32767, false otherwise
+     */
+    public static boolean isImmediate(long value)
+    {
+        return value >= -32768 && value <= 32767;
+    }
+
+    /**
+     * Returns the next temporary register that does not hold a value and marks it as
+     * used. Temporaries are released in the opposite order by releaseTemporary(). A
+     * procedure call may overwrite every temporary.
+     * @return              name of the temporary register, or null if all are used
+     */
+    public String acquireTemporary()
+    {
+        if (temporaries == TEMPORARIES.length)
+        {
+            return null;
+        }
+        return TEMPORARIES[temporaries++];
+    }
+
+    /**
+     * Marks the most recently acquired temporary register as free again.
+     * @postcondition       One fewer temporary register is in use.
+     */
+    public void releaseTemporary()
+    {
+        temporaries--;
+    }
+
+    /**
+     * Turns the fast calling convention on or off. Should be called before anything
+     * is compiled, since callers and procedures must use the same convention.
+     * @param fastCalls     true to pass arguments in registers and allocate each
+     *                      frame at once, false to use the stack-based convention
+     */
+    public void setFastCalls(boolean fastCalls)
+    {
+        this.fastCalls = fastCalls;
+    }
+
+    /**
+     * Returns whether procedures are compiled with the fast calling convention.
+     * @return              true if the fast calling convention is on, false otherwise
+     */
+    public boolean isFastCalls()
+    {
+        return fastCalls;
+    }
+
+    /**
+     * Returns the register that passes the argument with the given index in the fast
+     * calling convention.
+     * @param index         given index of the argument, starting at 0
+     * @return              $a0 to $a3 for the first four arguments, or null if the
+     *                      argument is passed on the stack
+     */
+    public static String getArgumentRegister(int index)
+    {
+        if (index < 0 || index >= ARGUMENTS.length)
+        {
+            return null;
+        }
+        return ARGUMENTS[index];
+    }
+
+    /**
+     * Sets the optimizer that the code is run through before it is written.
+     * @param optimizer     given PeepholeOptimizer, or null to write the code
+     *                      exactly as it was emitted
+     */
+    public void setOptimizer(PeepholeOptimizer optimizer)
+    {
+        this.optimizer = optimizer;
+    }
+
+    /**
+     * Returns the optimizer that the code is run through before it is written,
+     * which reports how many instructions each of its rules removed.
+     * @return              the PeepholeOptimizer, or null if there is none
+     */
+    public PeepholeOptimizer getOptimizer()
+    {
+        return optimizer;
+    }
+
+	/**
+	 * Optimizes the code, writes it to the output (with non-labels indented)
+	 * in one piece, and closes the file (if the Emitter opened one). Should be
+	 * called after all calls to emit.
+	 * @postcondition		The output is written and the file is closed.
+	 */
+    public void close()
+    {
+        if (optimizer != null)
+        {
+            code = optimizer.optimize(code);
+        }
+        StringBuilder lines = new StringBuilder(code.size() * 16);
+        for (Instruction i : code)
+        {
+            if (!i.isLabel())
+                lines.append('\t');
+            lines.append(i).append('\n');
+        }
+        try
+        {
+            if (text != null)
+            {
+                text.append(lines);
+                return;
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII));
+            if (mappedFileName != null)
+            {
+                FileChannel file = FileChannel.open(Paths.get(mappedFileName),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try
+                {
+                    file.map(FileChannel.MapMode.READ_WRITE, 0, bytes.remaining()).put(bytes);
+                }
+                finally
+                {
+                    file.close();
+                }
+                return;
+            }
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
+            if (ownsChannel)
+            {
+                channel.close();
+            }
+        }
+        catch(IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+	/**
+	 * Pushes the value in the given register onto the stack.
+     * Adds 4 to the excessStackHeight.
+	 * @param reg			given register to push onto the stack.
+	 * @postcondition		value of the given register is pushed
+	 * 						onto the stack.
+	 */
+    public void emitPush(String reg)
+    {
+        emit("subu $sp $sp 4");
+        emit("sw " + reg + " ($sp)");
+        
+        excessStackHeight += 4;
+    }
+
+	/**
+	 * Pops the top value in the stack and stores it in the given register.
+     * Subtracts 4 from the excessStackHeight.
+	 * @param reg			given register to store the top value of the stack.
+	 * @postcondition		the top value of the stack has been popped off
+	 * 						and is now stored in the given register.
+	 */
+    public void emitPop(String reg)
+    {
+        emit("lw " + reg + " ($sp)");
+        emit("addu $sp $sp 4");
+
+        excessStackHeight -= 4;
+    }
+
+    /**
+     * Removes the given number of values from the top of the stack without reading
+     * them. Subtracts 4 for each of them from the excessStackHeight.
+     * @param count         given number of values to remove
+     * @postcondition       the values have been popped off the stack.
+     */
+    public void emitDrop(int count)
+    {
+        if (count > 0)
+        {
+            emit("addu $sp $sp " + 4 * count);
+            excessStackHeight -= 4 * count;
+        }
+    }
+
+	/**
+	 * Increments the label ID counter and returns its new value.
+	 * @return				the value of the label ID counter
+	 * @postcondition		the label ID counter has been incremented by 1.
+	 */
+    public int nextLabelID()
+    {
+        labelID++;
+        return labelID;
+    }
+
+    /**
+     * Sets the register allocation that the compiled code should use.
+     * The Emitter starts in the context of main.
+     * @param allocator     RegisterAllocator that has already allocated
+     *                      the registers of the Program
+     */
+    public void setRegisterAllocator(RegisterAllocator allocator)
+    {
+        this.allocator = allocator;
+        registers = allocator.getRegisters(null);
+    }
+
+    /**
+     * Sets the current procedure to the given procedure and ensures
+     * that the Emitter knows the context of all the compiling. Sets
+     * the excess stack height to 0. Should be called before anything
+     * is pushed onto the procedure's stack frame. It also lays out the
+     * procedure's frame. In the stack-based convention, the offsets are
+     * from $fp, which points at the saved $fp (top first):
+     * - Saved registers (pushed and popped, not addressed)
+     * - Locals (the last one on top)
+     * - Return value, at -4($fp)
+     * - Saved $fp, at 0($fp)
+     * - Parameters (the last one on top), from 4($fp)
+     * - Return address
+     * In the fast calling convention, the frame is (bottom first):
+     * - Saved registers
+     * - Return address (unless the procedure is a leaf)
+     * - Return value, locals, and the parameters passed in registers, if
+     *   they are kept in memory
+     * The parameters passed on the stack are right above the frame, the
+     * last one at the bottom.
+     * @param proc          given ProcedureDeclaration that will
+     *                      be compiled
+     */
+    public void setProcedureContext(ProcedureDeclaration proc)
+    {
+        curProc = proc;
+        excessStackHeight = 0;
+        if (allocator != null)
+        {
+            registers = allocator.getRegisters(proc.getID());
+        }
+        localNames = new HashSet<String>();
+        for (String name : proc.getFrameNames())
+        {
+            localNames.add(name);
+        }
+        if (fastCalls)
+        {
+            layOutFrame();
+        }
+        else
+        {
+            layOutStackFrame();
+        }
+    }
+
+    /**
+     * Computes the $fp-relative offsets of the current procedure's variables in the
+     * stack-based calling convention. When names repeat, a parameter wins over a local,
+     * and the later parameter wins. The procedure's name is always in the return value's
+     * slot: if a parameter has the same name, the prologue copies its argument there.
+     * @postcondition       frame maps every variable of the procedure to its offset.
+     */
+    private void layOutStackFrame()
+    {
+        frame = new HashMap<String, Integer>();
+        List<String> localVars = curProc.getLocalVars();
+        for (int i = localVars.size() - 1; i >= 0; i--)
+        {
+            frame.put(localVars.get(i), -8 - 4 * i);
+        }
+        List<String> parms = curProc.getParms();
+        for (int i = 0; i < parms.size(); i++)
+        {
+            frame.put(parms.get(i), getParmOffset(i));
+        }
+        frame.put(curProc.getID(), -4);
+    }
+
+    /**
+     * Returns the $fp-relative offset of the argument for the current procedure's
+     * parameter with the given index in the stack-based calling convention.
+     * @param index         given index of the parameter
+     * @return              offset of its argument from $fp
+     */
+    private int getParmOffset(int index)
+    {
+        return 4 + 4 * (curProc.getParms().size() - 1 - index);
+    }
+
+    /**
+     * Returns the address of the argument for the current procedure's parameter with
+     * the given index in the stack-based calling convention, even when the name of the
+     * parameter is in another slot of the frame.
+     * @param index         given index of the parameter
+     * @return              address of the argument, such as "4($fp)"
+     */
+    public String getParmAddress(int index)
+    {
+        return getParmOffset(index) + "($fp)";
+    }
+
+    /**
+     * Computes the fast frame of the current procedure and its size.
+     * @postcondition       frame maps every name in the frame to its offset.
+     */
+    private void layOutFrame()
+    {
+        frame = new HashMap<String, Integer>();
+        int words = 0;
+        for (String reg : getSavedRegisters())
+        {
+            frame.put(reg, 4 * words++);
+        }
+        if (!isLeaf())
+        {
+            frame.put("$ra", 4 * words++);
+        }
+        List<String> parms = curProc.getParms();
+        for (String name : curProc.getFrameNames())
+        {
+            int index = parms.lastIndexOf(name);
+            if (getRegister(name) == null && (index < 0 || getArgumentRegister(index) != null))
+            {
+                frame.put(name, 4 * words++);
+            }
+        }
+        frameSize = 4 * words;
+        for (int i = ARGUMENTS.length; i < parms.size(); i++)
+        {
+            frame.put(parms.get(i), frameSize + 4 * (parms.size() - 1 - i));
+        }
+    }
+
+    /**
+     * Returns whether the current procedure is a leaf procedure, which calls no
+     * procedures and so does not need to save its return address.
+     * @return              true if the current procedure makes no calls, false
+     *                      otherwise (or if it is not known)
+     */
+    public boolean isLeaf()
+    {
+        return allocator != null && curProc != null && allocator.isLeaf(curProc.getID());
+    }
+
+    /**
+     * Returns the number of bytes that the current procedure's frame allocates in
+     * the fast calling convention.
+     * @return              size of the frame in bytes
+     */
+    public int getFrameSize()
+    {
+        return frameSize;
+    }
+    
+    /**
+     * Clears the procedure context by setting it to null.
+     * @postcondition       curProc is set to null.
+     */
+    public void clearProcedureContext()
+    {
+        curProc = null;
+        frame = null;
+        localNames = null;
+        frameSize = 0;
+        if (allocator != null)
+        {
+            registers = allocator.getRegisters(null);
+        }
+    }
+
+    /**
+     * Returns the register that holds the given variable in the current
+     * context, or null if the variable is kept in memory.
+     * @param varName       given variable String name
+     * @return              name of the variable's register, or null
+     */
+    public String getRegister(String varName)
+    {
+        if (registers == null)
+        {
+            return null;
+        }
+        return registers.get(varName);
+    }
+
+    /**
+     * Returns the number of parameters of the procedure with the given name.
+     * @param procId        given procedure String name
+     * @return              the number of parameters the procedure declares
+     */
+    public int getParmCount(String procId)
+    {
+        return allocator.getParmCount(procId);
+    }
+
+    /**
+     * Returns the index of the argument whose value a parameter of the procedure with
+     * the given name holds when a call passes the given number of arguments (see
+     * ProcedureDeclaration.getArgumentIndex()).
+     * @param procId        given procedure String name
+     * @param index         Index of the parameter
+     * @param argCount      Number of arguments of the call
+     * @return              the index of the argument, or -1 if the parameter holds 0
+     */
+    public int getArgumentIndex(String procId, int index, int argCount)
+    {
+        return allocator.getProcedure(procId).getArgumentIndex(index, argCount);
+    }
+
+    /**
+     * Returns the callee-saved registers that the current procedure uses,
+     * which it must save on entry and restore before it returns.
+     * @return              list of the $s registers the procedure uses
+     */
+    public List<String> getSavedRegisters()
+    {
+        if (allocator == null || curProc == null)
+        {
+            return new ArrayList<String>();
+        }
+        return allocator.getSavedRegisters(curProc.getID());
+    }
+
+    /**
+     * Returns whether the value that the given variable has on entry to the
+     * current context (main or the current procedure) may be read.
+     * @param varName       given variable String name
+     * @return              true if the variable is live on entry, false otherwise
+     */
+    public boolean isLiveAtEntry(String varName)
+    {
+        return allocator != null
+            && allocator.isLiveAtEntry(curProc == null ? null : curProc.getID(), varName);
+    }
+
+    /**
+     * Returns the register-resident globals of the current context that the
+     * procedure with the given name may read or write. These must be stored
+     * to memory before calling the procedure and loaded again afterwards.
+     * Inside a procedure, globals are always in memory, so the list is empty.
+     * @param procId        given procedure String name
+     * @return              list of names of the globals shared with the procedure
+     */
+    public List<String> getSharedGlobals(String procId)
+    {
+        List<String> shared = new ArrayList<String>();
+        if (allocator != null && curProc == null)
+        {
+            for (String g : allocator.getTouchedGlobals(procId))
+            {
+                if (getRegister(g) != null)
+                {
+                    shared.add(g);
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns whether the given variable name corresponds to a local variable
+     * or a global variable. If the variable has the same name as the
+     * procedure, it also counts as a local variable. Local variables can either
+     * be locally declared or an argument of the method.
+     * @param varName       given variable String name to analyze
+     * @return              true if the given variable name is a local variable,
+     *                      false otherwise
+     */
+    public boolean isLocalVariable(String varName)
+    {
+        return localNames != null && localNames.contains(varName);
+    }
+
+    /**
+     * Returns the offset of the given name in the frame laid out by
+     * setProcedureContext(). In the stack-based convention, the offset is from
+     * $fp and does not change as values are pushed. In the fast convention, it
+     * is from $sp, so it includes the excessStackHeight, and the frame also has
+     * the offsets of the saved registers and of "$ra".
+     * @param localVarName          given variable name to find the offset of
+     * @return                      offset of the given variable, or 0 if it is
+     *                              not in the frame
+     */
+    public int getOffset(String localVarName)
+    {
+        Integer offset = frame.get(localVarName);
+        if (offset == null)
+        {
+            return 0;
+        }
+        return fastCalls ? offset + excessStackHeight : offset;
+    }
+
+    /**
+     * Returns the address of the given name in the current procedure's frame,
+     * which can be used directly as the memory operand of lw or sw.
+     * @param localVarName          given variable name to find the address of
+     * @return                      address of the variable, such as "-4($fp)"
+     */
+    public String getAddress(String localVarName)
+    {
+        return getOffset(localVarName) + (fastCalls ? "($sp)" : "($fp)");
+    }
+}
@@ -21,7 +21,8 @@ public class EmitterTester
      * Main tester method that parses and executes the statements of different test files.
      * It calls parseProgram() once and then compiles the program into an file called
      * "output.asm". Results are found in the output.asm file after the 
-     * program finishes running.
+     * program finishes running, and the number of instructions removed by each
+     * peephole rule is printed.
      * @param str                       array of String objects
      * @throws FileNotFoundException    no file found from the reader
      */
@@ -35,7 +36,10 @@ public class EmitterTester
             Scanner scanner = new Scanner(reader);
             Parser parser = new Parser(scanner);
             Program p = parser.parseProgram();
-            p.compile("output.asm");
+            Emitter e = new Emitter("output.asm");
+            p.compile(e);
+            e.close();
+            System.out.print(e.getOptimizer().getReport());
         }
     }
 }
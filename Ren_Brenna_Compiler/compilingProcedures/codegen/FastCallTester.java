@@ -0,0 +1,151 @@
+package codegen;
+
+/**
+ * FastCallTester class that checks the fast calling convention (see
+ * Emitter.setFastCalls()) against the stack-based one and the interpreter. Its programs
+ * call procedures with zero to six parameters (so that some arguments are passed on the
+ * stack) with fewer, as many, and more arguments than parameters, with arguments that
+ * call procedures themselves, with repeated parameter names and a parameter named like
+ * its procedure, and through direct, mutual, and tail recursion, while the procedures
+ * change a global that main keeps in a register. Each program is compiled with both
+ * conventions, and the output of each is compared with the interpreter's. The fast code
+ * is then checked for the shape that the convention promises: a leaf procedure never
+ * saves $ra, and a procedure whose calls pass at most four arguments without calls in
+ * them allocates its frame with at most one subu. The mismatches are printed, followed by
+ * the instructions that each convention ran and the number of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class FastCallTester
+{
+    // Largest number of parameters of a generated procedure
+    private static final int MAX_PARMS = 6;
+
+    // Programs with recursion, nested calls, and unusual parameters
+    private static final String[] PROGRAMS = {
+        // direct recursion with a global changed by every call
+        "VAR n, calls;\nPROCEDURE fib(n);\nBEGIN\ncalls := calls + 1;\nfib := n;\n"
+            + "IF n > 1 THEN fib := fib(n - 1) + fib(n - 2);\nEND;\nBEGIN\n"
+            + "n := 0;\nWHILE n < 15 DO\nBEGIN\nWRITELN(fib(n));\nn := n + 1;\nEND;\n"
+            + "WRITELN(calls);\nEND;\n.\n",
+        // mutual recursion
+        "VAR i;\nPROCEDURE even(n);\nBEGIN\neven := 1;\nIF n > 0 THEN even := odd(n - 1);\n"
+            + "END;\nPROCEDURE odd(n);\nBEGIN\nodd := 0;\nIF n > 0 THEN odd := even(n - 1);\n"
+            + "END;\nBEGIN\ni := 0;\nWHILE i < 12 DO\nBEGIN\nWRITELN(even(i) * 10 + odd(i));\n"
+            + "i := i + 1;\nEND;\nEND;\n.\n",
+        // arguments that call procedures, with more than four arguments
+        "PROCEDURE sq(x);\nBEGIN\nsq := x * x;\nEND;\n"
+            + "PROCEDURE f(a, b, c, d, e, g);\nBEGIN\nf := a - b * 2 + c * 3 - d * 4 + e * 5 - g * 6;\n"
+            + "END;\nBEGIN\nWRITELN(f(sq(1), sq(2), 3, sq(sq(2)), f(1, 2, 3, 4, 5, 6), sq(6)));\n"
+            + "WRITELN(f(1, sq(2), f(sq(1), 2, 3, 4, 5, sq(3)), 4, 5, 6));\nEND;\n.\n",
+        // repeated parameter names and a parameter named like its procedure
+        "PROCEDURE dup(a, b, a);\nBEGIN\ndup := a * 100 + b;\nEND;\n"
+            + "PROCEDURE self(x, self);\nBEGIN\nself := self + x;\nEND;\n"
+            + "PROCEDURE late(a, b, c, d, e, e);\nBEGIN\nlate := e - a;\nEND;\n"
+            + "BEGIN\nWRITELN(dup(1, 2, 3));\nWRITELN(self(4, 5));\nWRITELN(late(1, 2, 3, 4, 5, 6));\n"
+            + "WRITELN(dup(7));\nEND;\n.\n",
+        // tail recursion with locals and more than four parameters
+        "PROCEDURE acc(n, a, b, c, d, e);\nVAR t;\nBEGIN\nt := a + b;\nacc := t + c + d + e;\n"
+            + "IF n > 0 THEN acc := acc(n - 1, b, c, d, e, t mod 1000);\nEND;\n"
+            + "BEGIN\nWRITELN(acc(500, 1, 2, 3, 4, 5));\nWRITELN(acc(0, 9));\nEND;\n.\n",
+    };
+
+    /**
+     * Runs every check and prints the mismatches, the instructions run, and the number of
+     * values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        ProgramChecker checker = new ProgramChecker();
+        long[] steps = new long[2];
+        String[] programs = new String[PROGRAMS.length + 1];
+        System.arraycopy(PROGRAMS, 0, programs, 0, PROGRAMS.length);
+        programs[PROGRAMS.length] = getArgumentProgram();
+        for (int p = 0; p < programs.length; p++)
+        {
+            String expected = ProgramChecker.interpret(programs[p], new int[0]);
+            for (int fast = 0; fast < 2; fast++)
+            {
+                String asm = ProgramChecker.compile(programs[p], fast == 1);
+                String label = "program " + p + (fast == 1 ? " (fast calls)" : " (stack calls)");
+                steps[fast] += checker.check(label, asm, new int[0], expected).getSteps();
+                if (fast == 1)
+                {
+                    checkShape(checker, label, asm);
+                }
+            }
+        }
+        System.out.println("instructions run: " + steps[0] + " (stack calls), " + steps[1]
+            + " (fast calls)");
+        checker.printSummary();
+    }
+
+    /**
+     * Returns a program with a procedure p0 to p6 for each number of parameters, each of
+     * which adds up its parameters with different weights and changes the global g that
+     * main keeps using. Main calls every procedure with every number of arguments from
+     * none to one more than it has parameters.
+     * @return              Text of the program
+     */
+    private static String getArgumentProgram()
+    {
+        StringBuilder text = new StringBuilder("VAR g;\n");
+        for (int n = 0; n <= MAX_PARMS; n++)
+        {
+            text.append("PROCEDURE p").append(n).append('(');
+            StringBuilder sum = new StringBuilder("g");
+            for (int i = 0; i < n; i++)
+            {
+                text.append(i > 0 ? ", " : "").append('x').append(i);
+                sum.append(" + x").append(i).append(" * ").append(i + 2);
+            }
+            text.append(");\nVAR t;\nBEGIN\nt := ").append(sum).append(";\ng := g + 1;\np")
+                .append(n).append(" := t;\nEND;\n");
+        }
+        text.append("BEGIN\ng := 100;\n");
+        for (int n = 0; n <= MAX_PARMS; n++)
+        {
+            for (int count = 0; count <= n + 1; count++)
+            {
+                text.append("WRITELN(p").append(n).append('(');
+                for (int i = 0; i < count; i++)
+                {
+                    text.append(i > 0 ? ", " : "").append("g * ").append(i + 1);
+                }
+                text.append(") + g);\n");
+            }
+        }
+        return text.append("WRITELN(g);\nEND;\n.\n").toString();
+    }
+
+    /**
+     * Checks that every procedure in the given fast code that calls no procedure leaves
+     * $ra alone, and that every procedure that pushes no arguments allocates its frame
+     * with at most one subu.
+     * @param checker       ProgramChecker that counts the checks
+     * @param label         Name of the program
+     * @param asm           MIPS Assembly of the program, compiled with fast calls
+     */
+    private static void checkShape(ProgramChecker checker, String label, String asm)
+    {
+        String[] procs = asm.split("\nproc");
+        for (int i = 1; i < procs.length; i++)
+        {
+            String code = procs[i];
+            String name = code.substring(0, code.indexOf(':'));
+            boolean leaf = !code.contains("jal ");
+            int subus = code.split("subu \\$sp", -1).length - 1;
+            if (leaf)
+            {
+                checker.expect(label + ", " + name + " saves $ra",
+                    !code.contains("sw $ra"));
+            }
+            if (!code.contains("sw $v0 ($sp)"))
+            {
+                checker.expect(label + ", " + name + " allocates its frame in " + subus
+                    + " parts", subus <= 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package codegen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import ast.Program;
+import environment.Environment;
+import environment.IoChannel;
+import parser.Parser;
+import scanner.Scanner;
+
+/**
+ * ImmediateTester class that checks the instructions that BinOp and Condition select for
+ * constant operands (addiu, subu from $zero, slti, the branches on zero, and li when a
+ * constant does not fit in 16 bits) by running compiled programs with a MipsSimulator and
+ * comparing their output with the interpreter's. For every value x and every constant c,
+ * the program prints x + c, x - c, c + x, and c - x, and whether each of the six
+ * relations holds for x and c in both orders. It does so once in main, where x is a
+ * global, and once in a procedure, where x is a parameter, and it is compiled with both
+ * calling conventions. The values and constants are around 0, around +-2^15 (where
+ * constants stop fitting in 16 bits), and around +-2^31. Each mismatch is printed,
+ * followed by the number of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class ImmediateTester
+{
+    // Values of x, which are also the constants
+    private static final int[] VALUES = {0, 1, -1, 2, 32766, 32767, 32768, -32767, -32768,
+        -32769, 65535, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+
+    // Relations that are checked
+    private static final String[] RELOPS = {"=", "<>", "<", ">", "<=", ">="};
+
+    // Number of values checked and of mismatches found
+    private static int checked;
+    private static int mismatches;
+
+    /**
+     * Runs the checks with the stack-based and the fast calling convention and prints
+     * the mismatches and the number of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        String text = getProgram();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Environment env = new Environment(null);
+        env.setIo(new IoChannel(new ByteArrayInputStream(new byte[0]), out));
+        parse(text).exec(env);
+        String expected = out.toString().replace(System.lineSeparator(), "\n");
+
+        for (int fast = 0; fast < 2; fast++)
+        {
+            StringBuilder asm = new StringBuilder();
+            Emitter e = new Emitter(asm);
+            e.setFastCalls(fast == 1);
+            parse(text).compile(e);
+            e.close();
+            compare(fast == 1 ? "fast calls" : "stack calls", expected,
+                new MipsSimulator(asm.toString()).run(new int[0]));
+        }
+        System.out.println(checked + " values checked, " + mismatches + " mismatches");
+    }
+
+    /**
+     * Returns the text of the program that prints every check for every value, first in
+     * main and then in the procedure t, which main calls with each value.
+     * @return              Text of the program
+     */
+    private static String getProgram()
+    {
+        StringBuilder checks = new StringBuilder();
+        for (int c : VALUES)
+        {
+            String lit = literal(c);
+            checks.append("WRITELN(x + ").append(lit).append(");\n");
+            checks.append("WRITELN(x - ").append(lit).append(");\n");
+            checks.append("WRITELN(").append(lit).append(" + x);\n");
+            checks.append("WRITELN(").append(lit).append(" - x);\n");
+            for (String relop : RELOPS)
+            {
+                checks.append("r := 0;\nIF x ").append(relop).append(' ').append(lit)
+                    .append(" THEN r := 1;\nWRITELN(r);\n");
+                checks.append("r := 0;\nIF ").append(lit).append(' ').append(relop)
+                    .append(" x THEN r := 1;\nWRITELN(r);\n");
+            }
+        }
+
+        StringBuilder text = new StringBuilder("VAR x, r;\nPROCEDURE t(x);\nVAR r;\nBEGIN\n");
+        text.append(checks).append("t := 0;\nEND;\nBEGIN\n");
+        for (int x : VALUES)
+        {
+            text.append("x := ").append(literal(x)).append(";\n").append(checks);
+            text.append("r := t(x);\n");
+        }
+        return text.append("END;\n.\n").toString();
+    }
+
+    /**
+     * Returns the source text of a value: a literal, which the code generators see as a
+     * Number, or a negated literal for a negative one (with Integer.MIN_VALUE as
+     * -2147483647 - 1), which is compiled like any other operand.
+     * @param value         given value
+     * @return              Expression that evaluates to it
+     */
+    private static String literal(int value)
+    {
+        if (value == Integer.MIN_VALUE)
+        {
+            return "(-2147483647 - 1)";
+        }
+        return value < 0 ? "(-" + -value + ")" : String.valueOf(value);
+    }
+
+    /**
+     * Compares the expected and actual output line by line, printing every line that
+     * differs, and counts the lines as checked values.
+     * @param label         Name of the check
+     * @param expected      Output that was expected
+     * @param actual        Output of the simulated code
+     */
+    private static void compare(String label, String expected, String actual)
+    {
+        String[] want = expected.split("\n");
+        String[] got = actual.split("\n");
+        checked += want.length;
+        for (int i = 0; i < Math.max(want.length, got.length); i++)
+        {
+            String w = i < want.length ? want[i] : "(nothing)";
+            String g = i < got.length ? got[i] : "(nothing)";
+            if (!w.equals(g))
+            {
+                System.out.println(label + ", line " + (i + 1) + ": expected " + w
+                    + ", got " + g);
+                mismatches++;
+            }
+        }
+    }
+
+    /**
+     * Parses the given program.
+     * @param text          given text of the program
+     * @return              the parsed Program
+     */
+    private static Program parse(String text)
+    {
+        return new Parser(new Scanner(text)).parseProgram();
+    }
+}
@@ -0,0 +1,326 @@
+package codegen;
+
+import java.util.Random;
+
+import ast.Program;
+import bytecode.BytecodeInliner;
+import bytecode.InliningCostModel;
+import ir.ConditionalConstantPropagation;
+import ir.ConstantFolding;
+import ir.CopyPropagation;
+import ir.DeadCodeElimination;
+import ir.Inliner;
+import ir.LoopInvariantCodeMotion;
+import ir.PassManager;
+import ir.TailRecursionElimination;
+
+/**
+ * InliningTester class that checks the three inliners: the interpreter's (see
+ * ProcedureCall), the BytecodeInliner of the VirtualMachine, and the Inliner of the IR.
+ * It generates random programs with small procedures that have locals (which must start
+ * at 0 on every call), repeated parameter names, and a parameter named like the
+ * procedure, that change a global, and that call each other, along with a recursive
+ * procedure, and main calls them in a loop with too few, enough, and too many arguments
+ * and with calls in the arguments. The interpreter without inlining gives the expected
+ * output. Each engine runs the program without inlining, with the default
+ * InliningCostModel, and with a model that inlines every call it can, and the output of
+ * each is compared with the expected output. The BytecodeInliner and one run of the
+ * IR's Inliner report the calls they inline with the default model: every reported call
+ * must cost at most the model's threshold, and the recursive procedure is never inlined.
+ * (The two inliners measure a procedure in their own instructions, so they need not
+ * inline the same calls.) With a threshold below any cost, they must inline nothing. The
+ * mismatches are printed, followed by the number of calls that each inliner inlined with
+ * the default model, the instructions that the compiled code ran through the IR without
+ * and with inlining, and the number of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class InliningTester
+{
+    // Number of random programs
+    private static final int PROGRAMS = 40;
+
+    // Number of small procedures in each program
+    private static final int HELPERS = 4;
+
+    // Number of calls in the loop of main
+    private static final int CALLS = 6;
+
+    // Random numbers that shape the programs, with a fixed seed so runs repeat
+    private static Random random = new Random(24);
+
+    /**
+     * Runs every check and prints the mismatches, the inlined calls, the instructions
+     * run, and the number of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        ProgramChecker checker = new ProgramChecker();
+        long[] steps = new long[2];
+        int[] inlined = new int[2];
+        int[] input = new int[0];
+        for (int p = 0; p < PROGRAMS; p++)
+        {
+            String text = getProgram();
+            String label = "program " + p;
+            String expected = ProgramChecker.interpret(text, input, null);
+
+            checker.compare(label + " (interpreter, default model)", expected,
+                ProgramChecker.interpret(text, input, new InliningCostModel()));
+            checker.compare(label + " (interpreter, every call)", expected,
+                ProgramChecker.interpret(text, input, getModelWithThreshold(Integer.MAX_VALUE)));
+
+            checker.compare(label + " (VM without inlining)", expected,
+                ProgramChecker.runVm(ProgramChecker.parse(text).lowerWithoutInlining(), input));
+            checker.compare(label + " (VM, default model)", expected,
+                ProgramChecker.runVm(ProgramChecker.parse(text).lower(), input));
+            checker.compare(label + " (VM, every call)", expected, ProgramChecker.runVm(
+                ProgramChecker.parse(text).lower(new BytecodeInliner(
+                getModelWithThreshold(Integer.MAX_VALUE))), input));
+
+            steps[0] += checker.check(label + " (IR without inlining)",
+                ProgramChecker.compileThroughIr(text, getPassesWithInliner(null)), input,
+                expected).getSteps();
+            steps[1] += checker.check(label + " (IR, default model)",
+                ProgramChecker.compileThroughIr(text, PassManager.standard()), input,
+                expected).getSteps();
+            checker.check(label + " (IR, every call)", ProgramChecker.compileThroughIr(text,
+                getPassesWithInliner(new Inliner(getModelWithThreshold(Integer.MAX_VALUE)))),
+                input, expected);
+
+            String[] names = {"BytecodeInliner", "IR's Inliner"};
+            String[] reports = getReports(text, new InliningCostModel());
+            String[] none = getReports(text, getModelWithThreshold(-1000));
+            for (int k = 0; k < reports.length; k++)
+            {
+                checker.expect(label + ", " + names[k] + " reports calls within the model",
+                    isWithinModel(reports[k], new InliningCostModel()));
+                checker.expect(label + ", " + names[k] + " inlines nothing below every cost",
+                    none[k].isEmpty());
+                inlined[k] += reports[k].isEmpty() ? 0 : reports[k].split("\n").length;
+            }
+        }
+        System.out.println("calls inlined with the default model: " + inlined[0]
+            + " (BytecodeInliner), " + inlined[1] + " (IR's Inliner)");
+        System.out.println("instructions run through the IR: " + steps[0]
+            + " (without inlining), " + steps[1] + " (standard passes)");
+        checker.printSummary();
+    }
+
+    /**
+     * Returns an InliningCostModel with the given threshold. With the largest threshold,
+     * it inlines every call to a procedure that is not recursive.
+     * @param threshold     Largest cost of a call that is inlined
+     * @return              The new InliningCostModel
+     */
+    private static InliningCostModel getModelWithThreshold(int threshold)
+    {
+        InliningCostModel model = new InliningCostModel();
+        model.setThreshold(threshold);
+        return model;
+    }
+
+    /**
+     * Returns a PassManager with the passes of PassManager.standard(), in the same
+     * order, but with the given Inliner in place of the default one.
+     * @param inliner       Inliner to run, or null for no inlining
+     * @return              The new PassManager
+     */
+    private static PassManager getPassesWithInliner(Inliner inliner)
+    {
+        PassManager m = new PassManager();
+        m.add(new TailRecursionElimination());
+        if (inliner != null)
+        {
+            m.add(inliner);
+        }
+        m.add(new ConditionalConstantPropagation());
+        m.add(new ConstantFolding());
+        m.add(new CopyPropagation());
+        m.add(new DeadCodeElimination());
+        m.add(new LoopInvariantCodeMotion());
+        return m;
+    }
+
+    /**
+     * Returns the reports of the calls that the BytecodeInliner and one run of the IR's
+     * Inliner inline with the given model.
+     * @param text          Text of the program
+     * @param model         InliningCostModel without a report target, which is set
+     * @return              The report of the BytecodeInliner, followed by the IR's
+     */
+    private static String[] getReports(String text, InliningCostModel model)
+    {
+        StringBuilder vm = new StringBuilder();
+        model.setReport(vm);
+        ProgramChecker.parse(text).lower(new BytecodeInliner(model));
+
+        StringBuilder ir = new StringBuilder();
+        model.setReport(ir);
+        Program program = ProgramChecker.parse(text);
+        new Inliner(model).run(program.toIr());
+        model.setReport(null);
+        return new String[] {vm.toString(), ir.toString()};
+    }
+
+    /**
+     * Returns whether every call in the given report costs at most the threshold of the
+     * given model and calls a procedure that is not recursive.
+     * @param report        Report of an inliner, one line per inlined call
+     * @param model         InliningCostModel that the inliner used
+     * @return              true if every reported call is within the model
+     */
+    private static boolean isWithinModel(String report, InliningCostModel model)
+    {
+        for (String line : report.split("\n"))
+        {
+            if (line.isEmpty())
+            {
+                continue;
+            }
+            int cost = Integer.parseInt(line.substring(line.indexOf("(cost ") + 6,
+                line.length() - 1));
+            if (!model.isInlined(cost) || line.startsWith("; inlined r "))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the text of a random program. The procedures h0 to h3 are small, and each
+     * may call the ones before it; r is recursive and calls h0. Main calls them in a loop
+     * that runs five times and prints the global g at the end.
+     * @return              Text of the program
+     */
+    private static String getProgram()
+    {
+        StringBuilder text = new StringBuilder("VAR g, i;\n");
+        int[] parmCounts = new int[HELPERS];
+        for (int h = 0; h < HELPERS; h++)
+        {
+            parmCounts[h] = random.nextInt(4);
+            appendHelper(text, h, parmCounts[h]);
+        }
+        text.append("PROCEDURE r(n);\nBEGIN\nr := 0;\nIF n > 0 THEN r := r(n - 1) + h0(")
+            .append(parmCounts[0] > 0 ? "n" : "").append(");\nEND;\n");
+        text.append("BEGIN\ng := 3;\ni := 0;\nWHILE i < 5 DO\nBEGIN\n");
+        for (int c = 0; c < CALLS; c++)
+        {
+            text.append("WRITELN(").append(getCall(parmCounts, HELPERS, 1)).append(");\n");
+        }
+        text.append("WRITELN(r(i));\ni := i + 1;\nEND;\nWRITELN(g);\nEND;\n.\n");
+        return text.toString();
+    }
+
+    /**
+     * Appends a small procedure with the given number of parameters, which are named a,
+     * b, and c, except that the last one sometimes repeats the name of the first or is
+     * named like the procedure. Its local l is read before it is assigned, it may add to
+     * the global g, and it returns an expression in an IF...ELSE that may call the
+     * procedures declared before it.
+     * @param text          Text of the program
+     * @param h             Number of the procedure
+     * @param parmCount     Number of parameters
+     */
+    private static void appendHelper(StringBuilder text, int h, int parmCount)
+    {
+        String[] parms = new String[parmCount];
+        for (int k = 0; k < parmCount; k++)
+        {
+            parms[k] = String.valueOf((char) ('a' + k));
+        }
+        if (parmCount > 1 && random.nextInt(3) == 0)
+        {
+            parms[parmCount - 1] = random.nextBoolean() ? parms[0] : "h" + h;
+        }
+        String[] vars = new String[parmCount + 2];
+        System.arraycopy(parms, 0, vars, 0, parmCount);
+        vars[parmCount] = "l";
+        vars[parmCount + 1] = "g";
+        text.append("PROCEDURE h").append(h).append('(').append(String.join(", ", parms))
+            .append(");\nVAR l;\nBEGIN\nl := l + ").append(getExpression(vars)).append(";\n");
+        if (random.nextBoolean())
+        {
+            text.append("g := g + ").append(getExpression(vars)).append(";\n");
+        }
+        text.append("IF ").append(getExpression(vars)).append(" > ")
+            .append(getExpression(vars)).append(" THEN h").append(h).append(" := ")
+            .append(getExpression(vars)).append(";\nELSE h").append(h).append(" := ")
+            .append(h > 0 && random.nextBoolean() ? "l + " + getHelperCall(h, vars)
+            : getExpression(vars)).append(";\nEND;\n");
+    }
+
+    /**
+     * Returns a call of one of the procedures before the given one, with arguments made
+     * of the given variables.
+     * @param h             Number of the calling procedure
+     * @param vars          Names of the variables that the arguments use
+     * @return              Text of the call
+     */
+    private static String getHelperCall(int h, String[] vars)
+    {
+        StringBuilder call = new StringBuilder("h").append(random.nextInt(h)).append('(');
+        int count = random.nextInt(4);
+        for (int k = 0; k < count; k++)
+        {
+            call.append(k > 0 ? ", " : "").append(getExpression(vars));
+        }
+        return call.append(')').toString();
+    }
+
+    /**
+     * Returns a random call of one of the procedures with a random number of arguments,
+     * from none to one more than the procedure has parameters. Each argument is an
+     * expression of i and g, and when the depth allows it, a call itself.
+     * @param parmCounts    Number of parameters of each procedure
+     * @param helpers       Number of procedures that can be called
+     * @param depth         Number of levels of calls that the arguments may still have
+     * @return              Text of the call
+     */
+    private static String getCall(int[] parmCounts, int helpers, int depth)
+    {
+        int h = random.nextInt(helpers);
+        StringBuilder call = new StringBuilder("h").append(h).append('(');
+        int count = random.nextInt(parmCounts[h] + 2);
+        for (int k = 0; k < count; k++)
+        {
+            call.append(k > 0 ? ", " : "");
+            if (depth > 0 && random.nextInt(3) == 0)
+            {
+                call.append(getCall(parmCounts, helpers, depth - 1));
+            }
+            else
+            {
+                call.append(getExpression(new String[] {"i", "g"}));
+            }
+        }
+        return call.append(')').toString();
+    }
+
+    /**
+     * Returns a random expression of one or two of the given variables and a literal,
+     * with +, -, *, or mod by a positive literal.
+     * @param vars          Names of the variables that the expression uses
+     * @return              Text of the expression
+     */
+    private static String getExpression(String[] vars)
+    {
+        String v = vars[random.nextInt(vars.length)];
+        String w = vars[random.nextInt(vars.length)];
+        int literal = 1 + random.nextInt(9);
+        switch (random.nextInt(4))
+        {
+            case 0:
+                return "(" + v + " + " + w + ")";
+            case 1:
+                return "(" + v + " - " + literal + ")";
+            case 2:
+                return "(" + v + " * " + literal + " + " + w + ")";
+            default:
+                return "(" + v + " mod " + literal + ")";
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package codegen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instruction class that stores one line of MIPS Assembly emitted by the Emitter in a
+ * structured form, so that it can be examined by the PeepholeOptimizer before it is
+ * written out. A line is either a label (ending with ':') or an operation followed by
+ * its operands, which may be separated by spaces or commas. Anything after a '#' is a
+ * comment and is kept in the text but ignored by getOp() and getOperand().
+ *
+ * Usage:
+ * Instruction i = new Instruction("lw $v0 4($sp)");
+ * boolean l = i.isLabel();
+ * String op = i.getOp();
+ * int count = i.getOperandCount();
+ * String reg = i.getOperand(0);
+ * String dest = i.getDestination();
+ * boolean o = i.overwrites("$v0");
+ * Instruction j = i.withOperand(0, "$t0");
+ * String text = i.toString();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class Instruction
+{
+    // Text of the line, without indentation
+    private String text;
+
+    // Operation of the line (the label itself for labels)
+    private String op;
+
+    // Operands of the line, in order
+    private String[] operands;
+
+    /**
+     * Creates a new Instruction by parsing the given line of MIPS Assembly.
+     * @param text          given line of code, without indentation
+     */
+    public Instruction(String text)
+    {
+        this.text = text;
+        String code = text;
+        int comment = code.indexOf('#');
+        if (comment >= 0)
+        {
+            code = code.substring(0, comment);
+        }
+        List<String> parts = new ArrayList<String>(4);
+        int start = -1;
+        for (int i = 0; i <= code.length(); i++)
+        {
+            boolean separator = i == code.length() || code.charAt(i) == ','
+                || Character.isWhitespace(code.charAt(i));
+            if (separator && start >= 0)
+            {
+                parts.add(code.substring(start, i));
+                start = -1;
+            }
+            else if (!separator && start < 0)
+            {
+                start = i;
+            }
+        }
+        op = parts.isEmpty() ? "" : parts.get(0);
+        operands = new String[Math.max(parts.size() - 1, 0)];
+        for (int i = 1; i < parts.size(); i++)
+        {
+            operands[i - 1] = parts.get(i);
+        }
+    }
+
+    /**
+     * Returns whether the Instruction is a label.
+     * @return              true if the line ends with ':', false otherwise
+     */
+    public boolean isLabel()
+    {
+        return text.endsWith(":");
+    }
+
+    /**
+     * Returns the operation of the Instruction, such as "lw" or "addu".
+     * @return              the operation of the line
+     */
+    public String getOp()
+    {
+        return op;
+    }
+
+    /**
+     * Returns the number of operands of the Instruction.
+     * @return              the number of operands
+     */
+    public int getOperandCount()
+    {
+        return operands.length;
+    }
+
+    /**
+     * Returns the operand of the Instruction at the given index.
+     * @param index         given index of the operand (starting at 0)
+     * @return              the operand at that index
+     */
+    public String getOperand(int index)
+    {
+        return operands[index];
+    }
+
+    /**
+     * Returns whether the Instruction is the given operation with the given operands.
+     * @param op            given operation
+     * @param args          given operands, in order
+     * @return              true if the Instruction matches exactly, false otherwise
+     */
+    public boolean is(String op, String... args)
+    {
+        if (isLabel() || !this.op.equals(op) || operands.length != args.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++)
+        {
+            if (!operands[i].equals(args[i]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the register that the Instruction writes its result to. Only loads,
+     * moves, mflo, mfhi, and three-operand arithmetic and logic are recognized.
+     * @return              the destination register, or null if there is none
+     *                      (or the operation is not recognized)
+     */
+    public String getDestination()
+    {
+        if (isLabel())
+        {
+            return null;
+        }
+        if (operands.length == 1 && (op.equals("mflo") || op.equals("mfhi")))
+        {
+            return operands[0];
+        }
+        if (operands.length == 2 && (op.equals("li") || op.equals("la")
+            || op.equals("move") || op.equals("lw")))
+        {
+            return operands[0];
+        }
+        if (operands.length == 3 && (op.equals("addu") || op.equals("subu")
+            || op.equals("mul") || op.equals("and") || op.equals("or")
+            || op.equals("xor") || op.equals("sll") || op.equals("sra")
+            || op.equals("srl") || op.equals("slt") || op.equals("addiu")
+            || op.equals("andi") || op.equals("ori") || op.equals("xori")
+            || op.equals("slti")))
+        {
+            return operands[0];
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the Instruction sets the given register without reading it,
+     * which means that the value the register had before is no longer needed.
+     * Only li, la, move, and lw are recognized.
+     * @param reg           given register name
+     * @return              true if the Instruction only writes the register
+     */
+    public boolean overwrites(String reg)
+    {
+        if (isLabel() || operands.length != 2 || !operands[0].equals(reg)
+            || operands[1].contains(reg))
+        {
+            return false;
+        }
+        return op.equals("li") || op.equals("la") || op.equals("move") || op.equals("lw");
+    }
+
+    /**
+     * Returns a copy of the Instruction with the operand at the given index replaced.
+     * Any comment on the line is dropped.
+     * @param index         given index of the operand to replace
+     * @param operand       given new operand
+     * @return              the new Instruction
+     */
+    public Instruction withOperand(int index, String operand)
+    {
+        String line = op;
+        for (int i = 0; i < operands.length; i++)
+        {
+            line += " " + (i == index ? operand : operands[i]);
+        }
+        return new Instruction(line);
+    }
+
+    /**
+     * Returns the text of the Instruction as it was emitted.
+     * @return              the line of code, without indentation
+     */
+    public String toString()
+    {
+        return text;
+    }
+}
@@ -0,0 +1,148 @@
+package codegen;
+
+import java.io.IOException;
+
+import benchmark.WorkloadGenerator;
+import ir.ConditionalConstantPropagation;
+import ir.ConstantFolding;
+import ir.CopyPropagation;
+import ir.DeadCodeElimination;
+import ir.Inliner;
+import ir.LoopInvariantCodeMotion;
+import ir.Pass;
+import ir.PassManager;
+import ir.TailRecursionElimination;
+
+/**
+ * IrTester class that checks the SSA pipeline (see Program.compileThroughIr()) against
+ * the interpreter. Its programs use FOR loops and READLN, which only the pipeline
+ * compiles, as well as procedures that change globals, calls in conditions, recursion,
+ * repeated parameter names, and division of negative numbers, and it adds the programs
+ * of a WorkloadGenerator, whose expected output is also checked against the
+ * interpreter's. Each program is compiled through the IR without passes, with each of
+ * the standard passes on its own, and with all of them (PassManager.standard()), and
+ * the output of each is compared with the expected output. The IR dump of the standard
+ * pipeline is checked to start with the input IR. The mismatches are printed, followed
+ * by the instructions run without passes and with all of them, and the number of values
+ * checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class IrTester
+{
+    // Number of programs from the WorkloadGenerator
+    private static final int WORKLOADS = 8;
+
+    // Integers that READLN reads
+    private static final int[] INPUT = {6, 41};
+
+    // Programs with FOR, READLN, calls, recursion, and unusual parameters
+    private static final String[] PROGRAMS = {
+        // FOR loops, including one that runs no times, and READLN
+        "VAR i, n, s;\nPROCEDURE sum(a, b);\nVAR k;\nBEGIN\nsum := 0;\n"
+            + "FOR k := a TO b DO sum := sum + k * k;\nEND;\nBEGIN\nREADLN(n);\ns := 0;\n"
+            + "FOR i := 1 TO n DO\nBEGIN\ns := s + sum(i, n);\nWRITELN(s);\nEND;\n"
+            + "FOR i := 5 TO 1 DO WRITELN(i);\nREADLN(n);\nWRITELN(n * 3 - s);\nEND;\n.\n",
+        // constant operands, negative dividends, and branches on constants
+        "VAR x, y, z;\nBEGIN\nx := 0 - 7;\ny := 2;\nWRITELN(x / y);\nWRITELN(x mod y);\n"
+            + "WRITELN(x * 8);\nWRITELN(x / 10);\nWRITELN(x mod 16);\nz := x;\n"
+            + "IF y > 1 THEN z := z * 100;\nELSE z := 0;\nWRITELN(z);\n"
+            + "WHILE y > 5 DO y := y + 1;\nWRITELN(y);\nEND;\n.\n",
+        // procedures that change a global that main reads, called in conditions
+        "VAR g, i;\nPROCEDURE inc(d);\nBEGIN\ng := g + d;\ninc := g;\nEND;\n"
+            + "PROCEDURE twice(x);\nBEGIN\ntwice := inc(x) + inc(x);\nEND;\n"
+            + "BEGIN\ng := 1;\ni := 0;\nWHILE inc(1) < 40 DO\nBEGIN\n"
+            + "IF twice(i) > 10 THEN WRITELN(g);\nELSE WRITELN(0 - g);\ni := i + 1;\nEND;\n"
+            + "WRITELN(g * 1000 + i);\nEND;\n.\n",
+        // tail and tree recursion, repeated parameter names, and missing arguments
+        "PROCEDURE fact(n, acc);\nBEGIN\nfact := acc;\n"
+            + "IF n > 1 THEN fact := fact(n - 1, acc * n);\nEND;\n"
+            + "PROCEDURE fib(n);\nBEGIN\nfib := n;\nIF n > 1 THEN fib := fib(n - 1) + fib(n - 2);\n"
+            + "END;\nPROCEDURE dup(a, b, a);\nBEGIN\ndup := a * 100 + b;\nEND;\n"
+            + "PROCEDURE f(f, b);\nBEGIN\nf := f + b;\nEND;\n"
+            + "BEGIN\nWRITELN(fact(10, 1));\nWRITELN(fib(12));\nWRITELN(dup(7));\n"
+            + "WRITELN(dup(1, 2, 3));\nWRITELN(f(1, 2));\nWRITELN(fact(5));\nEND;\n.\n",
+    };
+
+    /**
+     * Runs every check and prints the mismatches, the instructions run, and the number
+     * of values checked.
+     * @param args          not used
+     * @throws IOException  the WorkloadGenerator cannot write a program
+     */
+    public static void main(String[] args) throws IOException
+    {
+        ProgramChecker checker = new ProgramChecker();
+        long[] steps = new long[2];
+        for (int p = 0; p < PROGRAMS.length; p++)
+        {
+            check(checker, "program " + p, PROGRAMS[p], INPUT,
+                ProgramChecker.interpret(PROGRAMS[p], INPUT), steps);
+        }
+        for (int w = 0; w < WORKLOADS; w++)
+        {
+            WorkloadGenerator g = new WorkloadGenerator(w);
+            g.setProcedures(3 + w % 3);
+            g.setNestingDepth(1 + w % 3);
+            g.setLoopTrips(4);
+            g.setExpressionSize(2 + w);
+            g.setRecursionDepth(w % 2 == 0 ? 12 : 0);
+            g.setLines(200);
+            StringBuilder text = new StringBuilder();
+            StringBuilder expected = new StringBuilder();
+            g.generate(text, expected);
+            String label = "workload " + w;
+            checker.compare(label + " (interpreter)", expected.toString(),
+                ProgramChecker.interpret(text.toString(), new int[0]));
+            check(checker, label, text.toString(), new int[0], expected.toString(), steps);
+        }
+        System.out.println("instructions run: " + steps[0] + " (no passes), " + steps[1]
+            + " (standard passes)");
+        checker.printSummary();
+    }
+
+    /**
+     * Compiles the given program through the IR without passes, with each standard
+     * pass on its own, and with all the standard passes, and checks the output of each.
+     * @param checker       ProgramChecker that counts the checks
+     * @param label         Name of the program
+     * @param text          Text of the program
+     * @param input         Integers that the program reads
+     * @param expected      Output that the program should print
+     * @param steps         Instructions run without passes and with all of them, which
+     *                      are added to
+     */
+    private static void check(ProgramChecker checker, String label, String text,
+        int[] input, String expected, long[] steps)
+    {
+        steps[0] += checker.check(label + " (no passes)",
+            ProgramChecker.compileThroughIr(text, new PassManager()), input, expected)
+            .getSteps();
+        for (Pass pass : getStandardPasses())
+        {
+            PassManager passes = new PassManager();
+            passes.add(pass);
+            checker.check(label + " (" + pass.getName() + ")",
+                ProgramChecker.compileThroughIr(text, passes), input, expected);
+        }
+        PassManager passes = PassManager.standard();
+        StringBuilder dump = new StringBuilder();
+        passes.setDump(dump);
+        steps[1] += checker.check(label + " (standard passes)",
+            ProgramChecker.compileThroughIr(text, passes), input, expected).getSteps();
+        checker.expect(label + " dump starts with the input IR",
+            dump.toString().startsWith("; ---- input ----\n"));
+    }
+
+    /**
+     * Returns new instances of the passes of PassManager.standard(), in its order.
+     * @return              The standard passes
+     */
+    private static Pass[] getStandardPasses()
+    {
+        return new Pass[] {new TailRecursionElimination(), new Inliner(),
+            new ConditionalConstantPropagation(), new ConstantFolding(),
+            new CopyPropagation(), new DeadCodeElimination(),
+            new LoopInvariantCodeMotion()};
+    }
+}
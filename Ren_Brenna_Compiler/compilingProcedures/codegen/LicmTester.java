@@ -0,0 +1,181 @@
+package codegen;
+
+import java.util.Random;
+
+import ir.ConditionalConstantPropagation;
+import ir.ConstantFolding;
+import ir.CopyPropagation;
+import ir.DeadCodeElimination;
+import ir.Inliner;
+import ir.LoopInvariantCodeMotion;
+import ir.PassManager;
+import ir.TailRecursionElimination;
+
+/**
+ * LicmTester class that checks the loop-invariant code motion of the IR (see
+ * LoopInvariantCodeMotion). It generates random programs whose procedure work runs
+ * nested WHILE loops that compute with globals and with its own invariant locals while
+ * they call procedures that write a global (bump directly, indirect through bump, and
+ * outer through indirect), that only read globals (peek), and while they store to a
+ * global themselves. Every
+ * program also has loops that run no times and divide by a global or a constant that is
+ * 0, which would fail if the division were moved out of them. Main calls work with trip
+ * counts that include 0 and runs a loop of its own that calls bump. Each program is
+ * compiled through the IR with the standard passes except the code motion, with the code
+ * motion alone, and with all the standard passes, and the output of each is compared with
+ * the interpreter's. Since the moved instructions run once each time a loop is reached,
+ * even when it then runs no times, a program whose loops run only a few times can run
+ * more instructions with the code motion; over all the programs, it must run fewer. The
+ * mismatches are printed, followed by the instructions run without and with the code
+ * motion, the number of programs that ran more instructions with it, and the number of
+ * values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class LicmTester
+{
+    // Number of random programs
+    private static final int PROGRAMS = 30;
+
+    // Number of statements in the body of each loop
+    private static final int STATEMENTS = 6;
+
+    // Random numbers that shape the programs, with a fixed seed so runs repeat
+    private static Random random = new Random(23);
+
+    /**
+     * Runs every check and prints the mismatches, the instructions run, and the number
+     * of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        ProgramChecker checker = new ProgramChecker();
+        long[] steps = new long[2];
+        int slower = 0;
+        for (int p = 0; p < PROGRAMS; p++)
+        {
+            String text = getProgram();
+            String expected = ProgramChecker.interpret(text, new int[0]);
+            PassManager without = getPassesWithoutMotion();
+            PassManager alone = new PassManager();
+            alone.add(new LoopInvariantCodeMotion());
+            String label = "program " + p;
+            long before = checker.check(label + " (without code motion)",
+                ProgramChecker.compileThroughIr(text, without), new int[0], expected).getSteps();
+            checker.check(label + " (code motion alone)",
+                ProgramChecker.compileThroughIr(text, alone), new int[0], expected);
+            long after = checker.check(label + " (standard passes)",
+                ProgramChecker.compileThroughIr(text, PassManager.standard()), new int[0],
+                expected).getSteps();
+            if (after > before)
+            {
+                slower++;
+            }
+            steps[0] += before;
+            steps[1] += after;
+        }
+        checker.expect("fewer instructions with code motion", steps[1] < steps[0]);
+        System.out.println("instructions run: " + steps[0] + " (without code motion), "
+            + steps[1] + " (standard passes), " + slower + " programs slower");
+        checker.printSummary();
+    }
+
+    /**
+     * Returns a PassManager with the passes of PassManager.standard() except the
+     * loop-invariant code motion, in the same order.
+     * @return              The new PassManager
+     */
+    private static PassManager getPassesWithoutMotion()
+    {
+        PassManager m = new PassManager();
+        m.add(new TailRecursionElimination());
+        m.add(new Inliner());
+        m.add(new ConditionalConstantPropagation());
+        m.add(new ConstantFolding());
+        m.add(new CopyPropagation());
+        m.add(new DeadCodeElimination());
+        return m;
+    }
+
+    /**
+     * Returns the text of a random program.
+     * @return              Text of the program
+     */
+    private static String getProgram()
+    {
+        StringBuilder text = new StringBuilder("VAR g0, g1, g2, d, s, x;\n");
+        text.append("PROCEDURE bump(v);\nBEGIN\ng0 := g0 + v;\nbump := g0;\nEND;\n");
+        text.append("PROCEDURE indirect(v);\nBEGIN\nindirect := bump(v) * 2;\nEND;\n");
+        text.append("PROCEDURE outer(v);\nBEGIN\nouter := indirect(v) + 1;\nEND;\n");
+        text.append("PROCEDURE peek(v);\nBEGIN\npeek := g1 * v + g2;\nEND;\n");
+        text.append("PROCEDURE work(n, m);\nVAR i, j, k, t;\nBEGIN\nk := n * 3 + 1;\nt := 0;\n");
+        text.append("i := 0;\nWHILE i < n DO\nBEGIN\n");
+        appendBody(text, "i");
+        if (random.nextBoolean())
+        {
+            text.append("j := 0;\nWHILE j < m DO\nBEGIN\n");
+            appendBody(text, "j");
+            text.append("j := j + 1;\nEND;\n");
+        }
+        text.append("i := i + 1;\nEND;\n");
+        text.append("WHILE d > 0 DO\nBEGIN\nt := t + g1 * 100 / d;\nd := d - 1;\nEND;\n");
+        text.append("work := t;\nEND;\n");
+
+        text.append("BEGIN\ng0 := ").append(random.nextInt(10)).append(";\ng1 := ")
+            .append(1 + random.nextInt(10)).append(";\ng2 := ").append(random.nextInt(10))
+            .append(";\nd := 0;\nx := 5;\n");
+        text.append("WRITELN(work(0, 3));\nWRITELN(g0);\n");
+        text.append("WRITELN(work(").append(1 + random.nextInt(20)).append(", 0));\n");
+        text.append("WRITELN(work(").append(1 + random.nextInt(20)).append(", ")
+            .append(1 + random.nextInt(10)).append("));\nWRITELN(g0 + g1 * 100);\n");
+        text.append("WHILE x < 0 DO x := x + 100 / d;\n");
+        text.append("s := 0;\nWHILE s < ").append(random.nextInt(10))
+            .append(" DO\nBEGIN\nx := x + g1 * g2 + bump(1);\ns := s + 1;\nEND;\n");
+        return text.append("WRITELN(x);\nWRITELN(g0);\nEND;\n.\n").toString();
+    }
+
+    /**
+     * Appends random statements of a loop body: additions to t of invariant expressions
+     * of globals and of k, of calls to bump, indirect, outer, and peek, and of the loop
+     * counter, and increments of the global g1.
+     * @param text          Text of the program
+     * @param counter       Name of the counter of the loop
+     */
+    private static void appendBody(StringBuilder text, String counter)
+    {
+        for (int i = 0; i < STATEMENTS; i++)
+        {
+            switch (random.nextInt(9))
+            {
+                case 0:
+                    text.append("t := t + g0 * g1 + k;\n");
+                    break;
+                case 1:
+                    text.append("t := t + (g1 - g2) * k + ").append(counter).append(";\n");
+                    break;
+                case 2:
+                    text.append("t := t + k / 7 + g2 mod 5;\n");
+                    break;
+                case 3:
+                    text.append("t := t + bump(1);\n");
+                    break;
+                case 4:
+                    text.append("t := t + indirect(").append(counter).append(");\n");
+                    break;
+                case 5:
+                    text.append("t := t + peek(k);\n");
+                    break;
+                case 6:
+                    text.append("t := t + outer(").append(counter).append(");\n");
+                    break;
+                case 7:
+                    text.append("IF ").append(counter).append(" > 2 THEN g1 := g1 + 1;\n");
+                    break;
+                default:
+                    text.append("t := t - g0;\n");
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package codegen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MipsSimulator class that runs the MIPS Assembly written by the code generators, so that
+ * the testers can compare its output with the interpreter's without MARS. It knows the
+ * instructions that the Emitter, the StrengthReduction, and the MipsSelector emit:
+ * loads and stores of words (by label or by offset from a register), li, la, move, the
+ * arithmetic, logical, and shift instructions, mult/div with mfhi and mflo, slt and
+ * slti, the branches (including the ones that compare with zero), j, jal, and jr, and
+ * the syscalls that print an integer or a character, read an integer, and exit.
+ * Arithmetic wraps around like it does on MIPS, and division rounds towards zero. Each
+ * run counts the instructions it executes and the loads and stores addressed from $sp,
+ * and records the deepest that the stack grew, so that the testers can also compare the
+ * cost of the code.
+ *
+ * Usage:
+ * MipsSimulator sim = new MipsSimulator(<String of MIPS Assembly>);
+ * String output = sim.run(<int array of the integers to read>);
+ * long steps = sim.getSteps();
+ * long accesses = sim.getStackAccesses();
+ * int bytes = sim.getStackSize();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+class MipsSimulator
+{
+    // Largest number of instructions that one run may execute
+    private static final long MAX_STEPS = 100000000L;
+
+    // Address of the first word of the .data segment and the initial stack pointer
+    private static final int DATA_START = 0x10010000;
+    private static final int STACK_START = 0x7fffeffc;
+
+    // Instructions of the .text segment, split into the opcode and its operands
+    private List<String[]> code;
+
+    // Index of the instruction of each text label, and address of each data label
+    private Map<String, Integer> labels;
+
+    // Initial words of the .data segment, by address
+    private Map<Integer, Integer> data;
+
+    // Number of instructions that the last run executed
+    private long steps;
+
+    // Number of loads and stores addressed from $sp that the last run executed
+    private long stackAccesses;
+
+    // Lowest value of $sp in the last run
+    private int lowestSp;
+
+    /**
+     * Creates a new MipsSimulator for the given MIPS Assembly.
+     * @param asm           String of MIPS Assembly with a main label
+     */
+    MipsSimulator(String asm)
+    {
+        code = new ArrayList<String[]>();
+        labels = new HashMap<String, Integer>();
+        data = new HashMap<Integer, Integer>();
+        boolean text = true;
+        int address = DATA_START;
+        for (String raw : asm.split("\n"))
+        {
+            String line = raw.split("#", 2)[0].trim();
+            if (line.isEmpty() || line.startsWith(".globl"))
+            {
+                continue;
+            }
+            if (line.startsWith(".data") || line.startsWith(".text"))
+            {
+                text = line.startsWith(".text");
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).matches("\\w+"))
+            {
+                String name = line.substring(0, colon);
+                line = line.substring(colon + 1).trim();
+                if (!text)
+                {
+                    labels.put(name, address);
+                    String[] words = line.split("[\\s,]+");
+                    data.put(address, words.length > 1 ? Integer.parseInt(words[1]) : 0);
+                    address += 4;
+                    continue;
+                }
+                labels.put(name, code.size());
+                if (line.isEmpty())
+                {
+                    continue;
+                }
+            }
+            code.add(line.split("[\\s,]+"));
+        }
+    }
+
+    /**
+     * Runs the program from main until it exits.
+     * @param input         Integers that the read syscall returns, in order
+     * @return              Everything that the program printed
+     * @throws IllegalStateException    the program uses an unknown instruction or
+     *                                  syscall, runs past its code, reads more input
+     *                                  than there is, or runs too long
+     */
+    String run(int[] input)
+    {
+        Map<String, Integer> regs = new HashMap<String, Integer>();
+        regs.put("$sp", STACK_START);
+        Map<Integer, Integer> memory = new HashMap<Integer, Integer>(data);
+        StringBuilder out = new StringBuilder();
+        int read = 0;
+        int hi = 0;
+        int lo = 0;
+        int pc = getLabel("main");
+        stackAccesses = 0;
+        lowestSp = STACK_START;
+        for (steps = 0; steps < MAX_STEPS; steps++)
+        {
+            if (pc < 0 || pc >= code.size())
+            {
+                throw new IllegalStateException("Ran past the code at " + pc);
+            }
+            String[] t = code.get(pc++);
+            switch (t[0])
+            {
+                case "li":
+                    set(regs, t[1], Integer.parseInt(t[2]));
+                    break;
+                case "la":
+                    set(regs, t[1], getLabel(t[2]));
+                    break;
+                case "move":
+                    set(regs, t[1], get(regs, t[2]));
+                    break;
+                case "lw":
+                    set(regs, t[1], memory.getOrDefault(getAddress(regs, t[2]), 0));
+                    countAccess(t[2]);
+                    break;
+                case "sw":
+                    memory.put(getAddress(regs, t[2]), get(regs, t[1]));
+                    countAccess(t[2]);
+                    break;
+                case "addu":
+                case "add":
+                case "addiu":
+                case "addi":
+                    set(regs, t[1], get(regs, t[2]) + getValue(regs, t[3]));
+                    break;
+                case "subu":
+                case "sub":
+                    set(regs, t[1], get(regs, t[2]) - getValue(regs, t[3]));
+                    break;
+                case "negu":
+                case "neg":
+                    set(regs, t[1], -get(regs, t[2]));
+                    break;
+                case "mul":
+                    set(regs, t[1], get(regs, t[2]) * getValue(regs, t[3]));
+                    break;
+                case "mult":
+                    long product = (long) get(regs, t[1]) * get(regs, t[2]);
+                    lo = (int) product;
+                    hi = (int) (product >> 32);
+                    break;
+                case "div":
+                    if (t.length == 4)
+                    {
+                        set(regs, t[1], get(regs, t[2]) / getValue(regs, t[3]));
+                        break;
+                    }
+                    int dividend = get(regs, t[1]);
+                    int divisor = getValue(regs, t[2]);
+                    lo = dividend / divisor;
+                    hi = dividend % divisor;
+                    break;
+                case "mfhi":
+                    set(regs, t[1], hi);
+                    break;
+                case "mflo":
+                    set(regs, t[1], lo);
+                    break;
+                case "and":
+                case "andi":
+                    set(regs, t[1], get(regs, t[2]) & getValue(regs, t[3]));
+                    break;
+                case "or":
+                case "ori":
+                    set(regs, t[1], get(regs, t[2]) | getValue(regs, t[3]));
+                    break;
+                case "sll":
+                    set(regs, t[1], get(regs, t[2]) << Integer.parseInt(t[3]));
+                    break;
+                case "sra":
+                    set(regs, t[1], get(regs, t[2]) >> Integer.parseInt(t[3]));
+                    break;
+                case "srl":
+                    set(regs, t[1], get(regs, t[2]) >>> Integer.parseInt(t[3]));
+                    break;
+                case "slt":
+                case "slti":
+                    set(regs, t[1], get(regs, t[2]) < getValue(regs, t[3]) ? 1 : 0);
+                    break;
+                case "beq":
+                case "bne":
+                case "blt":
+                case "bgt":
+                case "ble":
+                case "bge":
+                    if (compare(t[0].substring(1), get(regs, t[1]), getValue(regs, t[2])))
+                    {
+                        pc = getLabel(t[3]);
+                    }
+                    break;
+                case "beqz":
+                case "bnez":
+                case "bltz":
+                case "bgtz":
+                case "blez":
+                case "bgez":
+                    if (compare(t[0].substring(1, 3), get(regs, t[1]), 0))
+                    {
+                        pc = getLabel(t[2]);
+                    }
+                    break;
+                case "j":
+                    pc = getLabel(t[1]);
+                    break;
+                case "jal":
+                    set(regs, "$ra", pc);
+                    pc = getLabel(t[1]);
+                    break;
+                case "jr":
+                    pc = get(regs, t[1]);
+                    break;
+                case "syscall":
+                    int service = get(regs, "$v0");
+                    if (service == 1)
+                    {
+                        out.append(get(regs, "$a0"));
+                    }
+                    else if (service == 11)
+                    {
+                        out.append((char) get(regs, "$a0"));
+                    }
+                    else if (service == 5)
+                    {
+                        if (read == input.length)
+                        {
+                            throw new IllegalStateException("No more input");
+                        }
+                        set(regs, "$v0", input[read++]);
+                    }
+                    else if (service == 10)
+                    {
+                        steps++;
+                        return out.toString();
+                    }
+                    else
+                    {
+                        throw new IllegalStateException("Unknown syscall " + service);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + String.join(" ", t));
+            }
+            if (t.length > 1 && t[1].equals("$sp"))
+            {
+                lowestSp = Math.min(lowestSp, get(regs, "$sp"));
+            }
+        }
+        throw new IllegalStateException("Ran more than " + MAX_STEPS + " instructions");
+    }
+
+    /**
+     * Returns the number of instructions that the last run executed, including the
+     * syscall that exited.
+     * @return              Number of instructions executed
+     */
+    long getSteps()
+    {
+        return steps;
+    }
+
+    /**
+     * Returns the number of loads and stores addressed from $sp that the last run
+     * executed, such as the ones that push and pop values.
+     * @return              Number of loads and stores from $sp
+     */
+    long getStackAccesses()
+    {
+        return stackAccesses;
+    }
+
+    /**
+     * Returns the number of bytes that the stack grew by at its deepest in the last run.
+     * @return              Largest number of bytes below the initial stack pointer
+     */
+    int getStackSize()
+    {
+        return STACK_START - lowestSp;
+    }
+
+    /**
+     * Counts a load or store if its memory operand is addressed from $sp.
+     * @param operand       Memory operand of the load or store
+     */
+    private void countAccess(String operand)
+    {
+        if (operand.endsWith("($sp)"))
+        {
+            stackAccesses++;
+        }
+    }
+
+    /**
+     * Returns whether the given comparison holds.
+     * @param relop         Name of the comparison: eq, ne, lt, gt, le, or ge
+     * @param a             First value
+     * @param b             Second value
+     * @return              true if a relop b
+     */
+    private static boolean compare(String relop, int a, int b)
+    {
+        switch (relop)
+        {
+            case "eq":
+                return a == b;
+            case "ne":
+                return a != b;
+            case "lt":
+                return a < b;
+            case "gt":
+                return a > b;
+            case "le":
+                return a <= b;
+            default:
+                return a >= b;
+        }
+    }
+
+    /**
+     * Returns the instruction index or data address of the given label.
+     * @param name          Name of the label
+     * @return              Its instruction index or address
+     * @throws IllegalStateException    the label is not defined
+     */
+    private int getLabel(String name)
+    {
+        Integer value = labels.get(name);
+        if (value == null)
+        {
+            throw new IllegalStateException("Unknown label " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the address of a memory operand: a data label or offset(register).
+     * @param regs          Values of the registers
+     * @param operand       Given operand
+     * @return              The address it refers to
+     */
+    private int getAddress(Map<String, Integer> regs, String operand)
+    {
+        int open = operand.indexOf('(');
+        if (open < 0)
+        {
+            return getLabel(operand);
+        }
+        int offset = open == 0 ? 0 : Integer.parseInt(operand.substring(0, open));
+        return offset + get(regs, operand.substring(open + 1, operand.length() - 1));
+    }
+
+    /**
+     * Returns the value of an operand that is either a register or an immediate.
+     * @param regs          Values of the registers
+     * @param operand       Given operand
+     * @return              The value of the register or the immediate
+     */
+    private static int getValue(Map<String, Integer> regs, String operand)
+    {
+        return operand.startsWith("$") ? get(regs, operand) : Integer.parseInt(operand);
+    }
+
+    /**
+     * Returns the value of the given register; registers start at 0.
+     * @param regs          Values of the registers
+     * @param reg           Name of the register
+     * @return              Its value
+     */
+    private static int get(Map<String, Integer> regs, String reg)
+    {
+        return regs.getOrDefault(reg, 0);
+    }
+
+    /**
+     * Sets the given register, unless it is $zero.
+     * @param regs          Values of the registers
+     * @param reg           Name of the register
+     * @param value         New value
+     */
+    private static void set(Map<String, Integer> regs, String reg, int value)
+    {
+        if (!reg.equals("$zero"))
+        {
+            regs.put(reg, value);
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package codegen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PeepholeOptimizer class that removes redundant Instructions from the MIPS Assembly
+ * buffered by the Emitter before it is written out. It slides over the code once: each
+ * Instruction is appended to the output, and then every PeepholeRule is tried on the
+ * window of Instructions that ends with it. When a rule applies, the window is taken off
+ * the output and its replacement is put back in front of the remaining input, so that
+ * the replacement is examined again together with the Instructions before it. Since
+ * every replacement is shorter than its window, this always terminates.
+ *
+ * The standard rules are:
+ * - push-pop:      a push immediately followed by a pop becomes a move (or nothing)
+ * - push-op-pop:   a push and a pop around one Instruction that does not use the stack
+ *                  or the popped register becomes a move before that Instruction
+ * - stack-adjust:  consecutive adjustments of $sp are combined (or removed if they cancel)
+ * - self-move:     "move R R" is removed
+ * - move-back:     "move A B; move B A" loses its second move
+ * - store-load:    a load from the address that the same register was just stored to
+ *                  is removed
+ * - forward-move:  a value computed into $v0 only to be moved into another register is
+ *                  computed into that register directly
+ * - dead-write:    a write to a register that is overwritten before it is read is removed
+ * - jump-to-next:  a jump to the label that immediately follows it is removed
+ *
+ * Usage:
+ * PeepholeOptimizer p = new PeepholeOptimizer();
+ * p.addRule(<PeepholeRule>);
+ * List<Instruction> optimized = p.optimize(<List of Instructions>);
+ * Map<String, Integer> removed = p.getRemovedCounts();
+ * String report = p.getReport();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class PeepholeOptimizer
+{
+    // Rules that are applied, in order of priority
+    private List<PeepholeRule> rules;
+
+    // Number of Instructions that each rule has removed, by rule name
+    private Map<String, Integer> removed;
+
+    /**
+     * Creates a new PeepholeOptimizer with the standard rules.
+     */
+    public PeepholeOptimizer()
+    {
+        this(true);
+    }
+
+    /**
+     * Creates a new PeepholeOptimizer, with or without the standard rules.
+     * @param standardRules     true to start with the standard rules,
+     *                          false to start with no rules
+     */
+    public PeepholeOptimizer(boolean standardRules)
+    {
+        rules = new ArrayList<PeepholeRule>();
+        removed = new LinkedHashMap<String, Integer>();
+        if (standardRules)
+        {
+            addRule(new PushPop());
+            addRule(new PushOpPop());
+            addRule(new StackAdjust());
+            addRule(new SelfMove());
+            addRule(new MoveBack());
+            addRule(new StoreLoad());
+            addRule(new ForwardMove());
+            addRule(new DeadWrite());
+            addRule(new JumpToNext());
+        }
+    }
+
+    /**
+     * Adds the given rule after the rules that are already applied.
+     * @param rule          given PeepholeRule
+     */
+    public void addRule(PeepholeRule rule)
+    {
+        rules.add(rule);
+        if (!removed.containsKey(rule.getName()))
+        {
+            removed.put(rule.getName(), 0);
+        }
+    }
+
+    /**
+     * Optimizes the given Instructions and returns the result. The counts of removed
+     * Instructions accumulate over every call.
+     * @param code          given list of Instructions, in order
+     * @return              the optimized list of Instructions
+     */
+    public List<Instruction> optimize(List<Instruction> code)
+    {
+        Deque<Instruction> in = new ArrayDeque<Instruction>(code);
+        List<Instruction> out = new ArrayList<Instruction>(code.size());
+        while (!in.isEmpty())
+        {
+            out.add(in.removeFirst());
+            for (PeepholeRule rule : rules)
+            {
+                int size = rule.getWindowSize();
+                if (out.size() < size)
+                {
+                    continue;
+                }
+                List<Instruction> window = out.subList(out.size() - size, out.size());
+                List<Instruction> replacement = rule.rewrite(window);
+                if (replacement != null)
+                {
+                    removed.put(rule.getName(),
+                        removed.get(rule.getName()) + size - replacement.size());
+                    window.clear();
+                    for (int i = replacement.size() - 1; i >= 0; i--)
+                    {
+                        in.addFirst(replacement.get(i));
+                    }
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Returns the number of Instructions that each rule has removed.
+     * @return              map from rule name to number of removed Instructions
+     */
+    public Map<String, Integer> getRemovedCounts()
+    {
+        return removed;
+    }
+
+    /**
+     * Returns a report with one line per rule, giving the number of Instructions
+     * that the rule has removed, followed by the total.
+     * @return              the report
+     */
+    public String getReport()
+    {
+        String report = "";
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : removed.entrySet())
+        {
+            report += entry.getKey() + ": " + entry.getValue() + "\n";
+            total += entry.getValue();
+        }
+        return report + "total: " + total + "\n";
+    }
+
+    /**
+     * Returns the given Instructions as a list.
+     * @param code          given Instructions
+     * @return              list of the Instructions
+     */
+    private static List<Instruction> list(Instruction... code)
+    {
+        List<Instruction> result = new ArrayList<Instruction>();
+        for (Instruction i : code)
+        {
+            result.add(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the given Instruction can be moved past or skipped over when
+     * looking at the given register: it is not a label, jump, branch, or syscall, and
+     * does not mention the register.
+     * @param i             given Instruction
+     * @param reg           given register name
+     * @return              true if the Instruction neither reads nor writes the register
+     */
+    private static boolean isIndependent(Instruction i, String reg)
+    {
+        if (i.isLabel() || i.getOp().startsWith("j") || i.getOp().startsWith("b")
+            || i.getOp().equals("syscall"))
+        {
+            return false;
+        }
+        for (int k = 0; k < i.getOperandCount(); k++)
+        {
+            if (i.getOperand(k).contains(reg))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the Instruction is the given load or store of a register at the
+     * top of the stack. Labels and other Instructions without operands are not.
+     * @param i             given Instruction
+     * @param op            "lw" or "sw"
+     * @return              true if the Instruction is "op R ($sp)" for some register R
+     */
+    private static boolean isTopOfStack(Instruction i, String op)
+    {
+        return i.getOperandCount() == 2 && i.is(op, i.getOperand(0), "($sp)");
+    }
+
+    /**
+     * Rule that turns "subu $sp $sp 4; sw R ($sp); lw S ($sp); addu $sp $sp 4"
+     * into "move S R", or into nothing if R and S are the same register.
+     */
+    private static class PushPop implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "push-pop";
+        }
+
+        public int getWindowSize()
+        {
+            return 4;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            if (!w.get(0).is("subu", "$sp", "$sp", "4") || !isTopOfStack(w.get(1), "sw")
+                || !isTopOfStack(w.get(2), "lw") || !w.get(3).is("addu", "$sp", "$sp", "4"))
+            {
+                return null;
+            }
+            String from = w.get(1).getOperand(0);
+            String to = w.get(2).getOperand(0);
+            if (from.equals(to))
+            {
+                return list();
+            }
+            return list(new Instruction("move " + to + " " + from));
+        }
+    }
+
+    /**
+     * Rule that turns "subu $sp $sp 4; sw R ($sp); I; lw S ($sp); addu $sp $sp 4"
+     * into "move S R; I" when I does not use the stack or S.
+     */
+    private static class PushOpPop implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "push-op-pop";
+        }
+
+        public int getWindowSize()
+        {
+            return 5;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            if (!w.get(0).is("subu", "$sp", "$sp", "4") || !isTopOfStack(w.get(1), "sw")
+                || !isTopOfStack(w.get(3), "lw") || !w.get(4).is("addu", "$sp", "$sp", "4"))
+            {
+                return null;
+            }
+            String from = w.get(1).getOperand(0);
+            String to = w.get(3).getOperand(0);
+            if (!isIndependent(w.get(2), "$sp") || !isIndependent(w.get(2), to))
+            {
+                return null;
+            }
+            return list(new Instruction("move " + to + " " + from), w.get(2));
+        }
+    }
+
+    /**
+     * Rule that combines two consecutive "addu $sp $sp N" or "subu $sp $sp N"
+     * Instructions into one, or removes both if they cancel out.
+     */
+    private static class StackAdjust implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "stack-adjust";
+        }
+
+        public int getWindowSize()
+        {
+            return 2;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Integer first = getAdjustment(w.get(0));
+            Integer second = getAdjustment(w.get(1));
+            if (first == null || second == null)
+            {
+                return null;
+            }
+            int net = first + second;
+            if (net == 0)
+            {
+                return list();
+            }
+            if (net > 0)
+            {
+                return list(new Instruction("addu $sp $sp " + net));
+            }
+            return list(new Instruction("subu $sp $sp " + -net));
+        }
+
+        /**
+         * Returns the amount that the given Instruction adds to $sp.
+         * @param i         given Instruction
+         * @return          the amount added to $sp, or null if the Instruction
+         *                  is not a constant adjustment of $sp
+         */
+        private Integer getAdjustment(Instruction i)
+        {
+            if (i.isLabel() || i.getOperandCount() != 3 || !i.getOperand(0).equals("$sp")
+                || !i.getOperand(1).equals("$sp") || !i.getOperand(2).matches("[0-9]+"))
+            {
+                return null;
+            }
+            int amount = Integer.parseInt(i.getOperand(2));
+            if (i.getOp().equals("addu"))
+            {
+                return amount;
+            }
+            if (i.getOp().equals("subu"))
+            {
+                return -amount;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rule that removes "move R R".
+     */
+    private static class SelfMove implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "self-move";
+        }
+
+        public int getWindowSize()
+        {
+            return 1;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Instruction i = w.get(0);
+            if (!i.isLabel() && i.getOp().equals("move") && i.getOperandCount() == 2
+                && i.getOperand(0).equals(i.getOperand(1)))
+            {
+                return list();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rule that turns "move A B; move B A" into "move A B".
+     */
+    private static class MoveBack implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "move-back";
+        }
+
+        public int getWindowSize()
+        {
+            return 2;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Instruction first = w.get(0);
+            if (first.isLabel() || !first.getOp().equals("move") || first.getOperandCount() != 2)
+            {
+                return null;
+            }
+            if (w.get(1).is("move", first.getOperand(1), first.getOperand(0)))
+            {
+                return list(first);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rule that turns "sw R X; lw R X" into "sw R X".
+     */
+    private static class StoreLoad implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "store-load";
+        }
+
+        public int getWindowSize()
+        {
+            return 2;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Instruction store = w.get(0);
+            Instruction load = w.get(1);
+            if (store.isLabel() || !store.getOp().equals("sw") || store.getOperandCount() != 2)
+            {
+                return null;
+            }
+            if (load.is("lw", store.getOperand(0), store.getOperand(1)))
+            {
+                return list(store);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rule that turns "<compute $v0>; move D $v0; <overwrite $v0>" into
+     * "<compute D>; <overwrite $v0>", where computing $v0 is any Instruction
+     * whose destination is $v0.
+     */
+    private static class ForwardMove implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "forward-move";
+        }
+
+        public int getWindowSize()
+        {
+            return 3;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Instruction set = w.get(0);
+            Instruction move = w.get(1);
+            if (!"$v0".equals(set.getDestination()) || move.isLabel() || !move.getOp().equals("move")
+                || move.getOperandCount() != 2 || !move.getOperand(1).equals("$v0")
+                || move.getOperand(0).equals("$v0") || !w.get(2).overwrites("$v0"))
+            {
+                return null;
+            }
+            return list(set.withOperand(0, move.getOperand(0)), w.get(2));
+        }
+    }
+
+    /**
+     * Rule that removes a li, la, move, or lw into a register when the register
+     * is overwritten by the next Instruction, or by the one after it if the
+     * Instruction in between does not use the register.
+     */
+    private static class DeadWrite implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "dead-write";
+        }
+
+        public int getWindowSize()
+        {
+            return 3;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Instruction first = w.get(0);
+            if (first.isLabel() || first.getOperandCount() != 2)
+            {
+                return null;
+            }
+            String reg = first.getOperand(0);
+            if (!first.overwrites(reg))
+            {
+                return null;
+            }
+            if (w.get(1).overwrites(reg)
+                || isIndependent(w.get(1), reg) && w.get(2).overwrites(reg))
+            {
+                return list(w.get(1), w.get(2));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rule that turns "j L; L:" into "L:".
+     */
+    private static class JumpToNext implements PeepholeRule
+    {
+        public String getName()
+        {
+            return "jump-to-next";
+        }
+
+        public int getWindowSize()
+        {
+            return 2;
+        }
+
+        public List<Instruction> rewrite(List<Instruction> w)
+        {
+            Instruction jump = w.get(0);
+            Instruction label = w.get(1);
+            if (jump.isLabel() || !jump.getOp().equals("j") || jump.getOperandCount() != 1
+                || !label.isLabel() || !label.toString().equals(jump.getOperand(0) + ":"))
+            {
+                return null;
+            }
+            return list(label);
+        }
+    }
+}
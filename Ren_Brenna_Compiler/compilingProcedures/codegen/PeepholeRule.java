@@ -0,0 +1,41 @@
+package codegen;
+
+import java.util.List;
+
+/**
+ * PeepholeRule interface for the rewrites that the PeepholeOptimizer applies. A rule looks
+ * at a window of consecutive Instructions of a fixed size and either leaves it alone or
+ * replaces it with a shorter list of Instructions that does the same thing.
+ *
+ * Usage:
+ * PeepholeRule r = <rule>;
+ * String name = r.getName();
+ * int size = r.getWindowSize();
+ * List<Instruction> replacement = r.rewrite(<window of Instructions>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public interface PeepholeRule
+{
+    /**
+     * Returns the name of the rule, which is used when reporting how many
+     * Instructions it removed.
+     * @return              the name of the rule
+     */
+    String getName();
+
+    /**
+     * Returns the number of consecutive Instructions that the rule looks at.
+     * @return              the size of the window
+     */
+    int getWindowSize();
+
+    /**
+     * Rewrites the given window of Instructions.
+     * @param window        given list of getWindowSize() consecutive Instructions
+     * @return              a shorter list of Instructions that replaces the window,
+     *                      or null if the rule does not apply
+     */
+    List<Instruction> rewrite(List<Instruction> window);
+}
@@ -0,0 +1,101 @@
+package codegen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PeepholeTester class that runs the PeepholeOptimizer with its standard rules on short
+ * pieces of code and compares the result with the code that is expected. Most of the
+ * pieces put a label next to, or in the middle of, a push and a pop of a register, where
+ * the push-pop and push-op-pop rules look at the operands of every Instruction in their
+ * window. A label must not make them fail, and a push and a pop on different sides of a
+ * label must not be combined, since the code may jump to the label with another value on
+ * the stack. The other pieces check that the rules still apply without labels. Each
+ * mismatch (or exception) is printed, followed by the number of pieces checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class PeepholeTester
+{
+    // Pieces of code and the code that the optimizer should turn each one into
+    private static final String[][] CASES = {
+        // push and pop around a label: nothing changes
+        {"subu $sp $sp 4\nsw $v0 ($sp)\nL1:\nlw $t0 ($sp)\naddu $sp $sp 4",
+            "subu $sp $sp 4\nsw $v0 ($sp)\nL1:\nlw $t0 ($sp)\naddu $sp $sp 4"},
+        // label where push-pop expects the store
+        {"subu $sp $sp 4\nL1:\nlw $t0 ($sp)\naddu $sp $sp 4",
+            "subu $sp $sp 4\nL1:\nlw $t0 ($sp)\naddu $sp $sp 4"},
+        // label where push-pop expects the load
+        {"subu $sp $sp 4\nsw $v0 ($sp)\nL1:\naddu $sp $sp 4",
+            "subu $sp $sp 4\nsw $v0 ($sp)\nL1:\naddu $sp $sp 4"},
+        // label where push-op-pop expects the load
+        {"subu $sp $sp 4\nsw $v0 ($sp)\nli $t1 3\nL1:\naddu $sp $sp 4",
+            "subu $sp $sp 4\nsw $v0 ($sp)\nli $t1 3\nL1:\naddu $sp $sp 4"},
+        // label right before and right after a push and a pop: they become a move
+        {"L1:\nsubu $sp $sp 4\nsw $v0 ($sp)\nlw $t0 ($sp)\naddu $sp $sp 4\nL2:",
+            "L1:\nmove $t0 $v0\nL2:"},
+        // label before a push-op-pop: the operation moves after the move
+        {"L1:\nsubu $sp $sp 4\nsw $v0 ($sp)\nli $t1 3\nlw $t0 ($sp)\naddu $sp $sp 4\nL2:",
+            "L1:\nmove $t0 $v0\nli $t1 3\nL2:"},
+        // restart label of a tail call between the frame and a push and a pop
+        {"procf:\nsubu $sp $sp 4\nsw $fp ($sp)\nmove $fp $sp\ntailf:\nsubu $sp $sp 4\n"
+            + "sw $v0 ($sp)\nlw $t0 ($sp)\naddu $sp $sp 4\nj tailf",
+            "procf:\nsubu $sp $sp 4\nsw $fp ($sp)\nmove $fp $sp\ntailf:\nmove $t0 $v0\n"
+            + "j tailf"},
+        // stack adjustments on both sides of a label are not combined
+        {"subu $sp $sp 4\nL1:\naddu $sp $sp 4",
+            "subu $sp $sp 4\nL1:\naddu $sp $sp 4"},
+        // jump to the label right after it
+        {"j L1\nL1:\nsubu $sp $sp 4\nsw $v0 ($sp)\nlw $t0 ($sp)\naddu $sp $sp 4",
+            "L1:\nmove $t0 $v0"},
+    };
+
+    /**
+     * Optimizes every piece of code and prints the mismatches and the number of pieces
+     * checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        int mismatches = 0;
+        for (String[] c : CASES)
+        {
+            String actual;
+            try
+            {
+                actual = optimize(c[0]);
+            }
+            catch (RuntimeException ex)
+            {
+                actual = ex.toString();
+            }
+            if (!actual.equals(c[1]))
+            {
+                System.out.println("code:\n" + c[0] + "\nexpected:\n" + c[1] + "\ngot:\n"
+                    + actual + "\n");
+                mismatches++;
+            }
+        }
+        System.out.println(CASES.length + " pieces checked, " + mismatches + " mismatches");
+    }
+
+    /**
+     * Runs a new PeepholeOptimizer with the standard rules on the given code.
+     * @param code          given lines of code, separated by newlines
+     * @return              the optimized lines, separated by newlines
+     */
+    private static String optimize(String code)
+    {
+        List<Instruction> in = new ArrayList<Instruction>();
+        for (String line : code.split("\n"))
+        {
+            in.add(new Instruction(line));
+        }
+        List<String> out = new ArrayList<String>();
+        for (Instruction i : new PeepholeOptimizer().optimize(in))
+        {
+            out.add(i.toString());
+        }
+        return String.join("\n", out);
+    }
+}
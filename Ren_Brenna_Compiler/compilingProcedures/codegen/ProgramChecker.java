@@ -0,0 +1,255 @@
+package codegen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import ast.Program;
+import bytecode.Bytecode;
+import bytecode.InliningCostModel;
+import bytecode.VirtualMachine;
+import environment.Environment;
+import environment.IoChannel;
+import ir.PassManager;
+import parser.Parser;
+import scanner.Scanner;
+
+/**
+ * ProgramChecker class that the testers use to run a program with the interpreter, its
+ * bytecode with the VirtualMachine, its JVM class, and its compiled code with a
+ * MipsSimulator, and that compares their output line by line. Every line of expected
+ * output counts as one checked value, and every line that differs (or a compiled
+ * program that cannot run to the end or divides by 0) counts as a mismatch and is
+ * printed with the name of the check.
+ *
+ * Usage:
+ * ProgramChecker checker = new ProgramChecker();
+ * String expected = ProgramChecker.interpret(<text of the program>, <input>);
+ * String output = ProgramChecker.interpret(<text>, <input>, <InliningCostModel or null>);
+ * String output = ProgramChecker.runVm(<Bytecode>, <input>);
+ * String output = ProgramChecker.runJvm(<text of a program that does not read>);
+ * String asm = ProgramChecker.compile(<text of the program>, <true for fast calls>);
+ * String asm = ProgramChecker.compileThroughIr(<text of the program>, <PassManager>);
+ * MipsSimulator sim = checker.check("name", asm, <input>, expected);
+ * checker.compare("name", expected, <actual output>);
+ * checker.printSummary();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+class ProgramChecker
+{
+    // Number of values checked and of mismatches found
+    private int checked;
+    private int mismatches;
+
+    /**
+     * Runs the given program with the interpreter, which inlines calls with the default
+     * InliningCostModel.
+     * @param text          given text of the program
+     * @param input         Integers that READLN reads, in order
+     * @return              Everything that the program printed, with \n line endings
+     */
+    static String interpret(String text, int[] input)
+    {
+        return interpret(text, input, new InliningCostModel());
+    }
+
+    /**
+     * Runs the given program with the interpreter, which inlines calls with the given
+     * InliningCostModel.
+     * @param text          given text of the program
+     * @param input         Integers that READLN reads, in order
+     * @param inlining      InliningCostModel of the interpreter, or null for no inlining
+     * @return              Everything that the program printed, with \n line endings
+     */
+    static String interpret(String text, int[] input, InliningCostModel inlining)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Environment env = new Environment(null);
+        env.setIo(getIo(input, out));
+        env.setInlining(inlining);
+        parse(text).exec(env);
+        return out.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    /**
+     * Runs the given bytecode with a new VirtualMachine.
+     * @param code          given Bytecode of the program
+     * @param input         Integers that READLN reads, in order
+     * @return              Everything that the program printed, with \n line endings
+     */
+    static String runVm(Bytecode code, int[] input)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VirtualMachine vm = new VirtualMachine(code);
+        vm.setIo(getIo(input, out));
+        vm.run();
+        return out.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    /**
+     * Runs the given program, which must not read, with Program.compileToJvm(). Its
+     * output is printed to System.out, which is redirected while it runs. A
+     * StackOverflowError ends the output with a line that names it, so that it counts
+     * as a mismatch.
+     * @param text          given text of the program
+     * @return              Everything that the program printed, with \n line endings
+     */
+    static String runJvm(String text)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(out, true));
+        try
+        {
+            parse(text).compileToJvm().run();
+        }
+        catch (StackOverflowError ex)
+        {
+            System.out.println("StackOverflowError");
+        }
+        finally
+        {
+            System.setOut(console);
+        }
+        return out.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    /**
+     * Returns an IoChannel that reads the given integers and writes to the given stream.
+     * @param input         Integers that READLN reads, in order
+     * @param out           Stream that WRITELN writes to
+     * @return              The new IoChannel
+     */
+    private static IoChannel getIo(int[] input, ByteArrayOutputStream out)
+    {
+        StringBuilder in = new StringBuilder();
+        for (int value : input)
+        {
+            in.append(value).append('\n');
+        }
+        return new IoChannel(new ByteArrayInputStream(
+            in.toString().getBytes(StandardCharsets.US_ASCII)), out);
+    }
+
+    /**
+     * Compiles the given program with Program.compile() and the standard peephole rules.
+     * @param text          given text of the program
+     * @param fastCalls     true for the fast calling convention, false for the
+     *                      stack-based one
+     * @return              The MIPS Assembly of the program
+     */
+    static String compile(String text, boolean fastCalls)
+    {
+        StringBuilder asm = new StringBuilder();
+        Emitter e = new Emitter(asm);
+        e.setFastCalls(fastCalls);
+        parse(text).compile(e);
+        e.close();
+        return asm.toString();
+    }
+
+    /**
+     * Compiles the given program through the IR with the given passes.
+     * @param text          given text of the program
+     * @param passes        PassManager that optimizes the IR
+     * @return              The MIPS Assembly of the program
+     */
+    static String compileThroughIr(String text, PassManager passes)
+    {
+        StringBuilder asm = new StringBuilder();
+        Emitter e = new Emitter(asm);
+        parse(text).compileThroughIr(e, passes);
+        e.close();
+        return asm.toString();
+    }
+
+    /**
+     * Parses the given program.
+     * @param text          given text of the program
+     * @return              the parsed Program
+     */
+    static Program parse(String text)
+    {
+        return new Parser(new Scanner(text)).parseProgram();
+    }
+
+    /**
+     * Runs the given MIPS Assembly with a new MipsSimulator and compares its output with
+     * the expected output. A program that cannot run to the end (or that divides by 0)
+     * counts as a mismatch.
+     * @param label         Name of the check
+     * @param asm           MIPS Assembly of the program
+     * @param input         Integers that the program reads, in order
+     * @param expected      Output that was expected
+     * @return              The MipsSimulator, which holds the counts of the run
+     */
+    MipsSimulator check(String label, String asm, int[] input, String expected)
+    {
+        MipsSimulator sim = new MipsSimulator(asm);
+        String actual;
+        try
+        {
+            actual = sim.run(input);
+        }
+        catch (IllegalStateException | ArithmeticException ex)
+        {
+            checked += expected.split("\n").length;
+            System.out.println(label + ": " + ex.getMessage());
+            mismatches++;
+            return sim;
+        }
+        compare(label, expected, actual);
+        return sim;
+    }
+
+    /**
+     * Compares the expected and actual output line by line, printing every line that
+     * differs, and counts the lines as checked values.
+     * @param label         Name of the check
+     * @param expected      Output that was expected
+     * @param actual        Output that was produced
+     */
+    void compare(String label, String expected, String actual)
+    {
+        String[] want = expected.split("\n");
+        String[] got = actual.split("\n");
+        checked += want.length;
+        for (int i = 0; i < Math.max(want.length, got.length); i++)
+        {
+            String w = i < want.length ? want[i] : "(nothing)";
+            String g = i < got.length ? got[i] : "(nothing)";
+            if (!w.equals(g))
+            {
+                System.out.println(label + ", line " + (i + 1) + ": expected " + w
+                    + ", got " + g);
+                mismatches++;
+            }
+        }
+    }
+
+    /**
+     * Counts a check that is not about output, printing it if it failed.
+     * @param label         Name of the check
+     * @param passed        Whether the check passed
+     */
+    void expect(String label, boolean passed)
+    {
+        checked++;
+        if (!passed)
+        {
+            System.out.println(label + ": failed");
+            mismatches++;
+        }
+    }
+
+    /**
+     * Prints the number of values checked and of mismatches found.
+     */
+    void printSummary()
+    {
+        System.out.println(checked + " values checked, " + mismatches + " mismatches");
+    }
+}
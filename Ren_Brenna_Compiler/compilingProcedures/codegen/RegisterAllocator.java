@@ -0,0 +1,576 @@
+package codegen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
+
+/**
+ * RegisterAllocator class that decides which variables the compiled MIPS code keeps in
+ * registers. It implements CodeBuilder so that it receives the same lowering of the Program
+ * that the VirtualMachine uses, recording the instructions of main and of each procedure.
+ * It then runs a liveness analysis over each of them and allocates registers with linear
+ * scan: in main for the global variables, and in each procedure for its return value,
+ * parameters, and declared locals. Variables that are live across a procedure call get
+ * $s0-$s7 (which procedures save and restore when they use them); the others may also
+ * use $t5-$t9. $t0-$t4 are left free for evaluating expressions. When the registers run
+ * out, the variable whose live interval ends last stays in memory.
+ *
+ * Globals stay in memory inside procedures. At a call in main, every register-resident
+ * global that the procedure (or anything it calls) reads or writes is stored before the
+ * call and loaded again after it.
+ *
+ * Usage:
+ * RegisterAllocator a = new RegisterAllocator(<names of the globals>);
+ * <Program>.lower(a);
+ * a.allocate();
+ * Map<String, String> regs = a.getRegisters(<procedure name, or null for main>);
+ * List<String> saved = a.getSavedRegisters("foo");
+ * boolean live = a.isLiveAtEntry("foo", "x");
+ * List<String> shared = a.getTouchedGlobals("foo");
+ * boolean leaf = a.isLeaf("foo");
+ * ProcedureDeclaration proc = a.getProcedure("foo");
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class RegisterAllocator implements CodeBuilder
+{
+    // Callee-saved registers, which keep their values across procedure calls
+    private static final String[] SAVED = {"$s0", "$s1", "$s2", "$s3", "$s4", "$s5", "$s6", "$s7"};
+
+    // Temporary registers that are not used for evaluating expressions
+    private static final String[] TEMPORARY = {"$t5", "$t6", "$t7", "$t8", "$t9"};
+
+    // Names of the global variables, indexed by slot
+    private String[] globalNames;
+
+    // Declared procedures
+    private Map<String, ProcedureDeclaration> procedures;
+
+    // Recorded instructions of main (key null) and of each procedure
+    private Map<String, List<int[]>> units;
+
+    // Instructions of the unit currently being recorded
+    private List<int[]> current;
+
+    // Position of each label in its unit
+    private List<Integer> labels;
+
+    // Names of the procedures called by CALL instructions, indexed by the CALL operand
+    private List<String> callees;
+
+    // Global slots that each procedure touches, directly or through its callees
+    private Map<String, BitSet> touched;
+
+    // Results of the allocation for each unit
+    private Map<String, Map<String, String>> registers;
+    private Map<String, List<String>> savedRegisters;
+    private Map<String, Set<String>> liveAtEntry;
+
+    /**
+     * Creates a new RegisterAllocator for a Program with the given global variables.
+     * @param globalNames   Names of the global variables, indexed by slot
+     */
+    public RegisterAllocator(String[] globalNames)
+    {
+        this.globalNames = globalNames;
+        procedures = new HashMap<String, ProcedureDeclaration>();
+        units = new LinkedHashMap<String, List<int[]>>();
+        current = new ArrayList<int[]>();
+        units.put(null, current);
+        labels = new ArrayList<Integer>();
+        callees = new ArrayList<String>();
+    }
+
+    @Override
+    public void declareProcedure(ProcedureDeclaration proc)
+    {
+        procedures.put(proc.getID(), proc);
+    }
+
+    @Override
+    public int getParmCount(String id)
+    {
+        return procedures.get(id).getParms().size();
+    }
+
+    /**
+     * Returns the declaration of the procedure with the given name.
+     * @param id            given name of the procedure
+     * @return              The declared ProcedureDeclaration
+     */
+    public ProcedureDeclaration getProcedure(String id)
+    {
+        return procedures.get(id);
+    }
+
+    @Override
+    public void placeProcedure(String id)
+    {
+        current = new ArrayList<int[]>();
+        units.put(id, current);
+    }
+
+    @Override
+    public int newLabel()
+    {
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    @Override
+    public void placeLabel(int label)
+    {
+        labels.set(label, current.size());
+    }
+
+    @Override
+    public void emit(int op)
+    {
+        current.add(new int[] {op});
+    }
+
+    @Override
+    public void emitConst(int value)
+    {
+        current.add(new int[] {Opcode.CONST, value});
+    }
+
+    @Override
+    public void emitLoad(int depth, int slot)
+    {
+        current.add(new int[] {depth == 0 ? Opcode.LOAD : Opcode.LOAD_GLOBAL, slot});
+    }
+
+    @Override
+    public void emitStore(int depth, int slot)
+    {
+        current.add(new int[] {depth == 0 ? Opcode.STORE : Opcode.STORE_GLOBAL, slot});
+    }
+
+    @Override
+    public void emitJump(int op, int label)
+    {
+        current.add(new int[] {op, label});
+    }
+
+    @Override
+    public void emitCall(String id, int argCount)
+    {
+        current.add(new int[] {Opcode.CALL, callees.size()});
+        callees.add(id);
+    }
+
+    @Override
+    public void emitTailCall(String id, int argCount)
+    {
+        emitCall(id, argCount);
+        emitStore(0, 0);
+    }
+
+    /**
+     * Runs the liveness analysis and the register allocation for main and for every
+     * procedure. Should be called after the Program has been lowered into this allocator.
+     * @postcondition       The results of the allocation are available.
+     */
+    public void allocate()
+    {
+        findTouchedGlobals();
+        registers = new HashMap<String, Map<String, String>>();
+        savedRegisters = new HashMap<String, List<String>>();
+        liveAtEntry = new HashMap<String, Set<String>>();
+        for (Map.Entry<String, List<int[]>> unit : units.entrySet())
+        {
+            String id = unit.getKey();
+            String[] names = id == null ? globalNames : procedures.get(id).getFrameNames();
+            allocateUnit(id, unit.getValue(), names);
+        }
+    }
+
+    /**
+     * Returns the register of each register-resident variable of the given unit.
+     * @param unit          Name of the procedure, or null for main
+     * @return              Map of variable names to register names
+     */
+    public Map<String, String> getRegisters(String unit)
+    {
+        Map<String, String> regs = registers.get(unit);
+        return regs == null ? Collections.<String, String>emptyMap() : regs;
+    }
+
+    /**
+     * Returns the callee-saved registers that the given procedure uses, in order,
+     * which it must save on entry and restore before it returns.
+     * @param unit          Name of the procedure
+     * @return              List of the $s registers the procedure uses
+     */
+    public List<String> getSavedRegisters(String unit)
+    {
+        List<String> saved = savedRegisters.get(unit);
+        return saved == null ? Collections.<String>emptyList() : saved;
+    }
+
+    /**
+     * Returns whether the value that the given variable has on entry to the unit may be
+     * read, in which case a register-resident variable must be initialized on entry.
+     * @param unit          Name of the procedure, or null for main
+     * @param varName       Name of the variable
+     * @return              True if the variable is live on entry to the unit
+     */
+    public boolean isLiveAtEntry(String unit, String varName)
+    {
+        Set<String> live = liveAtEntry.get(unit);
+        return live != null && live.contains(varName);
+    }
+
+    /**
+     * Returns the names of the globals that the given procedure reads or writes,
+     * directly or through the procedures it calls.
+     * @param id            Name of the procedure
+     * @return              List of names of the globals the procedure touches
+     */
+    public List<String> getTouchedGlobals(String id)
+    {
+        List<String> names = new ArrayList<String>();
+        BitSet slots = touched.get(id);
+        if (slots != null)
+        {
+            for (int s = slots.nextSetBit(0); s >= 0; s = slots.nextSetBit(s + 1))
+            {
+                names.add(globalNames[s]);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns whether the given procedure is a leaf procedure, which does not call any
+     * procedure and so never overwrites its return address. Calls that the procedure
+     * makes to itself in tail position are compiled as jumps, so a procedure whose only
+     * calls are those is a leaf as well.
+     * @param id            Name of the procedure
+     * @return              True if the procedure makes no calls other than tail calls
+     */
+    public boolean isLeaf(String id)
+    {
+        int calls = 0;
+        for (int[] instr : units.get(id))
+        {
+            if (instr[0] == Opcode.CALL)
+            {
+                if (!callees.get(instr[1]).equals(id))
+                {
+                    return false;
+                }
+                calls++;
+            }
+        }
+        return calls == procedures.get(id).getTailCallCount();
+    }
+
+    /**
+     * Finds the global slots that each procedure touches, including the ones touched
+     * by the procedures it calls, by repeating until nothing changes.
+     */
+    private void findTouchedGlobals()
+    {
+        touched = new HashMap<String, BitSet>();
+        for (Map.Entry<String, List<int[]>> unit : units.entrySet())
+        {
+            if (unit.getKey() != null)
+            {
+                BitSet slots = new BitSet();
+                for (int[] instr : unit.getValue())
+                {
+                    if (instr[0] == Opcode.LOAD_GLOBAL || instr[0] == Opcode.STORE_GLOBAL)
+                    {
+                        slots.set(instr[1]);
+                    }
+                }
+                touched.put(unit.getKey(), slots);
+            }
+        }
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (Map.Entry<String, List<int[]>> unit : units.entrySet())
+            {
+                BitSet slots = touched.get(unit.getKey());
+                if (slots == null)
+                {
+                    continue;
+                }
+                for (int[] instr : unit.getValue())
+                {
+                    BitSet callee = instr[0] == Opcode.CALL
+                        ? touched.get(callees.get(instr[1])) : null;
+                    if (callee != null)
+                    {
+                        int before = slots.cardinality();
+                        slots.or(callee);
+                        changed |= slots.cardinality() != before;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the live variables before and after every instruction of a unit, assigns
+     * registers to its variables with linear scan, and records the results.
+     * @param id            Name of the procedure, or null for main
+     * @param code          Recorded instructions of the unit
+     * @param names         Names of the unit's variables, indexed by slot
+     */
+    private void allocateUnit(String id, List<int[]> code, String[] names)
+    {
+        int n = code.size();
+        BitSet[] use = new BitSet[n];
+        BitSet[] def = new BitSet[n];
+        BitSet[] liveIn = new BitSet[n];
+        BitSet[] liveOut = new BitSet[n];
+        for (int i = 0; i < n; i++)
+        {
+            int[] instr = code.get(i);
+            use[i] = new BitSet();
+            def[i] = new BitSet();
+            liveIn[i] = new BitSet();
+            liveOut[i] = new BitSet();
+            if (instr[0] == Opcode.LOAD)
+            {
+                use[i].set(instr[1]);
+            }
+            else if (instr[0] == Opcode.STORE)
+            {
+                def[i].set(instr[1]);
+            }
+            else if (instr[0] == Opcode.RET)
+            {
+                use[i].set(0);
+            }
+            else if (instr[0] == Opcode.CALL && id == null)
+            {
+                BitSet shared = touched.get(callees.get(instr[1]));
+                use[i].or(shared);
+                def[i].or(shared);
+            }
+        }
+
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (int i = n - 1; i >= 0; i--)
+            {
+                BitSet out = new BitSet();
+                for (int succ : successors(code, i))
+                {
+                    out.or(liveIn[succ]);
+                }
+                BitSet in = (BitSet) out.clone();
+                in.andNot(def[i]);
+                in.or(use[i]);
+                if (!in.equals(liveIn[i]) || !out.equals(liveOut[i]))
+                {
+                    liveIn[i] = in;
+                    liveOut[i] = out;
+                    changed = true;
+                }
+            }
+        }
+
+        int[] start = new int[names.length];
+        int[] end = new int[names.length];
+        boolean[] crossesCall = new boolean[names.length];
+        Arrays.fill(start, -1);
+        for (int i = 0; i < n; i++)
+        {
+            BitSet here = (BitSet) liveIn[i].clone();
+            here.or(def[i]);
+            for (int v = here.nextSetBit(0); v >= 0 && v < names.length; v = here.nextSetBit(v + 1))
+            {
+                if (start[v] < 0)
+                {
+                    start[v] = i;
+                }
+                end[v] = i;
+            }
+            if (code.get(i)[0] == Opcode.CALL)
+            {
+                BitSet across = (BitSet) liveOut[i].clone();
+                across.andNot(def[i]);
+                for (int v = across.nextSetBit(0); v >= 0 && v < names.length;
+                        v = across.nextSetBit(v + 1))
+                {
+                    crossesCall[v] = true;
+                }
+            }
+        }
+
+        Map<String, String> assigned = linearScan(names, start, end, crossesCall);
+        registers.put(id, assigned);
+
+        List<String> saved = new ArrayList<String>();
+        for (String reg : SAVED)
+        {
+            if (assigned.containsValue(reg))
+            {
+                saved.add(reg);
+            }
+        }
+        savedRegisters.put(id, saved);
+
+        Set<String> entry = new HashSet<String>();
+        if (n > 0)
+        {
+            for (int v = liveIn[0].nextSetBit(0); v >= 0 && v < names.length;
+                    v = liveIn[0].nextSetBit(v + 1))
+            {
+                entry.add(names[v]);
+            }
+        }
+        liveAtEntry.put(id, entry);
+    }
+
+    /**
+     * Assigns registers to the live intervals of a unit's variables, in order of the
+     * start of each interval. When no register is free, the interval that ends last
+     * (among the current one and the active ones it could take a register from) is
+     * left in memory.
+     * @param names         Names of the unit's variables, indexed by slot
+     * @param start         Position where each variable's interval starts (-1 if none)
+     * @param end           Position where each variable's interval ends
+     * @param crossesCall   Whether each variable is live across a procedure call
+     * @return              Map of the register-resident variables to their registers
+     */
+    private Map<String, String> linearScan(String[] names, int[] start, int[] end,
+            boolean[] crossesCall)
+    {
+        List<Integer> order = new ArrayList<Integer>();
+        for (int v = 0; v < names.length; v++)
+        {
+            if (start[v] >= 0)
+            {
+                order.add(v);
+            }
+        }
+        order.sort((a, b) -> start[a] - start[b]);
+
+        Map<String, Integer> owner = new HashMap<String, Integer>();
+        String[] regOf = new String[names.length];
+        for (int v : order)
+        {
+            for (String reg : new ArrayList<String>(owner.keySet()))
+            {
+                if (end[owner.get(reg)] < start[v])
+                {
+                    owner.remove(reg);
+                }
+            }
+
+            String free = null;
+            if (!crossesCall[v])
+            {
+                free = firstFree(TEMPORARY, owner);
+            }
+            if (free == null)
+            {
+                free = firstFree(SAVED, owner);
+            }
+
+            if (free == null)
+            {
+                int victim = -1;
+                for (Map.Entry<String, Integer> active : owner.entrySet())
+                {
+                    boolean usable = !crossesCall[v] || active.getKey().startsWith("$s");
+                    if (usable && (victim < 0 || end[active.getValue()] > end[victim]))
+                    {
+                        victim = active.getValue();
+                    }
+                }
+                if (victim >= 0 && end[victim] > end[v])
+                {
+                    free = regOf[victim];
+                    regOf[victim] = null;
+                }
+            }
+
+            if (free != null)
+            {
+                regOf[v] = free;
+                owner.put(free, v);
+            }
+        }
+
+        Map<String, String> assigned = new HashMap<String, String>();
+        for (int v = 0; v < names.length; v++)
+        {
+            if (regOf[v] != null)
+            {
+                assigned.put(names[v], regOf[v]);
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Returns the first register of the given pool that no active interval owns.
+     * @param pool          Registers to choose from
+     * @param owner         Registers owned by the active intervals
+     * @return              A free register, or null if every register is owned
+     */
+    private static String firstFree(String[] pool, Map<String, Integer> owner)
+    {
+        for (String reg : pool)
+        {
+            if (!owner.containsKey(reg))
+            {
+                return reg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the positions that can run right after the instruction at the given position.
+     * @param code          Recorded instructions of a unit
+     * @param i             Position of the instruction
+     * @return              Positions of its successors
+     */
+    private List<Integer> successors(List<int[]> code, int i)
+    {
+        List<Integer> succ = new ArrayList<Integer>(2);
+        int op = code.get(i)[0];
+        if (op == Opcode.RET || op == Opcode.HALT)
+        {
+            return succ;
+        }
+        if (op == Opcode.JUMP)
+        {
+            succ.add(labels.get(code.get(i)[1]));
+            return succ;
+        }
+        if (i + 1 < code.size())
+        {
+            succ.add(i + 1);
+        }
+        if (op >= Opcode.IF_EQ && op <= Opcode.IF_GE)
+        {
+            succ.add(labels.get(code.get(i)[1]));
+        }
+        return succ;
+    }
+}
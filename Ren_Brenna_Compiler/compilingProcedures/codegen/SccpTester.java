@@ -0,0 +1,306 @@
+package codegen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import ir.ConditionalConstantPropagation;
+import ir.PassManager;
+
+/**
+ * SccpTester class that checks the conditional constant propagation of the IR (see
+ * ConditionalConstantPropagation). It generates random programs that assign literals to
+ * globals in main and to locals in the procedure t, compute with them, and test them in
+ * IF...ELSE and WHILE statements, while it works out every value in the same way the
+ * interpreter does. In half of the programs main also calls set, which changes a global
+ * that main tests later, so those tests are not constant. Each program is compiled
+ * through the IR without passes, with the propagation alone, and with the standard
+ * passes, and the output of each is compared with the interpreter's. Every WRITELN in an
+ * arm that never runs prints its own number, which must be gone from the code after the
+ * propagation, and when main makes no such calls, the code must have no conditional
+ * branches left and must be shorter than without passes. The mismatches are printed,
+ * followed by the number of instructions in the code of each compilation and the number
+ * of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class SccpTester
+{
+    // Number of random programs
+    private static final int PROGRAMS = 40;
+
+    // Number of statements in main and in the procedure of each program
+    private static final int STATEMENTS = 16;
+
+    // Relations of the generated conditions
+    private static final String[] RELOPS = {"=", "<>", "<", ">", "<=", ">="};
+
+    // Relations that are true exactly when the relation at the same index is false
+    private static final String[] NEGATED = {"<>", "=", ">=", "<=", ">", "<"};
+
+    // Conditional branch instructions of the code
+    private static final Pattern BRANCH = Pattern.compile("(?m)^\\tb[a-z]* ");
+
+    // Random numbers that shape the programs, with a fixed seed so runs repeat
+    private static Random random = new Random(22);
+
+    // Number printed by the next generated WRITELN in an arm of an IF or WHILE
+    private static int nextMarker;
+
+    // Numbers printed in arms that never run, which the propagation must remove
+    private static List<Integer> deadMarkers;
+
+    /**
+     * Runs every check and prints the mismatches, the size of the code, and the number
+     * of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        ProgramChecker checker = new ProgramChecker();
+        long[] sizes = new long[3];
+        for (int p = 0; p < PROGRAMS; p++)
+        {
+            boolean calls = p % 2 == 1;
+            String text = getProgram(calls);
+            String expected = ProgramChecker.interpret(text, new int[0]);
+            PassManager alone = new PassManager();
+            alone.add(new ConditionalConstantPropagation());
+            String[] asm = {ProgramChecker.compileThroughIr(text, new PassManager()),
+                ProgramChecker.compileThroughIr(text, alone),
+                ProgramChecker.compileThroughIr(text, PassManager.standard())};
+            String[] names = {"no passes", "propagation", "standard passes"};
+            for (int i = 0; i < asm.length; i++)
+            {
+                String label = "program " + p + " (" + names[i] + ")";
+                checker.check(label, asm[i], new int[0], expected);
+                sizes[i] += countInstructions(asm[i]);
+                if (i > 0)
+                {
+                    for (int marker : deadMarkers)
+                    {
+                        checker.expect(label + ", WRITELN(" + marker + ") is left",
+                            !Pattern.compile("\\b" + marker + "\\b").matcher(asm[i]).find());
+                    }
+                    if (!calls)
+                    {
+                        checker.expect(label + " has no conditional branches",
+                            !BRANCH.matcher(asm[i]).find());
+                        checker.expect(label + " is shorter than without passes",
+                            countInstructions(asm[i]) < countInstructions(asm[0]));
+                    }
+                }
+            }
+        }
+        System.out.println("instructions in the code: " + sizes[0] + " (no passes), "
+            + sizes[1] + " (propagation), " + sizes[2] + " (standard passes)");
+        checker.printSummary();
+    }
+
+    /**
+     * Returns the text of a random program and records the numbers that its dead arms
+     * print. The procedure t works with its locals, and main with the globals; main
+     * prints the result of t.
+     * @param calls         true to call set in main, which changes the global g0
+     * @return              Text of the program
+     */
+    private static String getProgram(boolean calls)
+    {
+        nextMarker = 1000;
+        deadMarkers = new ArrayList<Integer>();
+        StringBuilder text = new StringBuilder("VAR g0, g1, g2, g3, x;\n");
+        text.append("PROCEDURE set(v);\nBEGIN\ng0 := v;\nset := v;\nEND;\n");
+        text.append("PROCEDURE t(a);\nVAR l0, l1, l2, l3;\nBEGIN\n");
+        appendStatements(text, new String[] {"l0", "l1", "l2", "l3"}, false, true);
+        text.append("t := l0 + a;\nEND;\nBEGIN\n");
+        appendStatements(text, new String[] {"g0", "g1", "g2", "g3"}, calls, !calls);
+        text.append("WRITELN(t(").append(random.nextInt(10)).append("));\n");
+        return text.append("END;\n.\n").toString();
+    }
+
+    /**
+     * Appends assignments of literals to the given variables, followed by random
+     * statements: assignments, WRITELNs, IFs with an ELSE, WHILE loops whose condition
+     * is false, and (when calls are allowed) calls to set with a literal.
+     * @param text          Text of the program
+     * @param vars          Names of the four variables that the statements use
+     * @param calls         true to call set, which changes the variable vars[0]
+     * @param constant      true if the tests of the variables are constant to the
+     *                      propagation, so that the numbers of dead arms are recorded
+     */
+    private static void appendStatements(StringBuilder text, String[] vars, boolean calls,
+        boolean constant)
+    {
+        int[] values = new int[vars.length];
+        for (int k = 0; k < vars.length; k++)
+        {
+            values[k] = random.nextInt(41) - 20;
+            text.append(vars[k]).append(" := ").append(getLiteral(values[k])).append(";\n");
+        }
+        for (int i = 0; i < STATEMENTS; i++)
+        {
+            int k = random.nextInt(vars.length);
+            switch (random.nextInt(calls ? 6 : 5))
+            {
+                case 0:
+                    values[k] = random.nextInt(41) - 20;
+                    text.append(vars[k]).append(" := ").append(getLiteral(values[k]))
+                        .append(";\n");
+                    break;
+                case 1:
+                    text.append(vars[k]).append(" := ");
+                    values[k] = appendExpression(text, vars, values);
+                    text.append(";\n");
+                    break;
+                case 2:
+                    text.append("WRITELN(");
+                    appendExpression(text, vars, values);
+                    text.append(");\n");
+                    break;
+                case 3:
+                    text.append("IF ");
+                    boolean holds = appendCondition(text, vars, values, false);
+                    text.append(" THEN WRITELN(").append(getMarker(!holds && constant))
+                        .append(");\nELSE WRITELN(").append(getMarker(holds && constant))
+                        .append(");\n");
+                    break;
+                case 4:
+                    text.append("WHILE ");
+                    appendCondition(text, vars, values, true);
+                    text.append(" DO\nBEGIN\nWRITELN(").append(getMarker(constant))
+                        .append(");\n").append(vars[k]).append(" := 0;\nEND;\n");
+                    break;
+                default:
+                    values[0] = random.nextInt(41) - 20;
+                    text.append("x := set(").append(getLiteral(values[0])).append(");\n");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Appends a comparison of a random expression with a literal.
+     * @param text          Text of the program
+     * @param vars          Names of the variables that the expression uses
+     * @param values        Current values of the variables
+     * @param falseOnly     true to make the comparison false
+     * @return              Whether the comparison holds
+     */
+    private static boolean appendCondition(StringBuilder text, String[] vars, int[] values,
+        boolean falseOnly)
+    {
+        int value = appendExpression(text, vars, values);
+        int literal = random.nextInt(41) - 20;
+        int r = random.nextInt(RELOPS.length);
+        boolean holds = compare(RELOPS[r], value, literal);
+        String relop = RELOPS[r];
+        if (falseOnly && holds)
+        {
+            relop = NEGATED[r];
+            holds = false;
+        }
+        text.append(' ').append(relop).append(' ').append(getLiteral(literal));
+        return holds;
+    }
+
+    /**
+     * Appends a random expression of two variables or literals, using +, -, *, or mod
+     * by a positive literal, and returns its value as the interpreter computes it.
+     * @param text          Text of the program
+     * @param vars          Names of the variables that the expression uses
+     * @param values        Current values of the variables
+     * @return              Value of the expression
+     */
+    private static int appendExpression(StringBuilder text, String[] vars, int[] values)
+    {
+        int k = random.nextInt(vars.length);
+        int j = random.nextInt(vars.length);
+        int literal = 1 + random.nextInt(9);
+        switch (random.nextInt(4))
+        {
+            case 0:
+                text.append('(').append(vars[k]).append(" + ").append(vars[j]).append(')');
+                return values[k] + values[j];
+            case 1:
+                text.append('(').append(vars[k]).append(" - ").append(literal).append(')');
+                return values[k] - literal;
+            case 2:
+                text.append('(').append(vars[k]).append(" * ").append(vars[j]).append(')');
+                return values[k] * values[j];
+            default:
+                text.append('(').append(vars[k]).append(" mod ").append(literal).append(')');
+                return values[k] % literal;
+        }
+    }
+
+    /**
+     * Returns the text of the given literal, written as a subtraction from 0 if it is
+     * negative.
+     * @param value         given value of the literal
+     * @return              Text of the literal
+     */
+    private static String getLiteral(int value)
+    {
+        return value < 0 ? "(0 - " + -value + ")" : String.valueOf(value);
+    }
+
+    /**
+     * Returns the next number for a WRITELN in an arm, recording it if the arm is dead.
+     * @param dead          true if the arm never runs and the propagation can tell
+     * @return              Number that the WRITELN prints
+     */
+    private static int getMarker(boolean dead)
+    {
+        if (dead)
+        {
+            deadMarkers.add(nextMarker);
+        }
+        return nextMarker++;
+    }
+
+    /**
+     * Returns whether the given relation holds between two values.
+     * @param relop         one of RELOPS
+     * @param a             given first value
+     * @param b             given second value
+     * @return              true if a relop b holds; otherwise, false
+     */
+    private static boolean compare(String relop, int a, int b)
+    {
+        switch (relop)
+        {
+            case "=":
+                return a == b;
+            case "<>":
+                return a != b;
+            case "<":
+                return a < b;
+            case ">":
+                return a > b;
+            case "<=":
+                return a <= b;
+            default:
+                return a >= b;
+        }
+    }
+
+    /**
+     * Returns the number of instructions in the given MIPS Assembly, which are the lines
+     * that are neither labels nor directives.
+     * @param asm           given MIPS Assembly
+     * @return              The number of instructions
+     */
+    private static int countInstructions(String asm)
+    {
+        int count = 0;
+        for (String line : asm.split("\n"))
+        {
+            if (line.startsWith("\t") && !line.startsWith("\t.") && !line.contains(":"))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+}
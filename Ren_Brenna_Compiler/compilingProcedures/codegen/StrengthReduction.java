@@ -0,0 +1,297 @@
+package codegen;
+
+/**
+ * StrengthReduction class that emits the MIPS Assembly for multiplying, dividing, and
+ * taking the remainder of $v0 by a constant, using cheaper instructions than mul and
+ * div wherever it can. The result is left in $v0, and $t0 and $t1 are used as scratch
+ * registers.
+ * - Multiplication by 0, 1, -1, a power of two, or a sum or difference of two powers
+ *   of two (such as 10 = 8 + 2 or 7 = 8 - 1) becomes at most three shifts and adds.
+ * - Division and remainder by a power of two become shifts and masks. A bias of
+ *   2^k - 1 is added to negative dividends first, so that the quotient is rounded
+ *   towards zero and the remainder has the sign of the dividend, just like div.
+ * - Division and remainder by any other constant multiply by a precomputed "magic"
+ *   number and keep the high word of the product (Hacker's Delight, chapter 10), which
+ *   avoids div entirely.
+ * Division and remainder by 0 or by -2^31 still use div.
+ *
+ * Usage:
+ * StrengthReduction.emitMultiply(<Emitter>, 10);
+ * StrengthReduction.emitDivide(<Emitter>, 10);
+ * StrengthReduction.emitRemainder(<Emitter>, 2);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public final class StrengthReduction
+{
+    /**
+     * StrengthReduction only has static methods and cannot be instantiated.
+     */
+    private StrengthReduction()
+    {
+    }
+
+    /**
+     * Emits the code that multiplies $v0 by the given constant.
+     * @param e             Emitter that the code is emitted to
+     * @param c             given constant
+     * @postcondition       $v0 holds its old value times c.
+     */
+    public static void emitMultiply(Emitter e, int c)
+    {
+        if (c == 0)
+        {
+            e.emit("li $v0 0");
+            return;
+        }
+        long m = Math.abs((long) c);
+        if (!emitShiftMultiply(e, m))
+        {
+            e.emit("li $t0 " + c);
+            e.emit("mul $v0 $v0 $t0");
+            return;
+        }
+        if (c < 0)
+        {
+            e.emit("subu $v0 $zero $v0");
+        }
+    }
+
+    /**
+     * Emits shifts and adds that multiply $v0 by the given positive constant, if the
+     * constant is a power of two or a sum or difference of two powers of two.
+     * @param e             Emitter that the code is emitted to
+     * @param m             given constant, from 1 to 2^31
+     * @return              true if the code was emitted, false otherwise
+     */
+    private static boolean emitShiftMultiply(Emitter e, long m)
+    {
+        int low = Long.numberOfTrailingZeros(m);
+        long rest = m - (1L << low);
+        if (rest == 0)
+        {
+            if (low > 0)
+            {
+                e.emit("sll $v0 $v0 " + low);
+            }
+            return true;
+        }
+        if (Long.bitCount(rest) == 1)
+        {
+            e.emit("sll $t0 $v0 " + Long.numberOfTrailingZeros(rest));
+            if (low > 0)
+            {
+                e.emit("sll $v0 $v0 " + low);
+            }
+            e.emit("addu $v0 $t0 $v0");
+            return true;
+        }
+        long above = m + (1L << low);
+        if (Long.bitCount(above) == 1 && above <= 1L << 31)
+        {
+            e.emit("sll $t0 $v0 " + Long.numberOfTrailingZeros(above));
+            if (low > 0)
+            {
+                e.emit("sll $v0 $v0 " + low);
+            }
+            e.emit("subu $v0 $t0 $v0");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Emits the code that divides $v0 by the given constant, rounding towards zero.
+     * @param e             Emitter that the code is emitted to
+     * @param d             given constant
+     * @postcondition       $v0 holds its old value divided by d.
+     */
+    public static void emitDivide(Emitter e, int d)
+    {
+        if (d == 1)
+        {
+            return;
+        }
+        if (d == -1)
+        {
+            e.emit("subu $v0 $zero $v0");
+            return;
+        }
+        if (d == 0 || d == Integer.MIN_VALUE)
+        {
+            e.emit("li $t0 " + d);
+            e.emit("div $v0 $t0");
+            e.emit("mflo $v0");
+            return;
+        }
+        int k = getPowerOfTwo(d);
+        if (k > 0)
+        {
+            emitBias(e, k);
+            e.emit("addu $v0 $v0 $t0");
+            e.emit("sra $v0 $v0 " + k);
+            if (d < 0)
+            {
+                e.emit("subu $v0 $zero $v0");
+            }
+            return;
+        }
+        emitMagicQuotient(e, d, "$v0");
+    }
+
+    /**
+     * Emits the code that replaces $v0 by its remainder after division by the given
+     * constant. The remainder has the sign of the dividend.
+     * @param e             Emitter that the code is emitted to
+     * @param d             given constant
+     * @postcondition       $v0 holds its old value mod d.
+     */
+    public static void emitRemainder(Emitter e, int d)
+    {
+        if (d == 1 || d == -1)
+        {
+            e.emit("li $v0 0");
+            return;
+        }
+        if (d == 0 || d == Integer.MIN_VALUE)
+        {
+            e.emit("li $t0 " + d);
+            e.emit("div $v0 $t0");
+            e.emit("mfhi $v0");
+            return;
+        }
+        int k = getPowerOfTwo(d);
+        if (k > 0)
+        {
+            emitBias(e, k);
+            e.emit("addu $t1 $v0 $t0");
+            if (k <= 16)
+            {
+                e.emit("andi $t1 $t1 " + ((1 << k) - 1));
+            }
+            else
+            {
+                e.emit("li $v0 " + ((1 << k) - 1));
+                e.emit("and $t1 $t1 $v0");
+            }
+            e.emit("subu $v0 $t1 $t0");
+            return;
+        }
+        emitMagicQuotient(e, d, "$t1");
+        e.emit("li $t0 " + d);
+        e.emit("mul $t1 $t1 $t0");
+        e.emit("subu $v0 $v0 $t1");
+    }
+
+    /**
+     * Returns k if the absolute value of the given constant is 2^k.
+     * @param d             given constant, neither 0 nor -2^31
+     * @return              the exponent, or -1 if |d| is not a power of two
+     */
+    private static int getPowerOfTwo(int d)
+    {
+        int a = Math.abs(d);
+        return Integer.bitCount(a) == 1 ? Integer.numberOfTrailingZeros(a) : -1;
+    }
+
+    /**
+     * Emits the code that sets $t0 to 2^k - 1 if $v0 is negative and to 0 otherwise.
+     * @param e             Emitter that the code is emitted to
+     * @param k             given exponent, from 1 to 30
+     */
+    private static void emitBias(Emitter e, int k)
+    {
+        if (k == 1)
+        {
+            e.emit("srl $t0 $v0 31");
+        }
+        else
+        {
+            e.emit("sra $t0 $v0 31");
+            e.emit("srl $t0 $t0 " + (32 - k));
+        }
+    }
+
+    /**
+     * Emits the code that divides $v0 by the given constant with a magic number and
+     * puts the quotient in the given register. $v0 is left unchanged unless it is the
+     * given register.
+     * @param e             Emitter that the code is emitted to
+     * @param d             given constant, whose absolute value is at least 3 and is
+     *                      not a power of two
+     * @param dest          given register for the quotient
+     */
+    private static void emitMagicQuotient(Emitter e, int d, String dest)
+    {
+        long[] magic = getMagic(d);
+        int m = (int) magic[0];
+        long shift = magic[1];
+        e.emit("li $t0 " + m);
+        e.emit("mult $v0 $t0");
+        e.emit("mfhi $t1");
+        if (d > 0 && m < 0)
+        {
+            e.emit("addu $t1 $t1 $v0");
+        }
+        else if (d < 0 && m > 0)
+        {
+            e.emit("subu $t1 $t1 $v0");
+        }
+        if (shift > 0)
+        {
+            e.emit("sra $t1 $t1 " + shift);
+        }
+        e.emit("srl $t0 $t1 31");
+        e.emit("addu " + dest + " $t1 $t0");
+    }
+
+    /**
+     * Returns the magic number and shift amount for signed division by the given
+     * constant (Hacker's Delight, figure 10-1). All values are unsigned 32-bit numbers
+     * held in longs.
+     * @param d             given constant, whose absolute value is at least 2
+     * @return              array of the magic number (as a 32-bit pattern) and the shift
+     */
+    private static long[] getMagic(int d)
+    {
+        final long two31 = 1L << 31;
+        final long mask = 0xFFFFFFFFL;
+        long ad = Math.abs((long) d);
+        long t = two31 + ((d & mask) >>> 31);
+        long anc = t - 1 - t % ad;
+        int p = 31;
+        long q1 = two31 / anc;
+        long r1 = two31 - q1 * anc;
+        long q2 = two31 / ad;
+        long r2 = two31 - q2 * ad;
+        long delta;
+        do
+        {
+            p++;
+            q1 = (2 * q1) & mask;
+            r1 = 2 * r1;
+            if (r1 >= anc)
+            {
+                q1 = (q1 + 1) & mask;
+                r1 -= anc;
+            }
+            q2 = (2 * q2) & mask;
+            r2 = 2 * r2;
+            if (r2 >= ad)
+            {
+                q2 = (q2 + 1) & mask;
+                r2 -= ad;
+            }
+            delta = ad - r2;
+        }
+        while (q1 < delta || (q1 == delta && r1 == 0));
+
+        long magic = (q2 + 1) & mask;
+        if (d < 0)
+        {
+            magic = -magic & mask;
+        }
+        return new long[] {(int) magic, p - 32};
+    }
+}
@@ -0,0 +1,245 @@
+package codegen;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import ast.Program;
+import environment.Environment;
+import environment.IoChannel;
+import parser.Parser;
+import scanner.Scanner;
+
+/**
+ * StrengthReductionTester class that checks the code of StrengthReduction against Java's
+ * own *, /, and % (which round like div does), by running it with a MipsSimulator. Every
+ * dividend is multiplied, divided, and taken the remainder of by every constant, first
+ * with the sequences that StrengthReduction emits on their own, and then in programs
+ * compiled by Program.compile() (which only reduces positive literals) and through the
+ * IR (where a negative constant such as 0 - 4 is folded first), whose output is compared
+ * with the interpreter's. The dividends and constants include 0, 1, -1, the powers of two
+ * and their negations, Integer.MIN_VALUE and MAX_VALUE, and constants that need a magic
+ * number. Each mismatch is printed, followed by the number of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class StrengthReductionTester
+{
+    // Values that are multiplied, divided, and taken the remainder of
+    private static final int[] DIVIDENDS = {0, 1, -1, 2, -2, 3, -3, 7, -7, 10, -10, 99, -99,
+        100, -100, 12345, -12345, 32767, -32768, 65535, -65536, 1 << 30, -(1 << 30),
+        Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+
+    // Constants that are not powers of two (the powers of two are added by getConstants())
+    private static final int[] OTHER_CONSTANTS = {0, 1, -1, 3, -3, 5, 6, 7, -7, 9, 10, -10,
+        11, 12, 13, 25, 100, -100, 641, 1000, -1000, 65535, 65537, (1 << 30) + 1,
+        Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+
+    // Number of values checked and of mismatches found
+    private static int checked;
+    private static int mismatches;
+
+    /**
+     * Runs every check and prints the mismatches and the number of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        int[] constants = getConstants();
+        for (int c : constants)
+        {
+            checkSequences(c);
+        }
+        checkProgram(false, constants);
+        checkProgram(true, constants);
+        System.out.println(checked + " values checked, " + mismatches + " mismatches");
+    }
+
+    /**
+     * Returns the constants to check: the other constants, and 2^k and -2^k for every k
+     * from 1 to 30.
+     * @return              Array of the constants
+     */
+    private static int[] getConstants()
+    {
+        int[] constants = new int[OTHER_CONSTANTS.length + 60];
+        System.arraycopy(OTHER_CONSTANTS, 0, constants, 0, OTHER_CONSTANTS.length);
+        for (int k = 1; k <= 30; k++)
+        {
+            constants[OTHER_CONSTANTS.length + 2 * (k - 1)] = 1 << k;
+            constants[OTHER_CONSTANTS.length + 2 * k - 1] = -(1 << k);
+        }
+        return constants;
+    }
+
+    /**
+     * Checks the sequences that StrengthReduction emits for the given constant on every
+     * dividend. Division and remainder by 0 are skipped.
+     * @param c             given constant
+     */
+    private static void checkSequences(int c)
+    {
+        StringBuilder asm = new StringBuilder();
+        Emitter e = new Emitter(asm);
+        e.setOptimizer(null);
+        e.emit(".text");
+        e.emit("main:");
+        StringBuilder expected = new StringBuilder();
+        for (int op = 0; op < 3; op++)
+        {
+            if (op > 0 && c == 0)
+            {
+                break;
+            }
+            for (int x : DIVIDENDS)
+            {
+                e.emit("li $v0 " + x);
+                if (op == 0)
+                {
+                    StrengthReduction.emitMultiply(e, c);
+                    expected.append(x * c).append('\n');
+                }
+                else if (op == 1)
+                {
+                    StrengthReduction.emitDivide(e, c);
+                    expected.append(x / c).append('\n');
+                }
+                else
+                {
+                    StrengthReduction.emitRemainder(e, c);
+                    expected.append(x % c).append('\n');
+                }
+                e.emit("move $a0 $v0");
+                e.emit("li $v0 1");
+                e.emit("syscall");
+                e.emit("li $a0 10");
+                e.emit("li $v0 11");
+                e.emit("syscall");
+            }
+        }
+        e.emit("li $v0 10");
+        e.emit("syscall");
+        e.close();
+        compare("sequences for " + c, expected.toString(),
+            new MipsSimulator(asm.toString()).run(new int[0]));
+    }
+
+    /**
+     * Checks a program that prints x * c, x / c, and x mod c for every dividend x and
+     * every constant c (but x / c and x mod c only for c other than 0), compiled either
+     * directly, with positive constants written as literals, or through the IR, with x
+     * read from the input so that it is not folded. Its output is compared with the
+     * interpreter's.
+     * @param throughIr     true to compile through the IR, false to use Program.compile()
+     * @param constants     given constants
+     */
+    private static void checkProgram(boolean throughIr, int[] constants)
+    {
+        StringBuilder text = new StringBuilder("VAR x;\nBEGIN\n");
+        StringBuilder input = new StringBuilder();
+        for (int x : DIVIDENDS)
+        {
+            if (throughIr)
+            {
+                text.append("READLN(x);\n");
+                input.append(x).append('\n');
+            }
+            else
+            {
+                text.append("x := ").append(literal(x)).append(";\n");
+            }
+            for (int c : constants)
+            {
+                if (!throughIr && c < 0)
+                {
+                    continue;
+                }
+                text.append("WRITELN(x * ").append(literal(c)).append(");\n");
+                if (c != 0)
+                {
+                    text.append("WRITELN(x / ").append(literal(c)).append(");\n");
+                    text.append("WRITELN(x mod ").append(literal(c)).append(");\n");
+                }
+            }
+        }
+        text.append("END;\n.\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Environment env = new Environment(null);
+        env.setIo(new IoChannel(new ByteArrayInputStream(
+            input.toString().getBytes(StandardCharsets.US_ASCII)), out));
+        parse(text.toString()).exec(env);
+
+        StringBuilder asm = new StringBuilder();
+        Emitter e = new Emitter(asm);
+        if (throughIr)
+        {
+            parse(text.toString()).compileThroughIr(e);
+        }
+        else
+        {
+            parse(text.toString()).compile(e);
+        }
+        e.close();
+        String[] values = input.toString().isEmpty() ? new String[0]
+            : input.toString().split("\n");
+        int[] numbers = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            numbers[i] = Integer.parseInt(values[i]);
+        }
+        String label = throughIr ? "program through the IR" : "compiled program";
+        String actual = new MipsSimulator(asm.toString()).run(numbers);
+        compare(label, out.toString().replace(System.lineSeparator(), "\n"), actual);
+    }
+
+    /**
+     * Returns the source text of a constant: a literal, or 0 minus a literal for a
+     * negative one (with Integer.MIN_VALUE as 0 - 2147483647 - 1).
+     * @param value         given constant
+     * @return              Expression that evaluates to it
+     */
+    private static String literal(int value)
+    {
+        if (value == Integer.MIN_VALUE)
+        {
+            return "(0 - 2147483647 - 1)";
+        }
+        return value < 0 ? "(0 - " + -value + ")" : String.valueOf(value);
+    }
+
+    /**
+     * Compares the expected and actual output line by line, printing every line that
+     * differs, and counts the lines as checked values.
+     * @param label         Name of the check
+     * @param expected      Output that was expected
+     * @param actual        Output of the simulated code
+     */
+    private static void compare(String label, String expected, String actual)
+    {
+        String[] want = expected.split("\n");
+        String[] got = actual.split("\n");
+        checked += want.length;
+        for (int i = 0; i < Math.max(want.length, got.length); i++)
+        {
+            String w = i < want.length ? want[i] : "(nothing)";
+            String g = i < got.length ? got[i] : "(nothing)";
+            if (!w.equals(g))
+            {
+                System.out.println(label + ", line " + (i + 1) + ": expected " + w
+                    + ", got " + g);
+                mismatches++;
+            }
+        }
+    }
+
+    /**
+     * Parses the given program.
+     * @param text          given text of the program
+     * @return              the parsed Program
+     */
+    private static Program parse(String text)
+    {
+        return new Parser(new Scanner(text)).parseProgram();
+    }
+}
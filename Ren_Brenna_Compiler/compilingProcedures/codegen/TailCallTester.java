@@ -0,0 +1,127 @@
+package codegen;
+
+import ir.PassManager;
+
+/**
+ * TailCallTester class that checks the tail calls that procedures make to themselves
+ * (see Assignment.markTailCalls()) in every engine. Its programs recurse 100000 calls
+ * deep through tail calls with an accumulator, with repeated parameter names and missing
+ * arguments, with a parameter named like its procedure, with a local that is read before
+ * it is assigned (so it must be 0 again in every call), and with tail calls in both arms
+ * of an IF...ELSE after a WHILE loop. The output of each program is compared with the
+ * interpreter's, which is itself checked against a sum worked out here, for the
+ * VirtualMachine, the JVM class, and the MIPS Assembly compiled with the stack-based
+ * calls, with the fast calls, and through the IR with the standard passes. Each MIPS
+ * compilation must use as much stack for a depth of 100000 as for a depth of 10. The
+ * mismatches are printed, followed by the instructions run by each compilation, the
+ * most stack that any of them used, and the number of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class TailCallTester
+{
+    // Depth of the recursion
+    private static final int DEPTH = 100000;
+
+    // Depth of the recursion that the stack use is compared with
+    private static final int SHALLOW_DEPTH = 10;
+
+    // Names of the MIPS compilations
+    private static final String[] COMPILATIONS = {"stack calls", "fast calls",
+        "standard passes"};
+
+    /**
+     * Runs every check and prints the mismatches, the instructions run, the stack used,
+     * and the number of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        ProgramChecker checker = new ProgramChecker();
+        String[] programs = getPrograms(DEPTH);
+        String[] shallow = getPrograms(SHALLOW_DEPTH);
+        long[] steps = new long[COMPILATIONS.length];
+        int stack = 0;
+        int sum = 0;
+        for (int n = 1; n <= DEPTH; n++)
+        {
+            sum += n;
+        }
+        checker.compare("program 0 (interpreter)", sum + "\n" + sum + "\n",
+            ProgramChecker.interpret(programs[0], new int[0]));
+        for (int p = 0; p < programs.length; p++)
+        {
+            String label = "program " + p;
+            String expected = ProgramChecker.interpret(programs[p], new int[0]);
+            checker.compare(label + " (virtual machine)", expected,
+                ProgramChecker.runVm(ProgramChecker.parse(programs[p]).lower(), new int[0]));
+            checker.compare(label + " (JVM)", expected, ProgramChecker.runJvm(programs[p]));
+            for (int c = 0; c < COMPILATIONS.length; c++)
+            {
+                String name = label + " (" + COMPILATIONS[c] + ")";
+                MipsSimulator deep = checker.check(name, compile(programs[p], c),
+                    new int[0], expected);
+                MipsSimulator small = checker.check(name + " at depth " + SHALLOW_DEPTH,
+                    compile(shallow[p], c), new int[0],
+                    ProgramChecker.interpret(shallow[p], new int[0]));
+                checker.expect(name + " uses " + deep.getStackSize() + " bytes of stack",
+                    deep.getStackSize() == small.getStackSize());
+                steps[c] += deep.getSteps();
+                stack = Math.max(stack, deep.getStackSize());
+            }
+        }
+        System.out.println("instructions run: " + steps[0] + " (stack calls), " + steps[1]
+            + " (fast calls), " + steps[2] + " (standard passes), at most " + stack
+            + " bytes of stack");
+        checker.printSummary();
+    }
+
+    /**
+     * Compiles the given program in one of the ways of COMPILATIONS.
+     * @param text          given text of the program
+     * @param compilation   Index of the compilation in COMPILATIONS
+     * @return              The MIPS Assembly of the program
+     */
+    private static String compile(String text, int compilation)
+    {
+        if (compilation == 2)
+        {
+            return ProgramChecker.compileThroughIr(text, PassManager.standard());
+        }
+        return ProgramChecker.compile(text, compilation == 1);
+    }
+
+    /**
+     * Returns the programs, which recurse the given number of calls deep. The first one
+     * prints the sum of the numbers from 1 to the depth twice.
+     * @param depth         Depth of the recursion
+     * @return              Texts of the programs
+     */
+    private static String[] getPrograms(int depth)
+    {
+        return new String[] {
+            // an accumulator, once without its argument
+            "PROCEDURE sum(n, acc);\nBEGIN\nsum := acc;\n"
+                + "IF n > 0 THEN sum := sum(n - 1, acc + n);\nEND;\n"
+                + "BEGIN\nWRITELN(sum(" + depth + ", 0));\nWRITELN(sum(" + depth + "));\n"
+                + "END;\n.\n",
+            // repeated parameter names, missing arguments, a local, and a global
+            "VAR g;\nPROCEDURE acc(n, a, b, a);\nVAR t;\nBEGIN\nt := t + a;\ng := g + t;\n"
+                + "acc := t + b;\nIF n > 0 THEN acc := acc(n - 1, (a + b) mod 1000, b + 1, "
+                + "a * 3 mod 997);\nEND;\nBEGIN\ng := 0;\nWRITELN(acc(" + depth + ", 1, 2));\n"
+                + "WRITELN(g);\nWRITELN(acc(" + depth + ", 1, 2, 3));\nWRITELN(g);\nEND;\n.\n",
+            // a parameter named like its procedure
+            "PROCEDURE self(x, self);\nBEGIN\nself := self + x;\n"
+                + "IF x > 0 THEN self := self(x - 1, self mod 997);\nEND;\n"
+                + "BEGIN\nWRITELN(self(" + depth + ", 7));\nWRITELN(self(" + depth + "));\n"
+                + "END;\n.\n",
+            // tail calls in both arms of an IF...ELSE, after a WHILE loop
+            "PROCEDURE walk(n, s);\nVAR k;\nBEGIN\nk := 0;\nWHILE k < 3 DO\nBEGIN\n"
+                + "s := s + k * n;\nk := k + 1;\nEND;\nwalk := s;\nIF n > 1 THEN\n"
+                + "IF n mod 3 = 0 THEN walk := walk(n - 1, s mod 10007);\n"
+                + "ELSE walk := walk(n - 2, s * 2 mod 10007);\nEND;\n"
+                + "BEGIN\nWRITELN(walk(" + depth + ", 1));\nWRITELN(walk(" + (depth + 1)
+                + ", 5));\nEND;\n.\n",
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package codegen;
+
+import java.util.Random;
+
+/**
+ * TemporaryTester class that checks how BinOp and Condition hold their operands in the
+ * temporary registers (see Expression.compileOperands()). It generates random programs
+ * with nested arithmetic and comparisons, some of which call a procedure that changes a
+ * global variable that the same expression reads, both in main and in a procedure with
+ * parameters and locals. Each program is compiled with both calling conventions and its
+ * output is compared with the interpreter's. Then it checks that expressions that need no
+ * more temporaries than there are (up to three levels of operators, without calls)
+ * compile with no loads or stores from $sp at all. The mismatches are printed, followed
+ * by the number of loads and stores from $sp that the random programs ran and the number
+ * of values checked.
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class TemporaryTester
+{
+    // Number of random programs
+    private static final int PROGRAMS = 40;
+
+    // Number of statements in main and in the procedure of each program
+    private static final int STATEMENTS = 30;
+
+    // Operators of the generated expressions (division and mod are by constants)
+    private static final String[] OPERATORS = {"+", "-", "*", "/", "mod"};
+
+    // Relations of the generated conditions
+    private static final String[] RELOPS = {"=", "<>", "<", ">", "<=", ">="};
+
+    // Random numbers that shape the programs, with a fixed seed so runs repeat
+    private static Random random = new Random(18);
+
+    /**
+     * Runs every check and prints the mismatches, the loads and stores from $sp, and the
+     * number of values checked.
+     * @param args          not used
+     */
+    public static void main(String[] args)
+    {
+        ProgramChecker checker = new ProgramChecker();
+        long[] accesses = new long[2];
+        for (int p = 0; p < PROGRAMS; p++)
+        {
+            String text = getProgram(1 + p % 6, true);
+            String expected = ProgramChecker.interpret(text, new int[0]);
+            for (int fast = 0; fast < 2; fast++)
+            {
+                String asm = ProgramChecker.compile(text, fast == 1);
+                accesses[fast] += checker.check("program " + p + (fast == 1 ? " (fast calls)"
+                    : " (stack calls)"), asm, new int[0], expected).getStackAccesses();
+            }
+        }
+        for (int p = 0; p < PROGRAMS; p++)
+        {
+            String text = getProgram(3, false);
+            String asm = ProgramChecker.compile(text, false);
+            checker.check("program without calls " + p, asm, new int[0],
+                ProgramChecker.interpret(text, new int[0]));
+            checker.expect("no stack in program without calls " + p, !asm.contains("($sp)"));
+        }
+        System.out.println("loads and stores from $sp: " + accesses[0] + " (stack calls), "
+            + accesses[1] + " (fast calls)");
+        checker.printSummary();
+    }
+
+    /**
+     * Returns the text of a random program. Main and the procedure t assign and print
+     * expressions and compare them in IF and WHILE statements. When calls are allowed,
+     * the expressions may call bump, which adds its argument to the global c, and main
+     * calls t and prints its result and c at the end.
+     * @param depth         Largest number of levels of operators in an expression
+     * @param calls         true to call procedures, false for main alone
+     * @return              Text of the program
+     */
+    private static String getProgram(int depth, boolean calls)
+    {
+        String[] globals = {"g0", "g1", "g2", "c"};
+        String[] locals = {"a", "b", "l0", "l1", "g0", "c"};
+        StringBuilder text = new StringBuilder("VAR g0, g1, g2, c;\n");
+        if (calls)
+        {
+            text.append("PROCEDURE bump(v);\nBEGIN\nc := c + v;\nbump := c mod 100;\nEND;\n");
+            text.append("PROCEDURE t(a, b);\nVAR l0, l1;\nBEGIN\n");
+            appendStatements(text, locals, depth, calls);
+            text.append("t := l0 + l1;\nEND;\n");
+        }
+        text.append("BEGIN\ng0 := 7;\ng1 := 12;\ng2 := 5;\n");
+        appendStatements(text, globals, depth, calls);
+        if (calls)
+        {
+            text.append("WRITELN(t(g0, g1 - g2));\nWRITELN(c);\n");
+        }
+        return text.append("END;\n.\n").toString();
+    }
+
+    /**
+     * Appends random statements: assignments, WRITELNs, IFs with an ELSE, and WHILE
+     * loops that run five times and make an assignment when a condition holds.
+     * @param text          Text of the program
+     * @param vars          Names of the variables that the statements use
+     * @param depth         Largest number of levels of operators in an expression
+     * @param calls         true to call bump in expressions
+     */
+    private static void appendStatements(StringBuilder text, String[] vars, int depth,
+        boolean calls)
+    {
+        for (int i = 0; i < STATEMENTS; i++)
+        {
+            String target = vars[random.nextInt(vars.length)];
+            switch (random.nextInt(5))
+            {
+                case 0:
+                case 1:
+                    text.append(target).append(" := ")
+                        .append(getExpression(vars, depth, calls)).append(";\n");
+                    break;
+                case 2:
+                    text.append("WRITELN(").append(getExpression(vars, depth, calls))
+                        .append(");\n");
+                    break;
+                case 3:
+                    text.append("IF ").append(getCondition(vars, depth, calls))
+                        .append(" THEN WRITELN(").append(getExpression(vars, depth, calls))
+                        .append(");\nELSE WRITELN(").append(getExpression(vars, depth, calls))
+                        .append(");\n");
+                    break;
+                default:
+                    text.append("n := 0;\nWHILE n < 5 DO\nBEGIN\nIF ")
+                        .append(getCondition(vars, depth, calls)).append(" THEN ").append(target)
+                        .append(" := ").append(getExpression(vars, depth, calls))
+                        .append(";\nn := n + 1;\nEND;\n");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns a random comparison of two expressions.
+     * @param vars          Names of the variables that the expressions use
+     * @param depth         Largest number of levels of operators in an expression
+     * @param calls         true to call bump in the expressions
+     * @return              Text of the condition
+     */
+    private static String getCondition(String[] vars, int depth, boolean calls)
+    {
+        return getExpression(vars, depth, calls) + " " + RELOPS[random.nextInt(RELOPS.length)]
+            + " " + getExpression(vars, depth, calls);
+    }
+
+    /**
+     * Returns a random expression with at most the given number of levels of operators.
+     * The operands are variables, literals, and (when calls are allowed) calls to bump.
+     * Division and mod are by positive literals, so no expression divides by zero.
+     * @param vars          Names of the variables that the expression uses
+     * @param depth         Largest number of levels of operators
+     * @param calls         true to call bump
+     * @return              Text of the expression
+     */
+    private static String getExpression(String[] vars, int depth, boolean calls)
+    {
+        if (depth == 0 || random.nextInt(5) == 0)
+        {
+            int kind = random.nextInt(calls ? 7 : 6);
+            if (kind < 4)
+            {
+                return vars[random.nextInt(vars.length)];
+            }
+            if (kind < 6)
+            {
+                return String.valueOf(random.nextInt(100));
+            }
+            return "bump(" + getExpression(vars, Math.min(depth, 1), false) + ")";
+        }
+        String op = OPERATORS[random.nextInt(OPERATORS.length)];
+        if (op.equals("/") || op.equals("mod"))
+        {
+            return "(" + getExpression(vars, depth - 1, calls) + " " + op + " "
+                + (1 + random.nextInt(20)) + ")";
+        }
+        return "(" + getExpression(vars, depth - 1, calls) + " " + op + " "
+            + getExpression(vars, depth - 1, calls) + ")";
+    }
+}
@@ -0,0 +1,193 @@
+package environment;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CallCache class that remembers the values returned by calls to one pure procedure, keyed
+ * by the values of its parameters. The cache holds at most a fixed number of entries; when
+ * it is full, adding an entry evicts either the least recently used entry or the oldest
+ * entry, depending on how the cache was created. The numbers of hits, misses, and
+ * evictions are counted so the benefit of the cache can be measured. Looking up a value
+ * does not allocate anything.
+ *
+ * Usage:
+ * CallCache c = new CallCache(<capacity>, <true for LRU, false for FIFO eviction>);
+ * Integer value = c.get(<int array of arguments>);
+ * c.put(<int array of arguments>, <value>);
+ * long hits = c.getHits();
+ * long misses = c.getMisses();
+ * long evictions = c.getEvictions();
+ * int size = c.size();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class CallCache
+{
+    // Maximum number of entries
+    private int capacity;
+
+    // Values returned by the procedure, keyed by the arguments, in eviction order
+    private Map<Key, Integer> entries;
+
+    // Key that is reused for every lookup
+    private Key probe;
+
+    // Number of lookups that found a value
+    private long hits;
+
+    // Number of lookups that did not find a value
+    private long misses;
+
+    // Number of entries evicted to make room for new ones
+    private long evictions;
+
+    /**
+     * Creates a new empty CallCache with the given capacity and eviction policy.
+     * @param capacity              given maximum number of entries (at least 1)
+     * @param leastRecentlyUsed     true to evict the least recently used entry, false
+     *                              to evict the oldest entry
+     */
+    public CallCache(int capacity, boolean leastRecentlyUsed)
+    {
+        this.capacity = capacity;
+        probe = new Key(new int[0]);
+        entries = new LinkedHashMap<Key, Integer>(16, 0.75f, leastRecentlyUsed)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest)
+            {
+                if (size() > CallCache.this.capacity)
+                {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the value that the procedure returned for the given arguments.
+     * @param args          given values of the parameters
+     * @return              the cached value, or null if there is none
+     */
+    public Integer get(int[] args)
+    {
+        probe.set(args);
+        Integer value = entries.get(probe);
+        probe.set(null);
+        if (value == null)
+        {
+            misses++;
+        }
+        else
+        {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Remembers the value that the procedure returned for the given arguments. The
+     * array must not be changed afterwards.
+     * @param args          given values of the parameters
+     * @param value         given value returned by the procedure
+     */
+    public void put(int[] args, int value)
+    {
+        entries.put(new Key(args), value);
+    }
+
+    /**
+     * Returns the number of lookups that found a value.
+     * @return              the number of hits
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a value.
+     * @return              the number of misses
+     */
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries that were evicted.
+     * @return              the number of evictions
+     */
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     * @return              the number of entries
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns the counters of the cache.
+     * @return              String with the hits, misses, evictions, and size
+     */
+    public String toString()
+    {
+        return "hits=" + hits + " misses=" + misses + " evictions=" + evictions
+            + " size=" + entries.size();
+    }
+
+    /**
+     * Key class that compares the arguments of a call by value.
+     */
+    private static class Key
+    {
+        // Values of the arguments
+        private int[] args;
+
+        // Hash code of the arguments
+        private int hash;
+
+        /**
+         * Creates a new Key for the given arguments.
+         * @param args      given values of the arguments
+         */
+        Key(int[] args)
+        {
+            set(args);
+        }
+
+        /**
+         * Changes the arguments of the Key, which is only done to the probe.
+         * @param args      given values of the arguments
+         */
+        void set(int[] args)
+        {
+            this.args = args;
+            hash = Arrays.hashCode(args);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof Key && ((Key) other).hash == hash
+                && Arrays.equals(((Key) other).args, args);
+        }
+    }
+}
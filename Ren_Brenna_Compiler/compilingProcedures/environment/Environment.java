@@ -1,32 +1,64 @@
 package environment;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import ast.ProcedureDeclaration;
+import bytecode.InliningCostModel;
 
 /**
- * Environment class that stores all of the variables and procedures by mapping 
- * them to their respective numerical values and ProcedureDeclarations. 
- * It offers methods to set the variable values, declare variables with a value,
- * retrieve the value from the name of the variable, set the procedure's definition,
- * and retrieve the ProcedureDeclaration from the procedure name.
+ * Environment class that represents one activation frame of the interpreter. Variables
+ * are stored in an int array and are accessed by the (depth, slot) pairs that the
+ * resolution pass (see Scope) binds to every variable name, so no names are hashed
+ * while the program runs. The depth is the number of parent environments to walk
+ * before reading the slot. Procedures are still stored by name in the global
+ * (root) environment, along with a CallCache for each pure procedure that has been
+ * called, and a pool of activation frames: a procedure call acquires a frame from the
+ * pool and releases it when it returns, so after the deepest call has been reached,
+ * calls no longer allocate frames. A procedure that calls itself as the last thing it
+ * does reuses its frame: the call marks the frame with requestTailCall() and the
+ * procedure runs again in it. The caches are off by default; setMemoization() turns
+ * them on before the program runs, with a capacity and either LRU or FIFO eviction. The
+ * global environment also holds the InliningCostModel that decides which calls run the
+ * procedure's body directly in a frame of their own (see ProcedureCall), which is the
+ * default model unless another one, or none, is set with setInlining(). It also holds
+ * the IoChannel that WRITELN and READLN use, which is bound to standard input and
+ * output unless another one is set with setIo().
  * @author  Brenna Ren
- * @version April 9, 2024
+ * @version October 18, 2026
  * 
  * Usage:
- * Environment env = new Environment();
- * env.declareVariable(<String name of variable>, 1);
- * boolean found = env.setVariable(<String name of variable>, 1);
- * int value = env.getVariable(<String name of variable>);
+ * Environment env = new Environment(null);
+ * env.allocate(<number of global variables>);
+ * Environment child = new Environment(env, <number of local variables>);
+ * child.setVariable(<depth>, <slot>, 1);
+ * int value = child.getVariable(<depth>, <slot>);
+ * Environment global = child.getGlobalEnvironment();
+ * Environment frame = global.acquireFrame(<number of local variables>);
+ * global.releaseFrame(frame);
+ * frame.clear(<number of local variables>);
+ * frame.requestTailCall();
+ * boolean again = frame.takeTailCall();
  * env.setProcedure(<String name of procedure>, <ProcedureDeclaration>);
  * ProcedureDeclaration stmt = env.getProcedure(<String name of procedure>);
+ * env.setMemoization(<capacity of each cache, or 0 for none>, <true for LRU eviction>);
+ * env.setInlining(<InliningCostModel, or null for no inlining>);
+ * InliningCostModel model = env.getInlining();
+ * int generation = env.getGeneration();
+ * CallCache cache = env.getCallCache(<String name of procedure>);
+ * Map<String, CallCache> caches = env.getCallCaches();
+ * env.setIo(new IoChannel(<InputStream>, <OutputStream>));
+ * IoChannel io = env.getIo();
  */
 
 public class Environment 
 {
-    // Map that stores the variables (Strings mapped to integer values)
-    private Map<String, Integer> variables;
+    // Usual number of entries in the CallCache of each pure procedure, for setMemoization()
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+
+    // Values of the variables in this frame, indexed by slot
+    private int[] slots;
 
     // Map that stores the procedures (Strings mapped to ProcedureDeclarations)
     private Map<String, ProcedureDeclaration> procedures;
@@ -34,90 +66,206 @@ public class Environment
     // Instance variable that stores the parent environment
     private Environment parent;
 
+    // Global (root) environment of this environment's hierarchy
+    private Environment global;
+
+    // Frames released to the pool, which can be acquired again (global environment only)
+    private Environment[] pool;
+
+    // Number of frames in the pool
+    private int pooled;
+
+    // Number of entries in each CallCache (0 when memoization is off)
+    private int cacheCapacity;
+
+    // Whether the CallCaches evict the least recently used entry instead of the oldest
+    private boolean leastRecentlyUsed;
+
+    // CallCache of each pure procedure that has been called (null until one is needed)
+    private Map<String, CallCache> caches;
+
+    // Cost model of the inlined calls (global environment only, null for no inlining)
+    private InliningCostModel inlining;
+
+    // Input and output of the program (global environment only, null until one is needed)
+    private IoChannel io;
+
+    // Whether the procedure running in this frame ended with a tail call
+    private boolean tailCall;
+
+    // Number of times the procedures, the memoization settings, or the inlining settings
+    // have changed (global environment only), so that call sites know when to look them
+    // up again
+    private int generation;
+
     /**
-     * Creates a new Environment with the given parent environment, 
-     * an empty HashMap of Strings to integers, and an empty HashMap of
-     * Strings to ProcedureDeclarations.
+     * Creates a new Environment with the given parent environment and no variable
+     * slots. Slots can be added later with allocate().
      * @param parent        Given parent environment
      */
     public Environment(Environment parent)
     {
-        variables = new HashMap<String, Integer> ();
-        procedures = new HashMap<String, ProcedureDeclaration> ();
+        this(parent, 0);
+    }
+
+    /**
+     * Creates a new Environment with the given parent environment and the given
+     * number of variable slots (all 0). Only the global environment (the one without
+     * a parent) gets a HashMap of Strings to ProcedureDeclarations, a frame pool, and
+     * the default InliningCostModel.
+     * @param parent        Given parent environment
+     * @param size          Number of variable slots in the frame
+     */
+    public Environment(Environment parent, int size)
+    {
+        slots = new int[size];
         this.parent = parent;
+        if (parent == null)
+        {
+            global = this;
+            procedures = new HashMap<String, ProcedureDeclaration> ();
+            pool = new Environment[16];
+            inlining = new InliningCostModel();
+        }
+        else
+        {
+            global = parent.global;
+        }
+        leastRecentlyUsed = true;
     }
 
     /**
-     * Associates the given variable name with the given value by adding an
-     * entry with the given variable as the key and the given value to the HashMap.
-     * @param variable      String name of the variable to store the value in
-     * @param value         Integer value to store in the variable
-     * @postcondition       The given value is associated with the variable.
+     * Grows the frame so that it has at least the given number of variable slots.
+     * Existing values are kept and new slots are 0.
+     * @param size          Minimum number of variable slots in the frame
+     * @postcondition       The frame has at least size slots.
      */
-    public void declareVariable(String variable, int value)
+    public void allocate(int size)
     {
-        variables.put(variable, value);
+        if (slots.length < size)
+        {
+            int[] grown = new int[size];
+            System.arraycopy(slots, 0, grown, 0, slots.length);
+            slots = grown;
+        }
     }
 
     /**
-     * Sets the variable to the given value by using the following rules:
-     * - If the variable exists in the current environment, then only the
-     * variable in the current environment is changed to the new value.
-     * - If the variable does not exist in the current environment, then
-     * the method backtracks using the parent environments until the
-     * variable is found. At that point, the variable is modified in that
-     * environment.
-     * - If the variable is found at one point in the environment's hierarchy,
-     * then the method returns true. Otherwise, it returns false.
-     * @param variable      String name of the variable to set the value of
-     * @param value         Value to replace the variable with
-     * @return              True if the variable is found at one point in
-     *                      the environment's hierarchy; False otherwise.
+     * Sets the variable in the given slot of the environment that is depth
+     * parents above this one to the given value.
+     * @param depth         Number of parent environments to walk
+     * @param slot          Slot of the variable in that environment
+     * @param value         Value to store in the variable
+     * @postcondition       The variable holds the given value.
      */
-    public boolean setVariable(String variable, int value)
+    public void setVariable(int depth, int slot, int value)
     {
-        if (variables.containsKey(variable))
+        Environment env = this;
+        for (; depth > 0; depth--)
         {
-            variables.put(variable, value);
-            return true;
+            env = env.parent;
         }
-        else
+        env.slots[slot] = value;
+    }
+
+    /**
+     * Returns the value of the variable in the given slot of the environment that
+     * is depth parents above this one. Each variable is 0 until it is assigned.
+     * @param depth         Number of parent environments to walk
+     * @param slot          Slot of the variable in that environment
+     * @return              The value of the variable.
+     */
+    public int getVariable(int depth, int slot)
+    {
+        Environment env = this;
+        for (; depth > 0; depth--)
         {
-            if (parent != null)
-            {
-                return parent.setVariable(variable, value);
-            }
-            else
-            {
-                return false;
-            }
+            env = env.parent;
         }
+        return env.slots[slot];
+    }
+
+    /**
+     * Sets the first size variable slots of the frame to 0.
+     * @param size          Number of variable slots to clear
+     * @postcondition       The first size slots are 0.
+     */
+    public void clear(int size)
+    {
+        Arrays.fill(slots, 0, size, 0);
     }
 
+    /**
+     * Marks the frame as ending with a tail call, so that the procedure running in it
+     * runs again from the start in the same frame.
+     * @postcondition       takeTailCall() returns true once.
+     */
+    public void requestTailCall()
+    {
+        tailCall = true;
+    }
 
+    /**
+     * Returns whether the frame was marked by requestTailCall() since the last call,
+     * and clears the mark.
+     * @return              true if the procedure running in the frame made a tail call
+     */
+    public boolean takeTailCall()
+    {
+        boolean made = tailCall;
+        tailCall = false;
+        return made;
+    }
+
+    /**
+     * Returns the global (root) environment of this environment's hierarchy.
+     * @return              The environment that has no parent.
+     */
+    public Environment getGlobalEnvironment()
+    {
+        return global;
+    }
+
+    /**
+     * Returns a frame whose parent is the global environment and whose first size
+     * slots are 0. The frame comes from the pool when there is one, and is created
+     * otherwise.
+     * @param size          Number of variable slots the frame needs
+     * @return              A frame that is not in use
+     */
+    public Environment acquireFrame(int size)
+    {
+        Environment g = global;
+        if (g.pooled == 0)
+        {
+            return new Environment(g, size);
+        }
+        Environment frame = g.pool[--g.pooled];
+        g.pool[g.pooled] = null;
+        if (frame.slots.length < size)
+        {
+            frame.slots = new int[size];
+        }
+        else
+        {
+            Arrays.fill(frame.slots, 0, size, 0);
+        }
+        return frame;
+    }
 
     /**
-     * Returns the value associated with the given variable name.
-     * Each variable is 0 by default (undeclared), and if the variable
-     * is not found in the current environment, the method backtracks
-     * using the parent environments until the variable is found.
-     * @param variable      String name of the variable to retrieve the value from.
-     * @return              The value associated with the variable.
+     * Returns the given frame to the pool. The frame must have come from acquireFrame()
+     * and must not be used again until it is acquired again.
+     * @param frame         Frame that is no longer in use
      */
-    public int getVariable(String variable)
+    public void releaseFrame(Environment frame)
     {
-        if (variables.get(variable) == null)
+        Environment g = global;
+        if (g.pooled == g.pool.length)
         {
-            if (parent != null)
-            {
-                return parent.getVariable(variable);
-            }
-            else
-            {
-                return 0;
-            }
+            g.pool = Arrays.copyOf(g.pool, g.pool.length * 2);
         }
-        return variables.get(variable);
+        g.pool[g.pooled++] = frame;
     }
 
     /**
@@ -130,33 +278,126 @@ public class Environment
      */
     public void setProcedure(String id, ProcedureDeclaration stmt)
     {
-        if (parent != null)
-        {
-            parent.setProcedure(id, stmt);
-        }
-        else
-        {
-            procedures.put(id, stmt);
-        }
+        global.procedures.put(id, stmt);
+        global.generation++;
     }
 
     /**
      * Returns the ProcedureDeclaration associated with the given procedure name.
-     * If the procedure is not found in the current environment, the method 
-     * backtracks using the parent environments until the procedure is found.
+     * Procedures are always stored in the global environment.
      * @param id            String name of the procedure to retrieve the 
      *                      ProcedureDeclaration from.
      * @return              The ProcedureDeclaration associated with the procedure.
      */
     public ProcedureDeclaration getProcedure(String id)
     {
-        if (parent != null)
+        return global.procedures.get(id);
+    }
+
+    /**
+     * Sets the capacity and eviction policy of the CallCaches of the global environment
+     * and drops any cached values. The call sites that kept a CallCache fetch a new one
+     * (or none) on their next call, since the generation changes.
+     * @param capacity              Number of entries in each cache (0 turns caching off)
+     * @param leastRecentlyUsed     true to evict the least recently used entry, false to
+     *                              evict the oldest entry
+     */
+    public void setMemoization(int capacity, boolean leastRecentlyUsed)
+    {
+        global.cacheCapacity = capacity;
+        global.leastRecentlyUsed = leastRecentlyUsed;
+        global.caches = null;
+        global.generation++;
+    }
+
+    /**
+     * Sets the InliningCostModel that decides which calls are inlined. The call sites
+     * decide again on their next call, since the generation changes. Inlined calls are
+     * not reported, even if the model has a report target.
+     * @param inlining      given InliningCostModel, or null to inline no calls
+     */
+    public void setInlining(InliningCostModel inlining)
+    {
+        global.inlining = inlining;
+        global.generation++;
+    }
+
+    /**
+     * Returns the InliningCostModel that decides which calls are inlined.
+     * @return              The InliningCostModel, or null if no calls are inlined
+     */
+    public InliningCostModel getInlining()
+    {
+        return global.inlining;
+    }
+
+    /**
+     * Returns the generation of the global environment, which changes every time a
+     * procedure is set or the memoization or inlining settings change. A call site that
+     * looked up a procedure or its CallCache must look them up again when the generation
+     * is no longer the one it saw.
+     * @return              The current generation
+     */
+    public int getGeneration()
+    {
+        return global.generation;
+    }
+
+    /**
+     * Returns the CallCache of the procedure with the given name, creating it the first
+     * time. The caller must only use it for a pure procedure.
+     * @param id            String name of the procedure
+     * @return              The CallCache of the procedure, or null if caching is off.
+     */
+    public CallCache getCallCache(String id)
+    {
+        if (global.cacheCapacity <= 0)
         {
-            return parent.getProcedure(id);
+            return null;
         }
-        else
+        if (global.caches == null)
+        {
+            global.caches = new HashMap<String, CallCache>();
+        }
+        CallCache cache = global.caches.get(id);
+        if (cache == null)
+        {
+            cache = new CallCache(global.cacheCapacity, global.leastRecentlyUsed);
+            global.caches.put(id, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the CallCache of every pure procedure that has been called, so that their
+     * hit and miss counters can be read.
+     * @return              Map from the name of each procedure to its CallCache
+     */
+    public Map<String, CallCache> getCallCaches()
+    {
+        return global.caches == null ? new HashMap<String, CallCache>() : global.caches;
+    }
+
+    /**
+     * Sets the IoChannel that WRITELN and READLN use in this environment's hierarchy.
+     * @param io            given IoChannel
+     */
+    public void setIo(IoChannel io)
+    {
+        global.io = io;
+    }
+
+    /**
+     * Returns the IoChannel that WRITELN and READLN use, creating one that is bound to
+     * standard input and output the first time if none was set.
+     * @return              The IoChannel of the global environment
+     */
+    public IoChannel getIo()
+    {
+        if (global.io == null)
         {
-            return procedures.get(id);
+            global.io = new IoChannel();
         }
+        return global.io;
     }
 }
@@ -0,0 +1,192 @@
+package environment;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import bytecode.CodeBuilder;
+import bytecode.InliningCostModel;
+import bytecode.Opcode;
+
+/**
+ * InliningAnalysis class that measures the procedures for the InliningCostModel that the
+ * interpreter uses to decide which calls it inlines (see ProcedureCall). It implements
+ * CodeBuilder so that it receives the same lowering of the procedures that the back
+ * ends use, and the size of a procedure is the number of instructions it is lowered to,
+ * not counting RET and JUMPs, just like in the BytecodeInliner. It also records which
+ * procedures each procedure calls, to find the recursive ones, which are never inlined.
+ *
+ * Usage:
+ * InliningAnalysis a = new InliningAnalysis();
+ * a.declareProcedure(<ProcedureDeclaration>);
+ * <ProcedureDeclaration>.lower(a);
+ * a.analyze();
+ * int size = a.getSize("foo");
+ * boolean recursive = a.isRecursive("foo");
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class InliningAnalysis implements CodeBuilder
+{
+    // Declared procedures
+    private Map<String, ProcedureDeclaration> procedures;
+
+    // Names of the procedures that each procedure calls
+    private Map<String, Set<String>> calls;
+
+    // Number of instructions of each procedure, besides RET and JUMPs
+    private Map<String, Integer> sizes;
+
+    // Procedures that can call themselves (null until analyze() is called)
+    private Set<String> recursive;
+
+    // Procedure currently being lowered (null outside of a procedure)
+    private String current;
+
+    /**
+     * Creates a new InliningAnalysis with no procedures.
+     */
+    public InliningAnalysis()
+    {
+        procedures = new HashMap<String, ProcedureDeclaration>();
+        calls = new HashMap<String, Set<String>>();
+        sizes = new HashMap<String, Integer>();
+    }
+
+    @Override
+    public void declareProcedure(ProcedureDeclaration proc)
+    {
+        procedures.put(proc.getID(), proc);
+    }
+
+    @Override
+    public int getParmCount(String id)
+    {
+        ProcedureDeclaration proc = procedures.get(id);
+        return proc == null ? 0 : proc.getParms().size();
+    }
+
+    @Override
+    public void placeProcedure(String id)
+    {
+        current = id;
+        calls.put(id, new HashSet<String>());
+        sizes.put(id, 0);
+    }
+
+    @Override
+    public int newLabel()
+    {
+        return 0;
+    }
+
+    @Override
+    public void placeLabel(int label)
+    {
+    }
+
+    @Override
+    public void emit(int op)
+    {
+        if (op != Opcode.RET)
+        {
+            count();
+        }
+    }
+
+    @Override
+    public void emitConst(int value)
+    {
+        count();
+    }
+
+    @Override
+    public void emitLoad(int depth, int slot)
+    {
+        count();
+    }
+
+    @Override
+    public void emitStore(int depth, int slot)
+    {
+        count();
+    }
+
+    @Override
+    public void emitJump(int op, int label)
+    {
+        if (op != Opcode.JUMP)
+        {
+            count();
+        }
+    }
+
+    @Override
+    public void emitCall(String id, int argCount)
+    {
+        count();
+        if (current != null)
+        {
+            calls.get(current).add(id);
+        }
+    }
+
+    @Override
+    public void emitTailCall(String id, int argCount)
+    {
+        emitCall(id, argCount);
+        emitStore(0, 0);
+    }
+
+    /**
+     * Counts one instruction of the procedure currently being lowered.
+     */
+    private void count()
+    {
+        if (current != null)
+        {
+            sizes.put(current, sizes.get(current) + 1);
+        }
+    }
+
+    /**
+     * Finds the recursive procedures. A call to a procedure that was not lowered into
+     * this analysis is left out of the call graph. Should be called after every
+     * procedure has been lowered into this analysis.
+     * @postcondition       isRecursive() gives the result of the analysis.
+     */
+    public void analyze()
+    {
+        for (Set<String> callees : calls.values())
+        {
+            callees.retainAll(calls.keySet());
+        }
+        recursive = InliningCostModel.findRecursive(calls);
+    }
+
+    /**
+     * Returns the number of instructions that the procedure with the given name is
+     * lowered to, not counting RET and JUMPs.
+     * @param id            given name of the procedure
+     * @return              The size of the procedure, or 0 if it was not lowered
+     */
+    public int getSize(String id)
+    {
+        Integer size = sizes.get(id);
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * Returns whether the procedure with the given name can call itself, directly or
+     * through the procedures it calls.
+     * @param id            given name of the procedure
+     * @return              true if the procedure is recursive, false otherwise
+     */
+    public boolean isRecursive(String id)
+    {
+        return recursive.contains(id);
+    }
+}
@@ -0,0 +1,229 @@
+package environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * IoChannel class that carries the input and output of a running program: WRITELN writes
+ * integers to it and READLN reads integers from it. Output is formatted straight into a
+ * large byte buffer, which is only written to the output stream when it is full, before
+ * an integer is read (so that prompts appear), and when flush() is called. Input is read
+ * into a byte buffer in large pieces and parsed by hand, and the same buffer is used by
+ * every read, so no input is lost between reads. The channel can be bound to standard
+ * input and output, to files, or to in-memory streams. Integers are read like
+ * java.util.Scanner.nextInt() reads them: one token separated by whitespace.
+ *
+ * Usage:
+ * IoChannel io = new IoChannel();
+ * IoChannel io = new IoChannel(<InputStream>, <OutputStream>);
+ * io.writeln(<int value>);
+ * int value = io.readInt();
+ * io.flush();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class IoChannel
+{
+    // Number of bytes in the output and input buffers
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Longest line that writeln() can produce (sign, 10 digits, and a line separator)
+    private static final int MAX_LINE = 16;
+
+    // Stream that input is read from
+    private InputStream in;
+
+    // Stream that output is written to
+    private OutputStream out;
+
+    // Bytes of the line separator
+    private byte[] newline;
+
+    // Output that has not been written yet
+    private byte[] outBuffer;
+
+    // Number of bytes in outBuffer
+    private int outLength;
+
+    // Input that has been read but not parsed yet
+    private byte[] inBuffer;
+
+    // Position of the next byte to parse in inBuffer
+    private int inPosition;
+
+    // Number of bytes in inBuffer
+    private int inLength;
+
+    /**
+     * Creates a new IoChannel that reads from standard input and writes to standard
+     * output.
+     */
+    public IoChannel()
+    {
+        this(System.in, System.out);
+    }
+
+    /**
+     * Creates a new IoChannel that reads from and writes to the given streams. The
+     * streams are never closed by the IoChannel.
+     * @param in            given stream that input is read from
+     * @param out           given stream that output is written to
+     */
+    public IoChannel(InputStream in, OutputStream out)
+    {
+        this.in = in;
+        this.out = out;
+        newline = System.lineSeparator().getBytes();
+        outBuffer = new byte[BUFFER_SIZE];
+        inBuffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Writes the given value in decimal followed by a line separator, just like
+     * println() would.
+     * @param value         given value to write
+     */
+    public void writeln(int value)
+    {
+        if (outLength > BUFFER_SIZE - MAX_LINE)
+        {
+            flush();
+        }
+        byte[] buf = outBuffer;
+        int pos = outLength;
+        long v = value;
+        if (v < 0)
+        {
+            buf[pos++] = '-';
+            v = -v;
+        }
+
+        int end = pos + digits(v);
+        for (int i = end - 1; i >= pos; i--)
+        {
+            buf[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos = end;
+        for (byte b : newline)
+        {
+            buf[pos++] = b;
+        }
+        outLength = pos;
+    }
+
+    /**
+     * Returns the number of decimal digits in the given non-negative value.
+     * @param v             given value
+     * @return              the number of digits (1 for 0)
+     */
+    private static int digits(long v)
+    {
+        int count = 1;
+        while (v >= 10)
+        {
+            v /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads the next integer. Any buffered output is written first. The digits are
+     * accumulated straight from the input buffer, so reading allocates nothing. A token
+     * that is not an integer in range is skipped before the exception is thrown.
+     * @return              the integer that was read
+     * @throws NoSuchElementException   there is no more input
+     * @throws InputMismatchException   the next token is not an integer in range
+     */
+    public int readInt()
+    {
+        if (outLength > 0)
+        {
+            flush();
+        }
+        int c = next();
+        while (c >= 0 && Character.isWhitespace(c))
+        {
+            c = next();
+        }
+        if (c < 0)
+        {
+            throw new NoSuchElementException();
+        }
+
+        boolean negative = c == '-';
+        if (negative || c == '+')
+        {
+            c = next();
+        }
+        long value = 0;
+        boolean valid = c >= '0' && c <= '9';
+        while (c >= 0 && !Character.isWhitespace(c))
+        {
+            if (c < '0' || c > '9')
+            {
+                valid = false;
+            }
+            else if (valid)
+            {
+                value = value * 10 + (c - '0');
+                valid = value <= (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE);
+            }
+            c = next();
+        }
+        if (!valid)
+        {
+            throw new InputMismatchException("not an integer in range");
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Returns the next byte of input, filling the input buffer when it is empty.
+     * @return              the next byte, or -1 at the end of the input
+     */
+    private int next()
+    {
+        if (inPosition == inLength)
+        {
+            try
+            {
+                inLength = in.read(inBuffer, 0, inBuffer.length);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+            inPosition = 0;
+            if (inLength <= 0)
+            {
+                inLength = 0;
+                return -1;
+            }
+        }
+        return inBuffer[inPosition++] & 0xFF;
+    }
+
+    /**
+     * Writes the buffered output to the output stream and flushes the stream.
+     * @postcondition       All output has been written.
+     */
+    public void flush()
+    {
+        try
+        {
+            out.write(outBuffer, 0, outLength);
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        outLength = 0;
+    }
+}
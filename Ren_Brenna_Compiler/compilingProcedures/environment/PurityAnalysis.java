@@ -0,0 +1,191 @@
+package environment;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
+
+/**
+ * PurityAnalysis class that finds the procedures whose value depends only on their
+ * arguments and that have no side effects, so that calls to them can be served from a
+ * CallCache. It implements CodeBuilder so that it receives the same lowering of the
+ * procedures that the back ends use. A procedure is pure when its body never reads or
+ * writes a global variable, never prints or reads (WRITELN and READLN), and only calls
+ * pure procedures. Calls form a graph that may have cycles (recursion), so every
+ * procedure starts out pure and the analysis repeats until no more procedures become
+ * impure.
+ *
+ * Usage:
+ * PurityAnalysis a = new PurityAnalysis();
+ * a.declareProcedure(<ProcedureDeclaration>);
+ * <ProcedureDeclaration>.lower(a);
+ * a.analyze();
+ * boolean pure = a.isPure("foo");
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class PurityAnalysis implements CodeBuilder
+{
+    // Declared procedures
+    private Map<String, ProcedureDeclaration> procedures;
+
+    // Names of the procedures that each procedure calls
+    private Map<String, Set<String>> calls;
+
+    // Procedures whose own body has a side effect or reads a global variable
+    private Set<String> impure;
+
+    // Procedure currently being lowered (null outside of a procedure)
+    private String current;
+
+    /**
+     * Creates a new PurityAnalysis with no procedures.
+     */
+    public PurityAnalysis()
+    {
+        procedures = new HashMap<String, ProcedureDeclaration>();
+        calls = new HashMap<String, Set<String>>();
+        impure = new HashSet<String>();
+    }
+
+    @Override
+    public void declareProcedure(ProcedureDeclaration proc)
+    {
+        procedures.put(proc.getID(), proc);
+    }
+
+    @Override
+    public int getParmCount(String id)
+    {
+        ProcedureDeclaration proc = procedures.get(id);
+        return proc == null ? 0 : proc.getParms().size();
+    }
+
+    @Override
+    public void placeProcedure(String id)
+    {
+        current = id;
+        calls.put(id, new HashSet<String>());
+    }
+
+    @Override
+    public int newLabel()
+    {
+        return 0;
+    }
+
+    @Override
+    public void placeLabel(int label)
+    {
+    }
+
+    @Override
+    public void emit(int op)
+    {
+        if (op == Opcode.PRINT || op == Opcode.READ)
+        {
+            markImpure();
+        }
+    }
+
+    @Override
+    public void emitConst(int value)
+    {
+    }
+
+    @Override
+    public void emitLoad(int depth, int slot)
+    {
+        if (depth != 0)
+        {
+            markImpure();
+        }
+    }
+
+    @Override
+    public void emitStore(int depth, int slot)
+    {
+        if (depth != 0)
+        {
+            markImpure();
+        }
+    }
+
+    @Override
+    public void emitJump(int op, int label)
+    {
+    }
+
+    @Override
+    public void emitCall(String id, int argCount)
+    {
+        if (current != null)
+        {
+            calls.get(current).add(id);
+        }
+    }
+
+    @Override
+    public void emitTailCall(String id, int argCount)
+    {
+        emitCall(id, argCount);
+        emitStore(0, 0);
+    }
+
+    /**
+     * Marks the procedure currently being lowered as impure.
+     */
+    private void markImpure()
+    {
+        if (current != null)
+        {
+            impure.add(current);
+        }
+    }
+
+    /**
+     * Marks every procedure that calls an impure or undeclared procedure as impure,
+     * repeating until nothing changes. Should be called after every procedure has
+     * been lowered into this analysis.
+     * @postcondition       isPure() gives the result of the analysis.
+     */
+    public void analyze()
+    {
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (Map.Entry<String, Set<String>> proc : calls.entrySet())
+            {
+                if (impure.contains(proc.getKey()))
+                {
+                    continue;
+                }
+                for (String callee : proc.getValue())
+                {
+                    if (impure.contains(callee) || !calls.containsKey(callee))
+                    {
+                        impure.add(proc.getKey());
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the procedure with the given name is pure.
+     * @param id            given name of the procedure
+     * @return              true if the procedure was lowered and is pure, false otherwise
+     */
+    public boolean isPure(String id)
+    {
+        return calls.containsKey(id) && !impure.contains(id);
+    }
+}
@@ -0,0 +1,127 @@
+package environment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scope class that is used by the resolution pass to bind every variable name to a
+ * (depth, slot) pair before the program is executed. Each Scope represents one frame
+ * of variables (the global frame or one procedure's frame) and maps the names declared
+ * in it to consecutive slot numbers. The depth of a variable is the number of parent
+ * scopes that must be walked from the current scope to reach the scope that declares it.
+ * Names that are not declared in any scope are implicitly declared in the global
+ * (root) scope, which mirrors how assignments to undeclared variables behave.
+ * Scoping is therefore lexical: a procedure sees its own frame and the global frame,
+ * but never the parameters or locals of the procedure that called it. This is what the
+ * compiled code has always done. The interpreter used to look names up through the
+ * caller's frames (dynamic scoping), which no fixed (depth, slot) pair can express,
+ * because the frame that declares a name would depend on the chain of calls.
+ *
+ * Usage:
+ * Scope global = new Scope(null);
+ * Scope local = new Scope(global);
+ * int slot = local.declare(<String name of variable>);
+ * int depth = local.getDepth(<String name of variable>);
+ * int slot = local.getSlot(<String name of variable>);
+ * int size = local.size();
+ * String[] names = local.getNames();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class Scope
+{
+    // Map that stores the slot number of each variable declared in this scope
+    private Map<String, Integer> slots;
+
+    // Parent scope (null for the global scope)
+    private Scope parent;
+
+    /**
+     * Creates a new Scope with the given parent scope and no declared variables.
+     * @param parent        Given parent scope (null for the global scope)
+     */
+    public Scope(Scope parent)
+    {
+        slots = new HashMap<String, Integer> ();
+        this.parent = parent;
+    }
+
+    /**
+     * Declares the given variable in this scope and returns its slot. If the variable
+     * is already declared in this scope, its existing slot is returned.
+     * @param variable      String name of the variable to declare
+     * @return              The slot of the variable in this scope
+     */
+    public int declare(String variable)
+    {
+        Integer slot = slots.get(variable);
+        if (slot == null)
+        {
+            slot = slots.size();
+            slots.put(variable, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the number of parent scopes that must be walked to reach the scope that
+     * declares the given variable. If no scope declares the variable, it is declared
+     * in the global scope.
+     * @param variable      String name of the variable to resolve
+     * @return              The depth of the scope that declares the variable
+     */
+    public int getDepth(String variable)
+    {
+        if (slots.containsKey(variable))
+        {
+            return 0;
+        }
+        if (parent == null)
+        {
+            declare(variable);
+            return 0;
+        }
+        return parent.getDepth(variable) + 1;
+    }
+
+    /**
+     * Returns the slot of the given variable in the scope that declares it. If no
+     * scope declares the variable, it is declared in the global scope.
+     * @param variable      String name of the variable to resolve
+     * @return              The slot of the variable in the scope that declares it
+     */
+    public int getSlot(String variable)
+    {
+        Scope s = this;
+        for (int depth = getDepth(variable); depth > 0; depth--)
+        {
+            s = s.parent;
+        }
+        return s.slots.get(variable);
+    }
+
+    /**
+     * Returns the number of variables declared in this scope, which is the size
+     * of the frame needed to execute it.
+     * @return              The number of variables declared in this scope
+     */
+    public int size()
+    {
+        return slots.size();
+    }
+
+    /**
+     * Returns the names of the variables declared in this scope, indexed by slot.
+     * @return              Array whose element at each slot is the name in that slot
+     */
+    public String[] getNames()
+    {
+        String[] names = new String[slots.size()];
+        for (Map.Entry<String, Integer> entry : slots.entrySet())
+        {
+            names[entry.getValue()] = entry.getKey();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,158 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BasicBlock class that represents a straight-line sequence of IrInstructions in the
+ * control flow graph of an IrFunction. Control only enters at the top of the block and
+ * only leaves through its last instruction, which is a terminator. A JUMP has one
+ * successor and a BRANCH has two (the block it jumps to when its comparison holds
+ * first); RET and HALT have none. PHI instructions come first, and each one has an arg
+ * for every predecessor, in the order of getPredecessors().
+ *
+ * Usage:
+ * BasicBlock b = new BasicBlock(<id>);
+ * List<IrInstruction> code = b.getInstructions();
+ * IrInstruction last = b.getTerminator();
+ * b.addEdge(<successor BasicBlock>);
+ * b.removeEdge(<successor BasicBlock>);
+ * List<BasicBlock> preds = b.getPredecessors();
+ * List<BasicBlock> succs = b.getSuccessors();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class BasicBlock
+{
+    // Number that names the block in the IR dump
+    private int id;
+
+    // Instructions of the block, PHIs first and the terminator last
+    private List<IrInstruction> instructions;
+
+    // Blocks that can run right before this one
+    private List<BasicBlock> preds;
+
+    // Blocks that can run right after this one, in the order of the terminator's targets
+    private List<BasicBlock> succs;
+
+    /**
+     * Creates a new empty BasicBlock with the given id.
+     * @param id            Number that names the block in the IR dump
+     */
+    public BasicBlock(int id)
+    {
+        this.id = id;
+        instructions = new ArrayList<IrInstruction>();
+        preds = new ArrayList<BasicBlock>();
+        succs = new ArrayList<BasicBlock>();
+    }
+
+    /**
+     * Returns the number that names the block in the IR dump.
+     * @return              The id of the block
+     */
+    public int getID()
+    {
+        return id;
+    }
+
+    /**
+     * Returns the instructions of the block, which may be changed in place.
+     * @return              List of the instructions, PHIs first and the terminator last
+     */
+    public List<IrInstruction> getInstructions()
+    {
+        return instructions;
+    }
+
+    /**
+     * Returns the last instruction of the block.
+     * @return              The terminator, or null if the block is still empty
+     */
+    public IrInstruction getTerminator()
+    {
+        return instructions.isEmpty() ? null : instructions.get(instructions.size() - 1);
+    }
+
+    /**
+     * Returns the blocks that can run right before this one.
+     * @return              List of the predecessors
+     */
+    public List<BasicBlock> getPredecessors()
+    {
+        return preds;
+    }
+
+    /**
+     * Returns the blocks that can run right after this one.
+     * @return              List of the successors, in the order of the terminator's targets
+     */
+    public List<BasicBlock> getSuccessors()
+    {
+        return succs;
+    }
+
+    /**
+     * Adds an edge from this block to the given block, after the existing successors.
+     * The PHIs of the given block must be given an arg for the new predecessor.
+     * @param succ          Block that can run right after this one
+     */
+    public void addEdge(BasicBlock succ)
+    {
+        succs.add(succ);
+        succ.preds.add(this);
+    }
+
+    /**
+     * Removes the edge from this block to the given block, along with the args that
+     * the PHIs of the given block have for this predecessor. The terminator is not
+     * changed.
+     * @param succ          Successor of this block
+     */
+    public void removeEdge(BasicBlock succ)
+    {
+        succs.remove(succ);
+        int index = succ.preds.indexOf(this);
+        succ.preds.remove(index);
+        for (IrInstruction phi : succ.instructions)
+        {
+            if (phi.getOp() != IrInstruction.PHI)
+            {
+                break;
+            }
+            int[] args = phi.getArgs();
+            int[] rest = new int[args.length - 1];
+            System.arraycopy(args, 0, rest, 0, index);
+            System.arraycopy(args, index + 1, rest, index, rest.length - index);
+            phi.setArgs(rest);
+        }
+    }
+
+    /**
+     * Appends the IR dump of the block to the given StringBuilder: its name and
+     * predecessors, then one instruction per line, and then the targets of its
+     * terminator.
+     * @param s             StringBuilder to append to
+     * @param globalNames   Names of the globals, indexed by slot
+     */
+    public void dump(StringBuilder s, String[] globalNames)
+    {
+        s.append("  b").append(id).append(":");
+        for (int i = 0; i < preds.size(); i++)
+        {
+            s.append(i == 0 ? "\t\t; preds " : ", ").append("b").append(preds.get(i).id);
+        }
+        s.append("\n");
+        for (IrInstruction instr : instructions)
+        {
+            s.append("    ").append(instr.toString(globalNames));
+            for (int i = 0; instr.isTerminator() && i < succs.size(); i++)
+            {
+                s.append(i == 0 ? " -> " : ", ").append("b").append(succs.get(i).id);
+            }
+            s.append("\n");
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ConditionalConstantPropagation class that finds the values of a function that are
+ * constant and the blocks that can never run, with the sparse conditional constant
+ * propagation of Wegman and Zadeck. Every value starts out undefined and only the entry
+ * block starts out reachable; the analysis then follows the control flow edges that can
+ * be taken and the uses of the values whose state changes, so a PHI only meets the args
+ * that come from reachable predecessors and a BRANCH on constants only makes the edge it
+ * takes reachable. This finds more than folding constants and removing unreachable blocks
+ * one after the other: a variable that keeps its value around a loop, or a condition on
+ * a global that was assigned a literal, is constant.
+ *
+ * Afterwards the instructions that define constants become CONSTs, the BRANCHes whose
+ * outcome is known become JUMPs to the block they always go to, and the blocks that can
+ * never run are removed along with their code. Blocks that the removed edges leave in a
+ * straight line are merged, and the CONSTs that nothing reads any more are left for
+ * DeadCodeElimination.
+ *
+ * Usage:
+ * FunctionPass p = new ConditionalConstantPropagation();
+ * boolean changed = p.runOnFunction(<IrFunction>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class ConditionalConstantPropagation extends FunctionPass
+{
+    // States of a value in the lattice: not known to be defined yet, a single constant,
+    // or more than one value
+    private static final byte UNDEFINED = 0;
+    private static final byte CONSTANT = 1;
+    private static final byte OVERDEFINED = 2;
+
+    // State of each value
+    private byte[] state;
+
+    // Constant of each value whose state is CONSTANT
+    private int[] value;
+
+    // Instructions that read each value, and the block of each instruction
+    private List<List<IrInstruction>> uses;
+    private Map<IrInstruction, BasicBlock> blockOf;
+
+    // Blocks that can run, and the edges that can be taken out of each of them
+    private Set<BasicBlock> reachable;
+    private Map<BasicBlock, Set<BasicBlock>> taken;
+
+    // Edges still to be visited (pairs of blocks) and values whose state changed
+    private Deque<BasicBlock[]> edgeWork;
+    private Deque<Integer> valueWork;
+
+    @Override
+    public String getName()
+    {
+        return "conditional constant propagation";
+    }
+
+    @Override
+    public boolean runOnFunction(IrFunction f)
+    {
+        analyze(f);
+        boolean changed = false;
+        for (BasicBlock b : f.getBlocks())
+        {
+            if (reachable.contains(b))
+            {
+                changed |= rewrite(b);
+            }
+        }
+        changed |= f.removeUnreachableBlocks();
+        changed |= f.mergeBlocks();
+        uses = null;
+        blockOf = null;
+        taken = null;
+        return changed;
+    }
+
+    /**
+     * Finds the state of every value of the function and the edges that can be taken.
+     * @param f             IrFunction in SSA form
+     */
+    private void analyze(IrFunction f)
+    {
+        int count = f.getValueCount();
+        state = new byte[count];
+        value = new int[count];
+        uses = new ArrayList<List<IrInstruction>>(count);
+        for (int v = 0; v < count; v++)
+        {
+            uses.add(new ArrayList<IrInstruction>(2));
+        }
+        blockOf = new HashMap<IrInstruction, BasicBlock>();
+        for (BasicBlock b : f.getBlocks())
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                blockOf.put(instr, b);
+                for (int arg : instr.getArgs())
+                {
+                    uses.get(arg).add(instr);
+                }
+            }
+        }
+        reachable = new HashSet<BasicBlock>();
+        taken = new HashMap<BasicBlock, Set<BasicBlock>>();
+        edgeWork = new ArrayDeque<BasicBlock[]>();
+        valueWork = new ArrayDeque<Integer>();
+
+        edgeWork.add(new BasicBlock[] {null, f.getBlocks().get(0)});
+        while (!edgeWork.isEmpty() || !valueWork.isEmpty())
+        {
+            while (!edgeWork.isEmpty())
+            {
+                BasicBlock[] edge = edgeWork.poll();
+                BasicBlock b = edge[1];
+                if (reachable.add(b))
+                {
+                    for (IrInstruction instr : b.getInstructions())
+                    {
+                        visit(instr, b);
+                    }
+                }
+                else
+                {
+                    for (IrInstruction phi : b.getInstructions())
+                    {
+                        if (phi.getOp() != IrInstruction.PHI)
+                        {
+                            break;
+                        }
+                        visit(phi, b);
+                    }
+                }
+            }
+            while (!valueWork.isEmpty())
+            {
+                for (IrInstruction instr : uses.get(valueWork.poll()))
+                {
+                    BasicBlock b = blockOf.get(instr);
+                    if (reachable.contains(b))
+                    {
+                        visit(instr, b);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates an instruction of a reachable block with the states found so far, and
+     * lowers the state of its value or marks the edges out of a terminator as taken.
+     * @param instr         Given instruction
+     * @param b             Block of the instruction
+     */
+    private void visit(IrInstruction instr, BasicBlock b)
+    {
+        int[] args = instr.getArgs();
+        switch (instr.getOp())
+        {
+            case IrInstruction.CONST:
+                lower(instr.getDest(), CONSTANT, instr.getConstant());
+                break;
+            case IrInstruction.COPY:
+                lower(instr.getDest(), state[args[0]], value[args[0]]);
+                break;
+            case IrInstruction.ADD:
+            case IrInstruction.SUB:
+            case IrInstruction.MUL:
+            case IrInstruction.DIV:
+            case IrInstruction.MOD:
+                visitArithmetic(instr);
+                break;
+            case IrInstruction.PHI:
+                visitPhi(instr, b);
+                break;
+            case IrInstruction.JUMP:
+                take(b, b.getSuccessors().get(0));
+                break;
+            case IrInstruction.BRANCH:
+                byte s = (byte) Math.max(state[args[0]], state[args[1]]);
+                if (s == OVERDEFINED)
+                {
+                    take(b, b.getSuccessors().get(0));
+                    take(b, b.getSuccessors().get(1));
+                }
+                else if (s == CONSTANT)
+                {
+                    boolean holds = IrInstruction.compare(instr.getConstant(),
+                        value[args[0]], value[args[1]]);
+                    take(b, b.getSuccessors().get(holds ? 0 : 1));
+                }
+                break;
+            default:
+                if (instr.getDest() >= 0)
+                {
+                    lower(instr.getDest(), OVERDEFINED, 0);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Evaluates an arithmetic instruction. A product with a constant 0 is 0 whatever
+     * the other arg is, and a division that cannot be folded is overdefined.
+     * @param instr         ADD, SUB, MUL, DIV, or MOD instruction
+     */
+    private void visitArithmetic(IrInstruction instr)
+    {
+        int[] args = instr.getArgs();
+        int x = args[0];
+        int y = args[1];
+        if (instr.getOp() == IrInstruction.MUL
+            && (isConstant(x, 0) || isConstant(y, 0)))
+        {
+            lower(instr.getDest(), CONSTANT, 0);
+        }
+        else if (state[x] == OVERDEFINED || state[y] == OVERDEFINED)
+        {
+            lower(instr.getDest(), OVERDEFINED, 0);
+        }
+        else if (state[x] == CONSTANT && state[y] == CONSTANT)
+        {
+            Integer result = ConstantFolding.fold(instr.getOp(), value[x], value[y]);
+            if (result == null)
+            {
+                lower(instr.getDest(), OVERDEFINED, 0);
+            }
+            else
+            {
+                lower(instr.getDest(), CONSTANT, result);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a PHI as the meet of the args that come over edges that can be taken.
+     * @param phi           Given PHI
+     * @param b             Block of the PHI
+     */
+    private void visitPhi(IrInstruction phi, BasicBlock b)
+    {
+        int[] args = phi.getArgs();
+        List<BasicBlock> preds = b.getPredecessors();
+        for (int i = 0; i < args.length; i++)
+        {
+            Set<BasicBlock> out = taken.get(preds.get(i));
+            if (out != null && out.contains(b))
+            {
+                lower(phi.getDest(), state[args[i]], value[args[i]]);
+                if (state[phi.getDest()] == OVERDEFINED)
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given value is known to be the given constant.
+     * @param v             Given value
+     * @param c             Given constant
+     * @return              True if v is CONSTANT with the value c
+     */
+    private boolean isConstant(int v, int c)
+    {
+        return state[v] == CONSTANT && value[v] == c;
+    }
+
+    /**
+     * Meets the state of a value with the given state, and queues the uses of the
+     * value if its state changed. States only ever go down the lattice.
+     * @param v             Given value
+     * @param s             State to meet with
+     * @param c             Constant of the state, if it is CONSTANT
+     */
+    private void lower(int v, byte s, int c)
+    {
+        if (s == UNDEFINED || state[v] == OVERDEFINED
+            || state[v] == CONSTANT && s == CONSTANT && value[v] == c)
+        {
+            return;
+        }
+        state[v] = state[v] == CONSTANT ? OVERDEFINED : s;
+        value[v] = c;
+        valueWork.add(v);
+    }
+
+    /**
+     * Marks the edge between two blocks as taken, and queues it if it was not.
+     * @param from          Block the edge leaves
+     * @param to            Block the edge enters
+     */
+    private void take(BasicBlock from, BasicBlock to)
+    {
+        Set<BasicBlock> out = taken.get(from);
+        if (out == null)
+        {
+            out = new HashSet<BasicBlock>();
+            taken.put(from, out);
+        }
+        if (out.add(to))
+        {
+            edgeWork.add(new BasicBlock[] {from, to});
+        }
+    }
+
+    /**
+     * Turns the instructions of a reachable block that define constants into CONSTs,
+     * keeping the PHIs first, and its BRANCH into a JUMP if only one of its edges can be
+     * taken.
+     * @param b             Reachable block
+     * @return              True if the block changed
+     */
+    private boolean rewrite(BasicBlock b)
+    {
+        boolean changed = false;
+        List<IrInstruction> code = b.getInstructions();
+        int phis = 0;
+        List<IrInstruction> folded = new ArrayList<IrInstruction>();
+        for (int i = 0; i < code.size(); i++)
+        {
+            IrInstruction instr = code.get(i);
+            int dest = instr.getDest();
+            boolean fold = dest >= 0 && state[dest] == CONSTANT
+                && instr.getOp() != IrInstruction.CONST && !instr.hasSideEffects();
+            if (instr.getOp() == IrInstruction.PHI)
+            {
+                if (fold)
+                {
+                    code.remove(i--);
+                    instr.makeConstant(value[dest]);
+                    folded.add(instr);
+                    changed = true;
+                }
+                else
+                {
+                    phis++;
+                }
+            }
+            else if (fold)
+            {
+                instr.makeConstant(value[dest]);
+                changed = true;
+            }
+        }
+        code.addAll(phis, folded);
+
+        IrInstruction last = b.getTerminator();
+        Set<BasicBlock> out = taken.get(b);
+        if (last.getOp() == IrInstruction.BRANCH && out != null && out.size() == 1)
+        {
+            BasicBlock target = out.iterator().next();
+            for (BasicBlock succ : new ArrayList<BasicBlock>(b.getSuccessors()))
+            {
+                if (succ != target)
+                {
+                    b.removeEdge(succ);
+                }
+            }
+            code.set(code.size() - 1, new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+            changed = true;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,108 @@
+package ir;
+
+/**
+ * ConstantFolding class that replaces arithmetic on constants by its result and
+ * simplifies arithmetic with an identity operand: x + 0, x - 0, x * 1, and x / 1 become
+ * copies of x, and x * 0 becomes 0. Divisions by zero are left for the program to fail
+ * on, and so is the division of the smallest int by -1, whose result differs between
+ * Java and MIPS.
+ *
+ * Usage:
+ * FunctionPass p = new ConstantFolding();
+ * boolean changed = p.runOnFunction(<IrFunction>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class ConstantFolding extends FunctionPass
+{
+    @Override
+    public String getName()
+    {
+        return "constant folding";
+    }
+
+    @Override
+    public boolean runOnFunction(IrFunction f)
+    {
+        IrInstruction[] defs = f.getDefinitions();
+        boolean changed = false;
+        for (BasicBlock b : f.getReversePostorder())
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                int op = instr.getOp();
+                if (op < IrInstruction.ADD || op > IrInstruction.MOD)
+                {
+                    continue;
+                }
+                int[] args = instr.getArgs();
+                Integer x = getConstant(defs[args[0]]);
+                Integer y = getConstant(defs[args[1]]);
+                if (x != null && y != null)
+                {
+                    Integer result = fold(op, x, y);
+                    if (result != null)
+                    {
+                        instr.makeConstant(result);
+                        changed = true;
+                    }
+                }
+                else if (y != null && (y == 0 && (op == IrInstruction.ADD || op == IrInstruction.SUB)
+                    || y == 1 && (op == IrInstruction.MUL || op == IrInstruction.DIV)))
+                {
+                    instr.makeCopy(args[0]);
+                    changed = true;
+                }
+                else if (x != null && (x == 0 && op == IrInstruction.ADD
+                    || x == 1 && op == IrInstruction.MUL))
+                {
+                    instr.makeCopy(args[1]);
+                    changed = true;
+                }
+                else if ((x != null && x == 0 || y != null && y == 0) && op == IrInstruction.MUL)
+                {
+                    instr.makeConstant(0);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the value of the given instruction if it is a CONST.
+     * @param def           Instruction that defines a value
+     * @return              The constant value, or null if it is not a CONST
+     */
+    static Integer getConstant(IrInstruction def)
+    {
+        return def != null && def.getOp() == IrInstruction.CONST ? def.getConstant() : null;
+    }
+
+    /**
+     * Returns the result of an arithmetic instruction on two constants.
+     * @param op            Opcode from IrInstruction.ADD to IrInstruction.MOD
+     * @param x             First constant
+     * @param y             Second constant
+     * @return              The result, or null if it cannot be computed at compile time
+     */
+    static Integer fold(int op, int x, int y)
+    {
+        switch (op)
+        {
+            case IrInstruction.ADD:
+                return x + y;
+            case IrInstruction.SUB:
+                return x - y;
+            case IrInstruction.MUL:
+                return x * y;
+            default:
+                if (y == 0 || x == Integer.MIN_VALUE && y == -1)
+                {
+                    return null;
+                }
+                return op == IrInstruction.DIV ? x / y : x % y;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ir;
+
+import java.util.Iterator;
+
+/**
+ * CopyPropagation class that replaces every read of a COPY by a read of the value it
+ * copies, and every read of a trivial PHI (one whose args are all the same value, apart
+ * from the PHI itself) by a read of that value. The COPYs and trivial PHIs are removed.
+ *
+ * Usage:
+ * FunctionPass p = new CopyPropagation();
+ * boolean changed = p.runOnFunction(<IrFunction>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class CopyPropagation extends FunctionPass
+{
+    @Override
+    public String getName()
+    {
+        return "copy propagation";
+    }
+
+    @Override
+    public boolean runOnFunction(IrFunction f)
+    {
+        int[] map = new int[f.getValueCount()];
+        for (int v = 0; v < map.length; v++)
+        {
+            map[v] = v;
+        }
+        boolean changed = false;
+        boolean found = true;
+        while (found)
+        {
+            found = false;
+            for (BasicBlock b : f.getBlocks())
+            {
+                for (IrInstruction instr : b.getInstructions())
+                {
+                    int dest = instr.getDest();
+                    if (dest < 0 || map[dest] != dest)
+                    {
+                        continue;
+                    }
+                    int source = -1;
+                    if (instr.getOp() == IrInstruction.COPY)
+                    {
+                        source = resolve(map, instr.getArgs()[0]);
+                    }
+                    else if (instr.getOp() == IrInstruction.PHI)
+                    {
+                        source = getTrivialSource(map, instr);
+                    }
+                    if (source >= 0 && source != dest)
+                    {
+                        map[dest] = source;
+                        found = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        if (!changed)
+        {
+            return false;
+        }
+        for (BasicBlock b : f.getBlocks())
+        {
+            Iterator<IrInstruction> it = b.getInstructions().iterator();
+            while (it.hasNext())
+            {
+                int dest = it.next().getDest();
+                if (dest >= 0 && map[dest] != dest)
+                {
+                    it.remove();
+                }
+            }
+        }
+        f.replaceValues(map);
+        return true;
+    }
+
+    /**
+     * Returns the only value that a PHI can take, if it is trivial.
+     * @param map           Replacement of each value found so far
+     * @param phi           Given PHI
+     * @return              The value of every arg that is not the PHI itself, or -1 if
+     *                      the args differ
+     */
+    private static int getTrivialSource(int[] map, IrInstruction phi)
+    {
+        int source = -1;
+        for (int arg : phi.getArgs())
+        {
+            int v = resolve(map, arg);
+            if (v == phi.getDest() || v == source)
+            {
+                continue;
+            }
+            if (source >= 0)
+            {
+                return -1;
+            }
+            source = v;
+        }
+        return source;
+    }
+
+    /**
+     * Follows the replacements of a value to its end.
+     * @param map           Replacement of each value
+     * @param v             Given value
+     * @return              The value that v is replaced by
+     */
+    private static int resolve(int[] map, int v)
+    {
+        while (map[v] != v)
+        {
+            v = map[v];
+        }
+        return v;
+    }
+}
@@ -0,0 +1,77 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * DeadCodeElimination class that removes the instructions whose values can never
+ * affect what the program does. Instructions with side effects are needed, and so is
+ * every instruction that defines a value that a needed instruction reads; everything
+ * else is removed. Because only needed values are followed, PHIs that only feed each
+ * other around a loop are removed as well.
+ *
+ * Usage:
+ * FunctionPass p = new DeadCodeElimination();
+ * boolean changed = p.runOnFunction(<IrFunction>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class DeadCodeElimination extends FunctionPass
+{
+    @Override
+    public String getName()
+    {
+        return "dead code elimination";
+    }
+
+    @Override
+    public boolean runOnFunction(IrFunction f)
+    {
+        IrInstruction[] defs = f.getDefinitions();
+        boolean[] needed = new boolean[f.getValueCount()];
+        Deque<IrInstruction> work = new ArrayDeque<IrInstruction>();
+        for (BasicBlock b : f.getBlocks())
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                if (instr.hasSideEffects())
+                {
+                    if (instr.getDest() >= 0)
+                    {
+                        needed[instr.getDest()] = true;
+                    }
+                    work.push(instr);
+                }
+            }
+        }
+        while (!work.isEmpty())
+        {
+            for (int arg : work.pop().getArgs())
+            {
+                if (!needed[arg])
+                {
+                    needed[arg] = true;
+                    work.push(defs[arg]);
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (BasicBlock b : f.getBlocks())
+        {
+            Iterator<IrInstruction> it = b.getInstructions().iterator();
+            while (it.hasNext())
+            {
+                IrInstruction instr = it.next();
+                if (!instr.hasSideEffects() && !needed[instr.getDest()])
+                {
+                    it.remove();
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,240 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DominatorTree class that computes the dominators of the blocks of an IrFunction with
+ * the iterative algorithm of Cooper, Harvey, and Kennedy over the reverse postorder of
+ * the blocks. A block dominates another if every path from the entry block to the other
+ * block goes through it. The tree is only valid until the control flow graph changes.
+ * Every block of the function must be reachable from its entry block.
+ *
+ * Usage:
+ * DominatorTree d = new DominatorTree(<IrFunction>);
+ * BasicBlock idom = d.getIdom(<BasicBlock>);
+ * List<BasicBlock> children = d.getChildren(<BasicBlock>);
+ * boolean dom = d.dominates(<BasicBlock>, <BasicBlock>);
+ * Set<BasicBlock> frontier = d.getFrontier(<BasicBlock>);
+ * List<BasicBlock> order = d.getPreorder();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class DominatorTree
+{
+    // Blocks in reverse postorder
+    private List<BasicBlock> order;
+
+    // Position of each block in the reverse postorder
+    private Map<BasicBlock, Integer> index;
+
+    // Immediate dominator of each block, by position (the entry block is its own)
+    private int[] idom;
+
+    // Blocks immediately dominated by each block
+    private Map<BasicBlock, List<BasicBlock>> children;
+
+    // Positions of each block in a preorder and a postorder walk of the tree
+    private Map<BasicBlock, Integer> pre;
+    private Map<BasicBlock, Integer> post;
+
+    // Blocks of the tree in preorder
+    private List<BasicBlock> preorder;
+
+    // Dominance frontier of each block (computed when first needed)
+    private Map<BasicBlock, Set<BasicBlock>> frontiers;
+
+    /**
+     * Computes the dominator tree of the given function.
+     * @param f             IrFunction whose blocks are all reachable from its entry
+     */
+    public DominatorTree(IrFunction f)
+    {
+        order = f.getReversePostorder();
+        index = new HashMap<BasicBlock, Integer>();
+        for (int i = 0; i < order.size(); i++)
+        {
+            index.put(order.get(i), i);
+        }
+        idom = new int[order.size()];
+        Arrays.fill(idom, -1);
+        idom[0] = 0;
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (int i = 1; i < order.size(); i++)
+            {
+                int dom = -1;
+                for (BasicBlock pred : order.get(i).getPredecessors())
+                {
+                    int p = index.get(pred);
+                    if (idom[p] >= 0)
+                    {
+                        dom = dom < 0 ? p : intersect(p, dom);
+                    }
+                }
+                if (idom[i] != dom)
+                {
+                    idom[i] = dom;
+                    changed = true;
+                }
+            }
+        }
+
+        children = new HashMap<BasicBlock, List<BasicBlock>>();
+        for (BasicBlock b : order)
+        {
+            children.put(b, new ArrayList<BasicBlock>());
+        }
+        for (int i = 1; i < order.size(); i++)
+        {
+            children.get(order.get(idom[i])).add(order.get(i));
+        }
+        numberTree();
+    }
+
+    /**
+     * Returns the closest common dominator of the blocks at the two given positions.
+     * @param a             Position of a block whose dominator is known
+     * @param b             Position of another such block
+     * @return              Position of the closest block that dominates both
+     */
+    private int intersect(int a, int b)
+    {
+        while (a != b)
+        {
+            while (a > b)
+            {
+                a = idom[a];
+            }
+            while (b > a)
+            {
+                b = idom[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Numbers the blocks in a preorder and a postorder walk of the tree, without
+     * recursion, so that dominates() takes constant time.
+     */
+    private void numberTree()
+    {
+        pre = new HashMap<BasicBlock, Integer>();
+        post = new HashMap<BasicBlock, Integer>();
+        preorder = new ArrayList<BasicBlock>();
+        Deque<BasicBlock> stack = new ArrayDeque<BasicBlock>();
+        Deque<Integer> next = new ArrayDeque<Integer>();
+        stack.push(order.get(0));
+        next.push(0);
+        pre.put(order.get(0), 0);
+        preorder.add(order.get(0));
+        int count = 0;
+        while (!stack.isEmpty())
+        {
+            BasicBlock b = stack.peek();
+            int i = next.pop();
+            List<BasicBlock> kids = children.get(b);
+            if (i < kids.size())
+            {
+                next.push(i + 1);
+                BasicBlock kid = kids.get(i);
+                pre.put(kid, preorder.size());
+                preorder.add(kid);
+                stack.push(kid);
+                next.push(0);
+            }
+            else
+            {
+                stack.pop();
+                post.put(b, count++);
+            }
+        }
+    }
+
+    /**
+     * Returns the immediate dominator of the given block.
+     * @param b             Given block
+     * @return              Its immediate dominator, or null for the entry block
+     */
+    public BasicBlock getIdom(BasicBlock b)
+    {
+        int i = index.get(b);
+        return i == 0 ? null : order.get(idom[i]);
+    }
+
+    /**
+     * Returns the blocks that the given block immediately dominates.
+     * @param b             Given block
+     * @return              List of its children in the tree
+     */
+    public List<BasicBlock> getChildren(BasicBlock b)
+    {
+        return children.get(b);
+    }
+
+    /**
+     * Returns the blocks in a preorder walk of the tree, so every block comes after
+     * the blocks that dominate it.
+     * @return              List of the blocks in preorder
+     */
+    public List<BasicBlock> getPreorder()
+    {
+        return preorder;
+    }
+
+    /**
+     * Returns whether the first block dominates the second. Every block dominates itself.
+     * @param a             Possible dominator
+     * @param b             Possibly dominated block
+     * @return              True if every path from the entry to b goes through a
+     */
+    public boolean dominates(BasicBlock a, BasicBlock b)
+    {
+        return pre.get(a) <= pre.get(b) && post.get(a) >= post.get(b);
+    }
+
+    /**
+     * Returns the dominance frontier of the given block: the blocks that have a
+     * predecessor dominated by it without being strictly dominated by it.
+     * @param b             Given block
+     * @return              Set of the blocks in its dominance frontier
+     */
+    public Set<BasicBlock> getFrontier(BasicBlock b)
+    {
+        if (frontiers == null)
+        {
+            frontiers = new HashMap<BasicBlock, Set<BasicBlock>>();
+            for (BasicBlock x : order)
+            {
+                frontiers.put(x, new HashSet<BasicBlock>());
+            }
+            for (BasicBlock x : order)
+            {
+                if (x.getPredecessors().size() < 2)
+                {
+                    continue;
+                }
+                BasicBlock dom = getIdom(x);
+                for (BasicBlock pred : x.getPredecessors())
+                {
+                    for (BasicBlock runner = pred; runner != dom; runner = getIdom(runner))
+                    {
+                        frontiers.get(runner).add(x);
+                    }
+                }
+            }
+        }
+        return frontiers.get(b);
+    }
+}
@@ -0,0 +1,35 @@
+package ir;
+
+/**
+ * FunctionPass class for the passes that optimize one IrFunction at a time without
+ * looking at the other functions of the program. run() runs the pass over main and
+ * then over every procedure.
+ *
+ * Usage:
+ * FunctionPass p = new ConstantFolding();
+ * boolean changed = p.run(<IrProgram>);
+ * boolean changed = p.runOnFunction(<IrFunction>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public abstract class FunctionPass implements Pass
+{
+    @Override
+    public boolean run(IrProgram program)
+    {
+        boolean changed = false;
+        for (IrFunction f : program.getFunctions())
+        {
+            changed |= runOnFunction(f);
+        }
+        return changed;
+    }
+
+    /**
+     * Runs the pass over the given function.
+     * @param f             IrFunction in SSA form
+     * @return              True if the pass changed the function
+     */
+    public abstract boolean runOnFunction(IrFunction f);
+}
@@ -0,0 +1,278 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import bytecode.InliningCostModel;
+
+/**
+ * Inliner class that replaces calls to small procedures with a copy of the procedure's
+ * body, which saves the cost of the call (pushing the arguments, jal, and setting up and
+ * tearing down the frame) and lets the other passes optimize the body together with the
+ * code around the call, for example with constant arguments. Recursive procedures (ones
+ * that can call themselves, directly or through other procedures) are never inlined.
+ *
+ * Whether a call is inlined is decided by an InliningCostModel, which the BytecodeInliner
+ * uses too. The size of a procedure is the number of instructions in its body, not
+ * counting the PARAMs, CONSTs, and jumps, which cost nothing once inlined. Procedures
+ * whose every call was inlined are removed from the program. Procedures are visited from
+ * the last one declared to main, so a procedure usually has its own calls inlined before
+ * it is inlined itself.
+ *
+ * Usage:
+ * Inliner p = new Inliner();
+ * Inliner p = new Inliner(<InliningCostModel>);
+ * boolean changed = p.run(<IrProgram>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class Inliner implements Pass
+{
+    // Cost model that decides which calls are inlined
+    private InliningCostModel costModel;
+
+    /**
+     * Creates a new Inliner with the default InliningCostModel.
+     */
+    public Inliner()
+    {
+        this(new InliningCostModel());
+    }
+
+    /**
+     * Creates a new Inliner with the given cost model.
+     * @param costModel     InliningCostModel that decides which calls are inlined
+     */
+    public Inliner(InliningCostModel costModel)
+    {
+        this.costModel = costModel;
+    }
+
+    @Override
+    public String getName()
+    {
+        return "inlining";
+    }
+
+    @Override
+    public boolean run(IrProgram program)
+    {
+        Set<String> recursive = findRecursive(program);
+        Set<String> inlined = new HashSet<String>();
+        List<IrFunction> functions = program.getFunctions();
+        Collections.reverse(functions);
+        for (IrFunction f : functions)
+        {
+            List<BasicBlock> blocks = f.getBlocks();
+            for (int i = 0; i < blocks.size(); i++)
+            {
+                List<IrInstruction> code = blocks.get(i).getInstructions();
+                for (int j = 0; j < code.size(); j++)
+                {
+                    IrInstruction instr = code.get(j);
+                    if (instr.getOp() != IrInstruction.CALL
+                        || recursive.contains(instr.getCallee()))
+                    {
+                        continue;
+                    }
+                    IrFunction callee = program.getFunction(instr.getCallee());
+                    int cost = costModel.getCost(getSize(callee), instr.getArgs().length);
+                    if (costModel.isInlined(cost))
+                    {
+                        costModel.report(callee.getName(), f.getName(), cost);
+                        inline(f, blocks.get(i), j, callee);
+                        inlined.add(callee.getName());
+                        break;
+                    }
+                }
+            }
+        }
+        if (inlined.isEmpty())
+        {
+            return false;
+        }
+        for (IrFunction f : program.getFunctions())
+        {
+            for (BasicBlock b : f.getBlocks())
+            {
+                for (IrInstruction instr : b.getInstructions())
+                {
+                    if (instr.getOp() == IrInstruction.CALL)
+                    {
+                        inlined.remove(instr.getCallee());
+                    }
+                }
+            }
+        }
+        for (String name : inlined)
+        {
+            program.removeFunction(name);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the procedures that can call themselves, directly or through the procedures
+     * they call.
+     * @param program       Given IrProgram
+     * @return              Names of the recursive procedures
+     */
+    private static Set<String> findRecursive(IrProgram program)
+    {
+        Map<String, Set<String>> callees = new HashMap<String, Set<String>>();
+        for (IrFunction f : program.getFunctions())
+        {
+            Set<String> called = new HashSet<String>();
+            for (BasicBlock b : f.getBlocks())
+            {
+                for (IrInstruction instr : b.getInstructions())
+                {
+                    if (instr.getOp() == IrInstruction.CALL)
+                    {
+                        called.add(instr.getCallee());
+                    }
+                }
+            }
+            callees.put(f.getName(), called);
+        }
+        return InliningCostModel.findRecursive(callees);
+    }
+
+    /**
+     * Returns the number of instructions of a procedure that still cost something once
+     * it is inlined.
+     * @param f             IrFunction of the procedure
+     * @return              Number of instructions besides PARAMs, CONSTs, JUMPs, and RETs
+     */
+    private static int getSize(IrFunction f)
+    {
+        int size = 0;
+        for (BasicBlock b : f.getBlocks())
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                int op = instr.getOp();
+                if (op != IrInstruction.PARAM && op != IrInstruction.CONST
+                    && op != IrInstruction.JUMP && op != IrInstruction.RET)
+                {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Replaces a call with a copy of the body of the procedure it calls. The block of
+     * the call is split after the call: the copy of the procedure's entry block follows
+     * the code before the call, and every RET of the copy jumps to the code after the
+     * call, which takes the returned value with a COPY (or a PHI if there are several).
+     * @param f             IrFunction that makes the call
+     * @param b             Block of the call
+     * @param index         Position of the call in the block
+     * @param callee        IrFunction of the called procedure
+     */
+    private static void inline(IrFunction f, BasicBlock b, int index, IrFunction callee)
+    {
+        List<IrInstruction> code = b.getInstructions();
+        IrInstruction call = code.get(index);
+        int[] args = call.getArgs();
+        int[] map = new int[callee.getValueCount()];
+        for (BasicBlock cb : callee.getBlocks())
+        {
+            for (IrInstruction instr : cb.getInstructions())
+            {
+                if (instr.getOp() == IrInstruction.PARAM)
+                {
+                    map[instr.getDest()] = args[instr.getConstant()];
+                }
+                else if (instr.getDest() >= 0)
+                {
+                    map[instr.getDest()] = f.newValue();
+                }
+            }
+        }
+
+        BasicBlock after = f.newBlock();
+        List<IrInstruction> rest = code.subList(index + 1, code.size());
+        after.getInstructions().addAll(rest);
+        rest.clear();
+        code.remove(index);
+        for (BasicBlock succ : b.getSuccessors())
+        {
+            List<BasicBlock> preds = succ.getPredecessors();
+            preds.set(preds.indexOf(b), after);
+            after.getSuccessors().add(succ);
+        }
+        b.getSuccessors().clear();
+
+        Map<BasicBlock, BasicBlock> copies = new HashMap<BasicBlock, BasicBlock>();
+        List<BasicBlock> added = new ArrayList<BasicBlock>();
+        for (BasicBlock cb : callee.getBlocks())
+        {
+            BasicBlock copy = f.newBlock();
+            copies.put(cb, copy);
+            added.add(copy);
+        }
+        List<Integer> results = new ArrayList<Integer>();
+        for (BasicBlock cb : callee.getBlocks())
+        {
+            BasicBlock copy = copies.get(cb);
+            for (IrInstruction instr : cb.getInstructions())
+            {
+                if (instr.getOp() == IrInstruction.PARAM)
+                {
+                    continue;
+                }
+                int[] cargs = new int[instr.getArgs().length];
+                for (int i = 0; i < cargs.length; i++)
+                {
+                    cargs[i] = map[instr.getArgs()[i]];
+                }
+                if (instr.getOp() == IrInstruction.RET)
+                {
+                    results.add(cargs[0]);
+                    copy.getInstructions().add(
+                        new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+                    copy.addEdge(after);
+                    continue;
+                }
+                int dest = instr.getDest() < 0 ? -1 : map[instr.getDest()];
+                IrInstruction clone = instr.getOp() == IrInstruction.CALL
+                    ? IrInstruction.call(dest, instr.getCallee(), cargs)
+                    : new IrInstruction(instr.getOp(), dest, cargs, instr.getConstant());
+                copy.getInstructions().add(clone);
+            }
+            for (BasicBlock succ : cb.getSuccessors())
+            {
+                copy.getSuccessors().add(copies.get(succ));
+            }
+            for (BasicBlock pred : cb.getPredecessors())
+            {
+                copy.getPredecessors().add(copies.get(pred));
+            }
+        }
+        code.add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+        b.addEdge(copies.get(callee.getBlocks().get(0)));
+
+        int[] result = new int[results.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = results.get(i);
+        }
+        after.getInstructions().add(0, new IrInstruction(
+            result.length == 1 ? IrInstruction.COPY : IrInstruction.PHI, call.getDest(), result));
+
+        List<BasicBlock> blocks = f.getBlocks();
+        blocks.removeAll(added);
+        blocks.remove(after);
+        added.add(after);
+        blocks.addAll(blocks.indexOf(b) + 1, added);
+    }
+}
@@ -0,0 +1,623 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ast.ProcedureDeclaration;
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
+
+/**
+ * IrBuilder class that builds the SSA-form IR of a Program. It implements CodeBuilder so
+ * that it receives the same lowering that the VirtualMachine and the RegisterAllocator
+ * use, recording the instructions of main and of each procedure. build() then turns each
+ * of them into an IrFunction in three steps:
+ * - The stack-based instructions are split into BasicBlocks at labels and jumps, and the
+ *   operand stack (which is empty at every label) is replaced by numbered values, so each
+ *   block becomes three-address code that still reads and writes variables by slot.
+ * - PHIs are placed at the iterated dominance frontiers of the blocks that write each
+ *   variable.
+ * - The blocks are walked in the order of the DominatorTree, replacing every read of a
+ *   variable by the value that reaches it, which leaves the IR in SSA form.
+ * The variables of main are the globals, and those of a procedure are its return value,
+ * parameters, and locals; procedures read and write globals in memory. At a call in main,
+ * every global that the procedure (or anything it calls) touches is stored before the call
+ * and loaded again after it.
+ *
+ * Usage:
+ * IrBuilder b = new IrBuilder(<names of the globals>);
+ * <Program>.lower(b);
+ * IrProgram ir = b.build();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class IrBuilder implements CodeBuilder
+{
+    // Opcodes of the instructions that read and write variables before the IR is in SSA
+    // form; their constant is the slot of the variable
+    private static final int READ_VAR = -1;
+    private static final int WRITE_VAR = -2;
+
+    // Names of the global variables, indexed by slot
+    private String[] globalNames;
+
+    // Declared procedures
+    private Map<String, ProcedureDeclaration> procedures;
+
+    // Recorded instructions of main (key null) and of each procedure
+    private Map<String, List<int[]>> units;
+
+    // Instructions of the unit currently being recorded
+    private List<int[]> current;
+
+    // Position of each label in its unit
+    private List<Integer> labels;
+
+    // Names of the procedures called by CALL instructions, indexed by the CALL operand
+    private List<String> callees;
+
+    // Global slots that each procedure touches, directly or through its callees
+    private Map<String, BitSet> touched;
+
+    /**
+     * Creates a new IrBuilder for a Program with the given global variables.
+     * @param globalNames   Names of the global variables, indexed by slot
+     */
+    public IrBuilder(String[] globalNames)
+    {
+        this.globalNames = globalNames;
+        procedures = new HashMap<String, ProcedureDeclaration>();
+        units = new LinkedHashMap<String, List<int[]>>();
+        current = new ArrayList<int[]>();
+        units.put(null, current);
+        labels = new ArrayList<Integer>();
+        callees = new ArrayList<String>();
+    }
+
+    @Override
+    public void declareProcedure(ProcedureDeclaration proc)
+    {
+        procedures.put(proc.getID(), proc);
+    }
+
+    @Override
+    public int getParmCount(String id)
+    {
+        return procedures.get(id).getParms().size();
+    }
+
+    @Override
+    public void placeProcedure(String id)
+    {
+        current = new ArrayList<int[]>();
+        units.put(id, current);
+    }
+
+    @Override
+    public int newLabel()
+    {
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    @Override
+    public void placeLabel(int label)
+    {
+        labels.set(label, current.size());
+    }
+
+    @Override
+    public void emit(int op)
+    {
+        current.add(new int[] {op});
+    }
+
+    @Override
+    public void emitConst(int value)
+    {
+        current.add(new int[] {Opcode.CONST, value});
+    }
+
+    @Override
+    public void emitLoad(int depth, int slot)
+    {
+        current.add(new int[] {depth == 0 ? Opcode.LOAD : Opcode.LOAD_GLOBAL, slot});
+    }
+
+    @Override
+    public void emitStore(int depth, int slot)
+    {
+        current.add(new int[] {depth == 0 ? Opcode.STORE : Opcode.STORE_GLOBAL, slot});
+    }
+
+    @Override
+    public void emitJump(int op, int label)
+    {
+        current.add(new int[] {op, label});
+    }
+
+    @Override
+    public void emitCall(String id, int argCount)
+    {
+        current.add(new int[] {Opcode.CALL, callees.size(), argCount});
+        callees.add(id);
+    }
+
+    @Override
+    public void emitTailCall(String id, int argCount)
+    {
+        emitCall(id, argCount);
+        emitStore(0, 0);
+    }
+
+    /**
+     * Builds the IR of main and of every procedure. Should be called after the Program
+     * has been lowered into this builder.
+     * @return              The IrProgram, in SSA form
+     * @throws IllegalStateException    a label is placed while the operand stack is not empty
+     */
+    public IrProgram build()
+    {
+        findTouchedGlobals();
+        IrProgram program = new IrProgram(globalNames);
+        for (Map.Entry<String, List<int[]>> unit : units.entrySet())
+        {
+            IrFunction f = buildBlocks(unit.getKey(), unit.getValue());
+            f.removeUnreachableBlocks();
+            String[] names = unit.getKey() == null ? globalNames
+                : procedures.get(unit.getKey()).getFrameNames();
+            toSsa(f, names.length);
+            program.addFunction(f);
+        }
+        return program;
+    }
+
+    /**
+     * Finds the global slots that each procedure touches, including the ones touched
+     * by the procedures it calls, by repeating until nothing changes.
+     */
+    private void findTouchedGlobals()
+    {
+        touched = new HashMap<String, BitSet>();
+        for (Map.Entry<String, List<int[]>> unit : units.entrySet())
+        {
+            if (unit.getKey() != null)
+            {
+                BitSet slots = new BitSet();
+                for (int[] instr : unit.getValue())
+                {
+                    if (instr[0] == Opcode.LOAD_GLOBAL || instr[0] == Opcode.STORE_GLOBAL)
+                    {
+                        slots.set(instr[1]);
+                    }
+                }
+                touched.put(unit.getKey(), slots);
+            }
+        }
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (Map.Entry<String, BitSet> proc : touched.entrySet())
+            {
+                for (int[] instr : units.get(proc.getKey()))
+                {
+                    BitSet callee = instr[0] == Opcode.CALL
+                        ? touched.get(callees.get(instr[1])) : null;
+                    if (callee != null)
+                    {
+                        int before = proc.getValue().cardinality();
+                        proc.getValue().or(callee);
+                        changed |= proc.getValue().cardinality() != before;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the recorded instructions of a unit into BasicBlocks of three-address code
+     * that read and write variables with READ_VAR and WRITE_VAR. The entry block writes
+     * the starting value of every variable and jumps to the first block of the code.
+     * @param id            Name of the procedure, or null for main
+     * @param code          Recorded instructions of the unit
+     * @return              The IrFunction of the unit, not yet in SSA form
+     */
+    private IrFunction buildBlocks(String id, List<int[]> code)
+    {
+        ProcedureDeclaration proc = id == null ? null : procedures.get(id);
+        int parmCount = proc == null ? 0 : proc.getParms().size();
+        IrFunction f = new IrFunction(id, parmCount);
+        BasicBlock entry = f.newBlock();
+
+        int n = code.size();
+        boolean[] leader = new boolean[n + 1];
+        leader[0] = true;
+        for (int i = 0; i < n; i++)
+        {
+            int op = code.get(i)[0];
+            if (op == Opcode.JUMP || (op >= Opcode.IF_EQ && op <= Opcode.IF_GE))
+            {
+                leader[labels.get(code.get(i)[1])] = true;
+                leader[i + 1] = true;
+            }
+            else if (op == Opcode.RET || op == Opcode.HALT)
+            {
+                leader[i + 1] = true;
+            }
+        }
+        BasicBlock[] blockAt = new BasicBlock[n + 1];
+        for (int i = 0; i < n; i++)
+        {
+            if (leader[i])
+            {
+                blockAt[i] = f.newBlock();
+            }
+        }
+
+        String[] names = proc == null ? globalNames : proc.getFrameNames();
+        int[] start = new int[names.length];
+        for (int i = 0; i < parmCount; i++)
+        {
+            start[proc.getParmSlot(i)] = i + 1;
+        }
+        for (int slot = 0; slot < names.length; slot++)
+        {
+            int v = f.newValue();
+            entry.getInstructions().add(start[slot] > 0
+                ? new IrInstruction(IrInstruction.PARAM, v, new int[0], start[slot] - 1)
+                : IrInstruction.constant(v, 0));
+            entry.getInstructions().add(new IrInstruction(WRITE_VAR, -1, new int[] {v}, slot));
+        }
+        entry.getInstructions().add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+        entry.addEdge(blockAt[0]);
+
+        BasicBlock block = null;
+        Deque<Integer> stack = new ArrayDeque<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            if (leader[i])
+            {
+                if (!stack.isEmpty())
+                {
+                    throw new IllegalStateException("Operand stack not empty at a label");
+                }
+                if (block != null)
+                {
+                    block.getInstructions().add(new IrInstruction(IrInstruction.JUMP, -1,
+                        new int[0]));
+                    block.addEdge(blockAt[i]);
+                }
+                block = blockAt[i];
+            }
+            block = lowerInstruction(f, proc, block, code.get(i), stack, blockAt, i);
+        }
+        return f;
+    }
+
+    /**
+     * Appends the three-address code of one recorded instruction to the given block.
+     * @param f             IrFunction being built
+     * @param proc          Procedure of the unit, or null for main
+     * @param block         Block being filled
+     * @param instr         Recorded instruction
+     * @param stack         Values on the operand stack, top first
+     * @param blockAt       Block that starts at each position of the unit
+     * @param i             Position of the instruction
+     * @return              Block that the next instruction belongs to, or null if the
+     *                      instruction ended the block
+     */
+    private BasicBlock lowerInstruction(IrFunction f, ProcedureDeclaration proc,
+            BasicBlock block, int[] instr, Deque<Integer> stack, BasicBlock[] blockAt, int i)
+    {
+        List<IrInstruction> out = block.getInstructions();
+        int op = instr[0];
+        if (op == Opcode.CONST)
+        {
+            int v = f.newValue();
+            out.add(IrInstruction.constant(v, instr[1]));
+            stack.push(v);
+        }
+        else if (op == Opcode.LOAD || op == Opcode.LOAD_GLOBAL)
+        {
+            int v = f.newValue();
+            out.add(new IrInstruction(op == Opcode.LOAD ? READ_VAR : IrInstruction.LOAD_GLOBAL,
+                v, new int[0], instr[1]));
+            stack.push(v);
+        }
+        else if (op == Opcode.STORE || op == Opcode.STORE_GLOBAL)
+        {
+            out.add(new IrInstruction(op == Opcode.STORE ? WRITE_VAR : IrInstruction.STORE_GLOBAL,
+                -1, new int[] {stack.pop()}, instr[1]));
+        }
+        else if (op >= Opcode.ADD && op <= Opcode.MOD)
+        {
+            int b = stack.pop();
+            int a = stack.pop();
+            int v = f.newValue();
+            out.add(new IrInstruction(IrInstruction.ADD + op - Opcode.ADD, v, new int[] {a, b}));
+            stack.push(v);
+        }
+        else if (op == Opcode.JUMP)
+        {
+            out.add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+            block.addEdge(blockAt[labels.get(instr[1])]);
+            return null;
+        }
+        else if (op >= Opcode.IF_EQ && op <= Opcode.IF_GE)
+        {
+            int b = stack.pop();
+            int a = stack.pop();
+            BasicBlock taken = blockAt[labels.get(instr[1])];
+            if (taken == blockAt[i + 1])
+            {
+                out.add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+            }
+            else
+            {
+                out.add(new IrInstruction(IrInstruction.BRANCH, -1, new int[] {a, b}, op));
+                block.addEdge(taken);
+            }
+            block.addEdge(blockAt[i + 1]);
+            return null;
+        }
+        else if (op == Opcode.CALL)
+        {
+            lowerCall(f, proc, out, callees.get(instr[1]), instr[2], stack);
+        }
+        else if (op == Opcode.PRINT)
+        {
+            out.add(new IrInstruction(IrInstruction.PRINT, -1, new int[] {stack.pop()}));
+        }
+        else if (op == Opcode.READ)
+        {
+            int v = f.newValue();
+            out.add(new IrInstruction(IrInstruction.READ, v, new int[0]));
+            stack.push(v);
+        }
+        else if (op == Opcode.RET)
+        {
+            int v = f.newValue();
+            out.add(new IrInstruction(READ_VAR, v, new int[0], 0));
+            out.add(new IrInstruction(IrInstruction.RET, -1, new int[] {v}));
+            return null;
+        }
+        else
+        {
+            out.add(new IrInstruction(IrInstruction.HALT, -1, new int[0]));
+            return null;
+        }
+        return block;
+    }
+
+    /**
+     * Appends the three-address code of a call. A missing argument is passed as 0, or as
+     * the argument of an earlier parameter with the same name if one has an argument
+     * (see ProcedureDeclaration.getArgumentIndex()). In main, the globals that the
+     * callee touches are stored before the call and loaded again after it.
+     * @param f             IrFunction being built
+     * @param proc          Procedure of the unit, or null for main
+     * @param out           Instructions of the block being filled
+     * @param callee        Name of the called procedure
+     * @param argCount      Number of arguments on the operand stack
+     * @param stack         Values on the operand stack, top first
+     */
+    private void lowerCall(IrFunction f, ProcedureDeclaration proc, List<IrInstruction> out,
+            String callee, int argCount, Deque<Integer> stack)
+    {
+        int[] args = new int[getParmCount(callee)];
+        for (int k = argCount - 1; k >= 0; k--)
+        {
+            args[k] = stack.pop();
+        }
+        for (int k = argCount; k < args.length; k++)
+        {
+            int source = procedures.get(callee).getArgumentIndex(k, argCount);
+            if (source >= 0)
+            {
+                args[k] = args[source];
+            }
+            else
+            {
+                args[k] = f.newValue();
+                out.add(IrInstruction.constant(args[k], 0));
+            }
+        }
+        BitSet shared = proc == null ? touched.get(callee) : new BitSet();
+        for (int g = shared.nextSetBit(0); g >= 0; g = shared.nextSetBit(g + 1))
+        {
+            int v = f.newValue();
+            out.add(new IrInstruction(READ_VAR, v, new int[0], g));
+            out.add(new IrInstruction(IrInstruction.STORE_GLOBAL, -1, new int[] {v}, g));
+        }
+        int result = f.newValue();
+        out.add(IrInstruction.call(result, callee, args));
+        for (int g = shared.nextSetBit(0); g >= 0; g = shared.nextSetBit(g + 1))
+        {
+            int v = f.newValue();
+            out.add(new IrInstruction(IrInstruction.LOAD_GLOBAL, v, new int[0], g));
+            out.add(new IrInstruction(WRITE_VAR, -1, new int[] {v}, g));
+        }
+        stack.push(result);
+    }
+
+    /**
+     * Puts a function into SSA form: places PHIs for the variables at the iterated
+     * dominance frontiers of the blocks that write them, then walks the dominator tree
+     * to replace every READ_VAR by the value that reaches it and removes the READ_VARs
+     * and WRITE_VARs.
+     * @param f             IrFunction whose blocks are all reachable
+     * @param varCount      Number of variables of the unit
+     */
+    private void toSsa(IrFunction f, int varCount)
+    {
+        DominatorTree dom = new DominatorTree(f);
+        List<Set<BasicBlock>> writers = new ArrayList<Set<BasicBlock>>();
+        for (int s = 0; s < varCount; s++)
+        {
+            writers.add(new HashSet<BasicBlock>());
+        }
+        for (BasicBlock b : f.getBlocks())
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                if (instr.getOp() == WRITE_VAR)
+                {
+                    writers.get(instr.getConstant()).add(b);
+                }
+            }
+        }
+
+        Map<IrInstruction, Integer> phiVar = new HashMap<IrInstruction, Integer>();
+        for (int s = 0; s < varCount; s++)
+        {
+            Set<BasicBlock> placed = new HashSet<BasicBlock>();
+            Deque<BasicBlock> work = new ArrayDeque<BasicBlock>(writers.get(s));
+            while (!work.isEmpty())
+            {
+                for (BasicBlock y : dom.getFrontier(work.pop()))
+                {
+                    if (placed.add(y))
+                    {
+                        IrInstruction phi = new IrInstruction(IrInstruction.PHI, f.newValue(),
+                            new int[y.getPredecessors().size()]);
+                        y.getInstructions().add(0, phi);
+                        phiVar.put(phi, s);
+                        if (!writers.get(s).contains(y))
+                        {
+                            work.push(y);
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] map = new int[f.getValueCount()];
+        for (int v = 0; v < map.length; v++)
+        {
+            map[v] = v;
+        }
+        int[][] values = new int[varCount][4];
+        int[] depth = new int[varCount];
+        Deque<BasicBlock> stack = new ArrayDeque<BasicBlock>();
+        Deque<List<Integer>> pushes = new ArrayDeque<List<Integer>>();
+        Deque<Integer> next = new ArrayDeque<Integer>();
+        stack.push(f.getBlocks().get(0));
+        pushes.push(renameBlock(f.getBlocks().get(0), phiVar, map, values, depth));
+        next.push(0);
+        while (!stack.isEmpty())
+        {
+            BasicBlock b = stack.peek();
+            int i = next.pop();
+            List<BasicBlock> kids = dom.getChildren(b);
+            if (i < kids.size())
+            {
+                next.push(i + 1);
+                stack.push(kids.get(i));
+                pushes.push(renameBlock(kids.get(i), phiVar, map, values, depth));
+                next.push(0);
+            }
+            else
+            {
+                stack.pop();
+                for (int s : pushes.pop())
+                {
+                    depth[s]--;
+                }
+            }
+        }
+        f.replaceValues(map);
+    }
+
+    /**
+     * Renames the variables of one block: the block's PHIs and WRITE_VARs push the new
+     * value of their variable, its READ_VARs are mapped to the value on top, and the PHIs
+     * of its successors get the value on top for the edge from this block. The READ_VARs
+     * and WRITE_VARs are removed.
+     * @param b             Block to rename
+     * @param phiVar        Variable of each placed PHI
+     * @param map           Replacement of each value
+     * @param values        Stack of the values of each variable
+     * @param depth         Number of values on the stack of each variable
+     * @return              The variables that were pushed, to pop after the subtree
+     */
+    private static List<Integer> renameBlock(BasicBlock b, Map<IrInstruction, Integer> phiVar,
+            int[] map, int[][] values, int[] depth)
+    {
+        List<Integer> pushed = new ArrayList<Integer>();
+        List<IrInstruction> kept = new ArrayList<IrInstruction>();
+        for (IrInstruction instr : b.getInstructions())
+        {
+            int op = instr.getOp();
+            if (op == READ_VAR)
+            {
+                int s = instr.getConstant();
+                map[instr.getDest()] = values[s][depth[s] - 1];
+                continue;
+            }
+            int s = op == WRITE_VAR ? instr.getConstant()
+                : op == IrInstruction.PHI ? phiVar.get(instr) : -1;
+            if (s < 0)
+            {
+                kept.add(instr);
+                continue;
+            }
+            int v = op == WRITE_VAR ? resolve(map, instr.getArgs()[0]) : instr.getDest();
+            if (depth[s] == values[s].length)
+            {
+                values[s] = Arrays.copyOf(values[s], 2 * depth[s]);
+            }
+            values[s][depth[s]++] = v;
+            pushed.add(s);
+            if (op == IrInstruction.PHI)
+            {
+                kept.add(instr);
+            }
+        }
+        b.getInstructions().clear();
+        b.getInstructions().addAll(kept);
+
+        for (BasicBlock succ : b.getSuccessors())
+        {
+            int index = succ.getPredecessors().indexOf(b);
+            for (IrInstruction phi : succ.getInstructions())
+            {
+                Integer s = phiVar.get(phi);
+                if (phi.getOp() != IrInstruction.PHI)
+                {
+                    break;
+                }
+                if (s != null)
+                {
+                    phi.getArgs()[index] = values[s][depth[s] - 1];
+                }
+            }
+        }
+        return pushed;
+    }
+
+    /**
+     * Follows the replacements of a value to its end.
+     * @param map           Replacement of each value
+     * @param v             Given value
+     * @return              The value that v is replaced by
+     */
+    private static int resolve(int[] map, int v)
+    {
+        while (map[v] != v)
+        {
+            v = map[v];
+        }
+        return v;
+    }
+}
@@ -0,0 +1,363 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * IrFunction class that holds the control flow graph of main or of one procedure in SSA
+ * form. The first BasicBlock is the entry block, which has no predecessors and defines
+ * the starting value of every variable of the unit: the parameters with PARAM and the
+ * return value, locals, and (in main) globals with a CONST 0. The order of the blocks is
+ * the order in which the MipsSelector lays them out. Values are numbered from 0 by
+ * newValue().
+ *
+ * Usage:
+ * IrFunction f = new IrFunction(<procedure name, or null for main>, <parameter count>);
+ * BasicBlock b = f.newBlock();
+ * int v = f.newValue();
+ * List<BasicBlock> blocks = f.getBlocks();
+ * IrInstruction[] defs = f.getDefinitions();
+ * int[] uses = f.countUses();
+ * f.replaceValues(<map from each value to its replacement>);
+ * boolean removed = f.removeUnreachableBlocks();
+ * boolean merged = f.mergeBlocks();
+ * BasicBlock middle = f.splitEdge(<BasicBlock>, <one of its successors>);
+ * List<BasicBlock> order = f.getReversePostorder();
+ * f.dump(<StringBuilder>, <names of the globals>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class IrFunction
+{
+    // Name of the procedure, or null for main
+    private String name;
+
+    // Number of parameters of the procedure
+    private int parmCount;
+
+    // Blocks of the control flow graph, entry first
+    private List<BasicBlock> blocks;
+
+    // Number of values defined so far
+    private int valueCount;
+
+    // Number of blocks created so far
+    private int blockCount;
+
+    /**
+     * Creates a new IrFunction with no blocks.
+     * @param name          Name of the procedure, or null for main
+     * @param parmCount     Number of parameters of the procedure
+     */
+    public IrFunction(String name, int parmCount)
+    {
+        this.name = name;
+        this.parmCount = parmCount;
+        blocks = new ArrayList<BasicBlock>();
+    }
+
+    /**
+     * Returns the name of the procedure.
+     * @return              The name, or null for main
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the number of parameters of the procedure.
+     * @return              The parameter count (0 for main)
+     */
+    public int getParmCount()
+    {
+        return parmCount;
+    }
+
+    /**
+     * Returns the blocks of the function, entry first, which may be changed in place.
+     * @return              List of the blocks
+     */
+    public List<BasicBlock> getBlocks()
+    {
+        return blocks;
+    }
+
+    /**
+     * Returns the number of values that have been defined, which is one more than
+     * the largest value number.
+     * @return              The number of values
+     */
+    public int getValueCount()
+    {
+        return valueCount;
+    }
+
+    /**
+     * Returns a new value number.
+     * @return              The new value
+     */
+    public int newValue()
+    {
+        return valueCount++;
+    }
+
+    /**
+     * Adds a new empty block after the existing blocks.
+     * @return              The new block
+     */
+    public BasicBlock newBlock()
+    {
+        BasicBlock b = new BasicBlock(blockCount++);
+        blocks.add(b);
+        return b;
+    }
+
+    /**
+     * Returns the instruction that defines each value.
+     * @return              Array of the defining instruction of each value, or null for
+     *                      values that are no longer defined
+     */
+    public IrInstruction[] getDefinitions()
+    {
+        IrInstruction[] defs = new IrInstruction[valueCount];
+        for (BasicBlock b : blocks)
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                if (instr.getDest() >= 0)
+                {
+                    defs[instr.getDest()] = instr;
+                }
+            }
+        }
+        return defs;
+    }
+
+    /**
+     * Returns the number of times each value is read.
+     * @return              Array of the number of uses of each value
+     */
+    public int[] countUses()
+    {
+        int[] uses = new int[valueCount];
+        for (BasicBlock b : blocks)
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                for (int arg : instr.getArgs())
+                {
+                    uses[arg]++;
+                }
+            }
+        }
+        return uses;
+    }
+
+    /**
+     * Replaces every read of a value with a read of the value it maps to. Chains of
+     * replacements are followed to their end.
+     * @param map           Replacement of each value (itself if it is not replaced)
+     */
+    public void replaceValues(int[] map)
+    {
+        for (BasicBlock b : blocks)
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                int[] args = instr.getArgs();
+                for (int i = 0; i < args.length; i++)
+                {
+                    int v = args[i];
+                    while (map[v] != v)
+                    {
+                        v = map[v];
+                    }
+                    args[i] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the blocks that cannot be reached from the entry block, along with
+     * their edges to the blocks that remain.
+     * @return              True if any block was removed
+     */
+    public boolean removeUnreachableBlocks()
+    {
+        Set<BasicBlock> reached = new HashSet<BasicBlock>();
+        Deque<BasicBlock> work = new ArrayDeque<BasicBlock>();
+        reached.add(blocks.get(0));
+        work.push(blocks.get(0));
+        while (!work.isEmpty())
+        {
+            for (BasicBlock succ : work.pop().getSuccessors())
+            {
+                if (reached.add(succ))
+                {
+                    work.push(succ);
+                }
+            }
+        }
+        if (reached.size() == blocks.size())
+        {
+            return false;
+        }
+        List<BasicBlock> kept = new ArrayList<BasicBlock>();
+        for (BasicBlock b : blocks)
+        {
+            if (reached.contains(b))
+            {
+                kept.add(b);
+            }
+            else
+            {
+                for (BasicBlock succ : new ArrayList<BasicBlock>(b.getSuccessors()))
+                {
+                    b.removeEdge(succ);
+                }
+            }
+        }
+        blocks = kept;
+        return true;
+    }
+
+    /**
+     * Puts a new block that only jumps on the edge between the given blocks. The PHIs of
+     * the successor keep their args, which now come from the new block. The new block is
+     * laid out right after the predecessor if it is the predecessor's fall-through
+     * successor, and right before the successor otherwise.
+     * @param pred          Given block
+     * @param succ          One of its successors
+     * @return              The new block
+     */
+    public BasicBlock splitEdge(BasicBlock pred, BasicBlock succ)
+    {
+        BasicBlock middle = newBlock();
+        blocks.remove(blocks.size() - 1);
+        int index = pred.getSuccessors().indexOf(succ);
+        blocks.add(index == 1 ? blocks.indexOf(pred) + 1 : blocks.indexOf(succ), middle);
+        middle.getInstructions().add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+        pred.getSuccessors().set(index, middle);
+        middle.getPredecessors().add(pred);
+        succ.getPredecessors().set(succ.getPredecessors().indexOf(pred), middle);
+        middle.getSuccessors().add(succ);
+        return middle;
+    }
+
+    /**
+     * Merges every block whose only predecessor ends with a JUMP to it into that
+     * predecessor. The PHIs of a merged block have a single arg and become COPYs, which
+     * CopyPropagation removes.
+     * @return              True if any block was merged
+     */
+    public boolean mergeBlocks()
+    {
+        boolean merged = false;
+        for (BasicBlock b : blocks)
+        {
+            while (b.getSuccessors().size() == 1
+                && b.getTerminator().getOp() == IrInstruction.JUMP)
+            {
+                BasicBlock next = b.getSuccessors().get(0);
+                if (next == b || next.getPredecessors().size() != 1)
+                {
+                    break;
+                }
+                List<IrInstruction> code = b.getInstructions();
+                code.remove(code.size() - 1);
+                for (IrInstruction instr : next.getInstructions())
+                {
+                    if (instr.getOp() == IrInstruction.PHI)
+                    {
+                        instr.makeCopy(instr.getArgs()[0]);
+                    }
+                    code.add(instr);
+                }
+                b.getSuccessors().clear();
+                for (BasicBlock succ : next.getSuccessors())
+                {
+                    List<BasicBlock> preds = succ.getPredecessors();
+                    preds.set(preds.indexOf(next), b);
+                    b.getSuccessors().add(succ);
+                }
+                next.getInstructions().clear();
+                next.getSuccessors().clear();
+                next.getPredecessors().clear();
+                merged = true;
+            }
+        }
+        if (merged)
+        {
+            List<BasicBlock> kept = new ArrayList<BasicBlock>();
+            for (BasicBlock b : blocks)
+            {
+                if (b == blocks.get(0) || !b.getPredecessors().isEmpty())
+                {
+                    kept.add(b);
+                }
+            }
+            blocks = kept;
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the blocks in reverse postorder of a depth-first search from the entry
+     * block, so every block comes before the blocks it dominates.
+     * @return              List of the reachable blocks in reverse postorder
+     */
+    public List<BasicBlock> getReversePostorder()
+    {
+        List<BasicBlock> order = new ArrayList<BasicBlock>();
+        Set<BasicBlock> seen = new HashSet<BasicBlock>();
+        Deque<BasicBlock> stack = new ArrayDeque<BasicBlock>();
+        Deque<Integer> next = new ArrayDeque<Integer>();
+        stack.push(blocks.get(0));
+        next.push(0);
+        seen.add(blocks.get(0));
+        while (!stack.isEmpty())
+        {
+            BasicBlock b = stack.peek();
+            int i = next.pop();
+            if (i < b.getSuccessors().size())
+            {
+                next.push(i + 1);
+                BasicBlock succ = b.getSuccessors().get(i);
+                if (seen.add(succ))
+                {
+                    stack.push(succ);
+                    next.push(0);
+                }
+            }
+            else
+            {
+                stack.pop();
+                order.add(b);
+            }
+        }
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * Appends the IR dump of the function to the given StringBuilder.
+     * @param s             StringBuilder to append to
+     * @param globalNames   Names of the globals, indexed by slot
+     */
+    public void dump(StringBuilder s, String[] globalNames)
+    {
+        s.append(name == null ? "main" : "procedure " + name + "/" + parmCount).append(":\n");
+        for (BasicBlock b : blocks)
+        {
+            b.dump(s, globalNames);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package ir;
+
+import bytecode.Opcode;
+
+/**
+ * IrInstruction class that represents one three-address instruction of the IR. Values
+ * are numbered per IrFunction and each one is defined by exactly one instruction (the
+ * IR is in SSA form), so an instruction names the value it defines with dest and the
+ * values it reads with args. The meaning of the constant and callee fields depends on
+ * the opcode, as listed next to each one. The last instruction of every BasicBlock is
+ * a terminator (JUMP, BRANCH, RET, or HALT), and its PHI instructions come first, with
+ * one argument for each predecessor of the block, in the same order.
+ *
+ * Usage:
+ * IrInstruction i = new IrInstruction(IrInstruction.ADD, <dest>, new int[] {<a>, <b>});
+ * IrInstruction c = IrInstruction.constant(<dest>, 5);
+ * boolean end = i.isTerminator();
+ * boolean needed = i.hasSideEffects();
+ * String text = i.toString(<names of the globals>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class IrInstruction
+{
+    /** Defines the value constant. No args. */
+    public static final int CONST = 0;
+
+    /** Defines the value of the parameter whose index is constant. No args. */
+    public static final int PARAM = 1;
+
+    /** Defines a copy of its arg. */
+    public static final int COPY = 2;
+
+    /** Defines the sum of its two args. */
+    public static final int ADD = 3;
+
+    /** Defines the difference of its two args. */
+    public static final int SUB = 4;
+
+    /** Defines the product of its two args. */
+    public static final int MUL = 5;
+
+    /** Defines the quotient of its two args. */
+    public static final int DIV = 6;
+
+    /** Defines the remainder of its two args. */
+    public static final int MOD = 7;
+
+    /** Defines the arg that comes from the predecessor the block was entered from. */
+    public static final int PHI = 8;
+
+    /** Defines the value of the global whose slot is constant. No args. */
+    public static final int LOAD_GLOBAL = 9;
+
+    /** Stores its arg into the global whose slot is constant. No dest. */
+    public static final int STORE_GLOBAL = 10;
+
+    /** Calls the procedure callee with its args and defines the procedure's return value. */
+    public static final int CALL = 11;
+
+    /** Prints its arg on its own line. No dest. */
+    public static final int PRINT = 12;
+
+    /** Defines an integer read from the input. No args. */
+    public static final int READ = 13;
+
+    /** Jumps to the only successor of the block. No dest or args. */
+    public static final int JUMP = 14;
+
+    /**
+     * Jumps to the first successor of the block if its two args satisfy the comparison
+     * constant (one of Opcode.IF_EQ to Opcode.IF_GE), or to the second one otherwise.
+     */
+    public static final int BRANCH = 15;
+
+    /** Returns its arg from the procedure. No dest. */
+    public static final int RET = 16;
+
+    /** Stops the program. No dest or args. */
+    public static final int HALT = 17;
+
+    // Names of the opcodes in the IR dump, indexed by opcode
+    private static final String[] NAMES = {"const", "param", "copy", "add", "sub", "mul", "div",
+        "mod", "phi", "loadg", "storeg", "call", "print", "read", "jump", "branch", "ret", "halt"};
+
+    // Comparisons in the IR dump, indexed by their Opcode minus Opcode.IF_EQ
+    private static final String[] RELOPS = {"=", "<>", "<", ">", "<=", ">="};
+
+    // Opcode of the instruction
+    private int op;
+
+    // Value defined by the instruction (-1 if it defines none)
+    private int dest;
+
+    // Values read by the instruction
+    private int[] args;
+
+    // Constant value, parameter index, global slot, or comparison Opcode
+    private int constant;
+
+    // Name of the called procedure (CALL only)
+    private String callee;
+
+    /**
+     * Creates a new IrInstruction with the given opcode, defined value, and args.
+     * @param op            Opcode of the instruction
+     * @param dest          Value defined by the instruction, or -1 for none
+     * @param args          Values read by the instruction
+     */
+    public IrInstruction(int op, int dest, int[] args)
+    {
+        this.op = op;
+        this.dest = dest;
+        this.args = args;
+    }
+
+    /**
+     * Creates a new IrInstruction with the given opcode, defined value, args, and
+     * constant operand.
+     * @param op            Opcode of the instruction
+     * @param dest          Value defined by the instruction, or -1 for none
+     * @param args          Values read by the instruction
+     * @param constant      Constant value, parameter index, global slot, or comparison
+     */
+    public IrInstruction(int op, int dest, int[] args, int constant)
+    {
+        this(op, dest, args);
+        this.constant = constant;
+    }
+
+    /**
+     * Creates a new CONST instruction.
+     * @param dest          Value defined by the instruction
+     * @param value         Constant value
+     * @return              The new instruction
+     */
+    public static IrInstruction constant(int dest, int value)
+    {
+        return new IrInstruction(CONST, dest, new int[0], value);
+    }
+
+    /**
+     * Creates a new CALL instruction.
+     * @param dest          Value defined by the instruction
+     * @param callee        Name of the called procedure
+     * @param args          Arguments of the call, one for each parameter
+     * @return              The new instruction
+     */
+    public static IrInstruction call(int dest, String callee, int[] args)
+    {
+        IrInstruction i = new IrInstruction(CALL, dest, args);
+        i.callee = callee;
+        return i;
+    }
+
+    /**
+     * Returns the opcode of the instruction.
+     * @return              The opcode
+     */
+    public int getOp()
+    {
+        return op;
+    }
+
+    /**
+     * Returns the value defined by the instruction.
+     * @return              The defined value, or -1 if the instruction defines none
+     */
+    public int getDest()
+    {
+        return dest;
+    }
+
+    /**
+     * Returns the values read by the instruction. The array may be changed in place
+     * to replace the values that the instruction reads.
+     * @return              The args of the instruction
+     */
+    public int[] getArgs()
+    {
+        return args;
+    }
+
+    /**
+     * Replaces the values read by the instruction.
+     * @param args          New args of the instruction
+     */
+    public void setArgs(int[] args)
+    {
+        this.args = args;
+    }
+
+    /**
+     * Returns the constant operand of the instruction.
+     * @return              Constant value, parameter index, global slot, or comparison
+     */
+    public int getConstant()
+    {
+        return constant;
+    }
+
+    /**
+     * Returns the name of the procedure that a CALL calls.
+     * @return              Name of the callee, or null if this is not a CALL
+     */
+    public String getCallee()
+    {
+        return callee;
+    }
+
+    /**
+     * Turns the instruction into a CONST that defines the same value.
+     * @param value         Constant value
+     */
+    public void makeConstant(int value)
+    {
+        op = CONST;
+        args = new int[0];
+        constant = value;
+    }
+
+    /**
+     * Turns the instruction into a COPY of the given value that defines the same value.
+     * @param source        Value to copy
+     */
+    public void makeCopy(int source)
+    {
+        op = COPY;
+        args = new int[] {source};
+    }
+
+    /**
+     * Returns whether the instruction ends its BasicBlock.
+     * @return              True for JUMP, BRANCH, RET, and HALT
+     */
+    public boolean isTerminator()
+    {
+        return op >= JUMP;
+    }
+
+    /**
+     * Returns whether the instruction does anything besides defining its value, so
+     * that it must be kept even when its value is not used.
+     * @return              True if the instruction has side effects or is a terminator
+     */
+    public boolean hasSideEffects()
+    {
+        return op == STORE_GLOBAL || op == CALL || op == PRINT || op == READ || isTerminator();
+    }
+
+    /**
+     * Returns the result of comparing the two given values with a comparison Opcode.
+     * @param relop         Opcode.IF_EQ to Opcode.IF_GE
+     * @param a             First value
+     * @param b             Second value
+     * @return              True if the comparison holds
+     */
+    public static boolean compare(int relop, int a, int b)
+    {
+        switch (relop)
+        {
+            case Opcode.IF_EQ:
+                return a == b;
+            case Opcode.IF_NE:
+                return a != b;
+            case Opcode.IF_LT:
+                return a < b;
+            case Opcode.IF_GT:
+                return a > b;
+            case Opcode.IF_LE:
+                return a <= b;
+            default:
+                return a >= b;
+        }
+    }
+
+    /**
+     * Returns the text of the instruction in the IR dump. The successors of a terminator
+     * are printed by its BasicBlock.
+     * @param globalNames   Names of the globals, indexed by slot
+     * @return              Text of the instruction
+     */
+    public String toString(String[] globalNames)
+    {
+        StringBuilder s = new StringBuilder();
+        if (dest >= 0)
+        {
+            s.append("v").append(dest).append(" = ");
+        }
+        s.append(NAMES[op]);
+        if (op == CONST || op == PARAM)
+        {
+            s.append(" ").append(constant);
+        }
+        else if (op == LOAD_GLOBAL || op == STORE_GLOBAL)
+        {
+            s.append(" ").append(globalNames == null ? "g" + constant : globalNames[constant]);
+        }
+        else if (op == CALL)
+        {
+            s.append(" ").append(callee);
+        }
+        for (int i = 0; i < args.length; i++)
+        {
+            s.append(i == 0 ? " " : ", ");
+            if (op == BRANCH && i == 1)
+            {
+                s.setLength(s.length() - 2);
+                s.append(" ").append(RELOPS[constant - Opcode.IF_EQ]).append(" ");
+            }
+            s.append("v").append(args[i]);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Returns the text of the instruction in the IR dump, with globals shown by slot.
+     * @return              Text of the instruction
+     */
+    @Override
+    public String toString()
+    {
+        return toString(null);
+    }
+}
@@ -0,0 +1,116 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IrProgram class that holds the IR of a whole Program: one IrFunction for main and one
+ * for each procedure, along with the names of the global variables. Globals that main
+ * reads and writes are SSA values inside main and are only stored to memory around the
+ * calls to procedures that touch them; procedures always read and write globals in
+ * memory. dump() prints the IR in a readable form for debugging.
+ *
+ * Usage:
+ * IrProgram p = new IrProgram(<names of the globals>);
+ * p.addFunction(<IrFunction>);
+ * p.removeFunction("foo");
+ * IrFunction main = p.getMain();
+ * IrFunction foo = p.getFunction("foo");
+ * List<IrFunction> all = p.getFunctions();
+ * String[] names = p.getGlobalNames();
+ * String text = p.dump();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class IrProgram
+{
+    // Names of the global variables, indexed by slot
+    private String[] globalNames;
+
+    // Functions of the program by name, main (null) first
+    private Map<String, IrFunction> functions;
+
+    /**
+     * Creates a new IrProgram with no functions.
+     * @param globalNames   Names of the global variables, indexed by slot
+     */
+    public IrProgram(String[] globalNames)
+    {
+        this.globalNames = globalNames;
+        functions = new LinkedHashMap<String, IrFunction>();
+    }
+
+    /**
+     * Adds the given function to the program, replacing any function with the same name.
+     * @param f             IrFunction of main or of a procedure
+     */
+    public void addFunction(IrFunction f)
+    {
+        functions.put(f.getName(), f);
+    }
+
+    /**
+     * Removes the function of the procedure with the given name, which must no longer
+     * be called.
+     * @param name          Name of the procedure
+     */
+    public void removeFunction(String name)
+    {
+        functions.remove(name);
+    }
+
+    /**
+     * Returns the function of main.
+     * @return              The IrFunction of main
+     */
+    public IrFunction getMain()
+    {
+        return functions.get(null);
+    }
+
+    /**
+     * Returns the function of the procedure with the given name.
+     * @param name          Name of the procedure
+     * @return              Its IrFunction, or null if there is no such procedure
+     */
+    public IrFunction getFunction(String name)
+    {
+        return functions.get(name);
+    }
+
+    /**
+     * Returns every function of the program, main first.
+     * @return              List of the IrFunctions
+     */
+    public List<IrFunction> getFunctions()
+    {
+        return new ArrayList<IrFunction>(functions.values());
+    }
+
+    /**
+     * Returns the names of the global variables.
+     * @return              Array of the names, indexed by slot
+     */
+    public String[] getGlobalNames()
+    {
+        return globalNames;
+    }
+
+    /**
+     * Returns the IR of every function in a readable form.
+     * @return              The IR dump
+     */
+    public String dump()
+    {
+        StringBuilder s = new StringBuilder();
+        for (IrFunction f : functions.values())
+        {
+            f.dump(s, globalNames);
+            s.append("\n");
+        }
+        return s.toString();
+    }
+}
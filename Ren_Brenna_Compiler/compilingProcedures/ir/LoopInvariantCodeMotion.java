@@ -0,0 +1,334 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LoopInvariantCodeMotion class that moves the instructions of a loop whose value is the
+ * same on every iteration into the preheader of the loop, the block that runs right
+ * before the loop is entered, so they run once instead of once per iteration. Loops are
+ * found from the back edges of each function (edges to a block that dominates their
+ * source), and inner loops are handled before the loops around them, so an instruction
+ * moves out of as many loops as it can in one run.
+ *
+ * An instruction is invariant if every value it reads is defined outside the loop or by
+ * another invariant instruction, and if moving it cannot change what the program does:
+ * since a WHILE or FOR loop may run no iterations, the instruction runs in the preheader
+ * even when it would not have run at all. So only CONST, COPY, ADD, SUB, and MUL move,
+ * DIV and MOD only when they divide by a constant other than 0, and LOAD_GLOBAL only
+ * when nothing in the loop can write the global: neither a STORE_GLOBAL in the loop nor
+ * a procedure that the loop calls (or that such a procedure calls). PHIs and the
+ * instructions with side effects never move.
+ *
+ * Usage:
+ * Pass p = new LoopInvariantCodeMotion();
+ * boolean changed = p.run(<IrProgram>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class LoopInvariantCodeMotion implements Pass
+{
+    // Slots of the globals that each function can write, directly or through its calls
+    private Map<String, Set<Integer>> writes;
+
+    // Instruction that defines each value of the function being optimized, and its block
+    private IrInstruction[] defs;
+    private BasicBlock[] definedIn;
+
+    @Override
+    public String getName()
+    {
+        return "loop-invariant code motion";
+    }
+
+    @Override
+    public boolean run(IrProgram program)
+    {
+        findWrites(program);
+        boolean changed = false;
+        for (IrFunction f : program.getFunctions())
+        {
+            changed |= runOnFunction(f);
+        }
+        writes = null;
+        defs = null;
+        definedIn = null;
+        return changed;
+    }
+
+    /**
+     * Finds the globals that each function can write, following calls until the sets
+     * stop growing, since procedures may be recursive.
+     * @param program       Given IrProgram
+     */
+    private void findWrites(IrProgram program)
+    {
+        writes = new HashMap<String, Set<Integer>>();
+        Map<String, Set<String>> callees = new HashMap<String, Set<String>>();
+        for (IrFunction f : program.getFunctions())
+        {
+            Set<Integer> slots = new HashSet<Integer>();
+            Set<String> called = new HashSet<String>();
+            for (BasicBlock b : f.getBlocks())
+            {
+                for (IrInstruction instr : b.getInstructions())
+                {
+                    if (instr.getOp() == IrInstruction.STORE_GLOBAL)
+                    {
+                        slots.add(instr.getConstant());
+                    }
+                    else if (instr.getOp() == IrInstruction.CALL)
+                    {
+                        called.add(instr.getCallee());
+                    }
+                }
+            }
+            writes.put(f.getName(), slots);
+            callees.put(f.getName(), called);
+        }
+        boolean grew = true;
+        while (grew)
+        {
+            grew = false;
+            for (Map.Entry<String, Set<String>> entry : callees.entrySet())
+            {
+                Set<Integer> slots = writes.get(entry.getKey());
+                for (String callee : entry.getValue())
+                {
+                    Set<Integer> more = writes.get(callee);
+                    if (more != null)
+                    {
+                        grew |= slots.addAll(more);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the invariant instructions out of every loop of the given function.
+     * @param f             IrFunction in SSA form
+     * @return              True if any instruction moved
+     */
+    private boolean runOnFunction(IrFunction f)
+    {
+        DominatorTree dom = new DominatorTree(f);
+        Map<BasicBlock, Set<BasicBlock>> loops = findLoops(f, dom);
+        if (loops.isEmpty())
+        {
+            return false;
+        }
+        defs = f.getDefinitions();
+        definedIn = new BasicBlock[f.getValueCount()];
+        for (BasicBlock b : f.getBlocks())
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                if (instr.getDest() >= 0)
+                {
+                    definedIn[instr.getDest()] = b;
+                }
+            }
+        }
+        List<BasicBlock> order = f.getReversePostorder();
+        List<BasicBlock> headers = new ArrayList<BasicBlock>(loops.keySet());
+        headers.sort(Comparator.comparingInt(h -> loops.get(h).size()));
+        boolean changed = false;
+        for (BasicBlock header : headers)
+        {
+            changed |= hoist(f, header, loops, order);
+        }
+        return changed;
+    }
+
+    /**
+     * Finds the natural loops of a function: for every back edge, the blocks that can
+     * reach its source without going through its target, the header of the loop.
+     * @param f             Given IrFunction
+     * @param dom           DominatorTree of the function
+     * @return              Map from the header of each loop to the blocks of the loop
+     */
+    private static Map<BasicBlock, Set<BasicBlock>> findLoops(IrFunction f, DominatorTree dom)
+    {
+        Map<BasicBlock, Set<BasicBlock>> loops = new LinkedHashMap<BasicBlock, Set<BasicBlock>>();
+        for (BasicBlock b : f.getBlocks())
+        {
+            for (BasicBlock header : b.getSuccessors())
+            {
+                if (!dom.dominates(header, b))
+                {
+                    continue;
+                }
+                Set<BasicBlock> body = loops.get(header);
+                if (body == null)
+                {
+                    body = new HashSet<BasicBlock>();
+                    body.add(header);
+                    loops.put(header, body);
+                }
+                Deque<BasicBlock> work = new ArrayDeque<BasicBlock>();
+                if (body.add(b))
+                {
+                    work.push(b);
+                }
+                while (!work.isEmpty())
+                {
+                    for (BasicBlock pred : work.pop().getPredecessors())
+                    {
+                        if (body.add(pred))
+                        {
+                            work.push(pred);
+                        }
+                    }
+                }
+            }
+        }
+        return loops;
+    }
+
+    /**
+     * Moves the invariant instructions of one loop into its preheader. The preheader is
+     * the only block outside the loop that jumps to the header, if there is one that
+     * only goes to the header; otherwise a new block is put on the edge from the outside
+     * block, and added to the loops around this one. Loops entered from several blocks
+     * outside them are left alone.
+     * @param f             IrFunction of the loop
+     * @param header        Header of the loop
+     * @param loops         Blocks of every loop of the function, by header
+     * @param order         Blocks of the function in reverse postorder
+     * @return              True if any instruction moved
+     */
+    private boolean hoist(IrFunction f, BasicBlock header, Map<BasicBlock, Set<BasicBlock>> loops,
+        List<BasicBlock> order)
+    {
+        Set<BasicBlock> body = loops.get(header);
+        BasicBlock outside = null;
+        for (BasicBlock pred : header.getPredecessors())
+        {
+            if (!body.contains(pred))
+            {
+                if (outside != null)
+                {
+                    return false;
+                }
+                outside = pred;
+            }
+        }
+        if (outside == null)
+        {
+            return false;
+        }
+
+        Set<Integer> written = new HashSet<Integer>();
+        for (BasicBlock b : body)
+        {
+            for (IrInstruction instr : b.getInstructions())
+            {
+                if (instr.getOp() == IrInstruction.STORE_GLOBAL)
+                {
+                    written.add(instr.getConstant());
+                }
+                else if (instr.getOp() == IrInstruction.CALL)
+                {
+                    written.addAll(writes.get(instr.getCallee()));
+                }
+            }
+        }
+
+        List<IrInstruction> moved = new ArrayList<IrInstruction>();
+        for (BasicBlock b : order)
+        {
+            if (!body.contains(b))
+            {
+                continue;
+            }
+            List<IrInstruction> code = b.getInstructions();
+            for (int i = 0; i < code.size(); i++)
+            {
+                IrInstruction instr = code.get(i);
+                if (isInvariant(instr, body, written))
+                {
+                    code.remove(i--);
+                    moved.add(instr);
+                    definedIn[instr.getDest()] = outside;
+                }
+            }
+        }
+        if (moved.isEmpty())
+        {
+            return false;
+        }
+
+        BasicBlock preheader = outside;
+        if (outside.getSuccessors().size() > 1)
+        {
+            preheader = f.splitEdge(outside, header);
+            order.add(order.indexOf(header), preheader);
+            for (Set<BasicBlock> other : loops.values())
+            {
+                if (other.contains(outside))
+                {
+                    other.add(preheader);
+                }
+            }
+        }
+        List<IrInstruction> code = preheader.getInstructions();
+        code.addAll(code.size() - 1, moved);
+        for (IrInstruction instr : moved)
+        {
+            definedIn[instr.getDest()] = preheader;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether an instruction of a loop can move to the loop's preheader. The
+     * instructions already chosen to move count as defined outside the loop.
+     * @param instr         Instruction of the loop
+     * @param body          Blocks of the loop
+     * @param written       Slots of the globals that the loop can write
+     * @return              True if the instruction is invariant and safe to move
+     */
+    private boolean isInvariant(IrInstruction instr, Set<BasicBlock> body, Set<Integer> written)
+    {
+        int[] args = instr.getArgs();
+        switch (instr.getOp())
+        {
+            case IrInstruction.CONST:
+            case IrInstruction.COPY:
+            case IrInstruction.ADD:
+            case IrInstruction.SUB:
+            case IrInstruction.MUL:
+                break;
+            case IrInstruction.DIV:
+            case IrInstruction.MOD:
+                Integer c = ConstantFolding.getConstant(defs[args[1]]);
+                if (c == null || c == 0)
+                {
+                    return false;
+                }
+                break;
+            case IrInstruction.LOAD_GLOBAL:
+                return !written.contains(instr.getConstant());
+            default:
+                return false;
+        }
+        for (int arg : args)
+        {
+            if (body.contains(definedIn[arg]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,983 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import bytecode.Opcode;
+import codegen.Emitter;
+import codegen.StrengthReduction;
+
+/**
+ * MipsSelector class that translates an IrProgram into MIPS Assembly through an Emitter.
+ * Each IrFunction is translated in four steps:
+ * - The IR is taken out of SSA form: critical edges into blocks with PHIs are split,
+ *   and every predecessor copies the PHIs' args into their values right before its
+ *   terminator.
+ * - The blocks are numbered in order, and the live interval of every value is found by
+ *   walking back from each of its reads to its definitions.
+ * - Registers are assigned to the intervals with linear scan. Values that are live across
+ *   a call get $s0-$s7 (which a procedure saves when it uses them); the others may also
+ *   use $t2-$t9. When the registers run out, the interval that ends last is spilled to a
+ *   slot of the frame. Constants are never given a register; they become immediate
+ *   operands or are loaded right where they are read.
+ * - The instructions are selected in block order, with $t0 and $t1 as scratch registers
+ *   ($v0 as well for multiplications, divisions, and remainders by constants).
+ * Arguments are passed on the stack (the last one on top), the result is returned in $v0,
+ * and every function addresses its frame from $fp, which points at the arguments:
+ * -4($fp) holds $ra, -8($fp) holds the caller's $fp, and the saved registers and spill
+ * slots come below them. main only keeps spill slots in its frame. The IrProgram is no
+ * longer in SSA form after it is translated.
+ *
+ * Usage:
+ * MipsSelector s = new MipsSelector(<Emitter>);
+ * s.select(<IrProgram>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class MipsSelector
+{
+    // Caller-saved registers that values may use ($t0 and $t1 are scratch registers)
+    private static final String[] TEMPORARY = {"$t2", "$t3", "$t4", "$t5", "$t6", "$t7",
+        "$t8", "$t9"};
+
+    // Callee-saved registers, which keep their values across calls
+    private static final String[] SAVED = {"$s0", "$s1", "$s2", "$s3", "$s4", "$s5", "$s6",
+        "$s7"};
+
+    // Branches taken when a comparison with zero holds, indexed by Opcode minus IF_EQ
+    private static final String[] ZERO_BRANCHES = {"beqz", "bnez", "bltz", "bgtz", "blez", "bgez"};
+
+    // Branches taken when a comparison holds, indexed by Opcode minus IF_EQ
+    private static final String[] BRANCHES = {"beq", "bne", "blt", "bgt", "ble", "bge"};
+
+    // Emitter that the code is emitted to
+    private Emitter e;
+
+    // Names of the global variables, indexed by slot
+    private String[] globalNames;
+
+    // Function being translated
+    private IrFunction f;
+
+    // Instruction that defines each value (for a value with several, any of them)
+    private IrInstruction[] defs;
+
+    // Instructions of the function in layout order, and the block of each one
+    private List<IrInstruction> code;
+    private int[] blockOf;
+
+    // Position of each block, and of the first and last instruction of each block
+    private Map<BasicBlock, Integer> blockIndex;
+    private int[] blockStart;
+    private int[] blockEnd;
+
+    // Live interval of each value (start is -1 if the value has none)
+    private int[] start;
+    private int[] end;
+
+    // Register of each value, or null if it is a constant or spilled
+    private String[] register;
+
+    // $fp offset of each spilled value
+    private int[] offset;
+
+    // Callee-saved registers that the function uses, in order
+    private List<String> saved;
+
+    // Whether the function makes no calls, so it does not save $ra
+    private boolean leaf;
+
+    // Number of bytes between $fp and the bottom of the frame
+    private int frameSize;
+
+    // Label of each block
+    private Map<BasicBlock, String> labels;
+
+    /**
+     * Creates a new MipsSelector that emits to the given Emitter.
+     * @param e             Emitter that will print the emitted statements
+     */
+    public MipsSelector(Emitter e)
+    {
+        this.e = e;
+    }
+
+    /**
+     * Translates the given program: declares every global with ".data", then emits
+     * main and then every procedure. The Emitter is not closed.
+     * @param program       IrProgram in SSA form
+     */
+    public void select(IrProgram program)
+    {
+        globalNames = program.getGlobalNames();
+        e.emit(".data");
+        for (String name : globalNames)
+        {
+            e.emit("var" + name + ":\t.word\t0");
+        }
+        e.emit(".text");
+        e.emit(".globl main");
+        for (IrFunction func : program.getFunctions())
+        {
+            selectFunction(func);
+        }
+    }
+
+    /**
+     * Translates one function.
+     * @param func          IrFunction in SSA form
+     */
+    private void selectFunction(IrFunction func)
+    {
+        f = func;
+        leaveSsa();
+        defs = f.getDefinitions();
+        numberInstructions();
+        findIntervals();
+        allocate();
+
+        labels = new HashMap<BasicBlock, String>();
+        for (BasicBlock b : f.getBlocks())
+        {
+            labels.put(b, "block" + e.nextLabelID());
+        }
+        emitPrologue();
+        List<BasicBlock> blocks = f.getBlocks();
+        for (int i = 0; i < blocks.size(); i++)
+        {
+            BasicBlock b = blocks.get(i);
+            BasicBlock next = i + 1 < blocks.size() ? blocks.get(i + 1) : null;
+            if (i > 0)
+            {
+                e.emit(labels.get(b) + ":");
+            }
+            for (IrInstruction instr : b.getInstructions())
+            {
+                selectInstruction(b, instr, next);
+            }
+        }
+    }
+
+    /**
+     * Takes the function out of SSA form. Every edge from a block with several successors
+     * into a block with PHIs is split with a new block, so that the copies for the edge
+     * cannot change values that the other successors read. Then each predecessor copies
+     * the args of the PHIs into their values right before its terminator, and the PHIs
+     * are removed.
+     */
+    private void leaveSsa()
+    {
+        List<BasicBlock> blocks = f.getBlocks();
+        for (int i = 0; i < blocks.size(); i++)
+        {
+            BasicBlock b = blocks.get(i);
+            if (b.getInstructions().get(0).getOp() != IrInstruction.PHI)
+            {
+                continue;
+            }
+            for (BasicBlock pred : new ArrayList<BasicBlock>(b.getPredecessors()))
+            {
+                if (pred.getSuccessors().size() > 1)
+                {
+                    f.splitEdge(pred, b);
+                }
+            }
+        }
+        for (BasicBlock b : f.getBlocks())
+        {
+            List<IrInstruction> phis = new ArrayList<IrInstruction>();
+            for (IrInstruction instr : b.getInstructions())
+            {
+                if (instr.getOp() != IrInstruction.PHI)
+                {
+                    break;
+                }
+                phis.add(instr);
+            }
+            if (phis.isEmpty())
+            {
+                continue;
+            }
+            for (int j = 0; j < b.getPredecessors().size(); j++)
+            {
+                List<int[]> copies = new ArrayList<int[]>();
+                for (IrInstruction phi : phis)
+                {
+                    copies.add(new int[] {phi.getDest(), phi.getArgs()[j]});
+                }
+                List<IrInstruction> pred = b.getPredecessors().get(j).getInstructions();
+                pred.addAll(pred.size() - 1, sequentialize(copies));
+            }
+            b.getInstructions().subList(0, phis.size()).clear();
+        }
+    }
+
+    /**
+     * Orders a set of copies that all happen at once so that no copy overwrites a value
+     * that a later copy reads. A copy is made once no other copy still reads its
+     * destination; when only cycles are left, one destination is first saved in a new
+     * value, which the copies that read it read instead.
+     * @param copies        Pairs of a destination and a source value
+     * @return              COPY instructions that have the same effect, in order
+     */
+    private List<IrInstruction> sequentialize(List<int[]> copies)
+    {
+        List<IrInstruction> out = new ArrayList<IrInstruction>();
+        List<int[]> pending = new ArrayList<int[]>();
+        for (int[] copy : copies)
+        {
+            if (copy[0] != copy[1])
+            {
+                pending.add(copy);
+            }
+        }
+        while (!pending.isEmpty())
+        {
+            int[] ready = null;
+            for (int[] copy : pending)
+            {
+                boolean read = false;
+                for (int[] other : pending)
+                {
+                    read |= other != copy && other[1] == copy[0];
+                }
+                if (!read)
+                {
+                    ready = copy;
+                    break;
+                }
+            }
+            if (ready == null)
+            {
+                int saved = f.newValue();
+                int dest = pending.get(0)[0];
+                out.add(new IrInstruction(IrInstruction.COPY, saved, new int[] {dest}));
+                for (int[] copy : pending)
+                {
+                    if (copy[1] == dest)
+                    {
+                        copy[1] = saved;
+                    }
+                }
+                continue;
+            }
+            out.add(new IrInstruction(IrInstruction.COPY, ready[0], new int[] {ready[1]}));
+            pending.remove(ready);
+        }
+        return out;
+    }
+
+    /**
+     * Numbers the instructions of the function in layout order and records where each
+     * block starts and ends.
+     */
+    private void numberInstructions()
+    {
+        code = new ArrayList<IrInstruction>();
+        List<BasicBlock> blocks = f.getBlocks();
+        blockIndex = new HashMap<BasicBlock, Integer>();
+        blockStart = new int[blocks.size()];
+        blockEnd = new int[blocks.size()];
+        List<Integer> owner = new ArrayList<Integer>();
+        for (int i = 0; i < blocks.size(); i++)
+        {
+            blockIndex.put(blocks.get(i), i);
+            blockStart[i] = code.size();
+            code.addAll(blocks.get(i).getInstructions());
+            blockEnd[i] = code.size() - 1;
+            for (int k = blockStart[i]; k <= blockEnd[i]; k++)
+            {
+                owner.add(i);
+            }
+        }
+        blockOf = new int[code.size()];
+        for (int p = 0; p < blockOf.length; p++)
+        {
+            blockOf[p] = owner.get(p);
+        }
+    }
+
+    /**
+     * Finds the live interval of every value: from its first definition or the start of
+     * the first block it is live into, to its last read or the end of the last block it
+     * is live out of. A read that no earlier definition in its block reaches makes the
+     * value live into the block, and then out of every predecessor and, unless the
+     * predecessor defines it, into the predecessor as well.
+     */
+    private void findIntervals()
+    {
+        int n = f.getValueCount();
+        start = new int[n];
+        end = new int[n];
+        Arrays.fill(start, -1);
+        int[] lastDef = new int[n];
+        Arrays.fill(lastDef, -1);
+        Map<Integer, List<Integer>> defBlocks = new HashMap<Integer, List<Integer>>();
+        List<int[]> exposed = new ArrayList<int[]>();
+        for (int p = 0; p < code.size(); p++)
+        {
+            IrInstruction instr = code.get(p);
+            for (int v : instr.getArgs())
+            {
+                extend(v, p);
+                if (lastDef[v] < blockStart[blockOf[p]])
+                {
+                    exposed.add(new int[] {v, blockOf[p]});
+                }
+            }
+            int d = instr.getDest();
+            if (d >= 0)
+            {
+                extend(d, p);
+                lastDef[d] = p;
+                List<Integer> in = defBlocks.get(d);
+                if (in == null)
+                {
+                    in = new ArrayList<Integer>();
+                    defBlocks.put(d, in);
+                }
+                in.add(blockOf[p]);
+            }
+        }
+
+        exposed.sort((a, b) -> a[0] - b[0]);
+        int[] seen = new int[blockStart.length];
+        Deque<Integer> work = new ArrayDeque<Integer>();
+        for (int[] use : exposed)
+        {
+            int v = use[0];
+            List<Integer> definedIn = defBlocks.get(v);
+            if (seen[use[1]] == v + 1)
+            {
+                continue;
+            }
+            seen[use[1]] = v + 1;
+            work.push(use[1]);
+            while (!work.isEmpty())
+            {
+                int b = work.pop();
+                extend(v, blockStart[b]);
+                for (BasicBlock pred : f.getBlocks().get(b).getPredecessors())
+                {
+                    int p = blockIndex.get(pred);
+                    extend(v, blockEnd[p]);
+                    if (seen[p] != v + 1 && (definedIn == null || !definedIn.contains(p)))
+                    {
+                        seen[p] = v + 1;
+                        work.push(p);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Extends the live interval of a value to include the given position.
+     * @param v             Given value
+     * @param p             Position of an instruction
+     */
+    private void extend(int v, int p)
+    {
+        if (start[v] < 0 || p < start[v])
+        {
+            start[v] = p;
+        }
+        end[v] = Math.max(end[v], p);
+    }
+
+    /**
+     * Assigns a register or a spill slot to every value that has a live interval and
+     * is not a constant, with linear scan in order of the start of the intervals. It
+     * also lays out the frame. A spilled parameter stays in its argument slot.
+     */
+    private void allocate()
+    {
+        int n = f.getValueCount();
+        List<Integer> calls = new ArrayList<Integer>();
+        for (int p = 0; p < code.size(); p++)
+        {
+            if (code.get(p).getOp() == IrInstruction.CALL)
+            {
+                calls.add(p);
+            }
+        }
+        leaf = calls.isEmpty();
+
+        List<Integer> order = new ArrayList<Integer>();
+        boolean[] crossesCall = new boolean[n];
+        for (int v = 0; v < n; v++)
+        {
+            if (start[v] >= 0 && !isConstant(v))
+            {
+                order.add(v);
+                int k = firstAfter(calls, start[v]);
+                crossesCall[v] = k < calls.size() && calls.get(k) < end[v];
+            }
+        }
+        order.sort((a, b) -> start[a] - start[b]);
+
+        register = new String[n];
+        boolean[] spilled = new boolean[n];
+        PriorityQueue<Integer> active = new PriorityQueue<Integer>((a, b) -> end[a] - end[b]);
+        Map<String, Integer> owner = new HashMap<String, Integer>();
+        boolean[] usedSaved = new boolean[SAVED.length];
+        for (int v : order)
+        {
+            while (!active.isEmpty() && end[active.peek()] < start[v])
+            {
+                owner.remove(register[active.poll()]);
+            }
+            String free = crossesCall[v] ? null : firstFree(TEMPORARY, owner);
+            if (free == null)
+            {
+                free = firstFree(SAVED, owner);
+            }
+            if (free == null)
+            {
+                int victim = -1;
+                for (int a : active)
+                {
+                    boolean usable = !crossesCall[v] || register[a].startsWith("$s");
+                    if (usable && (victim < 0 || end[a] > end[victim]))
+                    {
+                        victim = a;
+                    }
+                }
+                if (victim >= 0 && end[victim] > end[v])
+                {
+                    free = register[victim];
+                    register[victim] = null;
+                    spilled[victim] = true;
+                    active.remove(victim);
+                }
+                else
+                {
+                    spilled[v] = true;
+                }
+            }
+            if (free != null)
+            {
+                register[v] = free;
+                owner.put(free, v);
+                active.add(v);
+                if (free.startsWith("$s"))
+                {
+                    usedSaved[free.charAt(2) - '0'] = true;
+                }
+            }
+        }
+
+        saved = new ArrayList<String>();
+        for (int i = 0; i < SAVED.length; i++)
+        {
+            if (usedSaved[i] && f.getName() != null)
+            {
+                saved.add(SAVED[i]);
+            }
+        }
+        frameSize = f.getName() == null ? 0 : 8 + 4 * saved.size();
+        offset = new int[n];
+        for (int v = 0; v < n; v++)
+        {
+            if (!spilled[v])
+            {
+                continue;
+            }
+            if (defs[v] != null && defs[v].getOp() == IrInstruction.PARAM)
+            {
+                offset[v] = getParmOffset(defs[v].getConstant());
+            }
+            else
+            {
+                frameSize += 4;
+                offset[v] = -frameSize;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first call position after the given position.
+     * @param calls         Positions of the calls, in order
+     * @param p             Given position
+     * @return              Index of the first call after p, or calls.size() if none
+     */
+    private static int firstAfter(List<Integer> calls, int p)
+    {
+        int lo = 0;
+        int hi = calls.size();
+        while (lo < hi)
+        {
+            int mid = (lo + hi) / 2;
+            if (calls.get(mid) <= p)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first register of the given pool that no active interval owns.
+     * @param pool          Registers to choose from
+     * @param owner         Registers owned by the active intervals
+     * @return              A free register, or null if every register is owned
+     */
+    private static String firstFree(String[] pool, Map<String, Integer> owner)
+    {
+        for (String reg : pool)
+        {
+            if (!owner.containsKey(reg))
+            {
+                return reg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the given value is defined by a CONST.
+     * @param v             Given value
+     * @return              True if the value is a constant
+     */
+    private boolean isConstant(int v)
+    {
+        return defs[v] != null && defs[v].getOp() == IrInstruction.CONST;
+    }
+
+    /**
+     * Returns the $fp offset of the argument of the parameter with the given index.
+     * @param index         Index of the parameter
+     * @return              Offset of its argument slot
+     */
+    private int getParmOffset(int index)
+    {
+        return 4 * (f.getParmCount() - 1 - index);
+    }
+
+    /**
+     * Emits the label of the function and sets up its frame: saves $ra (unless the
+     * function is a leaf), the caller's $fp, and the callee-saved registers it uses.
+     */
+    private void emitPrologue()
+    {
+        if (f.getName() == null)
+        {
+            e.emit("main:");
+            e.emit("move $fp $sp");
+        }
+        else
+        {
+            e.emit("proc" + f.getName() + ":");
+            if (!leaf)
+            {
+                e.emit("sw $ra -4($sp)");
+            }
+            e.emit("sw $fp -8($sp)");
+            e.emit("move $fp $sp");
+        }
+        if (frameSize > 0)
+        {
+            e.emit("subu $sp $sp " + frameSize);
+        }
+        for (int i = 0; i < saved.size(); i++)
+        {
+            e.emit("sw " + saved.get(i) + " " + (-12 - 4 * i) + "($fp)");
+        }
+    }
+
+    /**
+     * Returns a register that holds the given value, loading it into the given scratch
+     * register if it is a constant or spilled. The constant 0 is read from $zero.
+     * @param v             Given value
+     * @param scratch       Scratch register to load the value into if needed
+     * @return              Name of a register that holds the value
+     */
+    private String read(int v, String scratch)
+    {
+        if (isConstant(v))
+        {
+            int value = defs[v].getConstant();
+            if (value == 0)
+            {
+                return "$zero";
+            }
+            e.emit("li " + scratch + " " + value);
+            return scratch;
+        }
+        if (register[v] != null)
+        {
+            return register[v];
+        }
+        e.emit("lw " + scratch + " " + offset[v] + "($fp)");
+        return scratch;
+    }
+
+    /**
+     * Returns the register that an instruction should define the given value in: its
+     * own register, or $t0 if it is spilled.
+     * @param v             Given value
+     * @return              Name of the register to define the value in
+     */
+    private String target(int v)
+    {
+        return register[v] != null ? register[v] : "$t0";
+    }
+
+    /**
+     * Stores the given value to its spill slot after it was defined in $t0, if it is
+     * spilled.
+     * @param v             Given value
+     */
+    private void finish(int v)
+    {
+        if (register[v] == null && start[v] >= 0)
+        {
+            e.emit("sw $t0 " + offset[v] + "($fp)");
+        }
+    }
+
+    /**
+     * Emits the MIPS Assembly of one instruction.
+     * @param b             Block of the instruction
+     * @param instr         Given instruction
+     * @param next          Block laid out right after b, or null if b is the last one
+     */
+    private void selectInstruction(BasicBlock b, IrInstruction instr, BasicBlock next)
+    {
+        int op = instr.getOp();
+        int d = instr.getDest();
+        int[] args = instr.getArgs();
+        switch (op)
+        {
+            case IrInstruction.CONST:
+                break;
+            case IrInstruction.PARAM:
+                if (register[d] != null)
+                {
+                    e.emit("lw " + register[d] + " " + getParmOffset(instr.getConstant())
+                        + "($fp)");
+                }
+                break;
+            case IrInstruction.COPY:
+                selectCopy(d, args[0]);
+                break;
+            case IrInstruction.ADD:
+            case IrInstruction.SUB:
+            case IrInstruction.MUL:
+            case IrInstruction.DIV:
+            case IrInstruction.MOD:
+                selectArithmetic(op, d, args[0], args[1]);
+                break;
+            case IrInstruction.LOAD_GLOBAL:
+                e.emit("lw " + target(d) + " var" + globalNames[instr.getConstant()]);
+                finish(d);
+                break;
+            case IrInstruction.STORE_GLOBAL:
+                e.emit("sw " + read(args[0], "$t0") + " var" + globalNames[instr.getConstant()]);
+                break;
+            case IrInstruction.CALL:
+                selectCall(instr);
+                break;
+            case IrInstruction.PRINT:
+                e.emit(isConstant(args[0]) ? "li $a0 " + defs[args[0]].getConstant()
+                    : "move $a0 " + read(args[0], "$t0"));
+                e.emit("li $v0 1");
+                e.emit("syscall");
+                e.emit("li $v0 11");
+                e.emit("li $a0 10");
+                e.emit("syscall");
+                break;
+            case IrInstruction.READ:
+                e.emit("li $v0 5");
+                e.emit("syscall");
+                selectResult(d);
+                break;
+            case IrInstruction.JUMP:
+                if (b.getSuccessors().get(0) != next)
+                {
+                    e.emit("j " + labels.get(b.getSuccessors().get(0)));
+                }
+                break;
+            case IrInstruction.BRANCH:
+                selectBranch(b, instr, next);
+                break;
+            case IrInstruction.RET:
+                e.emit(isConstant(args[0]) ? "li $v0 " + defs[args[0]].getConstant()
+                    : "move $v0 " + read(args[0], "$t0"));
+                emitEpilogue();
+                break;
+            default:
+                e.emit("li $v0,  10	# Normal termination");
+                e.emit("syscall");
+                break;
+        }
+    }
+
+    /**
+     * Emits a copy of one value into another.
+     * @param d             Value defined by the copy
+     * @param a             Value copied
+     */
+    private void selectCopy(int d, int a)
+    {
+        if (register[d] != null && isConstant(a))
+        {
+            e.emit("li " + register[d] + " " + defs[a].getConstant());
+            return;
+        }
+        if (register[d] != null && register[a] == null)
+        {
+            e.emit("lw " + register[d] + " " + offset[a] + "($fp)");
+            return;
+        }
+        String source = read(a, "$t0");
+        if (register[d] == null)
+        {
+            if (start[d] >= 0)
+            {
+                e.emit("sw " + source + " " + offset[d] + "($fp)");
+            }
+        }
+        else if (!register[d].equals(source))
+        {
+            e.emit("move " + register[d] + " " + source);
+        }
+    }
+
+    /**
+     * Emits an arithmetic instruction. Additions and subtractions of small constants use
+     * addiu, and multiplications, divisions, and remainders by a constant go through $v0
+     * with the shifts and magic numbers of StrengthReduction.
+     * @param op            Opcode from IrInstruction.ADD to IrInstruction.MOD
+     * @param d             Value defined by the instruction
+     * @param a             First operand
+     * @param b             Second operand
+     */
+    private void selectArithmetic(int op, int d, int a, int b)
+    {
+        if ((op == IrInstruction.ADD || op == IrInstruction.MUL) && isConstant(a)
+            && !isConstant(b))
+        {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        if (isConstant(b) && (op == IrInstruction.ADD || op == IrInstruction.SUB))
+        {
+            long value = op == IrInstruction.ADD ? defs[b].getConstant()
+                : -(long) defs[b].getConstant();
+            if (Emitter.isImmediate(value))
+            {
+                String left = read(a, "$t0");
+                e.emit("addiu " + target(d) + " " + left + " " + value);
+                finish(d);
+                return;
+            }
+        }
+        if (isConstant(b) && op != IrInstruction.ADD && op != IrInstruction.SUB)
+        {
+            String left = read(a, "$v0");
+            if (!left.equals("$v0"))
+            {
+                e.emit("move $v0 " + left);
+            }
+            int value = defs[b].getConstant();
+            if (op == IrInstruction.MUL)
+            {
+                StrengthReduction.emitMultiply(e, value);
+            }
+            else if (op == IrInstruction.DIV)
+            {
+                StrengthReduction.emitDivide(e, value);
+            }
+            else
+            {
+                StrengthReduction.emitRemainder(e, value);
+            }
+            selectResult(d);
+            return;
+        }
+        String left = read(a, "$t0");
+        String right = read(b, "$t1");
+        String dest = target(d);
+        if (op == IrInstruction.ADD)
+        {
+            e.emit("addu " + dest + " " + left + " " + right);
+        }
+        else if (op == IrInstruction.SUB)
+        {
+            e.emit("subu " + dest + " " + left + " " + right);
+        }
+        else if (op == IrInstruction.MUL)
+        {
+            e.emit("mul " + dest + " " + left + " " + right);
+        }
+        else
+        {
+            e.emit("div " + left + " " + right);
+            e.emit((op == IrInstruction.DIV ? "mflo " : "mfhi ") + dest);
+        }
+        finish(d);
+    }
+
+    /**
+     * Emits a call: pushes the arguments (the last one on top), jumps to the procedure,
+     * pops the arguments, and moves the result out of $v0.
+     * @param instr         CALL instruction
+     */
+    private void selectCall(IrInstruction instr)
+    {
+        int[] args = instr.getArgs();
+        if (args.length > 0)
+        {
+            e.emit("subu $sp $sp " + 4 * args.length);
+            for (int i = 0; i < args.length; i++)
+            {
+                e.emit("sw " + read(args[i], "$t0") + " " + 4 * (args.length - 1 - i) + "($sp)");
+            }
+        }
+        e.emit("jal proc" + instr.getCallee());
+        if (args.length > 0)
+        {
+            e.emit("addu $sp $sp " + 4 * args.length);
+        }
+        selectResult(instr.getDest());
+    }
+
+    /**
+     * Moves a result from $v0 into the value it defines.
+     * @param d             Value defined by the result
+     */
+    private void selectResult(int d)
+    {
+        if (register[d] != null)
+        {
+            e.emit("move " + register[d] + " $v0");
+        }
+        else if (start[d] >= 0)
+        {
+            e.emit("sw $v0 " + offset[d] + "($fp)");
+        }
+    }
+
+    /**
+     * Emits a conditional branch. If the block it jumps to when the comparison holds is
+     * laid out next, the comparison is negated so that it falls through instead.
+     * Comparisons with 0 use the branches that compare with zero.
+     * @param b             Block that the BRANCH ends
+     * @param instr         BRANCH instruction
+     * @param next          Block laid out right after b, or null if b is the last one
+     */
+    private void selectBranch(BasicBlock b, IrInstruction instr, BasicBlock next)
+    {
+        BasicBlock taken = b.getSuccessors().get(0);
+        BasicBlock other = b.getSuccessors().get(1);
+        int relop = instr.getConstant();
+        if (taken == next)
+        {
+            relop = negate(relop);
+            taken = other;
+            other = next;
+        }
+        int x = instr.getArgs()[0];
+        int y = instr.getArgs()[1];
+        if (isConstant(x) && defs[x].getConstant() == 0)
+        {
+            int swap = x;
+            x = y;
+            y = swap;
+            relop = swap(relop);
+        }
+        String label = labels.get(taken);
+        if (isConstant(y) && defs[y].getConstant() == 0)
+        {
+            e.emit(ZERO_BRANCHES[relop - Opcode.IF_EQ] + " " + read(x, "$t0") + " " + label);
+        }
+        else
+        {
+            String left = read(x, "$t0");
+            String right = read(y, "$t1");
+            e.emit(BRANCHES[relop - Opcode.IF_EQ] + " " + left + " " + right + " " + label);
+        }
+        if (other != next)
+        {
+            e.emit("j " + labels.get(other));
+        }
+    }
+
+    /**
+     * Returns the comparison that holds exactly when the given one does not.
+     * @param relop         Opcode.IF_EQ to Opcode.IF_GE
+     * @return              The negated comparison
+     */
+    private static int negate(int relop)
+    {
+        switch (relop)
+        {
+            case Opcode.IF_EQ:
+                return Opcode.IF_NE;
+            case Opcode.IF_NE:
+                return Opcode.IF_EQ;
+            case Opcode.IF_LT:
+                return Opcode.IF_GE;
+            case Opcode.IF_GT:
+                return Opcode.IF_LE;
+            case Opcode.IF_LE:
+                return Opcode.IF_GT;
+            default:
+                return Opcode.IF_LT;
+        }
+    }
+
+    /**
+     * Returns the comparison that holds for (b, a) exactly when the given one holds
+     * for (a, b).
+     * @param relop         Opcode.IF_EQ to Opcode.IF_GE
+     * @return              The comparison with its operands swapped
+     */
+    private static int swap(int relop)
+    {
+        switch (relop)
+        {
+            case Opcode.IF_LT:
+                return Opcode.IF_GT;
+            case Opcode.IF_GT:
+                return Opcode.IF_LT;
+            case Opcode.IF_LE:
+                return Opcode.IF_GE;
+            case Opcode.IF_GE:
+                return Opcode.IF_LE;
+            default:
+                return relop;
+        }
+    }
+
+    /**
+     * Restores the callee-saved registers, $ra, $sp, and the caller's $fp, and returns.
+     */
+    private void emitEpilogue()
+    {
+        for (int i = 0; i < saved.size(); i++)
+        {
+            e.emit("lw " + saved.get(i) + " " + (-12 - 4 * i) + "($fp)");
+        }
+        if (!leaf)
+        {
+            e.emit("lw $ra -4($fp)");
+        }
+        e.emit("move $sp $fp");
+        e.emit("lw $fp -8($sp)");
+        e.emit("jr $ra");
+    }
+}
@@ -0,0 +1,31 @@
+package ir;
+
+/**
+ * Pass interface for the optimizations that a PassManager runs over an IrProgram. A pass
+ * may change the IR in any way that keeps it in SSA form and keeps the meaning of the
+ * program, and reports whether it changed anything so that the PassManager can tell when
+ * the IR has stopped improving.
+ *
+ * Usage:
+ * Pass p = new DeadCodeElimination();
+ * String name = p.getName();
+ * boolean changed = p.run(<IrProgram>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public interface Pass
+{
+    /**
+     * Returns the name of the pass, which is shown in the IR dumps.
+     * @return              The name of the pass
+     */
+    String getName();
+
+    /**
+     * Runs the pass over the given program.
+     * @param program       IrProgram in SSA form
+     * @return              True if the pass changed the IR
+     */
+    boolean run(IrProgram program);
+}
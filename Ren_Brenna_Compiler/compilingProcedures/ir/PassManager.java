@@ -0,0 +1,140 @@
+package ir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PassManager class that runs a list of Passes over an IrProgram, in order, and repeats
+ * the whole list until no pass changes the IR or the round limit is reached. When a dump
+ * target is set, the IR is dumped to it before the first pass and after every pass that
+ * changed it, under a header naming the pass, which shows what each pass did.
+ *
+ * Usage:
+ * PassManager m = new PassManager();
+ * PassManager m = PassManager.standard();
+ * m.add(<Pass>);
+ * m.setMaxRounds(4);
+ * m.setDump(<Appendable such as System.out, or null for no dumps>);
+ * m.run(<IrProgram>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class PassManager
+{
+    // Passes to run, in order
+    private List<Pass> passes;
+
+    // Largest number of times the list of passes is run
+    private int maxRounds;
+
+    // Target of the IR dumps (null for no dumps)
+    private Appendable dump;
+
+    /**
+     * Creates a new PassManager with no passes that runs its passes up to 8 times.
+     */
+    public PassManager()
+    {
+        passes = new ArrayList<Pass>();
+        maxRounds = 8;
+    }
+
+    /**
+     * Creates a new PassManager with the standard optimizations: tail recursion
+     * elimination, inlining, conditional constant propagation, constant folding, copy
+     * propagation, dead code elimination, and loop-invariant code motion.
+     * @return              The new PassManager
+     */
+    public static PassManager standard()
+    {
+        PassManager m = new PassManager();
+        m.add(new TailRecursionElimination());
+        m.add(new Inliner());
+        m.add(new ConditionalConstantPropagation());
+        m.add(new ConstantFolding());
+        m.add(new CopyPropagation());
+        m.add(new DeadCodeElimination());
+        m.add(new LoopInvariantCodeMotion());
+        return m;
+    }
+
+    /**
+     * Adds the given pass after the existing passes.
+     * @param pass          Pass to run
+     */
+    public void add(Pass pass)
+    {
+        passes.add(pass);
+    }
+
+    /**
+     * Sets the largest number of times the list of passes is run.
+     * @param maxRounds     Number of rounds, at least 1
+     */
+    public void setMaxRounds(int maxRounds)
+    {
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Sets where the IR is dumped before the passes run and after each pass that
+     * changes it.
+     * @param dump          Target of the dumps, or null for no dumps
+     */
+    public void setDump(Appendable dump)
+    {
+        this.dump = dump;
+    }
+
+    /**
+     * Runs the passes over the given program until none of them changes it or the
+     * round limit is reached.
+     * @param program       IrProgram in SSA form
+     * @return              True if any pass changed the IR
+     */
+    public boolean run(IrProgram program)
+    {
+        dump("input", program);
+        boolean any = false;
+        boolean changed = true;
+        for (int round = 0; changed && round < maxRounds; round++)
+        {
+            changed = false;
+            for (Pass pass : passes)
+            {
+                if (pass.run(program))
+                {
+                    changed = true;
+                    dump(pass.getName(), program);
+                }
+            }
+            any |= changed;
+        }
+        return any;
+    }
+
+    /**
+     * Dumps the IR under a header with the given title, if there is a dump target.
+     * @param title         Title of the dump
+     * @param program       IrProgram to dump
+     * @throws UncheckedIOException     the dump cannot be written
+     */
+    private void dump(String title, IrProgram program)
+    {
+        if (dump == null)
+        {
+            return;
+        }
+        try
+        {
+            dump.append("; ---- ").append(title).append(" ----\n").append(program.dump());
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TailRecursionElimination class that turns the calls that a procedure makes to itself
+ * in tail position into jumps back to the start of the procedure, so tail recursion runs
+ * as a loop in one frame. A call is in tail position if its value is what the procedure
+ * returns and nothing else happens after it: its block ends right after it with a RET of
+ * its value, or with a JUMP to a block that only has PHIs and a RET of its value (or of a
+ * PHI whose arg for the call's block is its value).
+ *
+ * The entry block is split: the PARAMs stay in it and the rest of its code moves to a new
+ * loop header, which has a PHI for each parameter that is used. The PHI takes the
+ * parameter on entry and the call's argument from each tail call, and replaces the
+ * parameter everywhere else. The variables that the procedure starts at 0 are CONSTs,
+ * which move to the header, so they start at 0 on every iteration as well.
+ *
+ * Usage:
+ * FunctionPass p = new TailRecursionElimination();
+ * boolean changed = p.runOnFunction(<IrFunction>);
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class TailRecursionElimination extends FunctionPass
+{
+    @Override
+    public String getName()
+    {
+        return "tail recursion elimination";
+    }
+
+    @Override
+    public boolean runOnFunction(IrFunction f)
+    {
+        if (f.getName() == null)
+        {
+            return false;
+        }
+        List<IrInstruction> calls = findTailCalls(f);
+        if (calls.isEmpty())
+        {
+            return false;
+        }
+
+        List<BasicBlock> blocks = f.getBlocks();
+        BasicBlock entry = blocks.get(0);
+        BasicBlock header = f.newBlock();
+        blocks.remove(blocks.size() - 1);
+        blocks.add(1, header);
+        List<IrInstruction> params = new ArrayList<IrInstruction>();
+        for (IrInstruction instr : entry.getInstructions())
+        {
+            if (instr.getOp() == IrInstruction.PARAM)
+            {
+                params.add(instr);
+            }
+            else
+            {
+                header.getInstructions().add(instr);
+            }
+        }
+        entry.getInstructions().clear();
+        entry.getInstructions().addAll(params);
+        entry.getInstructions().add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+        for (BasicBlock succ : entry.getSuccessors())
+        {
+            List<BasicBlock> preds = succ.getPredecessors();
+            preds.set(preds.indexOf(entry), header);
+            header.getSuccessors().add(succ);
+        }
+        entry.getSuccessors().clear();
+        entry.addEdge(header);
+
+        int[] map = new int[f.getValueCount() + params.size()];
+        for (int v = 0; v < map.length; v++)
+        {
+            map[v] = v;
+        }
+        List<IrInstruction> phis = new ArrayList<IrInstruction>();
+        for (IrInstruction param : params)
+        {
+            IrInstruction phi = new IrInstruction(IrInstruction.PHI, f.newValue(), new int[0]);
+            map[param.getDest()] = phi.getDest();
+            phis.add(phi);
+        }
+        f.replaceValues(map);
+        header.getInstructions().addAll(0, phis);
+        for (int i = 0; i < phis.size(); i++)
+        {
+            phis.get(i).setArgs(new int[] {params.get(i).getDest()});
+        }
+
+        for (IrInstruction call : calls)
+        {
+            BasicBlock b = findBlock(f, call);
+            List<IrInstruction> code = b.getInstructions();
+            code.subList(code.indexOf(call), code.size()).clear();
+            code.add(new IrInstruction(IrInstruction.JUMP, -1, new int[0]));
+            if (!b.getSuccessors().isEmpty())
+            {
+                b.removeEdge(b.getSuccessors().get(0));
+            }
+            b.addEdge(header);
+            for (int i = 0; i < phis.size(); i++)
+            {
+                int[] args = phis.get(i).getArgs();
+                int[] more = new int[args.length + 1];
+                System.arraycopy(args, 0, more, 0, args.length);
+                more[args.length] = call.getArgs()[params.get(i).getConstant()];
+                phis.get(i).setArgs(more);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the calls that the function makes to itself in tail position.
+     * @param f             IrFunction of a procedure
+     * @return              List of the CALL instructions in tail position
+     */
+    private static List<IrInstruction> findTailCalls(IrFunction f)
+    {
+        int[] uses = f.countUses();
+        List<IrInstruction> calls = new ArrayList<IrInstruction>();
+        for (BasicBlock b : f.getBlocks())
+        {
+            List<IrInstruction> code = b.getInstructions();
+            if (code.size() < 2)
+            {
+                continue;
+            }
+            IrInstruction call = code.get(code.size() - 2);
+            IrInstruction last = code.get(code.size() - 1);
+            if (call.getOp() != IrInstruction.CALL || !call.getCallee().equals(f.getName())
+                || uses[call.getDest()] != 1)
+            {
+                continue;
+            }
+            if (last.getOp() == IrInstruction.RET && last.getArgs()[0] == call.getDest()
+                || last.getOp() == IrInstruction.JUMP
+                && returns(b.getSuccessors().get(0), b, call.getDest()))
+            {
+                calls.add(call);
+            }
+        }
+        return calls;
+    }
+
+    /**
+     * Returns whether a block only returns the given value when it is entered from the
+     * given predecessor.
+     * @param b             Given block
+     * @param pred          One of its predecessors
+     * @param v             Given value
+     * @return              True if the block has only PHIs and a RET of v, or of a PHI
+     *                      whose arg for pred is v
+     */
+    private static boolean returns(BasicBlock b, BasicBlock pred, int v)
+    {
+        IrInstruction last = b.getTerminator();
+        if (last.getOp() != IrInstruction.RET)
+        {
+            return false;
+        }
+        int result = last.getArgs()[0];
+        int index = b.getPredecessors().indexOf(pred);
+        for (IrInstruction instr : b.getInstructions())
+        {
+            if (instr == last)
+            {
+                break;
+            }
+            if (instr.getOp() != IrInstruction.PHI)
+            {
+                return false;
+            }
+            if (instr.getDest() == result)
+            {
+                result = instr.getArgs()[index];
+            }
+        }
+        return result == v;
+    }
+
+    /**
+     * Returns the block that holds the given instruction.
+     * @param f             Given IrFunction
+     * @param instr         Instruction of the function
+     * @return              Its block, or null if it is not in the function
+     */
+    private static BasicBlock findBlock(IrFunction f, IrInstruction instr)
+    {
+        for (BasicBlock b : f.getBlocks())
+        {
+            if (b.getInstructions().contains(instr))
+            {
+                return b;
+            }
+        }
+        return null;
+    }
+}
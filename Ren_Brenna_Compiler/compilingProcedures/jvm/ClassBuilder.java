@@ -0,0 +1,775 @@
+package jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import ast.ProcedureDeclaration;
+import bytecode.CodeBuilder;
+import bytecode.Opcode;
+
+/**
+ * ClassBuilder class that implements CodeBuilder to translate a lowered Program into a
+ * JVM class file, which is then loaded in-process as a hidden class so that HotSpot can
+ * JIT-compile it. Each global variable becomes a static int field, the main Statements
+ * become a static run() method, and each procedure becomes a static int method whose
+ * arguments are copied into int locals laid out like the procedure's frame. WRITELN and
+ * READLN call PascalRuntime, which buffers the output. A call that leaves out the
+ * argument of a parameter that repeats the name of an earlier one goes through a bridge
+ * method, which passes that parameter the earlier argument, just like the interpreter
+ * does. A tail call that a procedure makes to itself stores its arguments into the
+ * parameter slots, sets the rest of the frame back to 0, and jumps back to just after
+ * the prologue, so deep tail recursion runs in one JVM frame. Since every branch target has an empty operand stack and only int locals, each
+ * stack map frame is the same full frame.
+ *
+ * Usage:
+ * ClassBuilder c = new ClassBuilder(<number of globals>);
+ * <Program>.lower(c);
+ * byte[] classFile = c.toByteArray();
+ * Runnable program = c.define();
+ * program.run();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class ClassBuilder implements CodeBuilder
+{
+    // Internal names of the generated class and of the classes it uses
+    private static final String CLASS_NAME = "jvm/PascalProgram";
+    private static final String RUNTIME = "jvm/PascalRuntime";
+
+    // Largest method that can still use 16-bit branch offsets everywhere
+    private static final int MAX_METHOD_LENGTH = 32767;
+
+    // JVM instructions used by the generated code
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int ISTORE = 0x36;
+    private static final int POP = 0x57;
+    private static final int IADD = 0x60;
+    private static final int ISUB = 0x64;
+    private static final int IMUL = 0x68;
+    private static final int IDIV = 0x6c;
+    private static final int IREM = 0x70;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int IF_ICMPLT = 0xa1;
+    private static final int IF_ICMPGE = 0xa2;
+    private static final int IF_ICMPGT = 0xa3;
+    private static final int IF_ICMPLE = 0xa4;
+    private static final int GOTO = 0xa7;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKESTATIC = 0xb8;
+
+    // Access flags of the class, its fields, and its methods
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    // Type tag of an int local in a stack map frame
+    private static final int ITEM_INTEGER = 1;
+
+    // Constant pool of the class
+    private ConstantPool pool;
+
+    // Number of global variables (static fields)
+    private int globalSize;
+
+    // Parameter count, frame size, and parameter slots of each declared procedure
+    private Map<String, ProcedureDeclaration> procedures;
+
+    // Serialized methods, keyed by name so that a redeclared procedure replaces the old one
+    private Map<String, byte[]> methods;
+
+    // Argument counts of the bridge methods that calls use, by procedure name
+    private Map<String, TreeSet<Integer>> bridges;
+
+    // State of the method currently being generated
+    private String methodName;
+    private String descriptor;
+    private boolean inProcedure;
+    private ProcedureDeclaration currentProc;
+    private int restart;
+    private int parmCount;
+    private int maxLocals;
+    private ByteArrayOutputStream code;
+    private int depth;
+    private int maxStack;
+    private List<Integer> labels;
+    private List<int[]> fixups;
+    private TreeSet<Integer> targets;
+
+    /**
+     * Creates a new ClassBuilder for a Program with the given number of global
+     * variables and starts generating the run() method.
+     * @param globalSize    Number of global variable slots
+     */
+    public ClassBuilder(int globalSize)
+    {
+        pool = new ConstantPool();
+        this.globalSize = globalSize;
+        procedures = new HashMap<String, ProcedureDeclaration>();
+        methods = new LinkedHashMap<String, byte[]>();
+        bridges = new HashMap<String, TreeSet<Integer>>();
+        labels = new ArrayList<Integer>();
+        startMethod("run", "()V", false, 0, 0);
+        for (int slot = 0; slot < globalSize; slot++)
+        {
+            emitConst(0);
+            emitStore(1, slot);
+        }
+    }
+
+    @Override
+    public void declareProcedure(ProcedureDeclaration proc)
+    {
+        procedures.put(proc.getID(), proc);
+    }
+
+    @Override
+    public int getParmCount(String id)
+    {
+        return lookup(id).getParms().size();
+    }
+
+    /**
+     * Finishes the current method and starts the method of the procedure with the
+     * given name. The method's arguments are in the first locals; its prologue sets
+     * every slot of the procedure's frame to 0 and then copies the arguments into
+     * their parameter slots. The restart label of the procedure's tail calls is placed
+     * after the prologue.
+     * @param id            String name of the procedure
+     */
+    @Override
+    public void placeProcedure(String id)
+    {
+        finishMethod();
+        ProcedureDeclaration proc = lookup(id);
+        int count = proc.getParms().size();
+        startMethod("proc" + id, procDescriptor(count), true, count, count + proc.getFrameSize());
+        for (int slot = 0; slot < proc.getFrameSize(); slot++)
+        {
+            emitConst(0);
+            emitStore(0, slot);
+        }
+        for (int i = 0; i < count; i++)
+        {
+            emitLocal(ILOAD, i);
+            adjustStack(1);
+            emitStore(0, proc.getParmSlot(i));
+        }
+        currentProc = proc;
+        restart = newLabel();
+        placeLabel(restart);
+    }
+
+    @Override
+    public int newLabel()
+    {
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    @Override
+    public void placeLabel(int label)
+    {
+        labels.set(label, code.size());
+    }
+
+    /**
+     * Emits the JVM instructions for an instruction that has no operands. HALT returns
+     * from run() and RET returns slot 0 of the procedure's frame.
+     * @param op            Opcode of the instruction
+     */
+    @Override
+    public void emit(int op)
+    {
+        if (op == Opcode.ADD)
+        {
+            emitByte(IADD);
+            adjustStack(-1);
+        }
+        else if (op == Opcode.SUB)
+        {
+            emitByte(ISUB);
+            adjustStack(-1);
+        }
+        else if (op == Opcode.MUL)
+        {
+            emitByte(IMUL);
+            adjustStack(-1);
+        }
+        else if (op == Opcode.DIV)
+        {
+            emitByte(IDIV);
+            adjustStack(-1);
+        }
+        else if (op == Opcode.MOD)
+        {
+            emitByte(IREM);
+            adjustStack(-1);
+        }
+        else if (op == Opcode.PRINT)
+        {
+            emitInvoke(RUNTIME, "writeln", "(I)V");
+            adjustStack(-1);
+        }
+        else if (op == Opcode.READ)
+        {
+            emitInvoke(RUNTIME, "readln", "()I");
+            adjustStack(1);
+        }
+        else if (op == Opcode.RET)
+        {
+            emitLoad(0, 0);
+            emitByte(IRETURN);
+            adjustStack(-1);
+        }
+        else if (op == Opcode.HALT)
+        {
+            emitByte(RETURN);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Opcode " + op + " has operands");
+        }
+    }
+
+    @Override
+    public void emitConst(int value)
+    {
+        if (value >= -1 && value <= 5)
+        {
+            emitByte(ICONST_0 + value);
+        }
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+        {
+            emitByte(BIPUSH);
+            emitByte(value);
+        }
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+        {
+            emitByte(SIPUSH);
+            emitShort(value);
+        }
+        else
+        {
+            emitByte(LDC_W);
+            emitShort(pool.integer(value));
+        }
+        adjustStack(1);
+    }
+
+    /**
+     * Emits a load of the given variable. Variables of the procedure's frame are int
+     * locals and all other variables (including every variable in run()) are static fields.
+     * @param varDepth      Number of parent frames to walk to reach the variable
+     * @param slot          Slot of the variable in its frame
+     */
+    @Override
+    public void emitLoad(int varDepth, int slot)
+    {
+        if (inProcedure && varDepth == 0)
+        {
+            emitLocal(ILOAD, parmCount + slot);
+        }
+        else
+        {
+            emitByte(GETSTATIC);
+            emitShort(pool.fieldRef(CLASS_NAME, "g" + slot, "I"));
+        }
+        adjustStack(1);
+    }
+
+    /**
+     * Emits a store into the given variable. Variables of the procedure's frame are int
+     * locals and all other variables (including every variable in run()) are static fields.
+     * @param varDepth      Number of parent frames to walk to reach the variable
+     * @param slot          Slot of the variable in its frame
+     */
+    @Override
+    public void emitStore(int varDepth, int slot)
+    {
+        if (inProcedure && varDepth == 0)
+        {
+            emitLocal(ISTORE, parmCount + slot);
+        }
+        else
+        {
+            emitByte(PUTSTATIC);
+            emitShort(pool.fieldRef(CLASS_NAME, "g" + slot, "I"));
+        }
+        adjustStack(-1);
+    }
+
+    @Override
+    public void emitJump(int op, int label)
+    {
+        int start = code.size();
+        if (op == Opcode.JUMP)
+        {
+            emitByte(GOTO);
+        }
+        else
+        {
+            emitByte(branchFor(op));
+            adjustStack(-2);
+        }
+        fixups.add(new int[] {start, code.size(), label});
+        emitShort(0);
+    }
+
+    /**
+     * Emits a call to the method of the procedure with the given name. Parameters that
+     * have no argument are passed 0, unless one shares its slot with an earlier
+     * parameter that has an argument (see ProcedureDeclaration.getArgumentIndex()):
+     * then the call goes through the bridge method for its number of arguments.
+     * @param id            String name of the procedure
+     * @param argCount      Number of arguments on the operand stack
+     */
+    @Override
+    public void emitCall(String id, int argCount)
+    {
+        ProcedureDeclaration proc = lookup(id);
+        int count = getParmCount(id);
+        for (int i = argCount; i < count; i++)
+        {
+            if (proc.getArgumentIndex(i, argCount) >= 0)
+            {
+                if (!bridges.containsKey(id))
+                {
+                    bridges.put(id, new TreeSet<Integer>());
+                }
+                bridges.get(id).add(argCount);
+                emitInvoke(CLASS_NAME, "proc" + id + "$" + argCount, procDescriptor(argCount));
+                adjustStack(1 - argCount);
+                return;
+            }
+        }
+        for (int i = argCount; i < count; i++)
+        {
+            emitConst(0);
+        }
+        emitInvoke(CLASS_NAME, "proc" + id, procDescriptor(count));
+        adjustStack(1 - count);
+    }
+
+    /**
+     * Emits a tail call that the current procedure makes to itself as a jump back to its
+     * restart label. The arguments are popped into their parameter slots, last one first,
+     * so that the last argument of a repeated parameter name is the one that is kept,
+     * and every other slot of the frame is set to 0, just like the prologue does. The
+     * code after the jump can only be reached by a branch, so it gets a stack map frame
+     * as well. A call to another procedure is emitted as a call and a store into slot 0.
+     * @param id            String name of the procedure
+     * @param argCount      Number of arguments on the operand stack
+     */
+    @Override
+    public void emitTailCall(String id, int argCount)
+    {
+        ProcedureDeclaration proc = lookup(id);
+        if (!inProcedure || proc != currentProc)
+        {
+            emitCall(id, argCount);
+            emitStore(0, 0);
+            return;
+        }
+        boolean[] assigned = new boolean[proc.getFrameSize()];
+        for (int i = argCount - 1; i >= 0; i--)
+        {
+            int slot = proc.getParmSlot(i);
+            if (assigned[slot])
+            {
+                emitByte(POP);
+                adjustStack(-1);
+            }
+            else
+            {
+                assigned[slot] = true;
+                emitStore(0, slot);
+            }
+        }
+        for (int slot = 0; slot < assigned.length; slot++)
+        {
+            if (!assigned[slot])
+            {
+                emitConst(0);
+                emitStore(0, slot);
+            }
+        }
+        emitJump(Opcode.JUMP, restart);
+        targets.add(code.size());
+    }
+
+    /**
+     * Generates the bridge methods that the calls use. The bridge for a number of
+     * arguments takes that many arguments and calls the procedure's method with each
+     * parameter's argument from ProcedureDeclaration.getArgumentIndex(), or 0.
+     */
+    private void addBridges()
+    {
+        for (Map.Entry<String, TreeSet<Integer>> bridge : bridges.entrySet())
+        {
+            ProcedureDeclaration proc = lookup(bridge.getKey());
+            int count = proc.getParms().size();
+            for (int argCount : bridge.getValue())
+            {
+                startMethod("proc" + proc.getID() + "$" + argCount, procDescriptor(argCount),
+                    true, argCount, argCount);
+                for (int i = 0; i < count; i++)
+                {
+                    int source = proc.getArgumentIndex(i, argCount);
+                    if (source < 0)
+                    {
+                        emitConst(0);
+                    }
+                    else
+                    {
+                        emitLocal(ILOAD, source);
+                        adjustStack(1);
+                    }
+                }
+                emitInvoke(CLASS_NAME, "proc" + proc.getID(), procDescriptor(count));
+                adjustStack(1 - count);
+                emitByte(IRETURN);
+                adjustStack(-1);
+                finishMethod();
+            }
+        }
+        bridges.clear();
+    }
+
+    /**
+     * Finishes the last method, adds the bridge methods, and returns the complete class
+     * file.
+     * @return              The bytes of the generated class file
+     */
+    public byte[] toByteArray()
+    {
+        finishMethod();
+        addBridges();
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int[] fieldNames = new int[globalSize];
+        for (int slot = 0; slot < globalSize; slot++)
+        {
+            fieldNames[slot] = pool.utf8("g" + slot);
+        }
+        int intDescriptor = pool.utf8("I");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try
+        {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            out.writeShort(pool.getCount());
+            out.write(pool.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(globalSize);
+            for (int slot = 0; slot < globalSize; slot++)
+            {
+                out.writeShort(ACC_PRIVATE | ACC_STATIC);
+                out.writeShort(fieldNames[slot]);
+                out.writeShort(intDescriptor);
+                out.writeShort(0);
+            }
+            out.writeShort(methods.size());
+            for (byte[] method : methods.values())
+            {
+                out.write(method);
+            }
+            out.writeShort(0);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Defines the generated class as a hidden class and returns a Runnable that calls
+     * its run() method and then prints any buffered output.
+     * @return              A Runnable that executes the Program
+     */
+    public Runnable define()
+    {
+        final MethodHandle run;
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                .defineHiddenClass(toByteArray(), true);
+            run = lookup.findStatic(lookup.lookupClass(), "run", MethodType.methodType(void.class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    run.invokeExact();
+                }
+                catch (RuntimeException | Error e)
+                {
+                    throw e;
+                }
+                catch (Throwable e)
+                {
+                    throw new RuntimeException(e);
+                }
+                finally
+                {
+                    PascalRuntime.flush();
+                }
+            }
+        };
+    }
+
+    /**
+     * Resets the state of the current method so that a new method can be generated.
+     * @param name          Name of the method
+     * @param desc          Type descriptor of the method
+     * @param procedure     True if the method belongs to a procedure
+     * @param parms         Number of arguments of the method
+     * @param locals        Number of int locals the method uses
+     */
+    private void startMethod(String name, String desc, boolean procedure, int parms, int locals)
+    {
+        methodName = name;
+        descriptor = desc;
+        inProcedure = procedure;
+        currentProc = null;
+        parmCount = parms;
+        maxLocals = locals;
+        code = new ByteArrayOutputStream();
+        depth = 0;
+        maxStack = 0;
+        fixups = new ArrayList<int[]>();
+        targets = new TreeSet<Integer>();
+    }
+
+    /**
+     * Patches the branches of the current method and serializes it, including its
+     * Code attribute and StackMapTable.
+     */
+    private void finishMethod()
+    {
+        if (code == null)
+        {
+            return;
+        }
+        byte[] body = code.toByteArray();
+        if (body.length > MAX_METHOD_LENGTH)
+        {
+            throw new IllegalStateException("Method " + methodName
+                + " is too large for the JVM back end");
+        }
+        for (int[] fixup : fixups)
+        {
+            int target = labels.get(fixup[2]);
+            int offset = target - fixup[0];
+            body[fixup[1]] = (byte) (offset >> 8);
+            body[fixup[1] + 1] = (byte) offset;
+            targets.add(target);
+        }
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        DataOutputStream table = new DataOutputStream(frames);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try
+        {
+            int previous = -1;
+            for (int target : targets)
+            {
+                table.writeByte(255);
+                table.writeShort(target - previous - 1);
+                table.writeShort(maxLocals);
+                for (int i = 0; i < maxLocals; i++)
+                {
+                    table.writeByte(ITEM_INTEGER);
+                }
+                table.writeShort(0);
+                previous = target;
+            }
+            byte[] stackMap = frames.toByteArray();
+
+            out.writeShort(ACC_STATIC | (inProcedure ? ACC_PRIVATE : ACC_PUBLIC));
+            out.writeShort(pool.utf8(methodName));
+            out.writeShort(pool.utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(pool.utf8("Code"));
+            int attributeLength = 12 + body.length
+                + (targets.isEmpty() ? 0 : 8 + stackMap.length);
+            out.writeInt(attributeLength);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0);
+            if (targets.isEmpty())
+            {
+                out.writeShort(0);
+            }
+            else
+            {
+                out.writeShort(1);
+                out.writeShort(pool.utf8("StackMapTable"));
+                out.writeInt(2 + stackMap.length);
+                out.writeShort(targets.size());
+                out.write(stackMap);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        methods.put(methodName, bytes.toByteArray());
+        code = null;
+    }
+
+    /**
+     * Returns the declared procedure with the given name. Throws an
+     * IllegalArgumentException if no such procedure was declared.
+     * @param id            String name of the procedure
+     * @return              The ProcedureDeclaration of the procedure
+     */
+    private ProcedureDeclaration lookup(String id)
+    {
+        ProcedureDeclaration proc = procedures.get(id);
+        if (proc == null)
+        {
+            throw new IllegalArgumentException("Unknown procedure " + id);
+        }
+        return proc;
+    }
+
+    /**
+     * Returns the type descriptor of a procedure method with the given number of arguments.
+     * @param count         Number of arguments
+     * @return              The descriptor, such as "(II)I"
+     */
+    private static String procDescriptor(int count)
+    {
+        StringBuilder desc = new StringBuilder("(");
+        for (int i = 0; i < count; i++)
+        {
+            desc.append('I');
+        }
+        return desc.append(")I").toString();
+    }
+
+    /**
+     * Returns the JVM compare-and-branch instruction for the given conditional jump.
+     * @param op            One of the IF_ opcodes
+     * @return              The matching if_icmp instruction
+     */
+    private static int branchFor(int op)
+    {
+        switch (op)
+        {
+            case Opcode.IF_EQ:
+                return IF_ICMPEQ;
+            case Opcode.IF_NE:
+                return IF_ICMPNE;
+            case Opcode.IF_LT:
+                return IF_ICMPLT;
+            case Opcode.IF_GT:
+                return IF_ICMPGT;
+            case Opcode.IF_LE:
+                return IF_ICMPLE;
+            case Opcode.IF_GE:
+                return IF_ICMPGE;
+            default:
+                throw new IllegalArgumentException("Opcode " + op + " is not a jump");
+        }
+    }
+
+    /**
+     * Emits an invokestatic of the given method.
+     * @param owner         Internal name of the class that declares the method
+     * @param name          Name of the method
+     * @param desc          Type descriptor of the method
+     */
+    private void emitInvoke(String owner, String name, String desc)
+    {
+        emitByte(INVOKESTATIC);
+        emitShort(pool.methodRef(owner, name, desc));
+    }
+
+    /**
+     * Emits an iload or istore of the given local, widening it when needed.
+     * @param op            ILOAD or ISTORE
+     * @param local         Index of the local
+     */
+    private void emitLocal(int op, int local)
+    {
+        if (local > 255)
+        {
+            emitByte(0xc4);
+            emitByte(op);
+            emitShort(local);
+        }
+        else
+        {
+            emitByte(op);
+            emitByte(local);
+        }
+    }
+
+    /**
+     * Appends one byte to the code of the current method.
+     * @param value         Byte to append
+     */
+    private void emitByte(int value)
+    {
+        code.write(value);
+    }
+
+    /**
+     * Appends a big-endian 16-bit value to the code of the current method.
+     * @param value         Value to append
+     */
+    private void emitShort(int value)
+    {
+        code.write(value >> 8);
+        code.write(value);
+    }
+
+    /**
+     * Changes the tracked operand stack depth by the given amount and records
+     * the deepest it has been.
+     * @param change        Change in the number of values on the operand stack
+     */
+    private void adjustStack(int change)
+    {
+        depth += change;
+        maxStack = Math.max(maxStack, depth);
+    }
+}
@@ -0,0 +1,219 @@
+package jvm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ConstantPool class that builds the constant pool of a JVM class file. Each entry is
+ * written once and later requests for the same entry return the index of the existing one.
+ * Only the entry kinds that the ClassBuilder needs are supported.
+ * 
+ * Usage:
+ * ConstantPool pool = new ConstantPool();
+ * int name = pool.utf8("run");
+ * int value = pool.integer(100000);
+ * int cls = pool.classRef("java/lang/Object");
+ * int field = pool.fieldRef("jvm/Program", "g0", "I");
+ * int method = pool.methodRef("jvm/Runtime", "writeln", "(I)V");
+ * byte[] bytes = pool.toByteArray();
+ * int count = pool.getCount();
+ * 
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class ConstantPool
+{
+    // Tags of the constant pool entry kinds in the class file format
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    // Serialized entries
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream out;
+
+    // Index of each entry, keyed by its tag and contents
+    private Map<String, Integer> indices;
+
+    // Index that the next entry will get (entries start at 1)
+    private int count;
+
+    /**
+     * Creates a new empty ConstantPool.
+     */
+    public ConstantPool()
+    {
+        bytes = new ByteArrayOutputStream();
+        out = new DataOutputStream(bytes);
+        indices = new HashMap<String, Integer>();
+        count = 1;
+    }
+
+    /**
+     * Returns the index of the Utf8 entry with the given text.
+     * @param text          Text of the entry
+     * @return              Index of the entry
+     */
+    public int utf8(String text)
+    {
+        String key = UTF8 + ":" + text;
+        Integer index = indices.get(key);
+        if (index == null)
+        {
+            try
+            {
+                out.writeByte(UTF8);
+                out.writeUTF(text);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+            index = add(key);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the Integer entry with the given value.
+     * @param value         Value of the entry
+     * @return              Index of the entry
+     */
+    public int integer(int value)
+    {
+        String key = INTEGER + ":" + value;
+        Integer index = indices.get(key);
+        if (index == null)
+        {
+            try
+            {
+                out.writeByte(INTEGER);
+                out.writeInt(value);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+            index = add(key);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the Class entry for the class with the given internal name.
+     * @param name          Internal name of the class (e.g. "java/lang/Object")
+     * @return              Index of the entry
+     */
+    public int classRef(String name)
+    {
+        return reference(CLASS, name, utf8(name), -1);
+    }
+
+    /**
+     * Returns the index of the Fieldref entry for the given field.
+     * @param owner         Internal name of the class that declares the field
+     * @param name          Name of the field
+     * @param descriptor    Type descriptor of the field
+     * @return              Index of the entry
+     */
+    public int fieldRef(String owner, String name, String descriptor)
+    {
+        return reference(FIELD_REF, owner + "." + name + ":" + descriptor,
+            classRef(owner), nameAndType(name, descriptor));
+    }
+
+    /**
+     * Returns the index of the Methodref entry for the given method.
+     * @param owner         Internal name of the class that declares the method
+     * @param name          Name of the method
+     * @param descriptor    Type descriptor of the method
+     * @return              Index of the entry
+     */
+    public int methodRef(String owner, String name, String descriptor)
+    {
+        return reference(METHOD_REF, owner + "." + name + ":" + descriptor,
+            classRef(owner), nameAndType(name, descriptor));
+    }
+
+    /**
+     * Returns the number that the class file uses as the constant pool count,
+     * which is one more than the number of entries.
+     * @return              The constant pool count
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the serialized entries of the ConstantPool.
+     * @return              The entries in class file format
+     */
+    public byte[] toByteArray()
+    {
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the index of the NameAndType entry for the given name and descriptor.
+     * @param name          Name of the field or method
+     * @param descriptor    Type descriptor of the field or method
+     * @return              Index of the entry
+     */
+    private int nameAndType(String name, String descriptor)
+    {
+        return reference(NAME_AND_TYPE, name + ":" + descriptor, utf8(name), utf8(descriptor));
+    }
+
+    /**
+     * Returns the index of an entry that refers to one or two other entries,
+     * writing it if it does not exist yet.
+     * @param tag           Tag of the entry
+     * @param contents      Text that identifies the entry
+     * @param first         Index of the first entry it refers to
+     * @param second        Index of the second entry it refers to (-1 if none)
+     * @return              Index of the entry
+     */
+    private int reference(int tag, String contents, int first, int second)
+    {
+        String key = tag + ":" + contents;
+        Integer index = indices.get(key);
+        if (index == null)
+        {
+            try
+            {
+                out.writeByte(tag);
+                out.writeShort(first);
+                if (second >= 0)
+                {
+                    out.writeShort(second);
+                }
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException(e);
+            }
+            index = add(key);
+        }
+        return index;
+    }
+
+    /**
+     * Records the index of the entry that was just written.
+     * @param key           Tag and contents of the entry
+     * @return              Index of the entry
+     */
+    private int add(String key)
+    {
+        int index = count;
+        indices.put(key, index);
+        count++;
+        return index;
+    }
+}
@@ -0,0 +1,75 @@
+package jvm;
+
+import java.util.Scanner;
+
+/**
+ * PascalRuntime class that holds the static methods that classes generated by the
+ * ClassBuilder call for WRITELN and READLN. Output is collected in a buffer and printed
+ * in large pieces instead of one println per value. The buffer is printed before every
+ * READLN and when the program finishes.
+ * 
+ * Usage:
+ * PascalRuntime.writeln(1);
+ * int value = PascalRuntime.readln();
+ * PascalRuntime.flush();
+ * 
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public final class PascalRuntime
+{
+    // Number of buffered characters that causes the buffer to be printed
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Output that has not been printed yet
+    private static StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+
+    // Scanner shared by every READLN
+    private static Scanner in;
+
+    /**
+     * PascalRuntime only has static methods and cannot be instantiated.
+     */
+    private PascalRuntime()
+    {
+    }
+
+    /**
+     * Adds the given value and a new line to the output buffer, printing the
+     * buffer if it is full.
+     * @param value         Value to print
+     */
+    public static void writeln(int value)
+    {
+        buffer.append(value).append(System.lineSeparator());
+        if (buffer.length() >= BUFFER_SIZE)
+        {
+            flush();
+        }
+    }
+
+    /**
+     * Prints the buffered output and then reads an integer from standard input.
+     * @return              The integer that was read
+     */
+    public static int readln()
+    {
+        flush();
+        if (in == null)
+        {
+            in = new Scanner(System.in);
+        }
+        return in.nextInt();
+    }
+
+    /**
+     * Prints and clears the output buffer.
+     * @postcondition       All buffered output has been printed.
+     */
+    public static void flush()
+    {
+        System.out.print(buffer);
+        System.out.flush();
+        buffer.setLength(0);
+    }
+}
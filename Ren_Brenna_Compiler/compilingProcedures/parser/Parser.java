@@ -22,13 +22,16 @@ import ast.While;
 import ast.Writeln;
 import scanner.ScanErrorException;
 import scanner.Scanner;
+import scanner.Token;
+import scanner.TokenKind;
 
 /**
  * Parser is a simple parser that parses the stream of tokens from the Scanner
  * and returns Statements of the Pascal-like statements. It deals with BEGIN..END statements,
  * WRITELN statements, variable assignment, binary operations, FOR loops, IF-THEN-ELSE
  * statements, WHILE loops, and Readln statements. It can also handle procedures both with
- * and without parameters and return values.
+ * and without parameters and return values. It switches on the TokenKind of the current
+ * Token, and parse errors report the line and column of the Token that was found.
  * @author  Brenna Ren
  * @version May 24, 2024
  * 
@@ -41,8 +44,8 @@ public class Parser
     // Scanner to tokenize the input with
     private Scanner scanner;
 
-    // String that represents the current token to be parsed
-    private String curToken;
+    // Current token to be parsed
+    private Token curToken;
     
     /**
      * Creates a new Parser with the given Scanner. Catches a ScanErrorException()
@@ -70,14 +73,14 @@ public class Parser
 
     /**
      * "Eats" the current token by moving past it and retrieving the
-     * next token from the scanner. It first compares if the parameter is equal
-     * to curToken, and if so, it gets the next token. Otherwise, it throws 
+     * next token from the scanner. It first compares if the kind of curToken
+     * is the given kind, and if so, it gets the next token. Otherwise, it throws 
      * a IllegalArgumentException() with additional information.
-     * @param str       The token to "eat", should be equal to curToken
+     * @param kind      The kind of token to "eat", should be the kind of curToken
      */
-    private void eat(String str)
+    private void eat(TokenKind kind)
     {
-        if (curToken.equals(str))
+        if (curToken.is(kind))
         {
             try 
             {
@@ -90,21 +93,34 @@ public class Parser
         }
         else
         {
-            throw new IllegalArgumentException("Found " + curToken + " --- Expected " + str);
+            throw new IllegalArgumentException("Found " + curToken + " at line " 
+                + curToken.getLine() + ", column " + curToken.getColumn() 
+                + " --- Expected " + kind);
         }
     }
 
     /**
-     * Parses and returns a Number with the number's value by calling the
-     * Integer.parseInt() method.
+     * Eats the current token, which should be an identifier, and returns its name.
+     * @return          The name of the identifier
+     */
+    private String eatIdentifier()
+    {
+        String name = curToken.getLexeme();
+        eat(TokenKind.IDENTIFIER);
+        return name;
+    }
+
+    /**
+     * Parses and returns a Number with the number's value, which the
+     * Scanner has already parsed.
      * @precondition    Current token is an integer
      * @postcondition   Number token has been eaten
      * @return          A Number with the number's value
     */
     private Number parseNumber()
     {
-        int num = Integer.parseInt(curToken);
-        eat(curToken);
+        int num = curToken.getValue();
+        eat(TokenKind.NUMBER);
         return new Number(num);
     }
 
@@ -120,45 +136,43 @@ public class Parser
      */
     private Expression parseFactor()
     {
-        if (curToken.equals("("))
-        {
-            eat("(");
-            Expression exp = parseExpression();
-            eat(")");
-            return exp;
-        }
-        else if (curToken.equals("-"))
-        {
-            eat("-");
-            return new BinOp("-", new Number(0), parseFactor());
-        }
-        else if (curToken.compareTo("0") >= 0 && curToken.compareTo("9") <= 0)
+        switch (curToken.getKind())
         {
-            return parseNumber();
-        }
-        else
-        {
-            String name = curToken;
-            eat(name);
-            if (curToken.equals("("))
+            case LEFT_PAREN:
+            {
+                eat(TokenKind.LEFT_PAREN);
+                Expression exp = parseExpression();
+                eat(TokenKind.RIGHT_PAREN);
+                return exp;
+            }
+            case MINUS:
+                eat(TokenKind.MINUS);
+                return new BinOp("-", new Number(0), parseFactor());
+            case NUMBER:
+                return parseNumber();
+            default:
             {
-                eat("(");
-                List<Expression> args = new ArrayList<Expression>();
-                if (!curToken.equals(")"))
+                String name = eatIdentifier();
+                if (curToken.is(TokenKind.LEFT_PAREN))
                 {
-                    args.add(parseExpression());
-                    while (!curToken.equals(")"))
+                    eat(TokenKind.LEFT_PAREN);
+                    List<Expression> args = new ArrayList<Expression>();
+                    if (!curToken.is(TokenKind.RIGHT_PAREN))
                     {
-                        eat(",");
                         args.add(parseExpression());
+                        while (!curToken.is(TokenKind.RIGHT_PAREN))
+                        {
+                            eat(TokenKind.COMMA);
+                            args.add(parseExpression());
+                        }
                     }
+                    eat(TokenKind.RIGHT_PAREN);
+                    return new ProcedureCall(name, args);
+                }
+                else
+                {
+                    return new Variable(name);
                 }
-                eat(")");
-                return new ProcedureCall(name, args);
-            }
-            else
-            {
-                return new Variable(name);
             }
         }
     }
@@ -174,28 +188,26 @@ public class Parser
     private Expression parseTerm()
     {
         Expression exp1 = parseFactor();
-        while (curToken.equals("*") || curToken.equals("/") || curToken.equals("mod"))
+        while (true)
         {
-            if (curToken.equals("*"))
-            {
-                eat("*");
-                Expression exp2 = parseFactor();
-                exp1 = new BinOp("*", exp1, exp2);
-            }
-            else if (curToken.equals("/"))
-            {
-                eat("/");
-                Expression exp2 = parseFactor();
-                exp1 = new BinOp("/", exp1, exp2);
-            }
-            else if (curToken.equals("mod"))
+            switch (curToken.getKind())
             {
-                eat("mod");
-                Expression exp2 = parseFactor();
-                exp1 = new BinOp("%", exp1, exp2);
+                case TIMES:
+                    eat(TokenKind.TIMES);
+                    exp1 = new BinOp("*", exp1, parseFactor());
+                    break;
+                case DIVIDE:
+                    eat(TokenKind.DIVIDE);
+                    exp1 = new BinOp("/", exp1, parseFactor());
+                    break;
+                case MOD:
+                    eat(TokenKind.MOD);
+                    exp1 = new BinOp("%", exp1, parseFactor());
+                    break;
+                default:
+                    return exp1;
             }
         }
-        return exp1;
     }
 
     /**
@@ -210,22 +222,22 @@ public class Parser
     private Expression parseExpression()
     {
         Expression exp1 = parseTerm();
-        while (curToken.equals("+") || curToken.equals("-"))
+        while (true)
         {
-            if (curToken.equals("+"))
-            {
-                eat("+");
-                Expression exp2 = parseTerm();
-                exp1 = new BinOp("+", exp1, exp2);
-            }
-            else if (curToken.equals("-"))
+            switch (curToken.getKind())
             {
-                eat("-");
-                Expression exp2 = parseTerm();
-                exp1 = new BinOp("-", exp1, exp2);
+                case PLUS:
+                    eat(TokenKind.PLUS);
+                    exp1 = new BinOp("+", exp1, parseTerm());
+                    break;
+                case MINUS:
+                    eat(TokenKind.MINUS);
+                    exp1 = new BinOp("-", exp1, parseTerm());
+                    break;
+                default:
+                    return exp1;
             }
         }
-        return exp1;
     }
 
     /**
@@ -237,43 +249,31 @@ public class Parser
     private Condition parseCondition()
     {
         Expression exp1 = parseExpression();
-        if (curToken.equals("="))
-        {
-            eat("=");
-            Expression exp2 = parseExpression();
-            return new Condition(exp1, "=", exp2);
-        }
-        else if (curToken.equals("<>"))
-        {
-            eat("<>");
-            Expression exp2 = parseExpression();
-            return new Condition(exp1, "<>", exp2);
-        }
-        else if (curToken.equals("<"))
-        {
-            eat("<");
-            Expression exp2 = parseExpression();
-            return new Condition(exp1, "<", exp2);
-        }
-        else if (curToken.equals(">"))
-        {
-            eat(">");
-            Expression exp2 = parseExpression();
-            return new Condition(exp1, ">", exp2);
-        }
-        else if (curToken.equals("<="))
-        {
-            eat("<=");
-            Expression exp2 = parseExpression();
-            return new Condition(exp1, "<=", exp2);
-        }
-        else
+        String op;
+        switch (curToken.getKind())
         {
-            eat(">=");
-            Expression exp2 = parseExpression();
-            return new Condition(exp1, ">=", exp2);
+            case EQUAL:
+                op = "=";
+                break;
+            case NOT_EQUAL:
+                op = "<>";
+                break;
+            case LESS:
+                op = "<";
+                break;
+            case GREATER:
+                op = ">";
+                break;
+            case LESS_EQUAL:
+                op = "<=";
+                break;
+            default:
+                op = ">=";
+                break;
         }
-        
+        eat(TokenKind.forText(op));
+        Expression exp2 = parseExpression();
+        return new Condition(exp1, op, exp2);
     }
 
     /**
@@ -288,91 +288,88 @@ public class Parser
      */
     private Statement parseStatement()
     {
-        List<Statement> stmts = new ArrayList<Statement>();
-
-        if (curToken.equals("WRITELN"))
-        {
-            eat("WRITELN"); // eats the WRITELN
-            eat("("); // eats the (
-            Expression exp = parseExpression();
-            eat(")"); // eats the )
-            eat(";");  // eats the ;
-            return new Writeln(exp);
-        }
-        else if(curToken.equals("READLN"))
-        {
-            eat("READLN");
-            eat("(");
-            String variable = curToken;
-            eat(curToken);
-            eat(")");
-            eat(";");
-            return new Readln(variable);
-
-        }
-        else if(curToken.equals("BEGIN"))
+        switch (curToken.getKind())
         {
-            eat("BEGIN");
-            while (!curToken.equals("END"))
+            case WRITELN:
             {
-                stmts.add(parseStatement());
+                eat(TokenKind.WRITELN); // eats the WRITELN
+                eat(TokenKind.LEFT_PAREN); // eats the (
+                Expression exp = parseExpression();
+                eat(TokenKind.RIGHT_PAREN); // eats the )
+                eat(TokenKind.SEMICOLON);  // eats the ;
+                return new Writeln(exp);
             }
-            eat("END");
-            eat(";");
-            return new Block(stmts);
-        }
-
-        else if (curToken.equals("IF"))
-        {
-            eat("IF");
-            Condition cond = parseCondition();
-            eat("THEN");
-            Statement stmt1 = parseStatement();
-            Statement stmt2 = null;
-            if (curToken.equals("ELSE"))
+            case READLN:
             {
-                eat("ELSE");
-                stmt2 = parseStatement();
+                eat(TokenKind.READLN);
+                eat(TokenKind.LEFT_PAREN);
+                String variable = eatIdentifier();
+                eat(TokenKind.RIGHT_PAREN);
+                eat(TokenKind.SEMICOLON);
+                return new Readln(variable);
             }
-            return new If(cond, stmt1, stmt2);
-        }
-        else if (curToken.equals("WHILE"))
-        {
-            eat("WHILE");
-            Condition cond = parseCondition();
-            eat("DO");
-            Statement stmt = parseStatement();
-            return new While(cond, stmt);
-        }
-        else if (curToken.equals("FOR"))
-        {
-            eat("FOR");
+            case BEGIN:
+            {
+                List<Statement> stmts = new ArrayList<Statement>();
+                eat(TokenKind.BEGIN);
+                while (!curToken.is(TokenKind.END))
+                {
+                    stmts.add(parseStatement());
+                }
+                eat(TokenKind.END);
+                eat(TokenKind.SEMICOLON);
+                return new Block(stmts);
+            }
+            case IF:
+            {
+                eat(TokenKind.IF);
+                Condition cond = parseCondition();
+                eat(TokenKind.THEN);
+                Statement stmt1 = parseStatement();
+                Statement stmt2 = null;
+                if (curToken.is(TokenKind.ELSE))
+                {
+                    eat(TokenKind.ELSE);
+                    stmt2 = parseStatement();
+                }
+                return new If(cond, stmt1, stmt2);
+            }
+            case WHILE:
+            {
+                eat(TokenKind.WHILE);
+                Condition cond = parseCondition();
+                eat(TokenKind.DO);
+                Statement stmt = parseStatement();
+                return new While(cond, stmt);
+            }
+            case FOR:
+            {
+                eat(TokenKind.FOR);
 
-            String varName = curToken;
-            eat(varName);
-            eat(":=");
-            Expression exp = parseExpression();
-            Assignment assignment = new Assignment(varName, exp);
+                String varName = eatIdentifier();
+                eat(TokenKind.ASSIGN);
+                Expression exp = parseExpression();
+                Assignment assignment = new Assignment(varName, exp);
 
-            eat("TO");
+                eat(TokenKind.TO);
 
-            Expression endVal = parseExpression();
-            Range range = new Range(varName, endVal);
+                Expression endVal = parseExpression();
+                Range range = new Range(varName, endVal);
 
-            eat("DO");
+                eat(TokenKind.DO);
 
-            Statement stmt = parseStatement();
+                Statement stmt = parseStatement();
 
-            return new For(assignment, range, varName, stmt);
-        }
-        else
-        {
-            String varName = curToken;
-            eat(varName);
-            eat(":=");
-            Expression exp = parseExpression();
-            eat(";");
-            return new Assignment(varName, exp);
+                return new For(assignment, range, varName, stmt);
+            }
+            default:
+            {
+                String varName = eatIdentifier();
+                eat(TokenKind.ASSIGN);
+                Expression exp = parseExpression();
+                eat(TokenKind.SEMICOLON);
+                return new Assignment(varName, exp);
+            }
         }
     }
 
@@ -390,65 +387,54 @@ public class Parser
     public Program parseProgram()
     {
         List <String> vars = new ArrayList<String> ();
-        while (curToken.equals("VAR"))
+        while (curToken.is(TokenKind.VAR))
         {
-            eat("VAR");
-            String varName = curToken;
-            eat(varName);
-            vars.add(varName);
-            while (curToken.equals(","))
+            eat(TokenKind.VAR);
+            vars.add(eatIdentifier());
+            while (curToken.is(TokenKind.COMMA))
             {
-                eat(",");
-                varName = curToken;
-                eat(varName);
-                vars.add(varName);
+                eat(TokenKind.COMMA);
+                vars.add(eatIdentifier());
             }
-            if (curToken.equals(";"))
+            if (curToken.is(TokenKind.SEMICOLON))
             {
-                eat(";");
+                eat(TokenKind.SEMICOLON);
             }
         }
 
         List<ProcedureDeclaration> proDecs = new ArrayList<ProcedureDeclaration>();
-        while (curToken.equals("PROCEDURE"))
+        while (curToken.is(TokenKind.PROCEDURE))
         {
-            eat(curToken);
-            String procedureName = curToken;
-            eat(procedureName);
-            eat("(");
+            eat(TokenKind.PROCEDURE);
+            String procedureName = eatIdentifier();
+            eat(TokenKind.LEFT_PAREN);
             List<String> parms = new ArrayList<String>();
-            if (!curToken.equals(")"))
+            if (!curToken.is(TokenKind.RIGHT_PAREN))
             {
-                parms.add(curToken);
-                eat(curToken);
-                while (!curToken.equals(")"))
+                parms.add(eatIdentifier());
+                while (!curToken.is(TokenKind.RIGHT_PAREN))
                 {
-                    eat(",");
-                    parms.add(curToken);
-                    eat(curToken);
+                    eat(TokenKind.COMMA);
+                    parms.add(eatIdentifier());
                 }
             }
-            eat(")");
-            eat(";");
+            eat(TokenKind.RIGHT_PAREN);
+            eat(TokenKind.SEMICOLON);
 
             List <String> localVars = new ArrayList<String> ();
 
-            while (curToken.equals("VAR"))
+            while (curToken.is(TokenKind.VAR))
             {
-                eat("VAR");
-                String varName = curToken;
-                eat(varName);
-                localVars.add(varName);
-                while (curToken.equals(","))
+                eat(TokenKind.VAR);
+                localVars.add(eatIdentifier());
+                while (curToken.is(TokenKind.COMMA))
                 {
-                    eat(",");
-                    varName = curToken;
-                    eat(varName);
-                    localVars.add(varName);
+                    eat(TokenKind.COMMA);
+                    localVars.add(eatIdentifier());
                 }
-                if (curToken.equals(";"))
+                if (curToken.is(TokenKind.SEMICOLON))
                 {
-                    eat(";");
+                    eat(TokenKind.SEMICOLON);
                 }
             }
 
@@ -457,7 +443,7 @@ public class Parser
 
         List<Statement> stmts = new ArrayList<Statement>();
 
-        while (scanner.hasNext())
+        while (!curToken.is(TokenKind.EOF))
         {
             stmts.add(parseStatement());
         }
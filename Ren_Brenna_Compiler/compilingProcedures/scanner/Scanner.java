@@ -1,375 +1,737 @@
-package scanner;
-import java.io.*;
-
-/**
- * Scanner is a simple scanner for Compilers and Interpreters (2014-2015) lab exercise 1.
- * It breaks the input stream into lexemes consisting of numbers, identifiers, operands,
- * terminators, and separators.
- * @author  Brenna Ren
- * @version March 11, 2024
- *  
- * Usage:
- * Scanner s = new Scanner(<FileInputStream>);
- * boolean moreChars = s.hasNext();
- * String lexeme = s.nextToken();
- * boolean digit = s.isDigit(<currentChar>);
- * boolean letter = s.isLetter(<currentChar>);
- * boolean whitespace = s.isWhitespace(<currentChar>);
- * boolean operand = s.isOperand(<currentChar>);
- * boolean term = s.isTerminator(<currentChar>);
- * boolean sep = s.isSeparator(<currentChar>);
- */
-public class Scanner
-{
-    private BufferedReader in; // Reader for the input file
-    private char currentChar; // Current character to process
-    private boolean eof; // End of file flag
-
-    /**
-     * Scanner constructor for construction of a scanner that 
-     * uses an InputStream object for input.  
-     * Usage: 
-     * FileInputStream inStream = new FileInputStream(new File(<file name>);
-     * Scanner lex = new Scanner(inStream);
-     * @param inStream the input stream to use
-     */
-    public Scanner(InputStream inStream)
-    {
-        in = new BufferedReader(new InputStreamReader(inStream));
-        eof = false;
-        getNextChar();
-    }
-    /**
-     * Scanner constructor for constructing a scanner that 
-     * scans a given input string.  It sets the end-of-file flag an then reads
-     * the first character of the input string into the instance field currentChar.
-     * Usage: Scanner lex = new Scanner(input_string);
-     * @param inString the string to scan
-     */
-    public Scanner(String inString)
-    {
-        in = new BufferedReader(new StringReader(inString));
-        eof = false;
-        getNextChar();
-    }
-    
-    /**
-     * The getNextChar method attempts to get the next character from the input
-     * stream.  It sets the eof flag true if the end of file is reached on
-     * the input stream.  Otherwise, it reads the next character from the stream
-     * and converts it to a char object.
-     * @postcondition   The input stream is advanced one character if it is not at
-     *                  end of file and the currentChar instance field is set to the char
-     *                  representation of the character read from the input stream.  The flag
-     *                  eof is set true if the input stream is exhausted.
-     */
-    private void getNextChar()
-    {
-        try
-        {
-            int inp = in.read();
-            if(inp == -1) 
-                eof = true;
-            else 
-                currentChar = (char) inp;
-        }
-        catch (IOException e)
-        {
-            e.printStackTrace();
-            System.exit(-1);
-        }
-    }
-    /**
-     * "Eats" the currentChar by moving past it and retrieving the
-     * next character. It first compares if the parameter is equal
-     * to currentChar, and if so, it gets the next character.
-     * Otherwise, it throws a ScanErrorException() with
-     * additional information.
-     * @param expected              the character to "eat", it should be
-     *                              equal to currentChar
-     * @throws ScanErrorException   Expected character does not match current character.
-     */
-    private void eat(char expected) throws ScanErrorException
-    {
-        if (expected == currentChar)
-        {
-            getNextChar();
-        }
-        else
-        {
-            throw new ScanErrorException("Illegal character - expected" + expected 
-                + " and found " + currentChar);
-        }
-    }
-    /**
-     * Returns whether the input stream is at the end of file.
-     * @return      True if the input stream has more values to scan
-     *              False if the input stream is at end of file
-     */
-    public boolean hasNext()
-    {
-        return !eof;
-    }
-
-
-    /**
-     * Examines the value of currentToken and returns a String representing 
-     * the lexeme found (if any). This method skips over whitespaces and returns
-     * "EOF" if the input stream is at end-of-file when nextToken is called. It
-     * also skips over single line comments (//) and block comments ((* and *)).
-     * @return      a String representing the lexeme found. If at the end-of-file,
-     *              returns "EOF". 
-     * @throws ScanErrorException   No lexeme is recognized.
-     */
-    public String nextToken() throws ScanErrorException
-    {
-        try 
-        {
-            if (eof || currentChar == '.')
-            {
-                eof = true;
-                return "EOF";
-            }
-            else if (currentChar == '/') // removing comments
-            {
-                char tempChar = currentChar;
-                eat(currentChar);
-                if (currentChar == '/')
-                {
-                    while (!eof && !isTerminator(currentChar) && currentChar != '\n' 
-                            && currentChar != '\r')
-                    {
-                        eat(currentChar);
-                    }
-                    if (isTerminator(currentChar) || currentChar == '\n'  || currentChar == '\r')
-                    {
-                        eat(currentChar);
-                    }
-                    return nextToken();
-                }
-                else
-                {
-                    return "" + tempChar;
-                }
-            }
-            else if (currentChar == '(')
-            {
-                char tempChar = currentChar;
-                eat(currentChar);
-                if (currentChar == '*')
-                {
-                    while (!eof)
-                    {
-                        if (currentChar == '*')
-                        {
-                            eat(currentChar);
-                            if (currentChar == ')')
-                            {
-                                eat(currentChar);
-                                break;
-                            }
-                        }
-                        else
-                        { 
-                            eat(currentChar);
-                        }
-                    }
-                    return nextToken();
-                }
-                else
-                {
-                    return "" + tempChar;
-                }
-            }
-            else if (currentChar == ':' || currentChar == '<' || currentChar == '>')
-            {
-                char tempChar = currentChar;
-                eat(currentChar);
-                if (currentChar == '=' || (tempChar == '<' && currentChar == '>'))
-                {
-                    char tempChar2 = currentChar;
-                    eat(currentChar);
-                    return "" + tempChar + tempChar2;
-                }
-                else
-                {
-                    return "" + tempChar;
-                }
-            }
-            else if (isDigit(currentChar))
-            {
-                return scanNumber();
-            }
-            else if (isLetter(currentChar))
-            {
-                return scanIdentifier();
-            }
-            else if (isOperand(currentChar) || isTerminator(currentChar) 
-                    || isSeparator(currentChar))
-            {
-                return scanOperand();
-            }
-            else if (isWhiteSpace(currentChar))
-            {
-                eat(currentChar);
-                return nextToken();
-            }
-            else
-            {
-                throw new ScanErrorException("Unrecognized character.");
-            }
-        }
-        catch (ScanErrorException e)
-        {
-            eat(currentChar);
-            return e.getMessage();
-        }
-    }
-
-    /**
-     * Scans the lexeme and returns a String representing a number.
-     * A number lexeme is defined as one or more digits.
-     * @precondition                currentChar is a number
-     * @return                      String representing a number (the lexeme)
-     * @throws ScanErrorException   No lexeme recognized.
-     */
-    private String scanNumber() throws ScanErrorException
-    {   
-        char tempChar = currentChar;
-        eat(currentChar);
-
-        if (isWhiteSpace(currentChar) || isTerminator(currentChar) || isSeparator(currentChar))
-        {
-            return "" + tempChar;
-        }
-        else if (!isDigit(currentChar))
-        {
-            if (isOperand(currentChar) || currentChar == '<' || currentChar == '>')  
-            {
-                return "" + tempChar;
-            }
-            else
-            {
-                return "No lexeme recognized.";
-            }
-        }
-        return tempChar + scanNumber();
-    }
-
-    /**
-     * Scans the lexeme and returns a String representing an identifier.
-     * An identifier is defined as a letter followed by letters or digits.
-     * @precondition                currentChar is an identifier
-     * @return                      String representing an identifier (the lexeme)
-     * @throws ScanErrorException   No lexeme recognized.
-     */
-    private String scanIdentifier() throws ScanErrorException
-    {
-        char tempChar = currentChar;
-        eat(currentChar);
-
-        if (isWhiteSpace(currentChar) || isTerminator(currentChar) || isSeparator(currentChar))
-        {
-            return "" + tempChar;
-        }
-        else if (!isDigit(currentChar) && !isLetter(currentChar))
-        {
-            if (isOperand(currentChar) || currentChar == ':' || 
-                    currentChar == '<' || currentChar == '>')  
-            {
-                return "" + tempChar;
-            }
-            else
-            {
-                return "No lexeme recognized.";
-            }
-        }
-        return tempChar + scanIdentifier();
-    }
-    /**
-     * Scans the lexeme and returns a String representing an operand.
-     * An operand lexeme is defined as a singular operand.
-     * @precondition                currentChar is an operand
-     * @return                      String representing an operand (the lexeme)
-     * @throws ScanErrorException   No lexeme recognized.
-     */
-    private String scanOperand() throws ScanErrorException 
-    {
-        char tempChar = currentChar;
-        eat(currentChar);
-
-        return "" + tempChar;
-    }
-
-    /**
-     * Helper method that determines if the given character is a digit (0-9)
-     * @param checkChar     given character
-     * @return              true if the given character is a digit,
-     *                      false otherwise
-     */
-    public static boolean isDigit(char checkChar)
-    {
-        return checkChar >= '0' && checkChar <= '9';
-    }
-
-    /**
-     * Helper method that determines if the given character is a letter
-     * (a-z and A-Z)
-     * @param checkChar     given character
-     * @return              true if the given character is a letter,
-     *                      false otherwise
-     */
-    public static boolean isLetter(char checkChar)
-    {
-        return (checkChar >= 'A' && checkChar <= 'Z')
-            || (checkChar >= 'a' && checkChar <= 'z');
-    }
-
-    /**
-     * Helper method that determines if the given character is
-     * white space (' ', '\n', 't', '\r')
-     * @param checkChar     given character
-     * @return              true if the given character is white space
-     *                      false otherwise
-     */
-    public static boolean isWhiteSpace(char checkChar)
-    {
-        return checkChar == ' ' || checkChar == '\n' || checkChar == '\t' || checkChar == '\r';
-    }
-    
-    /**
-     * Helper method that determines if a given character is
-     * an operand ('=', '+', '-', '*', '/', '%', '(', ')')
-     * @param checkChar     given character
-     * @return              true if the given character is an operand
-     *                      false otherwise
-     */
-    public static boolean isOperand(char checkChar)
-    {
-        return checkChar == '=' || checkChar == '+' || checkChar == '-' || checkChar == '*' || 
-            checkChar == '/' || checkChar == '%' || checkChar == '(' || checkChar == ')';
-    }
-
-    /**
-     * Helper method that determines if a given character is a 
-     * terminator (period or semicolon).
-     * @param checkChar     given character
-     * @return              true if the given character is a terminator
-     *                      false otherwise
-     */
-    public static boolean isTerminator(char checkChar)
-    {
-        return checkChar == '.' || checkChar == ';';
-    }
-    /**
-     * Helper method that determines if a given character is a 
-     * separator (comma or colon).
-     * @param checkChar     given character
-     * @return              true if the given character is a separator
-     *                      false otherwise
-     */
-    public static boolean isSeparator(char checkChar)
-    {
-        return checkChar == ':' || checkChar == ',';
-    }
-}
+package scanner;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner is a simple scanner for Compilers and Interpreters (2014-2015) lab exercise 1.
+ * It breaks the input stream into lexemes consisting of numbers, identifiers, operands,
+ * terminators, and separators, and returns each one as a Token with its kind and the
+ * line and column where it begins. The Scanner never recurses: whitespace and comments
+ * are skipped in a loop, and each lexeme is collected in a reusable char buffer, so
+ * scanning takes time linear in the input no matter how long its lexemes or runs of
+ * whitespace are. The input is read in blocks into a char buffer rather than one
+ * character at a time. A Scanner made from a File maps the whole file into memory
+ * and fills the char buffer straight from its bytes: runs of ASCII bytes are widened
+ * to chars directly, and only the parts of the file that contain other bytes are
+ * decoded (as UTF-8) with a CharsetDecoder. An InputStream is decoded as UTF-8 as well,
+ * whatever the platform's default charset is, so both give the same Tokens for a file.
+ * @author  Brenna Ren
+ * @version March 11, 2024
+ *  
+ * Usage:
+ * Scanner s = new Scanner(<FileInputStream>);
+ * Scanner s = new Scanner(<File>);
+ * boolean moreChars = s.hasNext();
+ * Token token = s.nextToken();
+ * boolean digit = s.isDigit(<currentChar>);
+ * boolean letter = s.isLetter(<currentChar>);
+ * boolean whitespace = s.isWhitespace(<currentChar>);
+ * boolean operand = s.isOperand(<currentChar>);
+ * boolean term = s.isTerminator(<currentChar>);
+ * boolean sep = s.isSeparator(<currentChar>);
+ */
+public class Scanner
+{
+    private Reader in; // Reader for the input file (null if the file is mapped)
+    private ByteBuffer mapped; // Bytes of the memory-mapped input file (null if not mapped)
+    private CharsetDecoder decoder; // Decoder for the non-ASCII bytes of the mapped file
+    private char[] input; // Block of characters read from the input
+    private int inputPos; // Index of the next character in input
+    private int inputLimit; // Number of characters in input
+    private char currentChar; // Current character to process
+    private boolean eof; // End of file flag
+    private int line; // Line of currentChar (starting at 1)
+    private int column; // Column of currentChar (starting at 1)
+    private int tokenLine; // Line where the current lexeme begins
+    private int tokenColumn; // Column where the current lexeme begins
+    private char[] text; // Characters of the lexeme being scanned
+    private int textLength; // Number of characters in text
+    private String[] names; // Hash table of the interned lexemes (null for empty entries)
+    private TokenKind[] kinds; // Kind of the identifier in each entry of names
+    private int nameCount; // Number of lexemes in names
+
+    // Kind of each single-character operator, terminator, and separator, by character
+    private static final TokenKind[] SINGLE = new TokenKind[128];
+
+    static
+    {
+        for (TokenKind k : TokenKind.values())
+        {
+            if (k.getText() != null && k.getText().length() == 1)
+            {
+                SINGLE[k.getText().charAt(0)] = k;
+            }
+        }
+    }
+
+    /**
+     * Scanner constructor for construction of a scanner that 
+     * uses an InputStream object for input, which is decoded as UTF-8.  
+     * Usage: 
+     * FileInputStream inStream = new FileInputStream(new File(<file name>);
+     * Scanner lex = new Scanner(inStream);
+     * @param inStream the input stream to use
+     */
+    public Scanner(InputStream inStream)
+    {
+        this(new InputStreamReader(inStream, StandardCharsets.UTF_8), null);
+    }
+    /**
+     * Scanner constructor for constructing a scanner that maps the given file
+     * into memory and scans its bytes directly. The file must be smaller than 2GB.
+     * Usage: Scanner lex = new Scanner(new File(<file name>));
+     * @param inFile the file to scan
+     * @throws IOException the file cannot be opened or mapped
+     */
+    public Scanner(File inFile) throws IOException
+    {
+        this(null, map(inFile));
+    }
+    /**
+     * Scanner constructor for constructing a scanner that 
+     * scans a given input string.  It sets the end-of-file flag an then reads
+     * the first character of the input string into the instance field currentChar.
+     * Usage: Scanner lex = new Scanner(input_string);
+     * @param inString the string to scan
+     */
+    public Scanner(String inString)
+    {
+        this(new StringReader(inString), null);
+    }
+
+    /**
+     * Scanner constructor for constructing a scanner that reads from the given
+     * Reader or the given mapped bytes. It sets up the buffers and the table of
+     * interned lexemes (which starts with the keywords) and reads the first character.
+     * @param reader the Reader to scan (null if the bytes are given)
+     * @param bytes the bytes to scan (null if the Reader is given)
+     */
+    private Scanner(Reader reader, ByteBuffer bytes)
+    {
+        in = reader;
+        mapped = bytes;
+        decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        input = new char[1 << 16];
+        inputPos = 0;
+        inputLimit = 0;
+        eof = false;
+        line = 1;
+        column = 0;
+        text = new char[64];
+        textLength = 0;
+        names = new String[64];
+        kinds = new TokenKind[64];
+        nameCount = 0;
+        for (TokenKind k : TokenKind.values())
+        {
+            if (k.getText() != null && isLetter(k.getText().charAt(0)))
+            {
+                textLength = 0;
+                for (int i = 0; i < k.getText().length(); i++)
+                {
+                    append(k.getText().charAt(i));
+                }
+                intern(k);
+            }
+        }
+        textLength = 0;
+        getNextChar();
+    }
+    
+    /**
+     * The getNextChar method attempts to get the next character from the input
+     * stream.  It sets the eof flag true if the end of file is reached on
+     * the input stream.  Otherwise, it takes the next character from the block
+     * of input (reading the next block when it runs out). The line and column
+     * are advanced as well.
+     * @postcondition   The input stream is advanced one character if it is not at
+     *                  end of file and the currentChar instance field is set to the char
+     *                  representation of the character read from the input stream.  The flag
+     *                  eof is set true if the input stream is exhausted.
+     */
+    private void getNextChar()
+    {
+        if (inputPos == inputLimit && !fill())
+        {
+            eof = true;
+            return;
+        }
+        if (currentChar == '\n' && column > 0)
+        {
+            line++;
+            column = 1;
+        }
+        else
+        {
+            column++;
+        }
+        currentChar = input[inputPos++];
+    }
+
+    /**
+     * Maps the given file into memory.
+     * @param inFile        given file
+     * @return              the bytes of the file
+     * @throws IOException  the file cannot be opened or mapped
+     */
+    private static ByteBuffer map(File inFile) throws IOException
+    {
+        FileChannel channel = new FileInputStream(inFile).getChannel();
+        try
+        {
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+                throw new IOException("File too large to map: " + inFile);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the next block of characters from the input. For a mapped file, a run
+     * of ASCII bytes is copied directly, and otherwise the bytes are decoded.
+     * @return          true if any characters were read, false at end of file
+     */
+    private boolean fill()
+    {
+        if (mapped != null)
+        {
+            if (!mapped.hasRemaining())
+            {
+                return false;
+            }
+            int count = 0;
+            int pos = mapped.position();
+            if (mapped.get(pos) >= 0)
+            {
+                int end = Math.min(mapped.limit(), pos + input.length);
+                byte b;
+                while (pos < end && (b = mapped.get(pos)) >= 0)
+                {
+                    input[count++] = (char) b;
+                    pos++;
+                }
+                mapped.position(pos);
+            }
+            else
+            {
+                CharBuffer chars = CharBuffer.wrap(input);
+                decoder.decode(mapped, chars, true);
+                count = chars.position();
+            }
+            inputPos = 0;
+            inputLimit = count;
+            return count > 0;
+        }
+        try
+        {
+            int count = in.read(input, 0, input.length);
+            while (count == 0)
+            {
+                count = in.read(input, 0, input.length);
+            }
+            inputPos = 0;
+            inputLimit = Math.max(count, 0);
+            return count > 0;
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            System.exit(-1);
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether the input stream is at the end of file.
+     * @return      True if the input stream has more values to scan
+     *              False if the input stream is at end of file
+     */
+    public boolean hasNext()
+    {
+        return !eof;
+    }
+
+    /**
+     * Appends the given character to the lexeme being scanned, growing the
+     * buffer if it is full.
+     * @param c         given character
+     */
+    private void append(char c)
+    {
+        if (textLength == text.length)
+        {
+            char[] bigger = new char[text.length * 2];
+            System.arraycopy(text, 0, bigger, 0, textLength);
+            text = bigger;
+        }
+        text[textLength++] = c;
+    }
+
+    /**
+     * Returns the index of the interned String with the characters of the lexeme
+     * being scanned.
+     * @param kind      given kind to record for a new lexeme
+     * @return          index of the lexeme in names and kinds
+     */
+    private int intern(TokenKind kind)
+    {
+        return intern(text, 0, textLength, kind);
+    }
+
+    /**
+     * Returns the index of the interned String with the given characters. A String
+     * is only created the first time a lexeme is seen. The first time, the lexeme is
+     * recorded with the given kind.
+     * @param chars     given array that holds the lexeme
+     * @param offset    given index of the first character of the lexeme
+     * @param length    given number of characters in the lexeme
+     * @param kind      given kind to record for a new lexeme
+     * @return          index of the lexeme in names and kinds
+     */
+    private int intern(char[] chars, int offset, int length, TokenKind kind)
+    {
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + chars[offset + i];
+        }
+        int mask = names.length - 1;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        while (names[index] != null)
+        {
+            String name = names[index];
+            if (name.length() == length)
+            {
+                int i = 0;
+                while (i < length && name.charAt(i) == chars[offset + i])
+                {
+                    i++;
+                }
+                if (i == length)
+                {
+                    return index;
+                }
+            }
+            index = (index + 1) & mask;
+        }
+        names[index] = new String(chars, offset, length);
+        kinds[index] = kind;
+        nameCount++;
+        if (2 * nameCount > names.length)
+        {
+            String name = names[index];
+            rehash();
+            return indexOf(name);
+        }
+        return index;
+    }
+
+    /**
+     * Doubles the size of the table of interned lexemes.
+     */
+    private void rehash()
+    {
+        String[] oldNames = names;
+        TokenKind[] oldKinds = kinds;
+        names = new String[oldNames.length * 2];
+        kinds = new TokenKind[oldNames.length * 2];
+        int mask = names.length - 1;
+        for (int i = 0; i < oldNames.length; i++)
+        {
+            if (oldNames[i] != null)
+            {
+                int hash = oldNames[i].hashCode();
+                int index = (hash ^ (hash >>> 16)) & mask;
+                while (names[index] != null)
+                {
+                    index = (index + 1) & mask;
+                }
+                names[index] = oldNames[i];
+                kinds[index] = oldKinds[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the given interned lexeme in names.
+     * @param name      given lexeme, which must be in the table
+     * @return          index of the lexeme in names and kinds
+     */
+    private int indexOf(String name)
+    {
+        int hash = name.hashCode();
+        int mask = names.length - 1;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        while (!names[index].equals(name))
+        {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Returns a Token with the given kind, lexeme, and value that begins where the
+     * current lexeme began.
+     * @param kind      given kind of the Token
+     * @param lexeme    given text of the Token
+     * @param value     given value of a number Token (0 otherwise)
+     * @return          the new Token
+     */
+    private Token token(TokenKind kind, String lexeme, int value)
+    {
+        return new Token(kind, lexeme, value, tokenLine, tokenColumn);
+    }
+
+    /**
+     * Returns a Token with the given kind of operator or punctuation, after eating
+     * its last character.
+     * @param kind      given kind of the Token
+     * @return          the new Token
+     */
+    private Token punctuation(TokenKind kind)
+    {
+        getNextChar();
+        return token(kind, kind.getText(), 0);
+    }
+
+    /**
+     * Returns an error Token with the given message, after eating the character
+     * that caused the error.
+     * @param message   given error message
+     * @return          the new error Token
+     */
+    private Token error(String message)
+    {
+        getNextChar();
+        return token(TokenKind.ERROR, message, 0);
+    }
+
+    /**
+     * Examines the value of currentToken and returns a Token representing 
+     * the lexeme found (if any). This method skips over whitespaces and returns
+     * an EOF Token if the input stream is at end-of-file when nextToken is called. It
+     * also skips over single line comments (//) and block comments ((* and *)).
+     * If no lexeme is recognized, an ERROR Token with the error message is returned.
+     * @return      a Token representing the lexeme found. If at the end-of-file,
+     *              returns an EOF Token. 
+     * @throws ScanErrorException   No lexeme is recognized.
+     */
+    public Token nextToken() throws ScanErrorException
+    {
+        while (true)
+        {
+            tokenLine = line;
+            tokenColumn = column;
+            if (eof || currentChar == '.')
+            {
+                eof = true;
+                return token(TokenKind.EOF, TokenKind.EOF.getText(), 0);
+            }
+            else if (isWhiteSpace(currentChar))
+            {
+                getNextChar();
+            }
+            else if (currentChar == '/') // removing comments
+            {
+                getNextChar();
+                if (eof || currentChar != '/')
+                {
+                    return token(TokenKind.DIVIDE, TokenKind.DIVIDE.getText(), 0);
+                }
+                while (!eof && !isTerminator(currentChar) && currentChar != '\n' 
+                        && currentChar != '\r')
+                {
+                    getNextChar();
+                }
+                if (!eof)
+                {
+                    getNextChar();
+                }
+            }
+            else if (currentChar == '(')
+            {
+                getNextChar();
+                if (eof || currentChar != '*')
+                {
+                    return token(TokenKind.LEFT_PAREN, TokenKind.LEFT_PAREN.getText(), 0);
+                }
+                boolean star = false;
+                while (!eof && !(star && currentChar == ')'))
+                {
+                    star = currentChar == '*';
+                    getNextChar();
+                }
+                if (!eof)
+                {
+                    getNextChar();
+                }
+            }
+            else if (currentChar == ':')
+            {
+                getNextChar();
+                if (!eof && currentChar == '=')
+                {
+                    return punctuation(TokenKind.ASSIGN);
+                }
+                return token(TokenKind.COLON, TokenKind.COLON.getText(), 0);
+            }
+            else if (currentChar == '<')
+            {
+                getNextChar();
+                if (!eof && currentChar == '=')
+                {
+                    return punctuation(TokenKind.LESS_EQUAL);
+                }
+                if (!eof && currentChar == '>')
+                {
+                    return punctuation(TokenKind.NOT_EQUAL);
+                }
+                return token(TokenKind.LESS, TokenKind.LESS.getText(), 0);
+            }
+            else if (currentChar == '>')
+            {
+                getNextChar();
+                if (!eof && currentChar == '=')
+                {
+                    return punctuation(TokenKind.GREATER_EQUAL);
+                }
+                return token(TokenKind.GREATER, TokenKind.GREATER.getText(), 0);
+            }
+            else if (isDigit(currentChar))
+            {
+                return scanNumber();
+            }
+            else if (isLetter(currentChar))
+            {
+                return scanIdentifier();
+            }
+            else if (isOperand(currentChar) || isTerminator(currentChar) 
+                    || isSeparator(currentChar))
+            {
+                return scanOperand();
+            }
+            else
+            {
+                return error("Unrecognized character.");
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given character may follow a number or identifier, which
+     * means that it is whitespace, a terminator, a separator, an operand, '<', or '>'.
+     * @param c         given character
+     * @return          true if the character may end a number or identifier
+     */
+    private static boolean canFollow(char c)
+    {
+        return isWhiteSpace(c) || isTerminator(c) || isSeparator(c) || isOperand(c)
+            || c == '<' || c == '>';
+    }
+
+    /**
+     * Moves past the characters before the given index of the block of input, none of
+     * which may be a newline, and makes the character at that index the currentChar.
+     * @param end       given index in the block of input (less than inputLimit)
+     */
+    private void skipTo(int end)
+    {
+        column += end - (inputPos - 1);
+        currentChar = input[end];
+        inputPos = end + 1;
+    }
+
+    /**
+     * Scans the lexeme and returns a Token representing a number.
+     * A number lexeme is defined as one or more digits, and must be followed by
+     * whitespace, a terminator, a separator, an operand, '<', or '>'. The value is
+     * computed while scanning, and when the whole lexeme is in the current block of
+     * input, it is read straight from the block. Number lexemes are not interned,
+     * since a generated program may contain millions of distinct numbers.
+     * @precondition                currentChar is a number
+     * @return                      Token representing a number (the lexeme), or an
+     *                              error Token if no lexeme is recognized
+     */
+    private Token scanNumber()
+    {   
+        long value = 0;
+        int start = inputPos - 1;
+        int end = start;
+        while (end < inputLimit && isDigit(input[end]))
+        {
+            value = Math.min(10 * value + (input[end] - '0'), (long) Integer.MAX_VALUE + 1);
+            end++;
+        }
+        String lexeme;
+        if (end < inputLimit)
+        {
+            skipTo(end);
+            if (!canFollow(currentChar))
+            {
+                return error("No lexeme recognized.");
+            }
+            lexeme = new String(input, start, end - start);
+        }
+        else
+        {
+            textLength = 0;
+            value = 0;
+            while (!eof && isDigit(currentChar))
+            {
+                append(currentChar);
+                value = Math.min(10 * value + (currentChar - '0'), (long) Integer.MAX_VALUE + 1);
+                getNextChar();
+            }
+            if (!eof && !canFollow(currentChar))
+            {
+                return error("No lexeme recognized.");
+            }
+            lexeme = new String(text, 0, textLength);
+        }
+        if (value > Integer.MAX_VALUE)
+        {
+            return token(TokenKind.ERROR, "Number too large.", 0);
+        }
+        return token(TokenKind.NUMBER, lexeme, (int) value);
+    }
+
+    /**
+     * Scans the lexeme and returns a Token representing an identifier or keyword.
+     * An identifier is defined as a letter followed by letters or digits, and must be
+     * followed by whitespace, a terminator, a separator, an operand, '<', or '>'.
+     * When the whole lexeme is in the current block of input, it is interned
+     * straight from the block.
+     * @precondition                currentChar is an identifier
+     * @return                      Token representing an identifier (the lexeme), or an
+     *                              error Token if no lexeme is recognized
+     */
+    private Token scanIdentifier()
+    {
+        int start = inputPos - 1;
+        int end = start;
+        while (end < inputLimit && (isLetter(input[end]) || isDigit(input[end])))
+        {
+            end++;
+        }
+        int index;
+        if (end < inputLimit)
+        {
+            skipTo(end);
+            if (!canFollow(currentChar))
+            {
+                return error("No lexeme recognized.");
+            }
+            index = intern(input, start, end - start, TokenKind.IDENTIFIER);
+        }
+        else
+        {
+            textLength = 0;
+            while (!eof && (isLetter(currentChar) || isDigit(currentChar)))
+            {
+                append(currentChar);
+                getNextChar();
+            }
+            if (!eof && !canFollow(currentChar))
+            {
+                return error("No lexeme recognized.");
+            }
+            index = intern(TokenKind.IDENTIFIER);
+        }
+        return token(kinds[index], names[index], 0);
+    }
+
+    /**
+     * Scans the lexeme and returns a Token representing an operand.
+     * An operand lexeme is defined as a singular operand.
+     * @precondition                currentChar is an operand, terminator, or separator
+     * @return                      Token representing an operand (the lexeme)
+     */
+    private Token scanOperand() 
+    {
+        return punctuation(SINGLE[currentChar]);
+    }
+
+    /**
+     * Helper method that determines if the given character is a digit (0-9)
+     * @param checkChar     given character
+     * @return              true if the given character is a digit,
+     *                      false otherwise
+     */
+    public static boolean isDigit(char checkChar)
+    {
+        return checkChar >= '0' && checkChar <= '9';
+    }
+
+    /**
+     * Helper method that determines if the given character is a letter
+     * (a-z and A-Z)
+     * @param checkChar     given character
+     * @return              true if the given character is a letter,
+     *                      false otherwise
+     */
+    public static boolean isLetter(char checkChar)
+    {
+        return (checkChar >= 'A' && checkChar <= 'Z')
+            || (checkChar >= 'a' && checkChar <= 'z');
+    }
+
+    /**
+     * Helper method that determines if the given character is
+     * white space (' ', '\n', 't', '\r')
+     * @param checkChar     given character
+     * @return              true if the given character is white space
+     *                      false otherwise
+     */
+    public static boolean isWhiteSpace(char checkChar)
+    {
+        return checkChar == ' ' || checkChar == '\n' || checkChar == '\t' || checkChar == '\r';
+    }
+    
+    /**
+     * Helper method that determines if a given character is
+     * an operand ('=', '+', '-', '*', '/', '%', '(', ')')
+     * @param checkChar     given character
+     * @return              true if the given character is an operand
+     *                      false otherwise
+     */
+    public static boolean isOperand(char checkChar)
+    {
+        return checkChar == '=' || checkChar == '+' || checkChar == '-' || checkChar == '*' || 
+            checkChar == '/' || checkChar == '%' || checkChar == '(' || checkChar == ')';
+    }
+
+    /**
+     * Helper method that determines if a given character is a 
+     * terminator (period or semicolon).
+     * @param checkChar     given character
+     * @return              true if the given character is a terminator
+     *                      false otherwise
+     */
+    public static boolean isTerminator(char checkChar)
+    {
+        return checkChar == '.' || checkChar == ';';
+    }
+    /**
+     * Helper method that determines if a given character is a 
+     * separator (comma or colon).
+     * @param checkChar     given character
+     * @return              true if the given character is a separator
+     *                      false otherwise
+     */
+    public static boolean isSeparator(char checkChar)
+    {
+        return checkChar == ':' || checkChar == ',';
+    }
+}
@@ -0,0 +1,121 @@
+package scanner;
+
+/**
+ * Token class that represents one lexeme produced by the Scanner. Each Token has a
+ * TokenKind, so the Parser can switch on the kind instead of comparing Strings. Number
+ * Tokens carry their value, already parsed. The lexeme of an identifier or keyword is
+ * interned by the Scanner that produced it, so equal names from the same Scanner are
+ * the same String.
+ * Error Tokens have the error message as their lexeme. The line and column (both
+ * starting at 1) are where the lexeme begins in the input.
+ *
+ * Usage:
+ * Token t = new Token(TokenKind.NUMBER, "42", 42, <line>, <column>);
+ * TokenKind k = t.getKind();
+ * boolean b = t.is(TokenKind.NUMBER);
+ * String lexeme = t.getLexeme();
+ * int value = t.getValue();
+ * int line = t.getLine();
+ * int column = t.getColumn();
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public class Token
+{
+    // Kind of the Token
+    private TokenKind kind;
+
+    // Text of the Token as it appears in the input (or the error message)
+    private String lexeme;
+
+    // Value of a number Token (0 for other Tokens)
+    private int value;
+
+    // Line that the Token begins on
+    private int line;
+
+    // Column that the Token begins on
+    private int column;
+
+    /**
+     * Creates a new Token with the given kind, lexeme, value, and position.
+     * @param kind          given kind of the Token
+     * @param lexeme        given text of the Token
+     * @param value         given value of a number Token (0 otherwise)
+     * @param line          given line that the Token begins on
+     * @param column        given column that the Token begins on
+     */
+    public Token(TokenKind kind, String lexeme, int value, int line, int column)
+    {
+        this.kind = kind;
+        this.lexeme = lexeme;
+        this.value = value;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Returns the kind of the Token.
+     * @return              the TokenKind of the Token
+     */
+    public TokenKind getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * Returns whether the Token is of the given kind.
+     * @param k             given TokenKind
+     * @return              true if the Token is of that kind, false otherwise
+     */
+    public boolean is(TokenKind k)
+    {
+        return kind == k;
+    }
+
+    /**
+     * Returns the text of the Token.
+     * @return              the lexeme (or the error message of an error Token)
+     */
+    public String getLexeme()
+    {
+        return lexeme;
+    }
+
+    /**
+     * Returns the value of a number Token.
+     * @return              the value of the number (0 for other Tokens)
+     */
+    public int getValue()
+    {
+        return value;
+    }
+
+    /**
+     * Returns the line that the Token begins on.
+     * @return              the line number (starting at 1)
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Returns the column that the Token begins on.
+     * @return              the column number (starting at 1)
+     */
+    public int getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * Returns the lexeme of the Token.
+     * @return              the lexeme
+     */
+    public String toString()
+    {
+        return lexeme;
+    }
+}
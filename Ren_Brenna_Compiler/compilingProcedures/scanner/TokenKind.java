@@ -0,0 +1,114 @@
+package scanner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TokenKind enum that lists every kind of Token that the Scanner produces. Keywords,
+ * operators, and punctuation have a fixed text; numbers, identifiers, the end of the
+ * file, and scanning errors do not. Keywords are case sensitive, so "BEGIN" is a keyword
+ * and "begin" is an identifier.
+ *
+ * Usage:
+ * TokenKind k = TokenKind.ASSIGN;
+ * String text = k.getText();
+ * TokenKind k = TokenKind.forText(":=");
+ *
+ * @author  Brenna Ren
+ * @version October 18, 2026
+ */
+public enum TokenKind
+{
+    NUMBER(null),
+    IDENTIFIER(null),
+
+    VAR("VAR"),
+    PROCEDURE("PROCEDURE"),
+    BEGIN("BEGIN"),
+    END("END"),
+    WRITELN("WRITELN"),
+    READLN("READLN"),
+    IF("IF"),
+    THEN("THEN"),
+    ELSE("ELSE"),
+    WHILE("WHILE"),
+    DO("DO"),
+    FOR("FOR"),
+    TO("TO"),
+    MOD("mod"),
+
+    PLUS("+"),
+    MINUS("-"),
+    TIMES("*"),
+    DIVIDE("/"),
+    PERCENT("%"),
+    EQUAL("="),
+    NOT_EQUAL("<>"),
+    LESS("<"),
+    GREATER(">"),
+    LESS_EQUAL("<="),
+    GREATER_EQUAL(">="),
+    ASSIGN(":="),
+    COLON(":"),
+    COMMA(","),
+    SEMICOLON(";"),
+    LEFT_PAREN("("),
+    RIGHT_PAREN(")"),
+
+    EOF("EOF"),
+    ERROR(null);
+
+    // Map from the text of each keyword, operator, and punctuation to its kind
+    private static final Map<String, TokenKind> BY_TEXT = new HashMap<String, TokenKind>();
+
+    static
+    {
+        for (TokenKind k : values())
+        {
+            if (k.text != null && k != EOF)
+            {
+                BY_TEXT.put(k.text, k);
+            }
+        }
+    }
+
+    // Fixed text of the kind (null if tokens of this kind have no fixed text)
+    private final String text;
+
+    /**
+     * Creates a new TokenKind with the given fixed text.
+     * @param text          given text, or null if there is none
+     */
+    TokenKind(String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Returns the fixed text of this kind.
+     * @return              the text, or null for numbers, identifiers, and errors
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Returns the kind of keyword, operator, or punctuation with the given text.
+     * @param text          given lexeme
+     * @return              the kind with that text, or null if there is none
+     */
+    public static TokenKind forText(String text)
+    {
+        return BY_TEXT.get(text);
+    }
+
+    /**
+     * Returns the fixed text of this kind, or its name if it has none.
+     * @return              String describing the kind
+     */
+    public String toString()
+    {
+        return text != null ? text : name();
+    }
+}